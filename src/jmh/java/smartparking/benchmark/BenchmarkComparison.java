@@ -0,0 +1,98 @@
+package smartparking.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result file with a baseline one, and prints the relative change of every benchmark.
+ * <p>
+ * A change worse than the threshold is flagged as a regression. When the baseline file does not exist yet, the
+ * result file is copied to it, so the first run records the baseline.
+ * <p>
+ * Usage: {@code BenchmarkComparison <baseline.json> <result.json> <threshold>}.
+ */
+public final class BenchmarkComparison {
+
+    private BenchmarkComparison() {}
+
+    public static void main(String[] args) throws IOException {
+        Path baselinePath = Paths.get(args[0]);
+        Path resultPath = Paths.get(args[1]);
+        double threshold = Double.parseDouble(args[2]);
+
+        if (!Files.exists(resultPath)) {
+            System.out.println("No benchmark result at " + resultPath);
+            return;
+        }
+        if (!Files.exists(baselinePath)) {
+            Files.createDirectories(baselinePath.getParent());
+            Files.copy(resultPath, baselinePath);
+            System.out.println("Recorded benchmark baseline at " + baselinePath);
+            return;
+        }
+
+        Map<String, JsonNode> baseline = read(baselinePath);
+        Map<String, JsonNode> result = read(resultPath);
+        int regressions = 0;
+        System.out.println(String.format("%-90s %14s %14s %9s", "Benchmark", "Baseline", "Result", "Change"));
+        for (Map.Entry<String, JsonNode> entry : result.entrySet()) {
+            JsonNode metric = entry.getValue().get("primaryMetric");
+            double score = metric.get("score").asDouble();
+            String unit = metric.get("scoreUnit").asText();
+            JsonNode baselineRun = baseline.get(entry.getKey());
+            if (baselineRun == null) {
+                System.out.println(String.format("%-90s %14s %14.3f %9s  %s", entry.getKey(), "-", score, "new", unit));
+                continue;
+            }
+            double baselineScore = baselineRun.get("primaryMetric").get("score").asDouble();
+            double change = (score - baselineScore) / baselineScore;
+            // Throughput modes are better when higher, time modes when lower
+            boolean higherIsBetter = "thrpt".equals(entry.getValue().get("mode").asText());
+            boolean regression = higherIsBetter ? change < -threshold : change > threshold;
+            if (regression) {
+                regressions++;
+            }
+            System.out.println(
+                String.format(
+                    "%-90s %14.3f %14.3f %+8.1f%%  %s%s",
+                    entry.getKey(),
+                    baselineScore,
+                    score,
+                    change * 100,
+                    unit,
+                    regression ? "  REGRESSION" : ""
+                )
+            );
+        }
+        System.out.println(
+            String.format("%d regression(s) over %.0f%% against %s", regressions, threshold * 100, baselinePath.getFileName())
+        );
+    }
+
+    /**
+     * @return the runs of a JMH JSON result file, by benchmark name and parameters.
+     */
+    private static Map<String, JsonNode> read(Path path) throws IOException {
+        Map<String, JsonNode> runs = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(path.toFile())) {
+            StringBuilder key = new StringBuilder(run.get("benchmark").asText().replace("smartparking.benchmark.", ""));
+            JsonNode params = run.get("params");
+            if (params != null) {
+                Map<String, String> sortedParams = new TreeMap<>();
+                Iterator<Map.Entry<String, JsonNode>> fields = params.fields();
+                fields.forEachRemaining(field -> sortedParams.put(field.getKey(), field.getValue().asText()));
+                sortedParams.forEach((name, value) -> key.append(' ').append(name).append('=').append(value));
+            }
+            runs.put(key.toString(), run);
+        }
+        return runs;
+    }
+}
@@ -0,0 +1,63 @@
+package smartparking.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+
+/**
+ * Benchmarks the Jackson serialization of a {@link CarPark} with its nested parking spots and opening hours, as
+ * returned by {@code GET /api/car-parks/:id}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class CarParkSerializationBenchmark {
+
+    @Param({ "10", "100" })
+    private int parkingSpots;
+
+    private ObjectMapper objectMapper;
+
+    private CarPark carPark;
+
+    @Setup
+    public void setup() {
+        // Same modules as smartparking.config.JacksonConfiguration
+        objectMapper =
+            Jackson2ObjectMapperBuilder
+                .json()
+                .modules(new JavaTimeModule(), new Jdk8Module(), new Hibernate5Module())
+                .build();
+
+        carPark =
+            new CarPark()
+                .id(1L)
+                .name("Centralgaraget")
+                .owner("Stockholm Parkering")
+                .address(new Address().id(1L).streetAddress("Kungsgatan 1").postalCode("111 43").city("Stockholm"));
+        for (long i = 0; i < parkingSpots; i++) {
+            carPark.addParkingSpot(new ParkingSpot().id(i).available(i % 3 != 0).accessableParking(i % 10 == 0).floor(i / 50));
+        }
+        carPark.addOpenHours(new OpenHours().id(1L).weekday("Monday-Friday").openingHour("07:00").closingHour("22:00"));
+        carPark.addOpenHours(new OpenHours().id(2L).weekday("Saturday-Sunday").openingHour("00:00").closingHour("23:59"));
+        carPark.addOpenHours(new OpenHours().id(3L).date(LocalDate.of(2026, 12, 24)).openingHour("10:00").closingHour("14:00"));
+    }
+
+    @Benchmark
+    public byte[] serialize() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(carPark);
+    }
+}
@@ -0,0 +1,196 @@
+package smartparking.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.repository.SearchOutboxRepository;
+import smartparking.service.ClusterCacheInvalidator;
+import smartparking.service.ParkingSpotAvailabilityService;
+import smartparking.service.ParkingSpotEventLog;
+import smartparking.service.ParkingSpotOccupancyIndex;
+import smartparking.service.SearchOutboxService;
+import smartparking.service.dto.AvailabilityIngestionResultDTO;
+import smartparking.service.dto.ParkingSpotAvailabilityEventDTO;
+
+/**
+ * Benchmarks applying a batch of sensor events to {@link ParkingSpot}s against an embedded H2 database, through
+ * {@link ParkingSpotAvailabilityService} and, for comparison, by saving each entity through its repository. Both
+ * queue the search documents and update the occupancy index, as the REST endpoints do.
+ * <p>
+ * The services are wired by hand on a bare JPA setup, so that no Spring context nor Elasticsearch is needed.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class ParkingSpotAvailabilityBenchmark {
+
+    private static final int PARKING_SPOTS = 2000;
+
+    @Param({ "100", "1000" })
+    private int batchSize;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ParkingSpotRepository parkingSpotRepository;
+
+    private SearchOutboxRepository searchOutboxRepository;
+
+    private SearchOutboxService searchOutboxService;
+
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private ParkingSpotAvailabilityService parkingSpotAvailabilityService;
+
+    private final List<Long> spotIds = new ArrayList<>();
+
+    private List<ParkingSpotAvailabilityEventDTO> events;
+
+    private long clock = Instant.parse("2026-01-01T00:00:00Z").toEpochMilli();
+
+    private int offset;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:benchmark;DB_CLOSE_DELAY=-1");
+
+        Map<String, Object> jpaProperties = new HashMap<>();
+        jpaProperties.put("hibernate.hbm2ddl.auto", "create-drop");
+        jpaProperties.put("hibernate.cache.use_second_level_cache", "false");
+        jpaProperties.put("hibernate.jdbc.batch_size", "25");
+        jpaProperties.put("hibernate.physical_naming_strategy", SpringPhysicalNamingStrategy.class.getName());
+        jpaProperties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("smartparking.domain");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(jpaProperties);
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        JpaTransactionManager transactionManager = new JpaTransactionManager(entityManagerFactory);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        JpaRepositoryFactory repositoryFactory = new JpaRepositoryFactory(entityManager);
+        parkingSpotRepository = repositoryFactory.getRepository(ParkingSpotRepository.class);
+        searchOutboxRepository = repositoryFactory.getRepository(SearchOutboxRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        // Only written through JDBC, so missing from the entity mapping the schema is created from
+        jdbcTemplate.execute("alter table parking_spot add column reserved_by varchar(50)");
+        searchOutboxService = new SearchOutboxService(searchOutboxRepository);
+        parkingSpotOccupancyIndex =
+            new ParkingSpotOccupancyIndex(
+                parkingSpotRepository,
+                event -> {},
+                new ParkingSpotEventLog(applicationProperties),
+                applicationProperties
+            );
+        parkingSpotAvailabilityService =
+            new ParkingSpotAvailabilityService(
+                applicationProperties,
+                jdbcTemplate,
+                entityManagerFactory,
+                parkingSpotRepository,
+                searchOutboxService,
+                parkingSpotOccupancyIndex,
+                // Disabled by default, as on a single node
+                new ClusterCacheInvalidator(
+                    applicationProperties,
+                    entityManagerFactory,
+                    new NoOpCacheManager(),
+                    jdbcTemplate,
+                    transactionManager,
+                    event -> {},
+                    new SimpleMeterRegistry()
+                )
+            );
+
+        transactionTemplate.executeWithoutResult(
+            status -> {
+                CarPark carPark = new CarPark().name("Benchmark");
+                entityManager.persist(carPark);
+                for (int i = 0; i < PARKING_SPOTS; i++) {
+                    ParkingSpot parkingSpot = new ParkingSpot().available(true).accessableParking(false).carPark(carPark);
+                    entityManager.persist(parkingSpot);
+                    spotIds.add(parkingSpot.getId());
+                }
+            }
+        );
+    }
+
+    /**
+     * Builds the next batch of events: newer than the previous ones, flipping the state of the next spots.
+     */
+    @Setup(Level.Invocation)
+    public void nextEvents() {
+        Instant timestamp = Instant.ofEpochMilli(++clock);
+        events = new ArrayList<>(batchSize);
+        for (int i = 0; i < batchSize; i++) {
+            int spot = (offset + i) % PARKING_SPOTS;
+            events.add(new ParkingSpotAvailabilityEventDTO(spotIds.get(spot), (clock & 1) == 0, timestamp));
+        }
+        offset = (offset + batchSize) % PARKING_SPOTS;
+    }
+
+    @TearDown(Level.Iteration)
+    public void clearOutbox() {
+        transactionTemplate.executeWithoutResult(status -> searchOutboxRepository.deleteAllInBatch());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactoryBean.destroy();
+    }
+
+    @Benchmark
+    public AvailabilityIngestionResultDTO ingest() {
+        return transactionTemplate.execute(status -> parkingSpotAvailabilityService.ingest(events));
+    }
+
+    @Benchmark
+    public List<ParkingSpot> saveEachEntity() {
+        return transactionTemplate.execute(
+            status -> {
+                List<ParkingSpot> saved = new ArrayList<>(events.size());
+                for (ParkingSpotAvailabilityEventDTO event : events) {
+                    ParkingSpot parkingSpot = parkingSpotRepository.findById(event.getSpotId()).orElseThrow(IllegalStateException::new);
+                    parkingSpot.setAvailable(event.getAvailable());
+                    ParkingSpot result = parkingSpotRepository.save(parkingSpot);
+                    searchOutboxService.index(SearchDocumentType.PARKING_SPOT, result.getId());
+                    parkingSpotOccupancyIndex.update(result);
+                    saved.add(result);
+                }
+                return saved;
+            }
+        );
+    }
+}
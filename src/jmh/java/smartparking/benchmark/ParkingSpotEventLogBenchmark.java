@@ -0,0 +1,69 @@
+package smartparking.benchmark;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.openjdk.jmh.annotations.*;
+import smartparking.config.ApplicationProperties;
+import smartparking.service.ParkingSpotEventLog;
+import smartparking.service.ParkingSpotOccupancyIndex;
+
+/**
+ * Benchmarks rebuilding the {@link ParkingSpotOccupancyIndex} at startup by replaying the {@link ParkingSpotEventLog},
+ * which holds the given number of changes of {@value #PARKING_SPOTS} spots and no snapshot.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class ParkingSpotEventLogBenchmark {
+
+    private static final int PARKING_SPOTS = 10000;
+
+    private static final int SPOTS_PER_CAR_PARK = 100;
+
+    @Param({ "100000", "1000000" })
+    private int records;
+
+    private Path directory;
+
+    private ApplicationProperties applicationProperties;
+
+    private ParkingSpotEventLog parkingSpotEventLog;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("occupancy-log-benchmark");
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getOccupancyLog().setEnabled(true);
+        applicationProperties.getOccupancyLog().setDirectory(directory.toString());
+        parkingSpotEventLog = new ParkingSpotEventLog(applicationProperties);
+        parkingSpotEventLog.recover((spotId, carParkId, floor, available, accessible) -> {});
+        for (int i = 0; i < records; i++) {
+            long spotId = 1 + i % PARKING_SPOTS;
+            parkingSpotEventLog.append(spotId, spotId / SPOTS_PER_CAR_PARK, spotId % 4, (i & 1) == 0, spotId % 10 == 0);
+        }
+        parkingSpotEventLog.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        parkingSpotEventLog.destroy();
+        try (Stream<Path> files = Files.walk(directory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public ParkingSpotOccupancyIndex replay() {
+        // The repository is only read when the log cannot be replayed
+        ParkingSpotOccupancyIndex index = new ParkingSpotOccupancyIndex(null, event -> {}, parkingSpotEventLog, applicationProperties);
+        index.load();
+        return index;
+    }
+}
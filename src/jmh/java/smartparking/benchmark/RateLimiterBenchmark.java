@@ -0,0 +1,62 @@
+package smartparking.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import smartparking.config.ApplicationProperties;
+import smartparking.security.ratelimit.RateLimitFilter;
+
+/**
+ * Benchmarks the fast path of {@link RateLimitFilter}: a request to a rate limited route, under its limit.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class RateLimiterBenchmark {
+
+    private static final String[] PATTERNS = {
+        "/api/authenticate",
+        "/api/register",
+        "/api/account/reset-password/**",
+        "/api/_search/**",
+        "/api/users",
+        "/api/car-parks/nearest",
+    };
+
+    private RateLimitFilter rateLimitFilter;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    private final FilterChain filterChain = (servletRequest, servletResponse) -> {};
+
+    @Setup
+    public void setup() {
+        ApplicationProperties.RateLimit properties = new ApplicationProperties.RateLimit();
+        for (String pattern : PATTERNS) {
+            ApplicationProperties.RateLimit.Rule rule = new ApplicationProperties.RateLimit.Rule();
+            rule.setPattern(pattern);
+            // High enough to never reject, so that only the fast path is measured
+            rule.setRefillPerSecond(1e9);
+            properties.getRules().add(rule);
+        }
+        rateLimitFilter = new RateLimitFilter(properties, new SimpleMeterRegistry());
+        request = new MockHttpServletRequest("GET", "/api/car-parks/nearest");
+        request.setRemoteAddr("10.0.0.1");
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void doFilter() throws IOException, ServletException {
+        rateLimitFilter.doFilter(request, response, filterChain);
+    }
+}
@@ -0,0 +1,134 @@
+package smartparking.benchmark;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import org.h2.jdbcx.JdbcDataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.orm.jpa.hibernate.SpringImplicitNamingStrategy;
+import org.springframework.boot.orm.jpa.hibernate.SpringPhysicalNamingStrategy;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.SharedEntityManagerCreator;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.method.HandlerMethod;
+import smartparking.config.ApplicationProperties;
+import smartparking.config.RequestStatisticsConfiguration;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.web.metrics.RequestStatisticsInterceptor;
+
+/**
+ * Benchmarks a request reading a page of {@link ParkingSpot}s against an embedded H2 database, with the per-request
+ * persistence metrics of {@code application.request-statistics.enabled} turned on and off.
+ * <p>
+ * When enabled, Hibernate is configured by {@link RequestStatisticsConfiguration}, as in the application, and the
+ * request goes through the {@link RequestStatisticsInterceptor} as the dispatcher servlet would call it.
+ * <p>
+ * Hibernate keeps getting faster for a long while, hence the long warmup: with a short one, the comparison mostly
+ * measures how far the JIT compiler got.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 40, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class RequestStatisticsBenchmark {
+
+    private static final int PARKING_SPOTS = 1000;
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param({ "false", "true" })
+    private boolean enabled;
+
+    private LocalContainerEntityManagerFactoryBean entityManagerFactoryBean;
+
+    private TransactionTemplate transactionTemplate;
+
+    private ParkingSpotRepository parkingSpotRepository;
+
+    private RequestStatisticsInterceptor interceptor;
+
+    private HandlerMethod handler;
+
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/parking-spots");
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private int page;
+
+    @Setup(Level.Trial)
+    public void setup() throws NoSuchMethodException {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:request-statistics;DB_CLOSE_DELAY=-1");
+
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getRequestStatistics().setEnabled(enabled);
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        Map<String, Object> jpaProperties = new HashMap<>();
+        jpaProperties.put("hibernate.hbm2ddl.auto", "create-drop");
+        jpaProperties.put("hibernate.cache.use_second_level_cache", "false");
+        jpaProperties.put("hibernate.physical_naming_strategy", SpringPhysicalNamingStrategy.class.getName());
+        jpaProperties.put("hibernate.implicit_naming_strategy", SpringImplicitNamingStrategy.class.getName());
+        new RequestStatisticsConfiguration(applicationProperties, meterRegistry)
+            .requestStatisticsHibernatePropertiesCustomizer()
+            .customize(jpaProperties);
+        entityManagerFactoryBean = new LocalContainerEntityManagerFactoryBean();
+        entityManagerFactoryBean.setDataSource(dataSource);
+        entityManagerFactoryBean.setPackagesToScan("smartparking.domain");
+        entityManagerFactoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        entityManagerFactoryBean.setJpaPropertyMap(jpaProperties);
+        entityManagerFactoryBean.afterPropertiesSet();
+        EntityManagerFactory entityManagerFactory = entityManagerFactoryBean.getObject();
+
+        transactionTemplate = new TransactionTemplate(new JpaTransactionManager(entityManagerFactory));
+        transactionTemplate.setReadOnly(true);
+        EntityManager entityManager = SharedEntityManagerCreator.createSharedEntityManager(entityManagerFactory);
+        parkingSpotRepository = new JpaRepositoryFactory(entityManager).getRepository(ParkingSpotRepository.class);
+        interceptor = enabled ? new RequestStatisticsInterceptor(meterRegistry) : null;
+        handler = new HandlerMethod(this, RequestStatisticsBenchmark.class.getMethod("getParkingSpots"));
+
+        new TransactionTemplate(new JpaTransactionManager(entityManagerFactory))
+            .executeWithoutResult(
+                status -> {
+                    CarPark carPark = new CarPark().name("Benchmark");
+                    entityManager.persist(carPark);
+                    for (int i = 0; i < PARKING_SPOTS; i++) {
+                        entityManager.persist(new ParkingSpot().available(true).accessableParking(false).carPark(carPark));
+                    }
+                }
+            );
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        entityManagerFactoryBean.destroy();
+    }
+
+    @Benchmark
+    public List<ParkingSpot> getParkingSpots() throws Exception {
+        if (interceptor != null) {
+            interceptor.preHandle(request, response, handler);
+        }
+        page = (page + 1) % (PARKING_SPOTS / PAGE_SIZE);
+        List<ParkingSpot> parkingSpots = transactionTemplate.execute(
+            status -> parkingSpotRepository.findAll(PageRequest.of(page, PAGE_SIZE)).getContent()
+        );
+        if (interceptor != null) {
+            interceptor.afterCompletion(request, response, handler, null);
+        }
+        return parkingSpots;
+    }
+}
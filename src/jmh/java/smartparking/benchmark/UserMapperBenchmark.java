@@ -0,0 +1,49 @@
+package smartparking.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import smartparking.domain.User;
+import smartparking.service.dto.UserDTO;
+import smartparking.service.mapper.UserMapper;
+
+/**
+ * Benchmarks {@link UserMapper#usersToUserDTOs(List)}, as used by the public user list.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Fork(2)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+public class UserMapperBenchmark {
+
+    @Param({ "100", "1000" })
+    private int users;
+
+    private final UserMapper userMapper = new UserMapper();
+
+    private List<User> userList;
+
+    @Setup
+    public void setup() {
+        userList = new ArrayList<>(users);
+        for (long i = 0; i < users; i++) {
+            User user = new User();
+            user.setId(i);
+            user.setLogin("user-" + i);
+            user.setFirstName("First" + i);
+            user.setLastName("Last" + i);
+            user.setEmail("user-" + i + "@localhost");
+            user.setActivated(true);
+            user.setLangKey("en");
+            userList.add(user);
+        }
+    }
+
+    @Benchmark
+    public List<UserDTO> usersToUserDTOs() {
+        return userMapper.usersToUserDTOs(userList);
+    }
+}
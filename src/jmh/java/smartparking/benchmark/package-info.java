@@ -0,0 +1,4 @@
+/**
+ * JMH benchmarks, run with the {@code benchmark} Maven profile.
+ */
+package smartparking.benchmark;
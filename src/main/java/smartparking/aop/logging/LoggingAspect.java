@@ -1,30 +1,71 @@
 package smartparking.aop.logging;
 
-import java.util.Arrays;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
 import org.aspectj.lang.JoinPoint;
 import org.aspectj.lang.ProceedingJoinPoint;
 import org.aspectj.lang.annotation.AfterThrowing;
 import org.aspectj.lang.annotation.Around;
 import org.aspectj.lang.annotation.Aspect;
 import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.core.env.Environment;
 import org.springframework.core.env.Profiles;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.ResponseEntity;
+import smartparking.config.ApplicationProperties;
 import tech.jhipster.config.JHipsterConstants;
 
 /**
- * Aspect for logging execution of service and repository Spring components.
- *
- * By default, it only runs with the "dev" profile.
+ * Aspect for tracing the execution of service and repository Spring components.
+ * <p>
+ * Every call is timed into a per-method {@code method.duration} timer with a few fixed buckets. Only a sample of the
+ * calls, {@code application.tracing.sample-rate}, is logged on entry and exit: the arguments and results of the
+ * other calls are never read nor formatted. Logged values are bounded, collections and arrays by their size and other
+ * values by {@code application.tracing.max-value-length}, so a large result does not flood the log.
+ * <p>
+ * Enabled with {@code application.tracing.enabled}, which the "dev" profile sets.
  */
 @Aspect
 public class LoggingAspect {
 
+    private static final Duration[] DURATION_BUCKETS = {
+        Duration.ofMillis(1),
+        Duration.ofMillis(5),
+        Duration.ofMillis(10),
+        Duration.ofMillis(50),
+        Duration.ofMillis(100),
+        Duration.ofMillis(500),
+        Duration.ofSeconds(1),
+        Duration.ofSeconds(5),
+    };
+
     private final Environment env;
 
-    public LoggingAspect(Environment env) {
+    private final MeterRegistry meterRegistry;
+
+    private final double sampleRate;
+
+    private final int maxValueLength;
+
+    private final ConcurrentMap<Method, TracedMethod> methods = new ConcurrentHashMap<>();
+
+    public LoggingAspect(Environment env, MeterRegistry meterRegistry, ApplicationProperties.Tracing properties) {
         this.env = env;
+        this.meterRegistry = meterRegistry;
+        this.sampleRate = properties.getSampleRate();
+        this.maxValueLength = properties.getMaxValueLength();
     }
 
     /**
@@ -85,7 +126,8 @@ public class LoggingAspect {
     }
 
     /**
-     * Advice that logs when a method is entered and exited.
+     * Advice that times a method, and logs when a sampled call is entered and exited. An illegal argument is always
+     * logged, with the arguments on sampled calls only.
      *
      * @param joinPoint join point for advice.
      * @return result.
@@ -93,19 +135,99 @@ public class LoggingAspect {
      */
     @Around("applicationPackagePointcut() && springBeanPointcut()")
     public Object logAround(ProceedingJoinPoint joinPoint) throws Throwable {
-        Logger log = logger(joinPoint);
-        if (log.isDebugEnabled()) {
-            log.debug("Enter: {}() with argument[s] = {}", joinPoint.getSignature().getName(), Arrays.toString(joinPoint.getArgs()));
+        TracedMethod method = tracedMethod(joinPoint);
+        boolean sampled = method.log.isDebugEnabled() && ThreadLocalRandom.current().nextDouble() < sampleRate;
+        if (sampled) {
+            method.log.debug("Enter: {}() with argument[s] = {}", method.name, formatArguments(joinPoint.getArgs()));
         }
+        long start = System.nanoTime();
         try {
             Object result = joinPoint.proceed();
-            if (log.isDebugEnabled()) {
-                log.debug("Exit: {}() with result = {}", joinPoint.getSignature().getName(), result);
+            if (sampled) {
+                method.log.debug("Exit: {}() with result = {}", method.name, formatValue(result));
             }
             return result;
         } catch (IllegalArgumentException e) {
-            log.error("Illegal argument: {} in {}()", Arrays.toString(joinPoint.getArgs()), joinPoint.getSignature().getName());
+            if (sampled) {
+                method.log.error("Illegal argument: {} in {}()", formatArguments(joinPoint.getArgs()), method.name);
+            } else {
+                method.log.error("Illegal argument in {}()", method.name);
+            }
             throw e;
+        } finally {
+            method.duration.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private TracedMethod tracedMethod(ProceedingJoinPoint joinPoint) {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        TracedMethod tracedMethod = methods.get(method);
+        if (tracedMethod == null) {
+            tracedMethod = methods.computeIfAbsent(method, key -> new TracedMethod(logger(joinPoint), key.getName(), timer(joinPoint)));
+        }
+        return tracedMethod;
+    }
+
+    private Timer timer(JoinPoint joinPoint) {
+        return Timer
+            .builder("method.duration")
+            .description("Duration of the calls to the services, repositories and REST endpoints")
+            .tag("class", joinPoint.getSignature().getDeclaringType().getSimpleName())
+            .tag("method", joinPoint.getSignature().getName())
+            .serviceLevelObjectives(DURATION_BUCKETS)
+            .register(meterRegistry);
+    }
+
+    String formatArguments(Object[] args) {
+        StringBuilder formatted = new StringBuilder("[");
+        for (int i = 0; i < args.length; i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            formatted.append(formatValue(args[i]));
+        }
+        return formatted.append(']').toString();
+    }
+
+    /**
+     * Formats a value without going through the elements of collections and arrays, which can be large.
+     */
+    String formatValue(Object value) {
+        if (value instanceof ResponseEntity) {
+            ResponseEntity<?> responseEntity = (ResponseEntity<?>) value;
+            return "<" + responseEntity.getStatusCodeValue() + "," + formatValue(responseEntity.getBody()) + ">";
+        }
+        if (value instanceof HttpEntity) {
+            return "<" + formatValue(((HttpEntity<?>) value).getBody()) + ">";
+        }
+        if (value instanceof Collection) {
+            return value.getClass().getSimpleName() + "[size=" + ((Collection<?>) value).size() + "]";
+        }
+        if (value instanceof Map) {
+            return value.getClass().getSimpleName() + "[size=" + ((Map<?, ?>) value).size() + "]";
+        }
+        if (value != null && value.getClass().isArray()) {
+            return value.getClass().getComponentType().getSimpleName() + "[" + Array.getLength(value) + "]";
+        }
+        String formatted = String.valueOf(value);
+        return formatted.length() > maxValueLength ? formatted.substring(0, maxValueLength) + "..." : formatted;
+    }
+
+    /**
+     * Logger, name and timer of an advised method, resolved on its first call.
+     */
+    private static final class TracedMethod {
+
+        private final Logger log;
+
+        private final String name;
+
+        private final Timer duration;
+
+        private TracedMethod(Logger log, String name, Timer duration) {
+            this.log = log;
+            this.name = name;
+            this.duration = duration;
         }
     }
 }
@@ -1,5 +1,9 @@
 package smartparking.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +13,892 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Pagination pagination = new Pagination();
+
+    private final Ingestion ingestion = new Ingestion();
+
+    private final Export export = new Export();
+
+    private final AvailabilityStream availabilityStream = new AvailabilityStream();
+
+    private final SearchOutbox searchOutbox = new SearchOutbox();
+
+    private final SearchReindex searchReindex = new SearchReindex();
+
+    private final OpenHours openHours = new OpenHours();
+
+    private final CarParkLocation carParkLocation = new CarParkLocation();
+
+    private final Cache cache = new Cache();
+
+    private final CacheInvalidation cacheInvalidation = new CacheInvalidation();
+
+    private final RateLimit rateLimit = new RateLimit();
+
+    private final Mail mail = new Mail();
+
+    private final ParkingSession parkingSession = new ParkingSession();
+
+    private final Utilization utilization = new Utilization();
+
+    private final RequestStatistics requestStatistics = new RequestStatistics();
+
+    private final Tracing tracing = new Tracing();
+
+    private final OccupancyLog occupancyLog = new OccupancyLog();
+
+    public Pagination getPagination() {
+        return pagination;
+    }
+
+    public Ingestion getIngestion() {
+        return ingestion;
+    }
+
+    public Export getExport() {
+        return export;
+    }
+
+    public AvailabilityStream getAvailabilityStream() {
+        return availabilityStream;
+    }
+
+    public SearchOutbox getSearchOutbox() {
+        return searchOutbox;
+    }
+
+    public SearchReindex getSearchReindex() {
+        return searchReindex;
+    }
+
+    public OpenHours getOpenHours() {
+        return openHours;
+    }
+
+    public CarParkLocation getCarParkLocation() {
+        return carParkLocation;
+    }
+
+    public Cache getCache() {
+        return cache;
+    }
+
+    public CacheInvalidation getCacheInvalidation() {
+        return cacheInvalidation;
+    }
+
+    public RateLimit getRateLimit() {
+        return rateLimit;
+    }
+
+    public Mail getMail() {
+        return mail;
+    }
+
+    public ParkingSession getParkingSession() {
+        return parkingSession;
+    }
+
+    public Utilization getUtilization() {
+        return utilization;
+    }
+
+    public RequestStatistics getRequestStatistics() {
+        return requestStatistics;
+    }
+
+    public Tracing getTracing() {
+        return tracing;
+    }
+
+    public OccupancyLog getOccupancyLog() {
+        return occupancyLog;
+    }
+
+    /**
+     * Keyset pagination of the entity list endpoints.
+     */
+    public static class Pagination {
+
+        private int defaultSize = 100;
+
+        private int maxSize = 1000;
+
+        public int getDefaultSize() {
+            return defaultSize;
+        }
+
+        public void setDefaultSize(int defaultSize) {
+            this.defaultSize = defaultSize;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    /**
+     * Bulk ingestion of parking spot sensor events.
+     */
+    public static class Ingestion {
+
+        private int batchSize = 500;
+
+        private int maxEventsPerRequest = 10000;
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxEventsPerRequest() {
+            return maxEventsPerRequest;
+        }
+
+        public void setMaxEventsPerRequest(int maxEventsPerRequest) {
+            this.maxEventsPerRequest = maxEventsPerRequest;
+        }
+    }
+
+    /**
+     * Streaming exports of entity tables.
+     */
+    public static class Export {
+
+        private int fetchSize = 500;
+
+        private int flushEveryRows = 1000;
+
+        public int getFetchSize() {
+            return fetchSize;
+        }
+
+        public void setFetchSize(int fetchSize) {
+            this.fetchSize = fetchSize;
+        }
+
+        public int getFlushEveryRows() {
+            return flushEveryRows;
+        }
+
+        public void setFlushEveryRows(int flushEveryRows) {
+            this.flushEveryRows = flushEveryRows;
+        }
+    }
+
+    /**
+     * Server-Sent Events streams of live car park availability.
+     */
+    public static class AvailabilityStream {
+
+        private long timeoutMs = 30 * 60 * 1000L;
+
+        private long flushIntervalMs = 500;
+
+        private long heartbeatIntervalMs = 15 * 1000L;
+
+        private int senderThreads = 4;
+
+        public long getTimeoutMs() {
+            return timeoutMs;
+        }
+
+        public void setTimeoutMs(long timeoutMs) {
+            this.timeoutMs = timeoutMs;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public long getHeartbeatIntervalMs() {
+            return heartbeatIntervalMs;
+        }
+
+        public void setHeartbeatIntervalMs(long heartbeatIntervalMs) {
+            this.heartbeatIntervalMs = heartbeatIntervalMs;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+    }
+
+    /**
+     * Background draining of the Elasticsearch outbox.
+     */
+    public static class SearchOutbox {
+
+        private boolean enabled = true;
+
+        private long drainIntervalMs = 1000;
+
+        private int batchSize = 500;
+
+        private int maxBatchesPerRun = 20;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDrainIntervalMs() {
+            return drainIntervalMs;
+        }
+
+        public void setDrainIntervalMs(long drainIntervalMs) {
+            this.drainIntervalMs = drainIntervalMs;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getMaxBatchesPerRun() {
+            return maxBatchesPerRun;
+        }
+
+        public void setMaxBatchesPerRun(int maxBatchesPerRun) {
+            this.maxBatchesPerRun = maxBatchesPerRun;
+        }
+    }
+
+    /**
+     * Full rebuild of the Elasticsearch indices.
+     */
+    public static class SearchReindex {
+
+        private int chunkSize = 1000;
+
+        private int threads = 4;
+
+        /**
+         * How long the hold of a reindex on the search outbox lasts without being renewed.
+         */
+        private long pauseLeaseMs = 300000;
+
+        public int getChunkSize() {
+            return chunkSize;
+        }
+
+        public void setChunkSize(int chunkSize) {
+            this.chunkSize = chunkSize;
+        }
+
+        public int getThreads() {
+            return threads;
+        }
+
+        public void setThreads(int threads) {
+            this.threads = threads;
+        }
+
+        public long getPauseLeaseMs() {
+            return pauseLeaseMs;
+        }
+
+        public void setPauseLeaseMs(long pauseLeaseMs) {
+            this.pauseLeaseMs = pauseLeaseMs;
+        }
+    }
+
+    /**
+     * Compiled opening hours of the car parks.
+     */
+    public static class OpenHours {
+
+        /**
+         * Time zone the opening hours are expressed in, the system time zone if not set.
+         */
+        private String timeZone;
+
+        public String getTimeZone() {
+            return timeZone;
+        }
+
+        public void setTimeZone(String timeZone) {
+            this.timeZone = timeZone;
+        }
+    }
+
+    /**
+     * Nearest car park queries.
+     */
+    public static class CarParkLocation {
+
+        /**
+         * Size of the cells of the spatial grid, in degrees.
+         */
+        private double cellSizeDegrees = 0.01;
+
+        private double defaultMaxDistanceMeters = 5000;
+
+        private double maxDistanceMeters = 50000;
+
+        private int defaultLimit = 5;
+
+        private int maxLimit = 50;
+
+        public double getCellSizeDegrees() {
+            return cellSizeDegrees;
+        }
+
+        public void setCellSizeDegrees(double cellSizeDegrees) {
+            this.cellSizeDegrees = cellSizeDegrees;
+        }
+
+        public double getDefaultMaxDistanceMeters() {
+            return defaultMaxDistanceMeters;
+        }
+
+        public void setDefaultMaxDistanceMeters(double defaultMaxDistanceMeters) {
+            this.defaultMaxDistanceMeters = defaultMaxDistanceMeters;
+        }
+
+        public double getMaxDistanceMeters() {
+            return maxDistanceMeters;
+        }
+
+        public void setMaxDistanceMeters(double maxDistanceMeters) {
+            this.maxDistanceMeters = maxDistanceMeters;
+        }
+
+        public int getDefaultLimit() {
+            return defaultLimit;
+        }
+
+        public void setDefaultLimit(int defaultLimit) {
+            this.defaultLimit = defaultLimit;
+        }
+
+        public int getMaxLimit() {
+            return maxLimit;
+        }
+
+        public void setMaxLimit(int maxLimit) {
+            this.maxLimit = maxLimit;
+        }
+    }
+
+    /**
+     * Sizing and expiry of the Ehcache regions, by cache name.
+     * <p>
+     * A region which is not configured, or a setting which is not set, falls back to the
+     * {@code jhipster.cache.ehcache} settings.
+     */
+    public static class Cache {
+
+        private final Map<String, Region> regions = new LinkedHashMap<>();
+
+        public Map<String, Region> getRegions() {
+            return regions;
+        }
+
+        public static class Region {
+
+            private Long heapEntries;
+
+            /**
+             * Size of the off-heap tier, in megabytes, no off-heap tier if not set.
+             */
+            private Long offHeapMegabytes;
+
+            private Long timeToLiveSeconds;
+
+            /**
+             * Time an entry stays in the cache after its last access, replaces the time to live when set.
+             */
+            private Long timeToIdleSeconds;
+
+            public Long getHeapEntries() {
+                return heapEntries;
+            }
+
+            public void setHeapEntries(Long heapEntries) {
+                this.heapEntries = heapEntries;
+            }
+
+            public Long getOffHeapMegabytes() {
+                return offHeapMegabytes;
+            }
+
+            public void setOffHeapMegabytes(Long offHeapMegabytes) {
+                this.offHeapMegabytes = offHeapMegabytes;
+            }
+
+            public Long getTimeToLiveSeconds() {
+                return timeToLiveSeconds;
+            }
+
+            public void setTimeToLiveSeconds(Long timeToLiveSeconds) {
+                this.timeToLiveSeconds = timeToLiveSeconds;
+            }
+
+            public Long getTimeToIdleSeconds() {
+                return timeToIdleSeconds;
+            }
+
+            public void setTimeToIdleSeconds(Long timeToIdleSeconds) {
+                this.timeToIdleSeconds = timeToIdleSeconds;
+            }
+        }
+    }
+
+    /**
+     * Cluster-wide invalidation of the local caches and resident indices, through PostgreSQL {@code LISTEN}/{@code NOTIFY}.
+     */
+    public static class CacheInvalidation {
+
+        private boolean enabled = false;
+
+        private String channel = "cache_invalidation";
+
+        private long flushIntervalMs = 100;
+
+        /**
+         * Maximum size of a notification payload, PostgreSQL rejects payloads of 8000 bytes or more.
+         */
+        private int maxPayloadBytes = 7900;
+
+        /**
+         * Pending invalidations above which all the caches of the other nodes are cleared, and their resident indices
+         * reloaded, instead.
+         */
+        private int maxPendingInvalidations = 10000;
+
+        private int pollTimeoutMs = 1000;
+
+        private long reconnectDelayMs = 5000;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getMaxPayloadBytes() {
+            return maxPayloadBytes;
+        }
+
+        public void setMaxPayloadBytes(int maxPayloadBytes) {
+            this.maxPayloadBytes = maxPayloadBytes;
+        }
+
+        public int getMaxPendingInvalidations() {
+            return maxPendingInvalidations;
+        }
+
+        public void setMaxPendingInvalidations(int maxPendingInvalidations) {
+            this.maxPendingInvalidations = maxPendingInvalidations;
+        }
+
+        public int getPollTimeoutMs() {
+            return pollTimeoutMs;
+        }
+
+        public void setPollTimeoutMs(int pollTimeoutMs) {
+            this.pollTimeoutMs = pollTimeoutMs;
+        }
+
+        public long getReconnectDelayMs() {
+            return reconnectDelayMs;
+        }
+
+        public void setReconnectDelayMs(long reconnectDelayMs) {
+            this.reconnectDelayMs = reconnectDelayMs;
+        }
+    }
+
+    /**
+     * Throttling of the API, per route and per principal, or per client IP address for anonymous requests.
+     */
+    public static class RateLimit {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of rate limited clients kept in memory.
+         */
+        private int maxKeys = 100000;
+
+        /**
+         * Routes to throttle, the first rule matching the path of a request applies.
+         */
+        private final List<Rule> rules = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxKeys() {
+            return maxKeys;
+        }
+
+        public void setMaxKeys(int maxKeys) {
+            this.maxKeys = maxKeys;
+        }
+
+        public List<Rule> getRules() {
+            return rules;
+        }
+
+        public static class Rule {
+
+            /**
+             * Ant-style pattern of the request paths the rule applies to.
+             */
+            private String pattern;
+
+            /**
+             * Number of requests a client can send in a burst.
+             */
+            private int capacity = 20;
+
+            /**
+             * Sustained number of requests per second a client can send.
+             */
+            private double refillPerSecond = 10;
+
+            public String getPattern() {
+                return pattern;
+            }
+
+            public void setPattern(String pattern) {
+                this.pattern = pattern;
+            }
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+
+            public double getRefillPerSecond() {
+                return refillPerSecond;
+            }
+
+            public void setRefillPerSecond(double refillPerSecond) {
+                this.refillPerSecond = refillPerSecond;
+            }
+        }
+    }
+
+    /**
+     * Queued sending of the emails.
+     */
+    public static class Mail {
+
+        private int queueCapacity = 1000;
+
+        /**
+         * Maximum number of emails sent over one SMTP connection.
+         */
+        private int batchSize = 50;
+
+        private int senderThreads = 1;
+
+        /**
+         * Time a caller waits for room in a full queue, before the email is dropped.
+         */
+        private long enqueueTimeoutMs = 5000;
+
+        public int getQueueCapacity() {
+            return queueCapacity;
+        }
+
+        public void setQueueCapacity(int queueCapacity) {
+            this.queueCapacity = queueCapacity;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        public void setBatchSize(int batchSize) {
+            this.batchSize = batchSize;
+        }
+
+        public int getSenderThreads() {
+            return senderThreads;
+        }
+
+        public void setSenderThreads(int senderThreads) {
+            this.senderThreads = senderThreads;
+        }
+
+        public long getEnqueueTimeoutMs() {
+            return enqueueTimeoutMs;
+        }
+
+        public void setEnqueueTimeoutMs(long enqueueTimeoutMs) {
+            this.enqueueTimeoutMs = enqueueTimeoutMs;
+        }
+    }
+
+    /**
+     * Monthly partitions of the parking session ledger, on PostgreSQL.
+     */
+    public static class ParkingSession {
+
+        /**
+         * Number of months for which partitions are created in advance, besides the current one.
+         */
+        private int partitionsAhead = 3;
+
+        public int getPartitionsAhead() {
+            return partitionsAhead;
+        }
+
+        public void setPartitionsAhead(int partitionsAhead) {
+            this.partitionsAhead = partitionsAhead;
+        }
+    }
+
+    /**
+     * Rollups of the car park utilization per time bucket.
+     */
+    public static class Utilization {
+
+        /**
+         * Interval at which the rollups are written, the lag of the charts.
+         */
+        private long flushIntervalMs = 60000;
+
+        /**
+         * Maximum number of buckets returned by a chart query.
+         */
+        private int maxPoints = 2000;
+
+        /**
+         * Whether only the node holding a PostgreSQL advisory lock writes the rollups. Every node integrates the same
+         * car parks, so with more than one node the others would add their own seconds to the same rows.
+         */
+        private boolean singleWriter = false;
+
+        /**
+         * Key of the advisory lock electing the writer.
+         */
+        private long writerLockKey = 4_017_001L;
+
+        public long getFlushIntervalMs() {
+            return flushIntervalMs;
+        }
+
+        public void setFlushIntervalMs(long flushIntervalMs) {
+            this.flushIntervalMs = flushIntervalMs;
+        }
+
+        public int getMaxPoints() {
+            return maxPoints;
+        }
+
+        public void setMaxPoints(int maxPoints) {
+            this.maxPoints = maxPoints;
+        }
+
+        public boolean isSingleWriter() {
+            return singleWriter;
+        }
+
+        public void setSingleWriter(boolean singleWriter) {
+            this.singleWriter = singleWriter;
+        }
+
+        public long getWriterLockKey() {
+            return writerLockKey;
+        }
+
+        public void setWriterLockKey(long writerLockKey) {
+            this.writerLockKey = writerLockKey;
+        }
+    }
+
+    /**
+     * Per-request metrics of the JDBC statements, entity loads and second-level cache reads, by REST handler.
+     */
+    public static class RequestStatistics {
+
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Timing and sampled logging of the service, repository and REST endpoint calls, by the
+     * {@link smartparking.aop.logging.LoggingAspect}.
+     */
+    public static class Tracing {
+
+        private boolean enabled = false;
+
+        /**
+         * Share of the calls logged on entry and exit, between 0 and 1. All calls are timed.
+         */
+        private double sampleRate = 0.01;
+
+        /**
+         * Length above which a logged argument or result is truncated.
+         */
+        private int maxValueLength = 200;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public double getSampleRate() {
+            return sampleRate;
+        }
+
+        public void setSampleRate(double sampleRate) {
+            this.sampleRate = sampleRate;
+        }
+
+        public int getMaxValueLength() {
+            return maxValueLength;
+        }
+
+        public void setMaxValueLength(int maxValueLength) {
+            this.maxValueLength = maxValueLength;
+        }
+    }
+
+    /**
+     * Local log and snapshots of the parking spot occupancy, replayed at startup by the
+     * {@link smartparking.service.ParkingSpotOccupancyIndex} instead of scanning every parking spot.
+     */
+    public static class OccupancyLog {
+
+        private boolean enabled = false;
+
+        /**
+         * Directory of the log segments and snapshots, local to the node.
+         */
+        private String directory = "occupancy-log";
+
+        /**
+         * Number of records of a log segment, of 40 bytes each.
+         */
+        private int segmentRecords = 1000000;
+
+        private long snapshotIntervalMs = 10 * 60 * 1000L;
+
+        /**
+         * Time subtracted from the last replayed change when reading the spots changed since, to cover the commit delays
+         * and the clock skew between the nodes.
+         */
+        private long catchUpMarginMs = 60 * 1000L;
+
+        /**
+         * Whether the replayed state is compared to every parking spot in the background, to pick up the spots created,
+         * moved or deleted by the other nodes. This is a full scan of the parking spots, as only availability changes
+         * are stamped; it can be turned off when a single node writes the spots.
+         */
+        private boolean reconcile = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+
+        public int getSegmentRecords() {
+            return segmentRecords;
+        }
+
+        public void setSegmentRecords(int segmentRecords) {
+            this.segmentRecords = segmentRecords;
+        }
+
+        public long getSnapshotIntervalMs() {
+            return snapshotIntervalMs;
+        }
+
+        public void setSnapshotIntervalMs(long snapshotIntervalMs) {
+            this.snapshotIntervalMs = snapshotIntervalMs;
+        }
+
+        public long getCatchUpMarginMs() {
+            return catchUpMarginMs;
+        }
+
+        public void setCatchUpMarginMs(long catchUpMarginMs) {
+            this.catchUpMarginMs = catchUpMarginMs;
+        }
+
+        public boolean isReconcile() {
+            return reconcile;
+        }
+
+        public void setReconcile(boolean reconcile) {
+            this.reconcile = reconcile;
+        }
+    }
+}
@@ -1,17 +1,18 @@
 package smartparking.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.*;
 import org.springframework.core.env.Environment;
 import smartparking.aop.logging.LoggingAspect;
-import tech.jhipster.config.JHipsterConstants;
 
 @Configuration
 @EnableAspectJAutoProxy
 public class LoggingAspectConfiguration {
 
     @Bean
-    @Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
-    public LoggingAspect loggingAspect(Environment env) {
-        return new LoggingAspect(env);
+    @ConditionalOnProperty(prefix = "application.tracing", name = "enabled", havingValue = "true")
+    public LoggingAspect loggingAspect(Environment env, MeterRegistry meterRegistry, ApplicationProperties applicationProperties) {
+        return new LoggingAspect(env, meterRegistry, applicationProperties.getTracing());
     }
 }
@@ -0,0 +1,80 @@
+package smartparking.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.Collections;
+import org.hibernate.boot.Metadata;
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.integrator.spi.Integrator;
+import org.hibernate.jpa.boot.internal.EntityManagerFactoryBuilderImpl;
+import org.hibernate.jpa.boot.spi.IntegratorProvider;
+import org.hibernate.service.spi.SessionFactoryServiceRegistry;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import smartparking.web.metrics.RequestStatisticsInterceptor;
+import smartparking.web.metrics.RequestStatisticsListener;
+
+/**
+ * Per-request persistence metrics, see {@link RequestStatisticsInterceptor}.
+ * <p>
+ * Unlike {@code hibernate.generate_statistics}, which aggregates over the whole session factory, the work is
+ * attributed to the controller method which caused it.
+ */
+@Configuration
+public class RequestStatisticsConfiguration implements WebMvcConfigurer {
+
+    private final ApplicationProperties.RequestStatistics properties;
+
+    private final MeterRegistry meterRegistry;
+
+    public RequestStatisticsConfiguration(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        this.properties = applicationProperties.getRequestStatistics();
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer requestStatisticsHibernatePropertiesCustomizer() {
+        return hibernateProperties -> {
+            if (properties.isEnabled()) {
+                hibernateProperties.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, RequestStatisticsListener.class.getName());
+                hibernateProperties.put(
+                    EntityManagerFactoryBuilderImpl.INTEGRATOR_PROVIDER,
+                    (IntegratorProvider) () -> Collections.singletonList(new PostLoadIntegrator())
+                );
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        if (properties.isEnabled()) {
+            registry.addInterceptor(new RequestStatisticsInterceptor(meterRegistry));
+        }
+    }
+
+    /**
+     * Counts the loaded entities, which the session events do not report.
+     */
+    private static final class PostLoadIntegrator implements Integrator {
+
+        @Override
+        public void integrate(
+            Metadata metadata,
+            SessionFactoryImplementor sessionFactory,
+            SessionFactoryServiceRegistry serviceRegistry
+        ) {
+            EventListenerRegistry registry = serviceRegistry.getService(EventListenerRegistry.class);
+            registry.appendListeners(EventType.POST_LOAD, new RequestStatisticsListener());
+        }
+
+        @Override
+        public void disintegrate(SessionFactoryImplementor sessionFactory, SessionFactoryServiceRegistry serviceRegistry) {
+            // Nothing to release
+        }
+    }
+}
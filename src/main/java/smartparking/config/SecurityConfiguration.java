@@ -1,5 +1,6 @@
 package smartparking.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
@@ -17,6 +18,7 @@ import org.springframework.web.filter.CorsFilter;
 import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 import smartparking.security.*;
 import smartparking.security.jwt.*;
+import smartparking.security.ratelimit.RateLimitFilter;
 import tech.jhipster.config.JHipsterProperties;
 
 @EnableWebSecurity
@@ -31,16 +33,24 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
+    private final ApplicationProperties applicationProperties;
+
+    private final MeterRegistry meterRegistry;
+
     public SecurityConfiguration(
         TokenProvider tokenProvider,
         CorsFilter corsFilter,
         JHipsterProperties jHipsterProperties,
-        SecurityProblemSupport problemSupport
+        SecurityProblemSupport problemSupport,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.tokenProvider = tokenProvider;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -68,6 +78,8 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .csrf()
             .disable()
             .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
+            // After the JWTFilter, so that authenticated requests are limited per principal
+            .addFilterAfter(rateLimitFilter(), UsernamePasswordAuthenticationFilter.class)
             .exceptionHandling()
                 .authenticationEntryPoint(problemSupport)
                 .accessDeniedHandler(problemSupport)
@@ -110,4 +122,8 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
     private JWTConfigurer securityConfigurerAdapter() {
         return new JWTConfigurer(tokenProvider);
     }
+
+    private RateLimitFilter rateLimitFilter() {
+        return new RateLimitFilter(applicationProperties.getRateLimit(), meterRegistry);
+    }
 }
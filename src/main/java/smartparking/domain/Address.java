@@ -36,6 +36,16 @@ public class Address implements Serializable {
     @Column(name = "city")
     private String city;
 
+    @DecimalMin(value = "-90")
+    @DecimalMax(value = "90")
+    @Column(name = "latitude")
+    private Double latitude;
+
+    @DecimalMin(value = "-180")
+    @DecimalMax(value = "180")
+    @Column(name = "longitude")
+    private Double longitude;
+
     @OneToMany(mappedBy = "address")
     @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonIgnoreProperties(value = { "openHours", "parkingSpots", "address" }, allowSetters = true)
@@ -94,6 +104,32 @@ public class Address implements Serializable {
         this.city = city;
     }
 
+    public Double getLatitude() {
+        return this.latitude;
+    }
+
+    public Address latitude(Double latitude) {
+        this.latitude = latitude;
+        return this;
+    }
+
+    public void setLatitude(Double latitude) {
+        this.latitude = latitude;
+    }
+
+    public Double getLongitude() {
+        return this.longitude;
+    }
+
+    public Address longitude(Double longitude) {
+        this.longitude = longitude;
+        return this;
+    }
+
+    public void setLongitude(Double longitude) {
+        this.longitude = longitude;
+    }
+
     public Set<CarPark> getCarParks() {
         return this.carParks;
     }
@@ -152,6 +188,8 @@ public class Address implements Serializable {
             ", streetAddress='" + getStreetAddress() + "'" +
             ", postalCode='" + getPostalCode() + "'" +
             ", city='" + getCity() + "'" +
+            ", latitude=" + getLatitude() +
+            ", longitude=" + getLongitude() +
             "}";
     }
 }
@@ -1,5 +1,6 @@
 package smartparking.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
 import java.util.HashSet;
@@ -7,6 +8,7 @@ import java.util.Set;
 import javax.persistence.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 
 /**
@@ -45,6 +47,31 @@ public class CarPark implements Serializable {
     @JsonIgnoreProperties(value = { "carParks" }, allowSetters = true)
     private Address address;
 
+    /**
+     * Search document only: the city of the address, and the occupancy of the car park when it was indexed.
+     *
+     * @see smartparking.service.SearchDocumentDenormalizer
+     */
+    @Transient
+    @JsonIgnore
+    @Field(type = FieldType.Keyword)
+    private String city;
+
+    @Transient
+    @JsonIgnore
+    @Field(type = FieldType.Integer)
+    private Integer totalSpots;
+
+    @Transient
+    @JsonIgnore
+    @Field(type = FieldType.Integer)
+    private Integer freeSpots;
+
+    @Transient
+    @JsonIgnore
+    @Field(type = FieldType.Integer)
+    private Integer accessibleFreeSpots;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
         return id;
@@ -160,6 +187,38 @@ public class CarPark implements Serializable {
         this.address = address;
     }
 
+    public String getCity() {
+        return this.city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Integer getTotalSpots() {
+        return this.totalSpots;
+    }
+
+    public void setTotalSpots(Integer totalSpots) {
+        this.totalSpots = totalSpots;
+    }
+
+    public Integer getFreeSpots() {
+        return this.freeSpots;
+    }
+
+    public void setFreeSpots(Integer freeSpots) {
+        this.freeSpots = freeSpots;
+    }
+
+    public Integer getAccessibleFreeSpots() {
+        return this.accessibleFreeSpots;
+    }
+
+    public void setAccessibleFreeSpots(Integer accessibleFreeSpots) {
+        this.accessibleFreeSpots = accessibleFreeSpots;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -0,0 +1,151 @@
+package smartparking.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import org.hibernate.annotations.Immutable;
+
+/**
+ * A ParkingSession, the time a user spent on a {@link ParkingSpot}.
+ * <p>
+ * Sessions are an append-only ledger, written with JDBC by {@link smartparking.service.ParkingSessionService}.
+ * The spot, car park and user are kept as plain ids, so the history outlives the entities it refers to.
+ */
+@Entity
+@Immutable
+@Table(name = "parking_session")
+public class ParkingSession implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "parkingSessionSequenceGenerator")
+    @SequenceGenerator(name = "parkingSessionSequenceGenerator", sequenceName = "parking_session_sequence", allocationSize = 1)
+    private Long id;
+
+    @NotNull
+    @Column(name = "start_time", nullable = false)
+    private Instant startTime;
+
+    @Column(name = "end_time")
+    private Instant endTime;
+
+    @NotNull
+    @Column(name = "parking_spot_id", nullable = false)
+    private Long parkingSpotId;
+
+    @Column(name = "car_park_id")
+    private Long carParkId;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public ParkingSession id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public Instant getStartTime() {
+        return this.startTime;
+    }
+
+    public ParkingSession startTime(Instant startTime) {
+        this.startTime = startTime;
+        return this;
+    }
+
+    public void setStartTime(Instant startTime) {
+        this.startTime = startTime;
+    }
+
+    public Instant getEndTime() {
+        return this.endTime;
+    }
+
+    public ParkingSession endTime(Instant endTime) {
+        this.endTime = endTime;
+        return this;
+    }
+
+    public void setEndTime(Instant endTime) {
+        this.endTime = endTime;
+    }
+
+    public Long getParkingSpotId() {
+        return this.parkingSpotId;
+    }
+
+    public ParkingSession parkingSpotId(Long parkingSpotId) {
+        this.parkingSpotId = parkingSpotId;
+        return this;
+    }
+
+    public void setParkingSpotId(Long parkingSpotId) {
+        this.parkingSpotId = parkingSpotId;
+    }
+
+    public Long getCarParkId() {
+        return this.carParkId;
+    }
+
+    public ParkingSession carParkId(Long carParkId) {
+        this.carParkId = carParkId;
+        return this;
+    }
+
+    public void setCarParkId(Long carParkId) {
+        this.carParkId = carParkId;
+    }
+
+    public Long getUserId() {
+        return this.userId;
+    }
+
+    public ParkingSession userId(Long userId) {
+        this.userId = userId;
+        return this;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ParkingSession)) {
+            return false;
+        }
+        return id != null && id.equals(((ParkingSession) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParkingSession{" +
+            "id=" + getId() +
+            ", startTime='" + getStartTime() + "'" +
+            ", endTime='" + getEndTime() + "'" +
+            ", parkingSpotId=" + getParkingSpotId() +
+            ", carParkId=" + getCarParkId() +
+            ", userId=" + getUserId() +
+            "}";
+    }
+}
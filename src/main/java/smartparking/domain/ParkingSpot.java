@@ -1,11 +1,15 @@
 package smartparking.domain;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import java.io.Serializable;
+import java.time.Instant;
 import javax.persistence.*;
 import javax.validation.constraints.*;
 import org.hibernate.annotations.Cache;
 import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.springframework.data.elasticsearch.annotations.Field;
 import org.springframework.data.elasticsearch.annotations.FieldType;
 
 /**
@@ -14,6 +18,8 @@ import org.springframework.data.elasticsearch.annotations.FieldType;
 @Entity
 @Table(name = "parking_spot")
 @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+// The availability is written with conditional JDBC updates, an entity update must not write it back
+@DynamicUpdate
 @org.springframework.data.elasticsearch.annotations.Document(indexName = "parkingspot")
 public class ParkingSpot implements Serializable {
 
@@ -34,10 +40,26 @@ public class ParkingSpot implements Serializable {
     @Column(name = "floor")
     private Long floor;
 
+    /**
+     * Time of the last applied availability change, only written by bulk ingestion and parking sessions.
+     */
+    @Column(name = "availability_changed_at", insertable = false, updatable = false)
+    private Instant availabilityChangedAt;
+
     @ManyToOne
     @JsonIgnoreProperties(value = { "openHours", "parkingSpots", "address" }, allowSetters = true)
     private CarPark carPark;
 
+    /**
+     * Search document only: the city of the address of the car park.
+     *
+     * @see smartparking.service.SearchDocumentDenormalizer
+     */
+    @Transient
+    @JsonIgnore
+    @Field(type = FieldType.Keyword)
+    private String city;
+
     // jhipster-needle-entity-add-field - JHipster will add fields here
     public Long getId() {
         return id;
@@ -91,6 +113,19 @@ public class ParkingSpot implements Serializable {
         this.floor = floor;
     }
 
+    public Instant getAvailabilityChangedAt() {
+        return this.availabilityChangedAt;
+    }
+
+    public ParkingSpot availabilityChangedAt(Instant availabilityChangedAt) {
+        this.availabilityChangedAt = availabilityChangedAt;
+        return this;
+    }
+
+    public void setAvailabilityChangedAt(Instant availabilityChangedAt) {
+        this.availabilityChangedAt = availabilityChangedAt;
+    }
+
     public CarPark getCarPark() {
         return this.carPark;
     }
@@ -104,6 +139,14 @@ public class ParkingSpot implements Serializable {
         this.carPark = carPark;
     }
 
+    public String getCity() {
+        return this.city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
     // jhipster-needle-entity-add-getters-setters - JHipster will add getters and setters here
 
     @Override
@@ -131,6 +174,7 @@ public class ParkingSpot implements Serializable {
             ", accessableParking='" + getAccessableParking() + "'" +
             ", available='" + getAvailable() + "'" +
             ", floor=" + getFloor() +
+            ", availabilityChangedAt='" + getAvailabilityChangedAt() + "'" +
             "}";
     }
 }
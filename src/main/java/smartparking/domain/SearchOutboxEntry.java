@@ -0,0 +1,135 @@
+package smartparking.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
+
+/**
+ * A pending Elasticsearch change, written in the same transaction as the entity it refers to.
+ */
+@Entity
+@Table(name = "search_outbox")
+public class SearchOutboxEntry implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "document_type", nullable = false)
+    private SearchDocumentType documentType;
+
+    @NotNull
+    @Column(name = "document_id", nullable = false)
+    private Long documentId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "operation", nullable = false)
+    private SearchOutboxOperation operation;
+
+    @NotNull
+    @Column(name = "created_date", nullable = false)
+    private Instant createdDate;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SearchOutboxEntry id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public SearchDocumentType getDocumentType() {
+        return this.documentType;
+    }
+
+    public SearchOutboxEntry documentType(SearchDocumentType documentType) {
+        this.documentType = documentType;
+        return this;
+    }
+
+    public void setDocumentType(SearchDocumentType documentType) {
+        this.documentType = documentType;
+    }
+
+    public Long getDocumentId() {
+        return this.documentId;
+    }
+
+    public SearchOutboxEntry documentId(Long documentId) {
+        this.documentId = documentId;
+        return this;
+    }
+
+    public void setDocumentId(Long documentId) {
+        this.documentId = documentId;
+    }
+
+    public SearchOutboxOperation getOperation() {
+        return this.operation;
+    }
+
+    public SearchOutboxEntry operation(SearchOutboxOperation operation) {
+        this.operation = operation;
+        return this;
+    }
+
+    public void setOperation(SearchOutboxOperation operation) {
+        this.operation = operation;
+    }
+
+    public Instant getCreatedDate() {
+        return this.createdDate;
+    }
+
+    public SearchOutboxEntry createdDate(Instant createdDate) {
+        this.createdDate = createdDate;
+        return this;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchOutboxEntry)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchOutboxEntry) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchOutboxEntry{" +
+            "id=" + getId() +
+            ", documentType='" + getDocumentType() + "'" +
+            ", documentId=" + getDocumentId() +
+            ", operation='" + getOperation() + "'" +
+            ", createdDate='" + getCreatedDate() + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,79 @@
+package smartparking.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import javax.persistence.*;
+import javax.validation.constraints.*;
+
+/**
+ * A hold on the search outbox shared by every instance, taken while the search indices are rebuilt.
+ * <p>
+ * The hold lapses at {@code pausedUntil}, so that the outbox is drained again if the instance holding it stops.
+ */
+@Entity
+@Table(name = "search_outbox_pause")
+public class SearchOutboxPause implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sequenceGenerator")
+    @SequenceGenerator(name = "sequenceGenerator")
+    private Long id;
+
+    @NotNull
+    @Column(name = "paused_until", nullable = false)
+    private Instant pausedUntil;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public SearchOutboxPause id(Long id) {
+        this.id = id;
+        return this;
+    }
+
+    public Instant getPausedUntil() {
+        return this.pausedUntil;
+    }
+
+    public SearchOutboxPause pausedUntil(Instant pausedUntil) {
+        this.pausedUntil = pausedUntil;
+        return this;
+    }
+
+    public void setPausedUntil(Instant pausedUntil) {
+        this.pausedUntil = pausedUntil;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof SearchOutboxPause)) {
+            return false;
+        }
+        return id != null && id.equals(((SearchOutboxPause) o).id);
+    }
+
+    @Override
+    public int hashCode() {
+        // see https://vladmihalcea.com/how-to-implement-equals-and-hashcode-using-the-jpa-entity-identifier/
+        return getClass().hashCode();
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchOutboxPause{" +
+            "id=" + getId() +
+            ", pausedUntil='" + getPausedUntil() + "'" +
+            "}";
+    }
+}
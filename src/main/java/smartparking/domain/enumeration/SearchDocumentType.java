@@ -0,0 +1,13 @@
+package smartparking.domain.enumeration;
+
+/**
+ * The SearchDocumentType enumeration, the Elasticsearch indices fed through the search outbox.
+ */
+public enum SearchDocumentType {
+    CAR_PARK,
+    PARKING_SPOT,
+    OPEN_HOURS,
+    ADDRESS,
+    USER_EXTRA,
+    USER,
+}
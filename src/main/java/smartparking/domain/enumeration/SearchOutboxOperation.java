@@ -0,0 +1,9 @@
+package smartparking.domain.enumeration;
+
+/**
+ * The SearchOutboxOperation enumeration.
+ */
+public enum SearchOutboxOperation {
+    INDEX,
+    DELETE,
+}
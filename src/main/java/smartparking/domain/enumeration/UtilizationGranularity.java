@@ -0,0 +1,30 @@
+package smartparking.domain.enumeration;
+
+import java.time.Duration;
+
+/**
+ * The UtilizationGranularity enumeration, the time buckets of the car park utilization rollups.
+ */
+public enum UtilizationGranularity {
+    FIVE_MINUTES(Duration.ofMinutes(5)),
+    HOUR(Duration.ofHours(1)),
+    DAY(Duration.ofDays(1));
+
+    private final long millis;
+
+    UtilizationGranularity(Duration duration) {
+        this.millis = duration.toMillis();
+    }
+
+    public long getMillis() {
+        return millis;
+    }
+
+    /**
+     * @param epochMillis a time, in milliseconds since the epoch.
+     * @return the start of the bucket holding the time, buckets being aligned on UTC.
+     */
+    public long bucketStart(long epochMillis) {
+        return Math.floorDiv(epochMillis, millis) * millis;
+    }
+}
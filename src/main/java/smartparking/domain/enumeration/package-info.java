@@ -0,0 +1,4 @@
+/**
+ * JPA domain enumerations.
+ */
+package smartparking.domain.enumeration;
@@ -1,5 +1,7 @@
 package smartparking.repository;
 
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 import smartparking.domain.Address;
@@ -9,4 +11,6 @@ import smartparking.domain.Address;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface AddressRepository extends JpaRepository<Address, Long> {}
+public interface AddressRepository extends JpaRepository<Address, Long> {
+    List<Address> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+}
@@ -1,6 +1,12 @@
 package smartparking.repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import smartparking.domain.CarPark;
 
@@ -9,4 +15,75 @@ import smartparking.domain.CarPark;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface CarParkRepository extends JpaRepository<CarPark, Long> {}
+public interface CarParkRepository extends JpaRepository<CarPark, Long> {
+    /**
+     * Gets a page of car parks, with their address fetched by the same query.
+     */
+    @EntityGraph(attributePaths = "address")
+    List<CarPark> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Gets car parks with their address and open hours, fetched by a single query.
+     * <p>
+     * The open hours cannot be fetched along a limited page query without Hibernate paging in memory, so a page is
+     * loaded first and its open hours with this query.
+     *
+     * @param ids the ids of the car parks.
+     * @return the car parks, in no particular order.
+     */
+    @Query("select distinct c from CarPark c left join fetch c.address left join fetch c.openHours where c.id in :ids")
+    @QueryHints(@QueryHint(name = "hibernate.query.passDistinctThrough", value = "false"))
+    List<CarPark> findAllWithOpenHoursByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Streams the coordinates of every car park, without loading the entities.
+     * Must be consumed inside a transaction.
+     *
+     * @return a stream of {@link LocationView}, with {@code null} coordinates for car parks without a located address.
+     */
+    @Query("select c.id as id, a.latitude as latitude, a.longitude as longitude from CarPark c left join c.address a")
+    Stream<LocationView> streamAllLocations();
+
+    @Query("select c.id as id, a.latitude as latitude, a.longitude as longitude from CarPark c left join c.address a where c.id = :id")
+    List<LocationView> findLocationsById(@Param("id") Long id);
+
+    @Query("select c.id as id, a.latitude as latitude, a.longitude as longitude from CarPark c left join c.address a where c.id in :ids")
+    List<LocationView> findLocationsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select c.id as id, a.latitude as latitude, a.longitude as longitude from CarPark c join c.address a where a.id = :addressId")
+    List<LocationView> findLocationsByAddressId(@Param("addressId") Long addressId);
+
+    @Query("select c.id from CarPark c where c.address.id = :addressId")
+    List<Long> findIdsByAddressId(@Param("addressId") Long addressId);
+
+    /**
+     * Streams the id and name of every car park, without loading the entities. Must be consumed inside a transaction.
+     *
+     * @return a stream of {@link NameView}.
+     */
+    @Query("select c.id as id, c.name as name from CarPark c")
+    Stream<NameView> streamAllNames();
+
+    @Query("select c.id as id, c.name as name from CarPark c where c.id in :ids")
+    List<NameView> findNamesByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Projection of a {@link CarPark} on the coordinates of its address.
+     */
+    interface LocationView {
+        Long getId();
+
+        Double getLatitude();
+
+        Double getLongitude();
+    }
+
+    /**
+     * Projection of a {@link CarPark} on its name.
+     */
+    interface NameView {
+        Long getId();
+
+        String getName();
+    }
+}
@@ -1,5 +1,7 @@
 package smartparking.repository;
 
+import java.util.List;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 import smartparking.domain.OpenHours;
@@ -9,4 +11,12 @@ import smartparking.domain.OpenHours;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface OpenHoursRepository extends JpaRepository<OpenHours, Long> {}
+public interface OpenHoursRepository extends JpaRepository<OpenHours, Long> {
+    /**
+     * Gets a page of open hours, with their car park and its address fetched by the same query.
+     */
+    @EntityGraph(attributePaths = { "carPark", "carPark.address" })
+    List<OpenHours> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    List<OpenHours> findAllByCarParkId(Long carParkId);
+}
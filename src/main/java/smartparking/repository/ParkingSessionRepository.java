@@ -0,0 +1,31 @@
+package smartparking.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import smartparking.domain.ParkingSession;
+
+/**
+ * Spring Data SQL repository for the ParkingSession entity.
+ */
+@Repository
+public interface ParkingSessionRepository extends JpaRepository<ParkingSession, Long> {
+    /**
+     * Finds the sessions of a car park started within a time range, in pages ordered by id.
+     * The bounds on the start time restrict the scan to the partitions of the range.
+     */
+    @Query(
+        "select s from ParkingSession s where s.carParkId = :carParkId and s.startTime >= :from and s.startTime < :to" +
+        " and s.id > :cursor order by s.id"
+    )
+    List<ParkingSession> findAllByCarParkStartedBetween(
+        @Param("carParkId") Long carParkId,
+        @Param("from") Instant from,
+        @Param("to") Instant to,
+        @Param("cursor") Long cursor,
+        Pageable pageable
+    );
+}
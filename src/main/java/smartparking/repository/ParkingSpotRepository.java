@@ -1,6 +1,12 @@
 package smartparking.repository;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import smartparking.domain.ParkingSpot;
 
@@ -9,4 +15,81 @@ import smartparking.domain.ParkingSpot;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long> {}
+public interface ParkingSpotRepository extends JpaRepository<ParkingSpot, Long> {
+    String SELECT_OCCUPANCY =
+        "select p.id as id, c.id as carParkId, p.floor as floor, p.available as available," +
+        " p.accessableParking as accessableParking from ParkingSpot p left join p.carPark c";
+
+    /**
+     * Gets a page of parking spots, with their car park and its address fetched by the same query.
+     */
+    @EntityGraph(attributePaths = { "carPark", "carPark.address" })
+    List<ParkingSpot> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * Streams the occupancy-relevant columns of every parking spot, ordered by id, without loading the entities.
+     * Must be consumed inside a transaction.
+     *
+     * @return a stream of {@link OccupancyView}.
+     */
+    @Query(SELECT_OCCUPANCY + " order by p.id")
+    Stream<OccupancyView> streamAllOccupancy();
+
+    /**
+     * Streams the occupancy-relevant columns of the parking spots whose availability changed since a given time.
+     * Must be consumed inside a transaction.
+     *
+     * @param since the time from which the changes are read.
+     * @return a stream of {@link OccupancyView}.
+     */
+    @Query(SELECT_OCCUPANCY + " where p.availabilityChangedAt >= :since")
+    Stream<OccupancyView> streamOccupancyChangedSince(@Param("since") Instant since);
+
+    /**
+     * Gets the occupancy-relevant columns of some parking spots, without loading the entities.
+     *
+     * @param ids the ids of the parking spots.
+     * @return the {@link OccupancyView} of the existing ones.
+     */
+    @Query(SELECT_OCCUPANCY + " where p.id in :ids")
+    List<OccupancyView> findOccupancyByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Gets the time of the last applied availability change of some parking spots.
+     *
+     * @param ids the ids of the parking spots.
+     * @return the {@link AvailabilityChangeView} of the existing ones.
+     */
+    @Query("select p.id as id, p.availabilityChangedAt as availabilityChangedAt from ParkingSpot p where p.id in :ids")
+    List<AvailabilityChangeView> findAvailabilityChangeByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select p.id from ParkingSpot p where p.carPark.id = :carParkId")
+    List<Long> findIdsByCarParkId(@Param("carParkId") Long carParkId);
+
+    @Query("select p.id from ParkingSpot p where p.carPark.address.id = :addressId")
+    List<Long> findIdsByCarParkAddressId(@Param("addressId") Long addressId);
+
+    /**
+     * Projection of a {@link ParkingSpot} on the time of its last availability change.
+     */
+    interface AvailabilityChangeView {
+        Long getId();
+
+        Instant getAvailabilityChangedAt();
+    }
+
+    /**
+     * Projection of a {@link ParkingSpot} on the columns needed to track occupancy.
+     */
+    interface OccupancyView {
+        Long getId();
+
+        Long getCarParkId();
+
+        Long getFloor();
+
+        Boolean getAvailable();
+
+        Boolean getAccessableParking();
+    }
+}
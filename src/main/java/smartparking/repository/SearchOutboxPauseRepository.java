@@ -0,0 +1,14 @@
+package smartparking.repository;
+
+import java.time.Instant;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import smartparking.domain.SearchOutboxPause;
+
+/**
+ * Spring Data SQL repository for the SearchOutboxPause entity.
+ */
+@Repository
+public interface SearchOutboxPauseRepository extends JpaRepository<SearchOutboxPause, Long> {
+    boolean existsByPausedUntilAfter(Instant now);
+}
@@ -0,0 +1,25 @@
+package smartparking.repository;
+
+import java.util.List;
+import java.util.Optional;
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.*;
+import org.springframework.stereotype.Repository;
+import smartparking.domain.SearchOutboxEntry;
+
+/**
+ * Spring Data SQL repository for the SearchOutboxEntry entity.
+ */
+@Repository
+public interface SearchOutboxRepository extends JpaRepository<SearchOutboxEntry, Long> {
+    /**
+     * Locks the oldest entries, skipping the ones already locked by another instance draining the outbox.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "javax.persistence.lock.timeout", value = "-2"))
+    List<SearchOutboxEntry> findAllByOrderByIdAsc(Pageable pageable);
+
+    Optional<SearchOutboxEntry> findFirstByOrderByIdAsc();
+}
@@ -1,5 +1,8 @@
 package smartparking.repository;
 
+import java.util.List;
+import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.stereotype.Repository;
 import smartparking.domain.UserExtra;
@@ -9,4 +12,8 @@ import smartparking.domain.UserExtra;
  */
 @SuppressWarnings("unused")
 @Repository
-public interface UserExtraRepository extends JpaRepository<UserExtra, Long> {}
+public interface UserExtraRepository extends JpaRepository<UserExtra, Long> {
+    List<UserExtra> findAllByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    Optional<UserExtra> findOneByUserId(Long userId);
+}
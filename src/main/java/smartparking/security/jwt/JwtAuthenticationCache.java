@@ -0,0 +1,102 @@
+package smartparking.security.jwt;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * Bounded cache of the principal and authorities of verified JWTs, keyed by a SHA-256 digest of the token.
+ * <p>
+ * An entry expires with its token, so a token is never accepted past its {@code exp} claim. The digest covers the
+ * signature, so a tampered token never matches a cached entry and goes through the full verification.
+ */
+final class JwtAuthenticationCache {
+
+    private final int maxEntries;
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+    JwtAuthenticationCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * @return a new authentication for a cached token, or empty if the token is not cached or has expired.
+     */
+    Optional<Authentication> get(String token, long now) {
+        String key = digest(token);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (entry.expiresAt <= now) {
+            entries.remove(key, entry);
+            return Optional.empty();
+        }
+        // A new token each time, as an Authentication is mutable
+        return Optional.of(new UsernamePasswordAuthenticationToken(entry.principal, token, entry.authorities));
+    }
+
+    void put(String token, User principal, Collection<? extends GrantedAuthority> authorities, long expiresAt, long now) {
+        if (expiresAt <= now) {
+            return;
+        }
+        if (entries.size() >= maxEntries) {
+            evict(now);
+        }
+        entries.put(digest(token), new Entry(principal, authorities, expiresAt));
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Drops the expired entries, then arbitrary ones until a tenth of the cache is free.
+     */
+    private synchronized void evict(long now) {
+        if (entries.size() < maxEntries) {
+            return;
+        }
+        entries.values().removeIf(entry -> entry.expiresAt <= now);
+        Iterator<String> keys = entries.keySet().iterator();
+        while (entries.size() > maxEntries - Math.max(maxEntries / 10, 1) && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private static String digest(String token) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Entry {
+
+        private final User principal;
+
+        private final Collection<? extends GrantedAuthority> authorities;
+
+        private final long expiresAt;
+
+        private Entry(User principal, Collection<? extends GrantedAuthority> authorities, long expiresAt) {
+            this.principal = principal;
+            this.authorities = authorities;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
@@ -25,6 +25,8 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    private static final int MAX_CACHED_TOKENS = 10000;
+
     private final Key key;
 
     private final JwtParser jwtParser;
@@ -33,6 +35,8 @@ public class TokenProvider {
 
     private final long tokenValidityInMillisecondsForRememberMe;
 
+    private final JwtAuthenticationCache authenticationCache = new JwtAuthenticationCache(MAX_CACHED_TOKENS);
+
     public TokenProvider(JHipsterProperties jHipsterProperties) {
         byte[] keyBytes;
         String secret = jHipsterProperties.getSecurity().getAuthentication().getJwt().getSecret();
@@ -74,27 +78,49 @@ public class TokenProvider {
     }
 
     public Authentication getAuthentication(String token) {
+        return authenticationCache.get(token, System.currentTimeMillis()).orElseGet(() -> parseAuthentication(token));
+    }
+
+    public boolean validateToken(String authToken) {
+        return authenticate(authToken).isPresent();
+    }
+
+    /**
+     * Verifies a token and builds its authentication, parsing the token at most once.
+     * <p>
+     * Verified tokens are cached until they expire, so the same token sent again skips the signature check.
+     *
+     * @param token the JWT.
+     * @return the authentication, or empty if the token is not valid.
+     */
+    public Optional<Authentication> authenticate(String token) {
+        Optional<Authentication> cached = authenticationCache.get(token, System.currentTimeMillis());
+        if (cached.isPresent()) {
+            return cached;
+        }
+        try {
+            return Optional.of(parseAuthentication(token));
+        } catch (JwtException | IllegalArgumentException e) {
+            log.info("Invalid JWT token.");
+            log.trace("Invalid JWT token trace.", e);
+        }
+        return Optional.empty();
+    }
+
+    private Authentication parseAuthentication(String token) {
         Claims claims = jwtParser.parseClaimsJws(token).getBody();
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
+        List<GrantedAuthority> authorities = Arrays
             .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
             .filter(auth -> !auth.trim().isEmpty())
             .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+            .collect(Collectors.toUnmodifiableList());
 
         User principal = new User(claims.getSubject(), "", authorities);
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
-    }
-
-    public boolean validateToken(String authToken) {
-        try {
-            jwtParser.parseClaimsJws(authToken);
-            return true;
-        } catch (JwtException | IllegalArgumentException e) {
-            log.info("Invalid JWT token.");
-            log.trace("Invalid JWT token trace.", e);
+        if (claims.getExpiration() != null) {
+            authenticationCache.put(token, principal, authorities, claims.getExpiration().getTime(), System.currentTimeMillis());
         }
-        return false;
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
     }
 }
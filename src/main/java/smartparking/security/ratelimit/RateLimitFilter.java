@@ -0,0 +1,70 @@
+package smartparking.security.ratelimit;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletRequest;
+import javax.servlet.ServletResponse;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.GenericFilterBean;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Filters incoming requests through the {@link RateLimiter}, and rejects the requests over the limit of their route
+ * with a {@code 429 Too Many Requests} status and a {@code Retry-After} header.
+ * <p>
+ * Authenticated requests are limited per principal, the other ones per client IP address. Behind a proxy, the
+ * address is only the one of the client when {@code server.forward-headers-strategy} is set.
+ */
+public class RateLimitFilter extends GenericFilterBean {
+
+    private final RateLimiter rateLimiter;
+
+    private final MeterRegistry meterRegistry;
+
+    public RateLimitFilter(ApplicationProperties.RateLimit properties, MeterRegistry meterRegistry) {
+        this.rateLimiter = properties.isEnabled() ? new RateLimiter(properties) : null;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void doFilter(ServletRequest servletRequest, ServletResponse servletResponse, FilterChain filterChain)
+        throws IOException, ServletException {
+        if (rateLimiter != null) {
+            HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
+            String path = httpServletRequest.getRequestURI().substring(httpServletRequest.getContextPath().length());
+            RateLimiter.Rule rule = rateLimiter.match(path);
+            if (rule != null) {
+                long wait = rateLimiter.tryAcquire(rule, resolveClient(httpServletRequest), System.nanoTime());
+                if (wait > 0) {
+                    meterRegistry.counter("rate.limit.rejected", "route", rule.getPattern()).increment();
+                    HttpServletResponse httpServletResponse = (HttpServletResponse) servletResponse;
+                    httpServletResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                    httpServletResponse.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, toSecondsCeil(wait))));
+                    return;
+                }
+            }
+        }
+        filterChain.doFilter(servletRequest, servletResponse);
+    }
+
+    private String resolveClient(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated() && !(authentication instanceof AnonymousAuthenticationToken)) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private static long toSecondsCeil(long nanos) {
+        return (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1);
+    }
+}
@@ -0,0 +1,170 @@
+package smartparking.security.ratelimit;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import org.springframework.util.AntPathMatcher;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Lock-free token buckets, one per route rule and client.
+ * <p>
+ * A bucket is a single {@link AtomicLong} updated with a compare-and-set, following the generic cell rate
+ * algorithm: it holds the time at which the bucket will be full again, so refilling needs no timer and a full
+ * bucket is no different from a new one. Full buckets can therefore be dropped at any time, which keeps the map of
+ * clients bounded: it is swept every minute, or as soon as it holds more than the configured number of clients.
+ */
+public class RateLimiter {
+
+    private static final long SWEEP_INTERVAL_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final List<Rule> rules;
+
+    private final int maxKeys;
+
+    private final ConcurrentMap<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private volatile long nextSweep;
+
+    public RateLimiter(ApplicationProperties.RateLimit properties) {
+        List<Rule> compiledRules = new ArrayList<>();
+        for (int i = 0; i < properties.getRules().size(); i++) {
+            compiledRules.add(new Rule(i, properties.getRules().get(i)));
+        }
+        this.rules = Collections.unmodifiableList(compiledRules);
+        this.maxKeys = properties.getMaxKeys();
+        this.nextSweep = System.nanoTime() + SWEEP_INTERVAL_NANOS;
+    }
+
+    /**
+     * @param path the path of a request, within the application.
+     * @return the first rule applying to the path, or {@code null} if the path is not rate limited.
+     */
+    public Rule match(String path) {
+        for (Rule rule : rules) {
+            if (rule.matches(path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Takes a token from the bucket of a client.
+     *
+     * @param rule the rule applying to the request.
+     * @param client the client sending the request.
+     * @param now the current time, from {@link System#nanoTime()}.
+     * @return {@code 0} if the request is allowed, otherwise the time to wait before a token is available, in
+     * nanoseconds.
+     */
+    public long tryAcquire(Rule rule, String client, long now) {
+        if (now - nextSweep > 0 || buckets.size() > maxKeys) {
+            sweep(now);
+        }
+        String key = rule.keyPrefix.concat(client);
+        AtomicLong bucket = buckets.get(key);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(key, k -> new AtomicLong(now));
+        }
+        for (;;) {
+            long fullAt = bucket.get();
+            long next = Math.max(fullAt, now) + rule.intervalNanos;
+            long wait = next - now - rule.burstNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    /**
+     * Drops the full buckets and, if there are still too many clients, arbitrary ones.
+     */
+    void sweep(long now) {
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            nextSweep = now + SWEEP_INTERVAL_NANOS;
+            buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+            int target = maxKeys - maxKeys / 10;
+            for (Iterator<AtomicLong> iterator = buckets.values().iterator(); buckets.size() > target && iterator.hasNext();) {
+                iterator.next();
+                iterator.remove();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    int size() {
+        return buckets.size();
+    }
+
+    /**
+     * A route rate limit, in the form used by the buckets.
+     */
+    public static final class Rule {
+
+        private final String keyPrefix;
+
+        private final String pattern;
+
+        /**
+         * Path prefix of a {@code /**} pattern without other wildcards, matched without the {@link AntPathMatcher}.
+         */
+        private final String prefix;
+
+        private final boolean literal;
+
+        /**
+         * Time to refill one token.
+         */
+        private final long intervalNanos;
+
+        /**
+         * Time to refill a whole bucket.
+         */
+        private final long burstNanos;
+
+        private Rule(int index, ApplicationProperties.RateLimit.Rule rule) {
+            if (rule.getPattern() == null || rule.getCapacity() < 1 || !(rule.getRefillPerSecond() > 0)) {
+                throw new IllegalArgumentException("Invalid rate limit rule for pattern " + rule.getPattern());
+            }
+            this.keyPrefix = index + ":";
+            this.pattern = rule.getPattern();
+            String head = pattern.endsWith("/**") ? pattern.substring(0, pattern.length() - 3) : null;
+            this.prefix = head != null && !PATH_MATCHER.isPattern(head) ? head : null;
+            this.literal = !PATH_MATCHER.isPattern(pattern);
+            this.intervalNanos = Math.max(1, (long) (TimeUnit.SECONDS.toNanos(1) / rule.getRefillPerSecond()));
+            this.burstNanos = intervalNanos * rule.getCapacity();
+        }
+
+        public String getPattern() {
+            return pattern;
+        }
+
+        private boolean matches(String path) {
+            if (literal) {
+                return pattern.equals(path);
+            }
+            if (prefix != null) {
+                return path.startsWith(prefix) && (path.length() == prefix.length() || path.charAt(prefix.length()) == '/');
+            }
+            return PATH_MATCHER.match(pattern, path);
+        }
+    }
+}
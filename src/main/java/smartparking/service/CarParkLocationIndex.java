@@ -0,0 +1,289 @@
+package smartparking.service;
+
+import static smartparking.service.util.TransactionUtil.afterCommit;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.repository.CarParkRepository;
+import smartparking.service.dto.NearbyCarParkDTO;
+
+/**
+ * Resident spatial index of {@link CarPark} locations, taken from the coordinates of their address.
+ * <p>
+ * Car parks are bucketed in a grid of fixed size cells in degrees. A nearest query visits the cells in rings of
+ * growing size around the query point and stops as soon as no unvisited cell can hold a closer car park, so it
+ * only looks at the car parks around the point. Columns wrap around at the antimeridian, so a point at 179.9° finds
+ * the car parks at -179.9°. Free spots come from the {@link ParkingSpotOccupancyIndex} and opening hours from the
+ * {@link OpenHoursScheduleService}, so a query does not touch the database once warm. A car park without opening
+ * hours is taken as open.
+ * <p>
+ * Like the occupancy index, location changes are read within the writing transaction and applied once it commits, and
+ * the changes of the other nodes by the {@link ClusterIndexSynchronizer}.
+ */
+@Service
+public class CarParkLocationIndex {
+
+    private static final double EARTH_RADIUS_METERS = 6_371_008.8;
+
+    private static final double METERS_PER_DEGREE = Math.toRadians(1) * EARTH_RADIUS_METERS;
+
+    private final Logger log = LoggerFactory.getLogger(CarParkLocationIndex.class);
+
+    private final CarParkRepository carParkRepository;
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final OpenHoursScheduleService openHoursScheduleService;
+
+    private final double cellSize;
+
+    /**
+     * The number of grid columns around the globe, the cell size is expected to divide 360°.
+     */
+    private final long columns;
+
+    private final long firstColumn;
+
+    /**
+     * The ring from which every cell of the grid has been visited, wherever the query point.
+     */
+    private final long lastRing;
+
+    private final ConcurrentMap<Long, Location> locations = new ConcurrentHashMap<>();
+
+    private final ConcurrentMap<Long, Set<Long>> cells = new ConcurrentHashMap<>();
+
+    public CarParkLocationIndex(
+        CarParkRepository carParkRepository,
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        OpenHoursScheduleService openHoursScheduleService,
+        ApplicationProperties applicationProperties
+    ) {
+        this.carParkRepository = carParkRepository;
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.openHoursScheduleService = openHoursScheduleService;
+        this.cellSize = applicationProperties.getCarParkLocation().getCellSizeDegrees();
+        this.columns = Math.max(1, Math.round(360 / cellSize));
+        this.firstColumn = cellIndex(-180);
+        this.lastRing = Math.max(Math.round(180 / cellSize), columns / 2) + 1;
+    }
+
+    /**
+     * Loads the location of every car park once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void load() {
+        log.debug("Loading car park location index");
+        synchronized (this) {
+            locations.clear();
+            cells.clear();
+        }
+        try (Stream<CarParkRepository.LocationView> views = carParkRepository.streamAllLocations()) {
+            views.forEach(view -> apply(view.getId(), view.getLatitude(), view.getLongitude()));
+        }
+        log.debug("Loaded location of {} car parks in {} cells", locations.size(), cells.size());
+    }
+
+    /**
+     * Records the location of a saved car park, once the current transaction commits.
+     *
+     * @param carParkId the id of the saved car park.
+     */
+    public void update(Long carParkId) {
+        List<CarParkRepository.LocationView> views = carParkRepository.findLocationsById(carParkId);
+        afterCommit(() -> views.forEach(view -> apply(view.getId(), view.getLatitude(), view.getLongitude())));
+    }
+
+    /**
+     * Records the location of every car park at a saved address, once the current transaction commits.
+     *
+     * @param addressId the id of the saved address.
+     */
+    public void updateAddress(Long addressId) {
+        List<CarParkRepository.LocationView> views = carParkRepository.findLocationsByAddressId(addressId);
+        afterCommit(() -> views.forEach(view -> apply(view.getId(), view.getLatitude(), view.getLongitude())));
+    }
+
+    /**
+     * Forgets a deleted car park, once the current transaction commits.
+     *
+     * @param carParkId the id of the deleted car park.
+     */
+    public void remove(Long carParkId) {
+        afterCommit(() -> apply(carParkId, null, null));
+    }
+
+    /**
+     * Finds the car parks nearest to a point, which have enough free spots and are open at a given time.
+     *
+     * @param latitude the latitude of the point, in degrees.
+     * @param longitude the longitude of the point, in degrees.
+     * @param limit the maximum number of car parks to return.
+     * @param minFreeSpots the minimum number of free spots of a returned car park.
+     * @param maxDistance the maximum distance of a returned car park, in meters.
+     * @param at the time the car parks must be open at.
+     * @return the matching car parks, nearest first.
+     */
+    public List<NearbyCarParkDTO> findNearest(
+        double latitude,
+        double longitude,
+        int limit,
+        int minFreeSpots,
+        double maxDistance,
+        ZonedDateTime at
+    ) {
+        // Farthest first, so that the head is the candidate to drop
+        PriorityQueue<NearbyCarParkDTO> nearest = new PriorityQueue<>(
+            Comparator.comparingDouble(NearbyCarParkDTO::getDistance).reversed()
+        );
+        long row = cellIndex(latitude);
+        long column = cellIndex(longitude);
+        for (int ring = 0; ring <= lastRing; ring++) {
+            // Every car park in this ring is at least (ring - 1) cells away from the point
+            double ringDistance = Math.max(ring - 1, 0) * cellSize * METERS_PER_DEGREE * minLongitudeScale(latitude, ring);
+            if (ringDistance > maxDistance || (nearest.size() == limit && ringDistance >= nearest.peek().getDistance())) {
+                break;
+            }
+            // Past half the globe, the ring wraps onto columns visited already
+            boolean wrapped = 2L * ring + 1 > columns;
+            for (long cellRow = row - ring; cellRow <= row + ring; cellRow++) {
+                boolean edgeRow = cellRow == row - ring || cellRow == row + ring;
+                long step = edgeRow ? 1 : 2L * ring;
+                for (long cellColumn = column - ring; cellColumn <= column + ring; cellColumn += step) {
+                    Set<Long> cell = cells.get(cellKey(cellRow, wrapColumn(cellColumn)));
+                    if (cell != null) {
+                        for (Long carParkId : cell) {
+                            if (!wrapped || nearest.stream().noneMatch(candidate -> candidate.getCarParkId().equals(carParkId))) {
+                                offer(nearest, carParkId, latitude, longitude, limit, minFreeSpots, maxDistance, at);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        List<NearbyCarParkDTO> result = new ArrayList<>(nearest);
+        result.sort(Comparator.comparingDouble(NearbyCarParkDTO::getDistance));
+        return result;
+    }
+
+    private void offer(
+        PriorityQueue<NearbyCarParkDTO> nearest,
+        Long carParkId,
+        double latitude,
+        double longitude,
+        int limit,
+        int minFreeSpots,
+        double maxDistance,
+        ZonedDateTime at
+    ) {
+        Location location = locations.get(carParkId);
+        if (location == null) {
+            return;
+        }
+        double distance = distance(latitude, longitude, location.latitude, location.longitude);
+        if (distance > maxDistance || (nearest.size() == limit && distance >= nearest.peek().getDistance())) {
+            return;
+        }
+        // Cheapest checks first, the schedule may have to be compiled
+        int freeSpots = parkingSpotOccupancyIndex.getAvailability(carParkId).getFreeSpots();
+        if (freeSpots < minFreeSpots || !openHoursScheduleService.isOpenOrUnscheduledAt(carParkId, at)) {
+            return;
+        }
+        nearest.add(new NearbyCarParkDTO(carParkId, location.latitude, location.longitude, distance, freeSpots));
+        if (nearest.size() > limit) {
+            nearest.poll();
+        }
+    }
+
+    /**
+     * Applies the location of a car park to the index immediately.
+     *
+     * @param carParkId the id of the car park.
+     * @param latitude the latitude of the car park, or {@code null} to remove the car park from the index.
+     * @param longitude the longitude of the car park, or {@code null} to remove the car park from the index.
+     */
+    synchronized void apply(Long carParkId, Double latitude, Double longitude) {
+        Location previous = latitude != null && longitude != null
+            ? locations.put(carParkId, new Location(latitude, longitude))
+            : locations.remove(carParkId);
+        if (previous != null) {
+            cells.computeIfPresent(
+                previous.cellKey,
+                (key, cell) -> {
+                    cell.remove(carParkId);
+                    return cell.isEmpty() ? null : cell;
+                }
+            );
+        }
+        Location location = locations.get(carParkId);
+        if (location != null) {
+            cells.computeIfAbsent(location.cellKey, key -> ConcurrentHashMap.newKeySet()).add(carParkId);
+        }
+    }
+
+    private long cellIndex(double degrees) {
+        return (long) Math.floor(degrees / cellSize);
+    }
+
+    private long wrapColumn(long column) {
+        return firstColumn + Math.floorMod(column - firstColumn, columns);
+    }
+
+    private static long cellKey(long row, long column) {
+        return (row << 32) ^ (column & 0xffffffffL);
+    }
+
+    /**
+     * @return the smallest east-west length of a degree, relative to the north-south one, over the rows of a ring.
+     */
+    private double minLongitudeScale(double latitude, int ring) {
+        double farthestLatitude = Math.min(Math.abs(latitude) + (ring + 1) * cellSize, 89);
+        return Math.cos(Math.toRadians(farthestLatitude));
+    }
+
+    /**
+     * @return the great-circle distance between two points, in meters.
+     */
+    static double distance(double latitude1, double longitude1, double latitude2, double longitude2) {
+        double latitudeDelta = Math.toRadians(latitude2 - latitude1);
+        double longitudeDelta = Math.toRadians(longitude2 - longitude1);
+        double a =
+            Math.pow(Math.sin(latitudeDelta / 2), 2) +
+            Math.cos(Math.toRadians(latitude1)) * Math.cos(Math.toRadians(latitude2)) * Math.pow(Math.sin(longitudeDelta / 2), 2);
+        return 2 * EARTH_RADIUS_METERS * Math.asin(Math.min(1, Math.sqrt(a)));
+    }
+
+    /**
+     * Coordinates of a car park, with the grid cell they fall in.
+     */
+    private final class Location {
+
+        private final double latitude;
+
+        private final double longitude;
+
+        private final long cellKey;
+
+        private Location(double latitude, double longitude) {
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.cellKey = cellKey(cellIndex(latitude), wrapColumn(cellIndex(longitude)));
+        }
+    }
+}
@@ -0,0 +1,214 @@
+package smartparking.service;
+
+import static smartparking.service.util.TransactionUtil.afterCommit;
+
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.stream.Stream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.domain.CarPark;
+import smartparking.repository.CarParkRepository;
+import smartparking.service.dto.CarParkSummaryDTO;
+
+/**
+ * Resident read model of the {@link CarPark} summaries shown in list and map views.
+ * <p>
+ * Only the id and name of each car park are held here, ordered by id for cursor pagination. The counters come from
+ * the {@link ParkingSpotOccupancyIndex}, which keeps them per car park and per floor as spots are written, and the
+ * open state from the compiled schedules of the {@link OpenHoursScheduleService}, which are dropped as opening hours
+ * are written. A summary is thus assembled in constant time, whatever the number of spots, and without touching the
+ * database once the schedules are compiled.
+ * <p>
+ * Like the other indices, car park changes are applied once the writing transaction commits, and the changes of the
+ * other nodes by the {@link ClusterIndexSynchronizer}. A load builds a new map
+ * and swaps it in, so that readers never see a partial index; the changes committed meanwhile are applied to both
+ * maps, and win over the loaded names.
+ */
+@Service
+public class CarParkSummaryIndex {
+
+    private final Logger log = LoggerFactory.getLogger(CarParkSummaryIndex.class);
+
+    private final CarParkRepository carParkRepository;
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final OpenHoursScheduleService openHoursScheduleService;
+
+    private volatile ConcurrentNavigableMap<Long, Entry> carParks = new ConcurrentSkipListMap<>();
+
+    /**
+     * Guards the writes to the index, and the map being loaded.
+     */
+    private final Object writeLock = new Object();
+
+    private ConcurrentNavigableMap<Long, Entry> loading;
+
+    private Set<Long> touchedWhileLoading;
+
+    public CarParkSummaryIndex(
+        CarParkRepository carParkRepository,
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        OpenHoursScheduleService openHoursScheduleService
+    ) {
+        this.carParkRepository = carParkRepository;
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.openHoursScheduleService = openHoursScheduleService;
+    }
+
+    /**
+     * Loads the name of every car park once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void load() {
+        log.debug("Loading car park summary index");
+        ConcurrentNavigableMap<Long, Entry> loaded = new ConcurrentSkipListMap<>();
+        synchronized (writeLock) {
+            loading = loaded;
+            touchedWhileLoading = new HashSet<>();
+        }
+        boolean complete = false;
+        try (Stream<CarParkRepository.NameView> views = carParkRepository.streamAllNames()) {
+            views.forEach(view -> {
+                synchronized (writeLock) {
+                    if (!touchedWhileLoading.contains(view.getId())) {
+                        loaded.put(view.getId(), new Entry(view.getName()));
+                    }
+                }
+            });
+            complete = true;
+        } finally {
+            synchronized (writeLock) {
+                if (complete) {
+                    carParks = loaded;
+                }
+                loading = null;
+                touchedWhileLoading = null;
+            }
+        }
+        log.debug("Loaded summary of {} car parks", loaded.size());
+    }
+
+    /**
+     * Records the name of a saved car park, once the current transaction commits.
+     *
+     * @param carPark the saved car park.
+     */
+    public void update(CarPark carPark) {
+        Long carParkId = carPark.getId();
+        String name = carPark.getName();
+        afterCommit(() -> put(carParkId, name));
+    }
+
+    /**
+     * Forgets a deleted car park, once the current transaction commits.
+     *
+     * @param carParkId the id of the deleted car park.
+     */
+    public void remove(Long carParkId) {
+        afterCommit(() -> delete(carParkId));
+    }
+
+    /**
+     * Gets the summary of a car park.
+     *
+     * @param carParkId the id of the car park.
+     * @param at the time the open state is given at.
+     * @return the summary, or empty if the car park does not exist.
+     */
+    public Optional<CarParkSummaryDTO> getSummary(Long carParkId, ZonedDateTime at) {
+        Entry entry = carParks.get(carParkId);
+        return entry != null ? Optional.of(toSummary(carParkId, entry, at)) : Optional.empty();
+    }
+
+    /**
+     * Gets a page of the car park summaries, ordered by id.
+     *
+     * @param startAfter the id after which the page starts.
+     * @param size the size of the page.
+     * @param at the time the open states are given at.
+     * @return the summaries of the page.
+     */
+    public List<CarParkSummaryDTO> getSummaries(long startAfter, int size, ZonedDateTime at) {
+        List<CarParkSummaryDTO> summaries = new ArrayList<>(size);
+        for (Map.Entry<Long, Entry> carPark : carParks.tailMap(startAfter, false).entrySet()) {
+            if (summaries.size() == size) {
+                break;
+            }
+            summaries.add(toSummary(carPark.getKey(), carPark.getValue(), at));
+        }
+        return summaries;
+    }
+
+    /**
+     * Applies the name of a car park to the index immediately.
+     *
+     * @param carParkId the id of the car park.
+     * @param name the name of the car park.
+     */
+    void put(Long carParkId, String name) {
+        apply(carParkId, new Entry(name));
+    }
+
+    /**
+     * Removes a car park from the index immediately.
+     *
+     * @param carParkId the id of the car park.
+     */
+    void delete(Long carParkId) {
+        apply(carParkId, null);
+    }
+
+    private void apply(Long carParkId, Entry entry) {
+        synchronized (writeLock) {
+            if (loading != null) {
+                touchedWhileLoading.add(carParkId);
+                write(loading, carParkId, entry);
+            }
+            write(carParks, carParkId, entry);
+        }
+    }
+
+    private static void write(Map<Long, Entry> map, Long carParkId, Entry entry) {
+        if (entry != null) {
+            map.put(carParkId, entry);
+        } else {
+            map.remove(carParkId);
+        }
+    }
+
+    private CarParkSummaryDTO toSummary(Long carParkId, Entry entry, ZonedDateTime at) {
+        return new CarParkSummaryDTO(
+            carParkId,
+            entry.name,
+            parkingSpotOccupancyIndex.getAvailability(carParkId),
+            parkingSpotOccupancyIndex.getFloorAvailability(carParkId),
+            openHoursScheduleService.isOpenAt(carParkId, at)
+        );
+    }
+
+    /**
+     * Indexed state of a car park. The name may be {@code null}, which the map cannot hold directly.
+     */
+    private static final class Entry {
+
+        private final String name;
+
+        private Entry(String name) {
+            this.name = name;
+        }
+    }
+}
@@ -0,0 +1,483 @@
+package smartparking.service;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Consumer;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.domain.enumeration.UtilizationGranularity;
+import smartparking.service.dto.CarParkAvailabilityDTO;
+
+/**
+ * Aggregates the occupancy changes of each {@link CarPark} into utilization rollups, per time bucket of every
+ * {@link UtilizationGranularity}.
+ * <p>
+ * The occupancy of a car park is read from the {@link ParkingSpotOccupancyIndex} as each change is published, and
+ * integrated over time in memory: a bucket holds the occupied spot-seconds and observed seconds (their ratio is the
+ * average occupancy), the peak occupancy, and the arrivals. Every
+ * {@code application.utilization.flush-interval-ms} the increments since the previous flush are added to the
+ * {@code car_park_utilization} table, so a restart only loses the last interval, and charts read one row per bucket
+ * whatever the number of changes behind it.
+ * <p>
+ * The occupancy index of every node also applies the changes committed by the other nodes, through the
+ * {@link ClusterIndexSynchronizer}, so every node integrates the changes of every car park, those of the others a
+ * flush interval of the {@link ClusterCacheInvalidator} late. With {@code application.utilization.single-writer}, only
+ * the node holding a session-level PostgreSQL advisory lock writes, on a connection kept for that purpose; the others
+ * drop their increments, and the first of them to get the lock once the writer is gone takes over from its next
+ * flush. When the index is reloaded because changes were missed, the occupancy of a car park is read again at its
+ * next change.
+ */
+@Service
+public class CarParkUtilizationAggregator {
+
+    private static final String UPDATE_SQL =
+        "update car_park_utilization set occupied_seconds = occupied_seconds + ?, observed_seconds = observed_seconds + ?," +
+        " peak_occupied = greatest(peak_occupied, ?), arrivals = arrivals + ?, capacity = ?" +
+        " where car_park_id = ? and granularity = ? and bucket_start = ?";
+
+    private static final String INSERT_SQL =
+        "insert into car_park_utilization" +
+        " (occupied_seconds, observed_seconds, peak_occupied, arrivals, capacity, car_park_id, granularity, bucket_start)" +
+        " values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String TRY_LOCK_SQL = "select pg_try_advisory_lock(?)";
+
+    private static final String UNLOCK_SQL = "select pg_advisory_unlock(?)";
+
+    private static final int VALID_TIMEOUT_SECONDS = 5;
+
+    private static final UtilizationGranularity[] GRANULARITIES = UtilizationGranularity.values();
+
+    private final Logger log = LoggerFactory.getLogger(CarParkUtilizationAggregator.class);
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final DataSource dataSource;
+
+    private final ApplicationProperties.Utilization properties;
+
+    /**
+     * Connection holding the writer lock, if this node is the writer. Guarded by this.
+     */
+    private Connection writerConnection;
+
+    private final ConcurrentMap<Long, CarParkState> carParks = new ConcurrentHashMap<>();
+
+    /**
+     * Closed or flushed bucket increments waiting to be written. Guarded by its own monitor.
+     */
+    private final Map<RollupKey, Rollup> pending = new LinkedHashMap<>();
+
+    public CarParkUtilizationAggregator(
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        DataSource dataSource,
+        ApplicationProperties applicationProperties
+    ) {
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.dataSource = dataSource;
+        this.properties = applicationProperties.getUtilization();
+    }
+
+    @EventListener
+    public void onOccupancyChanged(ParkingSpotOccupancyChangedEvent event) {
+        long now = System.currentTimeMillis();
+        Long previousCarParkId = event.getPreviousCarParkId();
+        Long carParkId = event.getCarParkId();
+        if (previousCarParkId != null && !previousCarParkId.equals(carParkId)) {
+            recordCurrentOccupancy(previousCarParkId, false, now);
+        }
+        if (carParkId != null) {
+            recordCurrentOccupancy(carParkId, !event.isAvailable() && carParkId.equals(previousCarParkId), now);
+        }
+    }
+
+    private void recordCurrentOccupancy(Long carParkId, boolean arrival, long now) {
+        CarParkAvailabilityDTO availability = parkingSpotOccupancyIndex.getAvailability(carParkId);
+        record(carParkId, availability.getTotalSpots() - availability.getFreeSpots(), availability.getTotalSpots(), arrival, now);
+    }
+
+    /**
+     * Records the occupancy of a car park.
+     *
+     * @param carParkId the id of the car park.
+     * @param occupied the number of occupied spots.
+     * @param capacity the number of spots.
+     * @param arrival whether the change is a spot of the car park becoming occupied.
+     * @param now the time of the change, in milliseconds since the epoch.
+     */
+    void record(Long carParkId, int occupied, int capacity, boolean arrival, long now) {
+        CarParkState state = carParks.computeIfAbsent(carParkId, CarParkState::new);
+        synchronized (state) {
+            boolean known = state.advance(now, this::addPending);
+            int arrivals = arrival && known ? Math.max(0, occupied - state.occupied) : 0;
+            state.occupied = occupied;
+            state.capacity = capacity;
+            for (Rollup bucket : state.buckets) {
+                bucket.add(0, 0, occupied, arrivals, capacity);
+            }
+        }
+    }
+
+    /**
+     * Writes the increments of the rollups since the previous flush.
+     */
+    @Scheduled(fixedDelayString = "${application.utilization.flush-interval-ms:60000}")
+    public void flush() {
+        flush(System.currentTimeMillis());
+    }
+
+    void flush(long now) {
+        List<Rollup> rollups = drain(now);
+        if (rollups.isEmpty()) {
+            return;
+        }
+        if (!isWriter()) {
+            log.trace("Not the car park utilization writer, dropping {} rollups", rollups.size());
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(rollups));
+            log.debug("Wrote {} car park utilization rollups", rollups.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not write {} car park utilization rollups, will retry: {}", rollups.size(), e.getMessage());
+            rollups.forEach(this::addPending);
+        }
+    }
+
+    /**
+     * Integrates the occupancy of every car park up to a time, and takes the increments to write.
+     *
+     * @param now the time, in milliseconds since the epoch.
+     * @return the increments of every bucket changed since the previous call.
+     */
+    List<Rollup> drain(long now) {
+        Set<Long> carParkIds = new HashSet<>(parkingSpotOccupancyIndex.getCarParkIds());
+        carParkIds.addAll(carParks.keySet());
+        for (Long carParkId : carParkIds) {
+            CarParkState state = carParks.get(carParkId);
+            if (state == null) {
+                // A car park without change since the start: its occupancy still counts
+                recordCurrentOccupancy(carParkId, false, now);
+                continue;
+            }
+            synchronized (state) {
+                state.advance(now, this::addPending);
+                for (int i = 0; i < state.buckets.length; i++) {
+                    addPending(state.buckets[i]);
+                    state.buckets[i] = state.newBucket(GRANULARITIES[i], state.buckets[i].key.bucketStart);
+                }
+            }
+        }
+        synchronized (pending) {
+            List<Rollup> rollups = new ArrayList<>(pending.values());
+            pending.clear();
+            return rollups;
+        }
+    }
+
+    /**
+     * Checks whether this node writes the rollups, trying to get the writer lock if nobody holds it.
+     */
+    synchronized boolean isWriter() {
+        if (!properties.isSingleWriter()) {
+            return true;
+        }
+        try {
+            if (writerConnection != null) {
+                if (writerConnection.isValid(VALID_TIMEOUT_SECONDS)) {
+                    return true;
+                }
+                // The lock went with the session
+                log.warn("Lost the car park utilization writer lock");
+                releaseWriterLock();
+            }
+            Connection connection = dataSource.getConnection();
+            try {
+                connection.setAutoCommit(true);
+                if (advisoryLock(connection, TRY_LOCK_SQL)) {
+                    log.info("Writing the car park utilization rollups of the cluster");
+                    writerConnection = connection;
+                    return true;
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.close();
+                throw e;
+            }
+            connection.close();
+            return false;
+        } catch (SQLException e) {
+            log.warn("Could not get the car park utilization writer lock: {}", e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Releases the writer lock, so that another node takes over without waiting for the connection to be closed.
+     */
+    @PreDestroy
+    public synchronized void releaseWriterLock() {
+        if (writerConnection == null) {
+            return;
+        }
+        try {
+            // The pool keeps the session open, the lock would outlive this node otherwise
+            advisoryLock(writerConnection, UNLOCK_SQL);
+        } catch (SQLException e) {
+            log.debug("Could not release the car park utilization writer lock: {}", e.getMessage());
+        }
+        try {
+            writerConnection.close();
+        } catch (SQLException e) {
+            log.debug("Could not close the car park utilization writer connection: {}", e.getMessage());
+        }
+        writerConnection = null;
+    }
+
+    private boolean advisoryLock(Connection connection, String sql) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(sql)) {
+            statement.setLong(1, properties.getWriterLockKey());
+            try (ResultSet resultSet = statement.executeQuery()) {
+                return resultSet.next() && resultSet.getBoolean(1);
+            }
+        }
+    }
+
+    private void addPending(Rollup rollup) {
+        synchronized (pending) {
+            pending.merge(rollup.key, rollup, Rollup::merge);
+        }
+    }
+
+    private void write(List<Rollup> rollups) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        int[][] updateCounts = jdbcTemplate.batchUpdate(UPDATE_SQL, rollups, rollups.size(), (ps, rollup) -> rollup.bind(ps, utc));
+        List<Rollup> missing = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count == 0) {
+                    missing.add(rollups.get(index));
+                }
+                index++;
+            }
+        }
+        if (!missing.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_SQL, missing, missing.size(), (ps, rollup) -> rollup.bind(ps, utc));
+        }
+    }
+
+    /**
+     * Occupancy of a car park, and its open bucket of each granularity. Guarded by its own monitor.
+     */
+    private static final class CarParkState {
+
+        private final Long carParkId;
+
+        private final Rollup[] buckets = new Rollup[GRANULARITIES.length];
+
+        private long lastTime = Long.MIN_VALUE;
+
+        private int occupied;
+
+        private int capacity;
+
+        private CarParkState(Long carParkId) {
+            this.carParkId = carParkId;
+        }
+
+        /**
+         * Integrates the occupancy up to a time, closing the buckets ending before it.
+         *
+         * @return whether the occupancy was known before this call.
+         */
+        private boolean advance(long now, Consumer<Rollup> closed) {
+            if (lastTime == Long.MIN_VALUE) {
+                for (int i = 0; i < GRANULARITIES.length; i++) {
+                    buckets[i] = newBucket(GRANULARITIES[i], GRANULARITIES[i].bucketStart(now));
+                }
+                lastTime = now;
+                return false;
+            }
+            if (now <= lastTime) {
+                return true;
+            }
+            for (int i = 0; i < GRANULARITIES.length; i++) {
+                long from = lastTime;
+                Rollup bucket = buckets[i];
+                long bucketEnd = bucket.key.bucketStart + GRANULARITIES[i].getMillis();
+                while (now >= bucketEnd) {
+                    bucket.integrate(occupied, bucketEnd - from);
+                    closed.accept(bucket);
+                    from = bucketEnd;
+                    bucket = newBucket(GRANULARITIES[i], bucketEnd);
+                    bucketEnd += GRANULARITIES[i].getMillis();
+                }
+                bucket.integrate(occupied, now - from);
+                buckets[i] = bucket;
+            }
+            lastTime = now;
+            return true;
+        }
+
+        private Rollup newBucket(UtilizationGranularity granularity, long bucketStart) {
+            Rollup bucket = new Rollup(new RollupKey(carParkId, granularity, bucketStart));
+            bucket.add(0, 0, occupied, 0, capacity);
+            return bucket;
+        }
+    }
+
+    /**
+     * Row of the {@code car_park_utilization} table.
+     */
+    static final class RollupKey {
+
+        private final Long carParkId;
+
+        private final UtilizationGranularity granularity;
+
+        private final long bucketStart;
+
+        RollupKey(Long carParkId, UtilizationGranularity granularity, long bucketStart) {
+            this.carParkId = carParkId;
+            this.granularity = granularity;
+            this.bucketStart = bucketStart;
+        }
+
+        Long getCarParkId() {
+            return carParkId;
+        }
+
+        UtilizationGranularity getGranularity() {
+            return granularity;
+        }
+
+        long getBucketStart() {
+            return bucketStart;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof RollupKey)) {
+                return false;
+            }
+            RollupKey other = (RollupKey) o;
+            return bucketStart == other.bucketStart && granularity == other.granularity && carParkId.equals(other.carParkId);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(carParkId, granularity, bucketStart);
+        }
+    }
+
+    /**
+     * Increments of a rollup row.
+     */
+    static final class Rollup {
+
+        private final RollupKey key;
+
+        private double occupiedSeconds;
+
+        private double observedSeconds;
+
+        private int peakOccupied;
+
+        private int arrivals;
+
+        private int capacity;
+
+        private Rollup(RollupKey key) {
+            this.key = key;
+        }
+
+        private void integrate(int occupied, long millis) {
+            occupiedSeconds += occupied * millis / 1000.0;
+            observedSeconds += millis / 1000.0;
+        }
+
+        private void add(double occupiedSeconds, double observedSeconds, int peakOccupied, int arrivals, int capacity) {
+            this.occupiedSeconds += occupiedSeconds;
+            this.observedSeconds += observedSeconds;
+            this.peakOccupied = Math.max(this.peakOccupied, peakOccupied);
+            this.arrivals += arrivals;
+            this.capacity = capacity;
+        }
+
+        private Rollup merge(Rollup later) {
+            add(later.occupiedSeconds, later.observedSeconds, later.peakOccupied, later.arrivals, later.capacity);
+            return this;
+        }
+
+        private void bind(PreparedStatement ps, Calendar utc) throws SQLException {
+            ps.setDouble(1, occupiedSeconds);
+            ps.setDouble(2, observedSeconds);
+            ps.setInt(3, peakOccupied);
+            ps.setInt(4, arrivals);
+            ps.setInt(5, capacity);
+            ps.setLong(6, key.carParkId);
+            ps.setString(7, key.granularity.name());
+            ps.setTimestamp(8, new Timestamp(key.bucketStart), utc);
+        }
+
+        RollupKey getKey() {
+            return key;
+        }
+
+        double getOccupiedSeconds() {
+            return occupiedSeconds;
+        }
+
+        double getObservedSeconds() {
+            return observedSeconds;
+        }
+
+        int getPeakOccupied() {
+            return peakOccupied;
+        }
+
+        int getArrivals() {
+            return arrivals;
+        }
+
+        int getCapacity() {
+            return capacity;
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package smartparking.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.List;
+import java.util.TimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.domain.enumeration.UtilizationGranularity;
+import smartparking.service.dto.CarParkUtilizationDTO;
+
+/**
+ * Service reading the car park utilization rollups written by the {@link CarParkUtilizationAggregator}.
+ * <p>
+ * A chart is a range scan of the primary key, one row per bucket, so it costs the same whatever the history length.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CarParkUtilizationService {
+
+    private final Logger log = LoggerFactory.getLogger(CarParkUtilizationService.class);
+
+    private static final String FIND_SQL =
+        "select bucket_start, occupied_seconds, observed_seconds, peak_occupied, arrivals, capacity from car_park_utilization" +
+        " where car_park_id = ? and granularity = ? and bucket_start >= ? and bucket_start < ? order by bucket_start";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CarParkUtilizationService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Gets the utilization of a car park per bucket.
+     *
+     * @param carParkId the id of the car park.
+     * @param granularity the size of the buckets.
+     * @param from the start of the range, rounded down to the start of its bucket.
+     * @param to the exclusive end of the range.
+     * @return the buckets of the range holding data, in time order.
+     */
+    public List<CarParkUtilizationDTO> findUtilization(Long carParkId, UtilizationGranularity granularity, Instant from, Instant to) {
+        log.debug("Request to get the {} utilization of CarPark {} from {} to {}", granularity, carParkId, from, to);
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        return jdbcTemplate.query(
+            FIND_SQL,
+            ps -> {
+                ps.setLong(1, carParkId);
+                ps.setString(2, granularity.name());
+                ps.setTimestamp(3, new Timestamp(granularity.bucketStart(from.toEpochMilli())), utc);
+                ps.setTimestamp(4, Timestamp.from(to), utc);
+            },
+            (rs, rowNum) -> {
+                double observedSeconds = rs.getDouble(3);
+                return new CarParkUtilizationDTO(
+                    rs.getTimestamp(1, utc).toInstant(),
+                    observedSeconds > 0 ? rs.getDouble(2) / observedSeconds : 0,
+                    rs.getInt(4),
+                    rs.getInt(5),
+                    rs.getInt(6)
+                );
+            }
+        );
+    }
+}
@@ -0,0 +1,373 @@
+package smartparking.service;
+
+import static smartparking.service.util.TransactionUtil.afterCommit;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.HibernateException;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.type.Type;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Broadcasts evictions of the Hibernate second-level cache and of the Spring caches to the other nodes of the
+ * cluster, with PostgreSQL {@code NOTIFY}.
+ * <p>
+ * The changes of the rows held in the resident indices are broadcast the same way, and also evict the entity. The
+ * receiving nodes publish them as {@link ClusterRowsChangedEvent}s, for the {@link ClusterIndexSynchronizer} to read
+ * the rows again, so that a spot freed on one node is seen as free on all of them.
+ * <p>
+ * Evictions are queued once the writing transaction commits, de-duplicated, and sent every
+ * {@code application.cache-invalidation.flush-interval-ms} packed in as few notifications as the payload limit
+ * allows, so a hot write path does not send one notification per row. When too many evictions are pending, a single
+ * "clear all" notification is sent instead, which also makes the receivers reload their resident indices. The
+ * notifications are received by {@link ClusterCacheNotificationListener}.
+ * <p>
+ * A notification holds the id of the sending node on its first line, then one eviction per line.
+ */
+@Service
+public class ClusterCacheInvalidator {
+
+    static final char ENTITY = 'E';
+
+    static final char COLLECTION = 'C';
+
+    static final char ROW = 'R';
+
+    static final char CACHE = 'K';
+
+    static final char ALL = 'A';
+
+    static final char SEPARATOR = '\t';
+
+    private static final String NOTIFY_SQL = "select pg_notify(?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(ClusterCacheInvalidator.class);
+
+    private final ApplicationProperties.CacheInvalidation properties;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final CacheManager cacheManager;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean overflow = new AtomicBoolean();
+
+    private final Counter sentCounter;
+
+    private final Counter receivedCounter;
+
+    private final Counter notificationCounter;
+
+    public ClusterCacheInvalidator(
+        ApplicationProperties applicationProperties,
+        EntityManagerFactory entityManagerFactory,
+        CacheManager cacheManager,
+        JdbcTemplate jdbcTemplate,
+        PlatformTransactionManager transactionManager,
+        ApplicationEventPublisher applicationEventPublisher,
+        MeterRegistry meterRegistry
+    ) {
+        this.properties = applicationProperties.getCacheInvalidation();
+        this.entityManagerFactory = entityManagerFactory;
+        this.cacheManager = cacheManager;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.sentCounter = meterRegistry.counter("cache.invalidation.evictions", "direction", "sent");
+        this.receivedCounter = meterRegistry.counter("cache.invalidation.evictions", "direction", "received");
+        this.notificationCounter = meterRegistry.counter("cache.invalidation.notifications");
+    }
+
+    /**
+     * Listens to the Hibernate updates and deletes of cached entities and collections, and to the changes of the
+     * entities held in the resident indices.
+     */
+    @PostConstruct
+    public void registerHibernateListeners() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        SecondLevelCacheInvalidationListener listener = new SecondLevelCacheInvalidationListener(this);
+        EventListenerRegistry registry = sessionFactory().getServiceRegistry().getService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_INSERT, listener);
+        registry.appendListeners(EventType.POST_UPDATE, listener);
+        registry.appendListeners(EventType.POST_DELETE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_RECREATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_UPDATE, listener);
+        registry.appendListeners(EventType.POST_COLLECTION_REMOVE, listener);
+    }
+
+    /**
+     * Evicts an entity from the second-level cache of the other nodes, once the current transaction commits.
+     *
+     * @param entityName the name of the entity.
+     * @param id the id of the entity.
+     */
+    public void evictEntity(String entityName, Object id) {
+        enqueue(ENTITY, entityName, id);
+    }
+
+    /**
+     * Tells the other nodes that a row held in their resident indices changed, once the current transaction commits.
+     * The entity is evicted from their second-level cache as well.
+     *
+     * @param entityName the name of the entity, one of {@link ClusterIndexSynchronizer#INDEXED_ENTITY_NAMES}.
+     * @param id the id of the entity.
+     */
+    public void rowChanged(String entityName, Long id) {
+        enqueue(ROW, entityName, id);
+    }
+
+    /**
+     * Evicts a collection from the second-level cache of the other nodes, once the current transaction commits.
+     *
+     * @param role the role of the collection.
+     * @param ownerId the id of the entity owning the collection.
+     */
+    public void evictCollection(String role, Object ownerId) {
+        enqueue(COLLECTION, role, ownerId);
+    }
+
+    /**
+     * Evicts a key from a Spring cache of the other nodes, once the current transaction commits.
+     *
+     * @param cacheName the name of the cache.
+     * @param key the key to evict.
+     */
+    public void evict(String cacheName, Object key) {
+        enqueue(CACHE, cacheName, key);
+    }
+
+    private void enqueue(char type, String region, Object key) {
+        if (!properties.isEnabled() || key == null) {
+            return;
+        }
+        String eviction = type + region + SEPARATOR + key;
+        afterCommit(
+            () -> {
+                if (pending.size() >= properties.getMaxPendingInvalidations()) {
+                    overflow.set(true);
+                } else {
+                    pending.add(eviction);
+                }
+            }
+        );
+    }
+
+    /**
+     * Sends the pending evictions to the other nodes.
+     */
+    @Scheduled(fixedDelayString = "${application.cache-invalidation.flush-interval-ms:100}")
+    public void flush() {
+        if (!properties.isEnabled() || (pending.isEmpty() && !overflow.get())) {
+            return;
+        }
+        List<String> evictions = new ArrayList<>();
+        if (overflow.getAndSet(false)) {
+            pending.clear();
+            evictions.add(String.valueOf(ALL));
+        } else {
+            for (Iterator<String> iterator = pending.iterator(); iterator.hasNext();) {
+                evictions.add(iterator.next());
+                iterator.remove();
+            }
+        }
+        List<String> payloads = payloads(nodeId, evictions, properties.getMaxPayloadBytes());
+        try {
+            // The connections do not auto-commit, and notifications are only delivered on commit
+            transactionTemplate.executeWithoutResult(
+                status -> payloads.forEach(payload -> jdbcTemplate.query(NOTIFY_SQL, rs -> null, properties.getChannel(), payload))
+            );
+            sentCounter.increment(evictions.size());
+            notificationCounter.increment(payloads.size());
+            log.debug("Sent {} cache evictions in {} notifications", evictions.size(), payloads.size());
+        } catch (DataAccessException e) {
+            log.warn("Could not send {} cache evictions, will retry: {}", evictions.size(), e.getMessage());
+            evictions.forEach(this::requeue);
+        }
+    }
+
+    private void requeue(String eviction) {
+        if (eviction.charAt(0) == ALL || pending.size() >= properties.getMaxPendingInvalidations()) {
+            overflow.set(true);
+        } else {
+            pending.add(eviction);
+        }
+    }
+
+    /**
+     * Packs evictions in notification payloads, each one starting with the id of the sending node.
+     *
+     * @param nodeId the id of the sending node.
+     * @param evictions the evictions to send.
+     * @param maxPayloadBytes the maximum size of a payload, in bytes.
+     * @return the payloads.
+     */
+    static List<String> payloads(String nodeId, List<String> evictions, int maxPayloadBytes) {
+        List<String> payloads = new ArrayList<>();
+        StringBuilder payload = new StringBuilder(nodeId);
+        int payloadBytes = utf8Length(nodeId);
+        boolean empty = true;
+        for (String eviction : evictions) {
+            int evictionBytes = utf8Length(eviction) + 1;
+            if (payloadBytes + evictionBytes > maxPayloadBytes) {
+                if (!empty) {
+                    payloads.add(payload.toString());
+                }
+                payload = new StringBuilder(nodeId);
+                payloadBytes = utf8Length(nodeId);
+                empty = true;
+                if (payloadBytes + evictionBytes > maxPayloadBytes) {
+                    // Too long to be sent, the receivers clear everything instead
+                    eviction = String.valueOf(ALL);
+                    evictionBytes = 2;
+                }
+            }
+            payload.append('\n').append(eviction);
+            payloadBytes += evictionBytes;
+            empty = false;
+        }
+        if (!empty) {
+            payloads.add(payload.toString());
+        }
+        return payloads;
+    }
+
+    private static int utf8Length(String value) {
+        return value.getBytes(StandardCharsets.UTF_8).length;
+    }
+
+    /**
+     * Applies the evictions of a notification received from a node, ignoring the notifications sent by this node.
+     * <p>
+     * The changed rows are published once every line is applied, one {@link ClusterRowsChangedEvent} per entity. A
+     * failure to apply them, or to reload the indices, is thrown, as the resident indices would miss changes otherwise.
+     *
+     * @param payload the payload of the notification.
+     */
+    public void apply(String payload) {
+        String[] lines = payload.split("\n");
+        if (lines.length == 0 || nodeId.equals(lines[0])) {
+            return;
+        }
+        Map<String, Set<Long>> rows = new LinkedHashMap<>();
+        for (int i = 1; i < lines.length; i++) {
+            if (lines[i].charAt(0) == ALL) {
+                resync();
+                receivedCounter.increment();
+                continue;
+            }
+            try {
+                applyEviction(lines[i], rows);
+                receivedCounter.increment();
+            } catch (RuntimeException e) {
+                log.warn("Could not apply cache eviction '{}': {}", lines[i], e.getMessage());
+            }
+        }
+        rows.forEach((entityName, ids) -> applicationEventPublisher.publishEvent(new ClusterRowsChangedEvent(entityName, ids)));
+    }
+
+    private void applyEviction(String eviction, Map<String, Set<Long>> rows) {
+        char type = eviction.charAt(0);
+        int separator = eviction.indexOf(SEPARATOR);
+        String region = eviction.substring(1, separator);
+        String key = eviction.substring(separator + 1);
+        SessionFactoryImplementor sessionFactory = sessionFactory();
+        switch (type) {
+            case ENTITY:
+                Type idType = sessionFactory.getMetamodel().entityPersister(region).getIdentifierType();
+                sessionFactory.getCache().evictEntityData(region, parseId(idType, key));
+                break;
+            case ROW:
+                Long id = Long.valueOf(key);
+                sessionFactory.getCache().evictEntityData(region, id);
+                rows.computeIfAbsent(region, entityName -> new LinkedHashSet<>()).add(id);
+                break;
+            case COLLECTION:
+                Type ownerIdType = sessionFactory.getMetamodel().collectionPersister(region).getOwnerEntityPersister().getIdentifierType();
+                sessionFactory.getCache().evictCollectionData(region, parseId(ownerIdType, key));
+                break;
+            case CACHE:
+                Cache cache = cacheManager.getCache(region);
+                if (cache != null) {
+                    cache.evict(key);
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown eviction type " + type);
+        }
+    }
+
+    /**
+     * Clears the second-level cache and every Spring cache of this node.
+     */
+    public void evictAll() {
+        sessionFactory().getCache().evictAllRegions();
+        cacheManager.getCacheNames().forEach(cacheName -> cacheManager.getCache(cacheName).clear());
+    }
+
+    /**
+     * Clears every cache of this node and reloads its resident indices, after changes of the other nodes were missed.
+     */
+    public void resync() {
+        evictAll();
+        applicationEventPublisher.publishEvent(new ClusterRowsChangedEvent(null, null));
+    }
+
+    private static java.io.Serializable parseId(Type idType, String value) {
+        Class<?> idClass = idType.getReturnedClass();
+        if (Long.class.equals(idClass)) {
+            return Long.valueOf(value);
+        }
+        if (Integer.class.equals(idClass)) {
+            return Integer.valueOf(value);
+        }
+        if (UUID.class.equals(idClass)) {
+            return UUID.fromString(value);
+        }
+        if (String.class.equals(idClass)) {
+            return value;
+        }
+        throw new HibernateException("Unsupported id type " + idClass.getName());
+    }
+
+    private SessionFactoryImplementor sessionFactory() {
+        return entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+    }
+}
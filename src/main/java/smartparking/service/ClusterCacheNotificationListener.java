@@ -0,0 +1,152 @@
+package smartparking.service;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.regex.Pattern;
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Service;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Receives the cache evictions broadcast by the other nodes with PostgreSQL {@code LISTEN}, and hands them over to
+ * the {@link ClusterCacheInvalidator}.
+ * <p>
+ * A dedicated thread holds one connection of the pool for as long as the application runs. Notifications sent
+ * while it is not connected are lost, so every cache of the node is cleared each time it (re)connects. The first
+ * connection is made before the resident indices load, which then miss no change; the indices are reloaded after
+ * any later one.
+ */
+@Service
+public class ClusterCacheNotificationListener {
+
+    private static final Pattern CHANNEL_PATTERN = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final Logger log = LoggerFactory.getLogger(ClusterCacheNotificationListener.class);
+
+    private final DataSource dataSource;
+
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
+
+    private final ApplicationProperties.CacheInvalidation properties;
+
+    private volatile boolean running;
+
+    private Thread thread;
+
+    public ClusterCacheNotificationListener(
+        DataSource dataSource,
+        ClusterCacheInvalidator clusterCacheInvalidator,
+        ApplicationProperties applicationProperties
+    ) {
+        this.dataSource = dataSource;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+        this.properties = applicationProperties.getCacheInvalidation();
+        if (!CHANNEL_PATTERN.matcher(properties.getChannel()).matches()) {
+            throw new IllegalArgumentException("Invalid cache invalidation channel: " + properties.getChannel());
+        }
+    }
+
+    /**
+     * Starts listening once the application is started, before the resident indices load.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public synchronized void start() {
+        if (!properties.isEnabled() || running) {
+            return;
+        }
+        running = true;
+        Connection connection = null;
+        try {
+            connection = connect();
+        } catch (SQLException | RuntimeException e) {
+            log.warn("Could not listen to cache invalidations, retrying: {}", e.getMessage());
+        }
+        Connection firstConnection = connection;
+        thread = new Thread(() -> listen(firstConnection), "cache-invalidation-listener");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        running = false;
+        if (thread != null) {
+            thread.interrupt();
+            thread = null;
+        }
+    }
+
+    private Connection connect() throws SQLException {
+        Connection connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            // LISTEN only takes effect once committed
+            connection.setAutoCommit(true);
+            statement.execute("LISTEN " + properties.getChannel());
+        } catch (SQLException | RuntimeException e) {
+            connection.close();
+            throw e;
+        }
+        log.info("Listening to cache invalidations on channel {}", properties.getChannel());
+        clusterCacheInvalidator.evictAll();
+        return connection;
+    }
+
+    private void listen(Connection firstConnection) {
+        Connection connection = firstConnection;
+        while (running) {
+            try {
+                if (connection == null) {
+                    connection = connect();
+                    // The indices were loaded without this connection, and may have missed changes
+                    clusterCacheInvalidator.resync();
+                }
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(properties.getPollTimeoutMs());
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            clusterCacheInvalidator.apply(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                if (running) {
+                    log.warn("Lost the cache invalidation channel, reconnecting: {}", e.getMessage());
+                }
+            } finally {
+                close(connection);
+                connection = null;
+            }
+            if (running) {
+                try {
+                    Thread.sleep(properties.getReconnectDelayMs());
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private void close(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException e) {
+            log.debug("Could not close the cache invalidation connection: {}", e.getMessage());
+        }
+    }
+}
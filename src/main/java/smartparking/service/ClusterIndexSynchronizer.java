@@ -0,0 +1,157 @@
+package smartparking.service;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.OpenHoursRepository;
+import smartparking.repository.ParkingSpotRepository;
+
+/**
+ * Applies the changes committed by the other nodes of the cluster to the resident indices of this node: the
+ * {@link ParkingSpotOccupancyIndex}, the {@link CarParkSummaryIndex}, the {@link CarParkLocationIndex} and the
+ * schedules of the {@link OpenHoursScheduleService}.
+ * <p>
+ * The other nodes only tell which rows changed, through the {@link ClusterCacheInvalidator}, and the rows are read
+ * again here. Whatever the order the notifications arrive in, the indices thus end with the committed state. When
+ * changes were missed, every index is loaded again.
+ * <p>
+ * The changes applied to the occupancy index are published like the local ones, so the availability stream, the
+ * utilization counters and the search documents of this node follow them too.
+ */
+@Service
+public class ClusterIndexSynchronizer {
+
+    /**
+     * Names of the entities whose changes are read into the resident indices.
+     */
+    public static final Set<String> INDEXED_ENTITY_NAMES = Collections.unmodifiableSet(
+        new HashSet<>(
+            Arrays.asList(ParkingSpot.class.getName(), CarPark.class.getName(), Address.class.getName(), OpenHours.class.getName())
+        )
+    );
+
+    private final Logger log = LoggerFactory.getLogger(ClusterIndexSynchronizer.class);
+
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    private final CarParkRepository carParkRepository;
+
+    private final OpenHoursRepository openHoursRepository;
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final CarParkSummaryIndex carParkSummaryIndex;
+
+    private final CarParkLocationIndex carParkLocationIndex;
+
+    private final OpenHoursScheduleService openHoursScheduleService;
+
+    public ClusterIndexSynchronizer(
+        ParkingSpotRepository parkingSpotRepository,
+        CarParkRepository carParkRepository,
+        OpenHoursRepository openHoursRepository,
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        CarParkSummaryIndex carParkSummaryIndex,
+        CarParkLocationIndex carParkLocationIndex,
+        OpenHoursScheduleService openHoursScheduleService
+    ) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.carParkRepository = carParkRepository;
+        this.openHoursRepository = openHoursRepository;
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.carParkSummaryIndex = carParkSummaryIndex;
+        this.carParkLocationIndex = carParkLocationIndex;
+        this.openHoursScheduleService = openHoursScheduleService;
+    }
+
+    /**
+     * Reads the rows changed by another node, and applies them to the indices.
+     *
+     * @param event the changed rows.
+     */
+    @EventListener
+    @Transactional(readOnly = true)
+    public void onRowsChanged(ClusterRowsChangedEvent event) {
+        if (event.isAll()) {
+            reloadAll();
+            return;
+        }
+        log.debug("Applying {} rows of {} changed by another node", event.getIds().size(), event.getEntityName());
+        String entityName = event.getEntityName();
+        if (ParkingSpot.class.getName().equals(entityName)) {
+            parkingSpotsChanged(event.getIds());
+        } else if (CarPark.class.getName().equals(entityName)) {
+            carParksChanged(event.getIds());
+        } else if (Address.class.getName().equals(entityName)) {
+            event.getIds().forEach(this::addressChanged);
+        } else if (OpenHours.class.getName().equals(entityName)) {
+            event.getIds().forEach(this::openHoursChanged);
+        }
+    }
+
+    private void parkingSpotsChanged(Set<Long> ids) {
+        Set<Long> deletedIds = new HashSet<>(ids);
+        for (ParkingSpotRepository.OccupancyView view : parkingSpotRepository.findOccupancyByIdIn(ids)) {
+            deletedIds.remove(view.getId());
+            parkingSpotOccupancyIndex.apply(
+                view.getId(),
+                view.getCarParkId(),
+                view.getFloor(),
+                Boolean.TRUE.equals(view.getAvailable()),
+                Boolean.TRUE.equals(view.getAccessableParking())
+            );
+        }
+        deletedIds.forEach(id -> parkingSpotOccupancyIndex.apply(id, null, null, false, false));
+    }
+
+    private void carParksChanged(Set<Long> ids) {
+        Set<Long> deletedIds = new HashSet<>(ids);
+        for (CarParkRepository.NameView view : carParkRepository.findNamesByIdIn(ids)) {
+            deletedIds.remove(view.getId());
+            carParkSummaryIndex.put(view.getId(), view.getName());
+        }
+        carParkRepository
+            .findLocationsByIdIn(ids)
+            .forEach(view -> carParkLocationIndex.apply(view.getId(), view.getLatitude(), view.getLongitude()));
+        deletedIds.forEach(
+            id -> {
+                carParkSummaryIndex.delete(id);
+                carParkLocationIndex.apply(id, null, null);
+            }
+        );
+    }
+
+    private void addressChanged(Long addressId) {
+        carParkRepository
+            .findLocationsByAddressId(addressId)
+            .forEach(view -> carParkLocationIndex.apply(view.getId(), view.getLatitude(), view.getLongitude()));
+    }
+
+    private void openHoursChanged(Long openHoursId) {
+        Long carParkId = openHoursRepository
+            .findById(openHoursId)
+            .map(OpenHours::getCarPark)
+            .map(CarPark::getId)
+            .orElse(null);
+        openHoursScheduleService.drop(openHoursId, carParkId);
+    }
+
+    private void reloadAll() {
+        log.info("Reloading the resident indices, changes of other nodes were missed");
+        parkingSpotOccupancyIndex.reload();
+        carParkSummaryIndex.load();
+        carParkLocationIndex.load();
+        openHoursScheduleService.dropAll();
+    }
+}
@@ -0,0 +1,49 @@
+package smartparking.service;
+
+import java.util.Set;
+
+/**
+ * Published by {@link ClusterCacheInvalidator} when another node of the cluster tells that rows held in the resident
+ * indices changed, or that some changes may have been missed.
+ */
+public class ClusterRowsChangedEvent {
+
+    private final String entityName;
+
+    private final Set<Long> ids;
+
+    public ClusterRowsChangedEvent(String entityName, Set<Long> ids) {
+        this.entityName = entityName;
+        this.ids = ids;
+    }
+
+    /**
+     * @return the name of the changed entity, or {@code null} if any row may have changed.
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * @return the ids of the changed rows, or {@code null} if any row may have changed.
+     */
+    public Set<Long> getIds() {
+        return ids;
+    }
+
+    /**
+     * @return whether changes were missed, so that every row may have changed.
+     */
+    public boolean isAll() {
+        return ids == null;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ClusterRowsChangedEvent{" +
+            "entityName='" + entityName + "'" +
+            ", ids=" + ids +
+            "}";
+    }
+}
@@ -0,0 +1,234 @@
+package smartparking.service;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Optional;
+import javax.persistence.EntityManager;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.UserExtra;
+
+/**
+ * Service streaming whole entity tables as NDJSON or CSV.
+ * <p>
+ * Rows are read as scalar projections through a forward-only cursor with a bounded fetch size, and written out as
+ * soon as they are read: no entity is loaded in the persistence context and no list is built, so memory stays flat
+ * whatever the size of the table.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EntityExportService {
+
+    private final Logger log = LoggerFactory.getLogger(EntityExportService.class);
+
+    private static final String PARKING_SPOT_QUERY =
+        "select p.id, c.id, p.floor, p.available, p.accessableParking, p.availabilityChangedAt" +
+        " from ParkingSpot p left join p.carPark c order by p.id";
+
+    private static final String[] PARKING_SPOT_COLUMNS = {
+        "id",
+        "carParkId",
+        "floor",
+        "available",
+        "accessableParking",
+        "availabilityChangedAt",
+    };
+
+    private static final String USER_EXTRA_QUERY =
+        "select e.id, u.id, s.id, e.currentParkingSpot, e.timeOfParking" +
+        " from UserExtra e left join e.user u left join e.parkingSpot s order by e.id";
+
+    private static final String[] USER_EXTRA_COLUMNS = { "id", "userId", "parkingSpotId", "currentParkingSpot", "timeOfParking" };
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final ApplicationProperties.Export exportProperties;
+
+    public EntityExportService(EntityManager entityManager, ObjectMapper objectMapper, ApplicationProperties applicationProperties) {
+        this.entityManager = entityManager;
+        this.objectMapper = objectMapper;
+        this.exportProperties = applicationProperties.getExport();
+    }
+
+    /**
+     * Writes every {@link ParkingSpot} to a stream.
+     *
+     * @param format the output format.
+     * @param out the stream to write to, left open.
+     * @return the number of exported rows.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long exportParkingSpots(Format format, OutputStream out) throws IOException {
+        log.debug("Request to export ParkingSpots as {}", format);
+        return export(PARKING_SPOT_QUERY, PARKING_SPOT_COLUMNS, format, out);
+    }
+
+    /**
+     * Writes every {@link UserExtra} to a stream.
+     *
+     * @param format the output format.
+     * @param out the stream to write to, left open.
+     * @return the number of exported rows.
+     * @throws IOException if the stream cannot be written.
+     */
+    public long exportUserExtras(Format format, OutputStream out) throws IOException {
+        log.debug("Request to export UserExtras as {}", format);
+        return export(USER_EXTRA_QUERY, USER_EXTRA_COLUMNS, format, out);
+    }
+
+    private long export(String query, String[] columns, Format format, OutputStream out) throws IOException {
+        long count = 0;
+        try (
+            ScrollableResults rows = entityManager
+                .unwrap(Session.class)
+                .createQuery(query)
+                .setFetchSize(exportProperties.getFetchSize())
+                .setReadOnly(true)
+                .setCacheable(false)
+                .scroll(ScrollMode.FORWARD_ONLY);
+            RowWriter writer = format == Format.CSV ? new CsvRowWriter(out, columns) : new NdjsonRowWriter(objectMapper, out, columns)
+        ) {
+            while (rows.next()) {
+                writer.write(rows.get());
+                count++;
+                // Send the first row right away, then whole chunks
+                if (count == 1 || count % exportProperties.getFlushEveryRows() == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    /**
+     * The formats of an export.
+     */
+    public enum Format {
+        NDJSON("application/x-ndjson", "ndjson"),
+        CSV("text/csv", "csv");
+
+        private final String contentType;
+
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static Optional<Format> fromExtension(String extension) {
+            return Arrays.stream(values()).filter(format -> format.extension.equalsIgnoreCase(extension)).findFirst();
+        }
+    }
+
+    /**
+     * Writes rows to the output, and flushes it on close without closing it.
+     */
+    private interface RowWriter extends AutoCloseable {
+        void write(Object[] row) throws IOException;
+
+        void flush() throws IOException;
+
+        @Override
+        default void close() throws IOException {
+            flush();
+        }
+    }
+
+    /**
+     * One JSON object per line.
+     */
+    private static final class NdjsonRowWriter implements RowWriter {
+
+        private final JsonGenerator generator;
+
+        private final String[] columns;
+
+        private NdjsonRowWriter(ObjectMapper objectMapper, OutputStream out, String[] columns) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out).disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+            this.columns = columns;
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeObjectField(columns[i], row[i]);
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+
+    /**
+     * RFC 4180 CSV, with a header line.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+
+        private CsvRowWriter(OutputStream out, String[] columns) throws IOException {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+            writeLine(columns);
+        }
+
+        @Override
+        public void write(Object[] row) throws IOException {
+            writeLine(row);
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeLine(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] != null) {
+                    writer.write(escape(values[i].toString()));
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        private static String escape(String value) {
+            if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+                return value;
+            }
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+    }
+}
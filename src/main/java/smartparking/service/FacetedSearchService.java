@@ -0,0 +1,214 @@
+package smartparking.service;
+
+import static org.elasticsearch.index.query.QueryBuilders.*;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import org.elasticsearch.action.search.SearchRequest;
+import org.elasticsearch.action.search.SearchResponse;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.search.SearchHit;
+import org.elasticsearch.search.aggregations.AggregationBuilders;
+import org.elasticsearch.search.aggregations.Aggregations;
+import org.elasticsearch.search.aggregations.bucket.MultiBucketsAggregation;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.stereotype.Service;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.service.dto.CarParkSearchCriteria;
+import smartparking.service.dto.CarParkSearchHitDTO;
+import smartparking.service.dto.FacetBucketDTO;
+import smartparking.service.dto.FacetedSearchResultDTO;
+import smartparking.service.dto.ParkingSpotSearchCriteria;
+import smartparking.service.dto.ParkingSpotSearchHitDTO;
+
+/**
+ * Service for filtered, faceted and paged searches of the {@link CarPark} and {@link ParkingSpot} indices.
+ * <p>
+ * Filters run in filter context, so they are cached by Elasticsearch and not scored. Hits are sorted by id and paged
+ * with {@code search_after} on the last id of the previous page, which costs the same for any page, and the facets
+ * are computed by aggregations of the same request over every matching document. The city and occupancy fields are
+ * denormalized into the documents by the {@link SearchDocumentDenormalizer}.
+ */
+@Service
+public class FacetedSearchService {
+
+    static final String ID = "id";
+    static final String CITY = "city";
+    static final String FREE_SPOTS = "freeSpots";
+    static final String ACCESSIBLE_FREE_SPOTS = "accessibleFreeSpots";
+    static final String CAR_PARK_ID = "carPark.id";
+    static final String FLOOR = "floor";
+    static final String ACCESSABLE_PARKING = "accessableParking";
+    static final String AVAILABLE = "available";
+
+    private static final int FACET_SIZE = 50;
+
+    private final Logger log = LoggerFactory.getLogger(FacetedSearchService.class);
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    public FacetedSearchService(ElasticsearchRestTemplate elasticsearchTemplate) {
+        this.elasticsearchTemplate = elasticsearchTemplate;
+    }
+
+    /**
+     * Searches the car parks, with facets on the city and the free spots.
+     *
+     * @param criteria the filters.
+     * @param cursor the id after which the page starts, the first page if {@code null}.
+     * @param size the size of the page.
+     * @return the page of hits, the total and the facets.
+     */
+    public FacetedSearchResultDTO<CarParkSearchHitDTO> searchCarParks(CarParkSearchCriteria criteria, Long cursor, int size) {
+        log.debug("Request to search CarParks : {} after {}", criteria, cursor);
+        return search(CarPark.class, carParkSearchSource(criteria, cursor, size), FacetedSearchService::toCarParkHit);
+    }
+
+    /**
+     * Searches the parking spots, with facets on the city, the floor, the accessibility and the availability.
+     *
+     * @param criteria the filters.
+     * @param cursor the id after which the page starts, the first page if {@code null}.
+     * @param size the size of the page.
+     * @return the page of hits, the total and the facets.
+     */
+    public FacetedSearchResultDTO<ParkingSpotSearchHitDTO> searchParkingSpots(ParkingSpotSearchCriteria criteria, Long cursor, int size) {
+        log.debug("Request to search ParkingSpots : {} after {}", criteria, cursor);
+        return search(ParkingSpot.class, parkingSpotSearchSource(criteria, cursor, size), FacetedSearchService::toParkingSpotHit);
+    }
+
+    static SearchSourceBuilder carParkSearchSource(CarParkSearchCriteria criteria, Long cursor, int size) {
+        BoolQueryBuilder query = boolQuery();
+        if (criteria.getCity() != null) {
+            query.filter(termQuery(CITY, criteria.getCity()));
+        }
+        if (criteria.getMinFreeSpots() != null) {
+            query.filter(rangeQuery(FREE_SPOTS).gte(criteria.getMinFreeSpots()));
+        }
+        if (criteria.getMinAccessibleFreeSpots() != null) {
+            query.filter(rangeQuery(ACCESSIBLE_FREE_SPOTS).gte(criteria.getMinAccessibleFreeSpots()));
+        }
+        return pagedSource(query, cursor, size)
+            .aggregation(AggregationBuilders.terms(CITY).field(CITY).size(FACET_SIZE))
+            .aggregation(
+                AggregationBuilders
+                    .range(FREE_SPOTS)
+                    .field(FREE_SPOTS)
+                    .addUnboundedTo("0", 1)
+                    .addRange("1-9", 1, 10)
+                    .addRange("10-49", 10, 50)
+                    .addUnboundedFrom("50+", 50)
+            );
+    }
+
+    static SearchSourceBuilder parkingSpotSearchSource(ParkingSpotSearchCriteria criteria, Long cursor, int size) {
+        BoolQueryBuilder query = boolQuery();
+        if (criteria.getCity() != null) {
+            query.filter(termQuery(CITY, criteria.getCity()));
+        }
+        if (criteria.getCarParkId() != null) {
+            query.filter(termQuery(CAR_PARK_ID, criteria.getCarParkId()));
+        }
+        if (criteria.getFloor() != null) {
+            query.filter(termQuery(FLOOR, criteria.getFloor()));
+        }
+        if (criteria.getAccessableParking() != null) {
+            query.filter(termQuery(ACCESSABLE_PARKING, criteria.getAccessableParking()));
+        }
+        if (criteria.getAvailable() != null) {
+            query.filter(termQuery(AVAILABLE, criteria.getAvailable()));
+        }
+        return pagedSource(query, cursor, size)
+            .aggregation(AggregationBuilders.terms(CITY).field(CITY).size(FACET_SIZE))
+            .aggregation(AggregationBuilders.terms(FLOOR).field(FLOOR).size(FACET_SIZE))
+            .aggregation(AggregationBuilders.terms(ACCESSABLE_PARKING).field(ACCESSABLE_PARKING))
+            .aggregation(AggregationBuilders.terms(AVAILABLE).field(AVAILABLE));
+    }
+
+    private static SearchSourceBuilder pagedSource(BoolQueryBuilder query, Long cursor, int size) {
+        SearchSourceBuilder source = new SearchSourceBuilder().query(query).size(size).sort(ID, SortOrder.ASC).trackTotalHits(true);
+        if (cursor != null) {
+            source.searchAfter(new Object[] { cursor });
+        }
+        return source;
+    }
+
+    private <T> FacetedSearchResultDTO<T> search(
+        Class<?> documentClass,
+        SearchSourceBuilder source,
+        Function<Map<String, Object>, T> hitMapper
+    ) {
+        SearchRequest request = new SearchRequest(elasticsearchTemplate.getIndexCoordinatesFor(documentClass).getIndexNames())
+            .source(source);
+        SearchResponse response = elasticsearchTemplate.execute(client -> client.search(request, RequestOptions.DEFAULT));
+        List<T> hits = new ArrayList<>();
+        for (SearchHit hit : response.getHits().getHits()) {
+            hits.add(hitMapper.apply(hit.getSourceAsMap()));
+        }
+        long total = response.getHits().getTotalHits() != null ? response.getHits().getTotalHits().value : hits.size();
+        return new FacetedSearchResultDTO<>(total, hits, toFacets(response.getAggregations()));
+    }
+
+    static Map<String, List<FacetBucketDTO>> toFacets(Aggregations aggregations) {
+        Map<String, List<FacetBucketDTO>> facets = new LinkedHashMap<>();
+        if (aggregations == null) {
+            return facets;
+        }
+        aggregations.forEach(
+            aggregation -> {
+                List<FacetBucketDTO> buckets = new ArrayList<>();
+                for (MultiBucketsAggregation.Bucket bucket : ((MultiBucketsAggregation) aggregation).getBuckets()) {
+                    buckets.add(new FacetBucketDTO(bucket.getKeyAsString(), bucket.getDocCount()));
+                }
+                facets.put(aggregation.getName(), buckets);
+            }
+        );
+        return facets;
+    }
+
+    static CarParkSearchHitDTO toCarParkHit(Map<String, Object> source) {
+        CarParkSearchHitDTO hit = new CarParkSearchHitDTO();
+        hit.setId(getLong(source, ID));
+        hit.setName((String) source.get("name"));
+        hit.setOwner((String) source.get("owner"));
+        hit.setCity((String) source.get(CITY));
+        hit.setTotalSpots(getInteger(source, "totalSpots"));
+        hit.setFreeSpots(getInteger(source, FREE_SPOTS));
+        hit.setAccessibleFreeSpots(getInteger(source, ACCESSIBLE_FREE_SPOTS));
+        return hit;
+    }
+
+    @SuppressWarnings("unchecked")
+    static ParkingSpotSearchHitDTO toParkingSpotHit(Map<String, Object> source) {
+        ParkingSpotSearchHitDTO hit = new ParkingSpotSearchHitDTO();
+        hit.setId(getLong(source, ID));
+        Object carPark = source.get("carPark");
+        if (carPark instanceof Map) {
+            hit.setCarParkId(getLong((Map<String, Object>) carPark, ID));
+        }
+        hit.setCity((String) source.get(CITY));
+        hit.setFloor(getLong(source, FLOOR));
+        hit.setAccessableParking((Boolean) source.get(ACCESSABLE_PARKING));
+        hit.setAvailable((Boolean) source.get(AVAILABLE));
+        return hit;
+    }
+
+    private static Long getLong(Map<String, Object> source, String field) {
+        Object value = source.get(field);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+
+    private static Integer getInteger(Map<String, Object> source, String field) {
+        Object value = source.get(field);
+        return value instanceof Number ? ((Number) value).intValue() : null;
+    }
+}
@@ -1,26 +1,47 @@
 package smartparking.service;
 
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
 import javax.mail.MessagingException;
 import javax.mail.internet.MimeMessage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
-import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
 import org.springframework.stereotype.Service;
 import org.thymeleaf.context.Context;
 import org.thymeleaf.spring5.SpringTemplateEngine;
+import smartparking.config.ApplicationProperties;
+import smartparking.config.Constants;
 import smartparking.domain.User;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
  * Service for sending emails.
  * <p>
- * We use the {@link Async} annotation to send emails asynchronously.
+ * Emails are put in a bounded queue and sent by dedicated sender threads, so that a burst of emails does not fill
+ * the shared {@code @Async} executor. A sender takes all the queued emails up to the batch size, renders them and
+ * sends them over a single SMTP connection. When the queue is full, the caller waits for room up to
+ * {@code application.mail.enqueue-timeout-ms}, then the email is dropped.
  */
 @Service
 public class MailService {
@@ -31,6 +52,10 @@ public class MailService {
 
     private static final String BASE_URL = "baseUrl";
 
+    private static final String[] TEMPLATES = { "mail/activationEmail", "mail/creationEmail", "mail/passwordResetEmail" };
+
+    private static final long POLL_TIMEOUT_MS = 1000;
+
     private final JHipsterProperties jHipsterProperties;
 
     private final JavaMailSender javaMailSender;
@@ -39,74 +64,259 @@ public class MailService {
 
     private final SpringTemplateEngine templateEngine;
 
+    private final ApplicationProperties.Mail mailProperties;
+
+    private final BlockingQueue<QueuedEmail> queue;
+
+    private final ConcurrentMap<String, String> subjects = new ConcurrentHashMap<>();
+
+    private final Timer sendTimer;
+
+    private final Counter sentCounter;
+
+    private final Counter failedCounter;
+
+    private final Counter droppedCounter;
+
+    private ExecutorService senders;
+
+    private volatile boolean running;
+
     public MailService(
         JHipsterProperties jHipsterProperties,
         JavaMailSender javaMailSender,
         MessageSource messageSource,
-        SpringTemplateEngine templateEngine
+        SpringTemplateEngine templateEngine,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry
     ) {
         this.jHipsterProperties = jHipsterProperties;
         this.javaMailSender = javaMailSender;
         this.messageSource = messageSource;
         this.templateEngine = templateEngine;
+        this.mailProperties = applicationProperties.getMail();
+        this.queue = new ArrayBlockingQueue<>(mailProperties.getQueueCapacity());
+
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size).description("Emails waiting to be sent").register(meterRegistry);
+        this.sendTimer = Timer.builder("mail.send").description("Time to send a batch of emails").register(meterRegistry);
+        this.sentCounter = meterRegistry.counter("mail.messages", "result", "sent");
+        this.failedCounter = meterRegistry.counter("mail.messages", "result", "failed");
+        this.droppedCounter = meterRegistry.counter("mail.messages", "result", "dropped");
     }
 
-    @Async
-    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
-        log.debug(
-            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
-            isMultipart,
-            isHtml,
-            to,
-            subject,
-            content
-        );
+    /**
+     * Starts the sender threads, once the templates are parsed.
+     */
+    @PostConstruct
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        warmUpTemplates();
+        running = true;
+        senders = Executors.newFixedThreadPool(mailProperties.getSenderThreads(), new CustomizableThreadFactory("mail-sender-"));
+        for (int i = 0; i < mailProperties.getSenderThreads(); i++) {
+            senders.execute(this::sendQueuedEmails);
+        }
+    }
 
-        // Prepare message using a Spring helper
-        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
-        try {
-            MimeMessageHelper message = new MimeMessageHelper(mimeMessage, isMultipart, StandardCharsets.UTF_8.name());
-            message.setTo(to);
-            message.setFrom(jHipsterProperties.getMail().getFrom());
-            message.setSubject(subject);
-            message.setText(content, isHtml);
-            javaMailSender.send(mimeMessage);
-            log.debug("Sent email to User '{}'", to);
-        } catch (MailException | MessagingException e) {
-            log.warn("Email could not be sent to user '{}'", to, e);
+    /**
+     * Stops the sender threads, once the queued emails are sent.
+     */
+    @PreDestroy
+    public synchronized void stop() throws InterruptedException {
+        if (!running) {
+            return;
         }
+        running = false;
+        senders.shutdown();
+        if (!senders.awaitTermination(30, TimeUnit.SECONDS)) {
+            log.warn("{} emails were not sent before shutdown", queue.size());
+            senders.shutdownNow();
+        }
+    }
+
+    public void sendEmail(String to, String subject, String content, boolean isMultipart, boolean isHtml) {
+        enqueue(new QueuedEmail(to, subject, content, isMultipart, isHtml, null, null, null));
     }
 
-    @Async
     public void sendEmailFromTemplate(User user, String templateName, String titleKey) {
         if (user.getEmail() == null) {
             log.debug("Email doesn't exist for user '{}'", user.getLogin());
             return;
         }
-        Locale locale = Locale.forLanguageTag(user.getLangKey());
-        Context context = new Context(locale);
-        context.setVariable(USER, user);
-        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
-        String content = templateEngine.process(templateName, context);
-        String subject = messageSource.getMessage(titleKey, null, locale);
-        sendEmail(user.getEmail(), subject, content, false, true);
+        enqueue(new QueuedEmail(user.getEmail(), null, null, false, true, user, templateName, titleKey));
     }
 
-    @Async
     public void sendActivationEmail(User user) {
         log.debug("Sending activation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/activationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendCreationEmail(User user) {
         log.debug("Sending creation email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/creationEmail", "email.activation.title");
     }
 
-    @Async
     public void sendPasswordResetMail(User user) {
         log.debug("Sending password reset email to '{}'", user.getEmail());
         sendEmailFromTemplate(user, "mail/passwordResetEmail", "email.reset.title");
     }
+
+    private void enqueue(QueuedEmail email) {
+        try {
+            if (queue.offer(email, mailProperties.getEnqueueTimeoutMs(), TimeUnit.MILLISECONDS)) {
+                return;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        droppedCounter.increment();
+        log.warn("Email to '{}' was dropped, the mail queue is full", email.to);
+    }
+
+    private void sendQueuedEmails() {
+        List<QueuedEmail> batch = new ArrayList<>(mailProperties.getBatchSize());
+        while (running || !queue.isEmpty()) {
+            try {
+                QueuedEmail first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, mailProperties.getBatchSize() - 1);
+                sendBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Could not send a batch of {} emails", batch.size(), e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void sendBatch(List<QueuedEmail> batch) {
+        List<MimeMessage> messages = new ArrayList<>(batch.size());
+        for (QueuedEmail email : batch) {
+            try {
+                messages.add(createMessage(email));
+            } catch (MessagingException | RuntimeException e) {
+                failedCounter.increment();
+                log.warn("Email could not be prepared for user '{}'", email.to, e);
+            }
+        }
+        if (messages.isEmpty()) {
+            return;
+        }
+        sendTimer.record(
+            () -> {
+                try {
+                    javaMailSender.send(messages.toArray(new MimeMessage[0]));
+                    sentCounter.increment(messages.size());
+                    log.debug("Sent {} emails", messages.size());
+                } catch (MailException e) {
+                    int failures = e instanceof MailSendException && !((MailSendException) e).getFailedMessages().isEmpty()
+                        ? ((MailSendException) e).getFailedMessages().size()
+                        : messages.size();
+                    failedCounter.increment(failures);
+                    sentCounter.increment(messages.size() - failures);
+                    log.warn("{} of {} emails could not be sent", failures, messages.size(), e);
+                }
+            }
+        );
+    }
+
+    private MimeMessage createMessage(QueuedEmail email) throws MessagingException {
+        String subject = email.subject;
+        String content = email.content;
+        if (email.templateName != null) {
+            Locale locale = Locale.forLanguageTag(email.user.getLangKey());
+            Context context = new Context(locale);
+            context.setVariable(USER, email.user);
+            context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+            content = templateEngine.process(email.templateName, context);
+            subject =
+                subjects.computeIfAbsent(email.titleKey + '_' + locale, key -> messageSource.getMessage(email.titleKey, null, locale));
+        }
+        log.debug(
+            "Send email[multipart '{}' and html '{}'] to '{}' with subject '{}' and content={}",
+            email.multipart,
+            email.html,
+            email.to,
+            subject,
+            content
+        );
+
+        // Prepare message using a Spring helper
+        MimeMessage mimeMessage = javaMailSender.createMimeMessage();
+        MimeMessageHelper message = new MimeMessageHelper(mimeMessage, email.multipart, StandardCharsets.UTF_8.name());
+        message.setTo(email.to);
+        message.setFrom(jHipsterProperties.getMail().getFrom());
+        message.setSubject(subject);
+        message.setText(content, email.html);
+        return mimeMessage;
+    }
+
+    /**
+     * Renders every mail template once, so that they are parsed and kept in the template cache when it is enabled,
+     * rather than on the first email sent.
+     */
+    private void warmUpTemplates() {
+        User user = new User();
+        user.setLogin(Constants.SYSTEM);
+        Context context = new Context(Locale.forLanguageTag(Constants.DEFAULT_LANGUAGE));
+        context.setVariable(USER, user);
+        context.setVariable(BASE_URL, jHipsterProperties.getMail().getBaseUrl());
+        for (String template : TEMPLATES) {
+            try {
+                templateEngine.process(template, context);
+            } catch (RuntimeException e) {
+                log.warn("Could not parse mail template {}: {}", template, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * An email waiting to be sent, either with its content, or with the template to render it from.
+     */
+    private static final class QueuedEmail {
+
+        private final String to;
+
+        private final String subject;
+
+        private final String content;
+
+        private final boolean multipart;
+
+        private final boolean html;
+
+        private final User user;
+
+        private final String templateName;
+
+        private final String titleKey;
+
+        private QueuedEmail(
+            String to,
+            String subject,
+            String content,
+            boolean multipart,
+            boolean html,
+            User user,
+            String templateName,
+            String titleKey
+        ) {
+            this.to = to;
+            this.subject = subject;
+            this.content = content;
+            this.multipart = multipart;
+            this.html = html;
+            this.user = user;
+            this.templateName = templateName;
+            this.titleKey = titleKey;
+        }
+    }
 }
@@ -0,0 +1,369 @@
+package smartparking.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import smartparking.domain.OpenHours;
+
+/**
+ * The compiled opening hours of a {@link smartparking.domain.CarPark}.
+ * <p>
+ * The free text {@link OpenHours} rows are parsed once into sorted, merged minute intervals: one set for the week
+ * (minute 0 is Monday 00:00) and one set per exception date. Both questions, "is it open at T" and "when does it
+ * open next", are then answered with a binary search.
+ * <p>
+ * A row with a {@code date} replaces the weekly hours starting on that calendar date, and is closed all day when it
+ * has no hours. A row whose closing hour is not after its opening hour runs past midnight into the next day, whether
+ * that day is a regular day or an exception date.
+ */
+public final class OpenHoursSchedule {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenHoursSchedule.class);
+
+    private static final int MINUTES_PER_DAY = 24 * 60;
+
+    private static final int MINUTES_PER_WEEK = 7 * MINUTES_PER_DAY;
+
+    private static final Pattern TIME_PATTERN = Pattern.compile("(\\d{1,2})[:.](\\d{2})");
+
+    private static final Pattern DAY_SEPARATOR = Pattern.compile("\\s*(?:,|&|/|\\band\\b|\\boch\\b)\\s*");
+
+    private static final Pattern RANGE_SEPARATOR = Pattern.compile("\\s*[-\u2013]\\s*");
+
+    /**
+     * Day names by their first three letters, in English and Swedish.
+     */
+    private static final Map<String, DayOfWeek> DAY_PREFIXES = new HashMap<>();
+
+    static {
+        String[][] names = {
+            { "mon", "mån" },
+            { "tue", "tis" },
+            { "wed", "ons" },
+            { "thu", "tor" },
+            { "fri", "fre" },
+            { "sat", "lör" },
+            { "sun", "sön" },
+        };
+        for (int i = 0; i < names.length; i++) {
+            for (String name : names[i]) {
+                DAY_PREFIXES.put(name, DayOfWeek.of(i + 1));
+            }
+        }
+    }
+
+    private static final Intervals CLOSED = new Intervals(new int[0], new int[0]);
+
+    private final ZoneId zone;
+
+    private final Intervals week;
+
+    /**
+     * The hours of the calendar days that differ from the week: the exception dates and the days after them.
+     */
+    private final TreeMap<LocalDate, Intervals> exceptions;
+
+    private OpenHoursSchedule(ZoneId zone, Intervals week, TreeMap<LocalDate, Intervals> exceptions) {
+        this.zone = zone;
+        this.week = week;
+        this.exceptions = exceptions;
+    }
+
+    /**
+     * Compiles the opening hours of a car park. Rows that cannot be parsed are skipped.
+     *
+     * @param rows the opening hours rows of the car park.
+     * @param zone the time zone the hours are expressed in.
+     * @return the compiled schedule.
+     */
+    public static OpenHoursSchedule compile(Collection<OpenHours> rows, ZoneId zone) {
+        List<int[]> weekIntervals = new ArrayList<>();
+        // The hours starting on each day, relative to the start of that day
+        Map<DayOfWeek, List<int[]>> dayIntervals = new EnumMap<>(DayOfWeek.class);
+        Map<LocalDate, List<int[]>> exceptionIntervals = new HashMap<>();
+        for (OpenHours row : rows) {
+            if (row.getDate() != null) {
+                List<int[]> day = exceptionIntervals.computeIfAbsent(row.getDate(), date -> new ArrayList<>());
+                parseHours(row).ifPresent(day::add);
+                continue;
+            }
+            Optional<int[]> hours = parseHours(row);
+            Set<DayOfWeek> days = parseDays(row.getWeekday());
+            if (!hours.isPresent() || days.isEmpty()) {
+                log.warn("Skipping unparseable opening hours: {}", row);
+                continue;
+            }
+            for (DayOfWeek day : days) {
+                dayIntervals.computeIfAbsent(day, key -> new ArrayList<>()).add(hours.get());
+                int dayStart = (day.getValue() - 1) * MINUTES_PER_DAY;
+                int start = dayStart + hours.get()[0];
+                int end = dayStart + hours.get()[1];
+                if (end <= MINUTES_PER_WEEK) {
+                    weekIntervals.add(new int[] { start, end });
+                } else {
+                    // Sunday night runs into Monday morning
+                    weekIntervals.add(new int[] { start, MINUTES_PER_WEEK });
+                    weekIntervals.add(new int[] { 0, end - MINUTES_PER_WEEK });
+                }
+            }
+        }
+        TreeMap<LocalDate, Intervals> exceptions = new TreeMap<>();
+        for (LocalDate exceptionDate : exceptionIntervals.keySet()) {
+            for (LocalDate date : Arrays.asList(exceptionDate, exceptionDate.plusDays(1))) {
+                if (!exceptions.containsKey(date)) {
+                    // The hours starting on the day, and the ones of the day before that run past midnight
+                    List<int[]> intervals = new ArrayList<>();
+                    clip(hoursStartingOn(date, dayIntervals, exceptionIntervals), 0, intervals);
+                    clip(hoursStartingOn(date.minusDays(1), dayIntervals, exceptionIntervals), -MINUTES_PER_DAY, intervals);
+                    exceptions.put(date, Intervals.merge(intervals));
+                }
+            }
+        }
+        return new OpenHoursSchedule(zone, Intervals.merge(weekIntervals), exceptions);
+    }
+
+    private static List<int[]> hoursStartingOn(
+        LocalDate date,
+        Map<DayOfWeek, List<int[]>> dayIntervals,
+        Map<LocalDate, List<int[]>> exceptionIntervals
+    ) {
+        List<int[]> exception = exceptionIntervals.get(date);
+        return exception != null ? exception : dayIntervals.getOrDefault(date.getDayOfWeek(), Collections.emptyList());
+    }
+
+    /**
+     * Adds the part of some intervals, shifted by {@code offset}, that falls within a calendar day.
+     */
+    private static void clip(List<int[]> intervals, int offset, List<int[]> day) {
+        for (int[] interval : intervals) {
+            int start = Math.max(interval[0] + offset, 0);
+            int end = Math.min(interval[1] + offset, MINUTES_PER_DAY);
+            if (start < end) {
+                day.add(new int[] { start, end });
+            }
+        }
+    }
+
+    /**
+     * Checks whether the car park is open at a given time.
+     *
+     * @param at the time to check.
+     * @return whether the car park is open.
+     */
+    public boolean isOpenAt(ZonedDateTime at) {
+        LocalDateTime local = at.withZoneSameInstant(zone).toLocalDateTime();
+        int minuteOfDay = local.getHour() * 60 + local.getMinute();
+        Intervals exception = exceptions.get(local.toLocalDate());
+        if (exception != null) {
+            return exception.contains(minuteOfDay);
+        }
+        return week.contains(dayStart(local.toLocalDate()) + minuteOfDay);
+    }
+
+    /**
+     * Finds the first time, at or after a given time, when the car park is open.
+     *
+     * @param at the time to start from.
+     * @return the given time if the car park is open then, its next opening time otherwise, or empty if it never opens again.
+     */
+    public Optional<ZonedDateTime> nextOpeningAt(ZonedDateTime at) {
+        ZonedDateTime localAt = at.withZoneSameInstant(zone);
+        LocalDate date = localAt.toLocalDate();
+        int from = localAt.getHour() * 60 + localAt.getMinute();
+        if (isOpenAt(at)) {
+            return Optional.of(at);
+        }
+        // The weekly hours repeat, so a week and a day of regular dates is enough to find them
+        int regularDays = 0;
+        while (regularDays <= 7) {
+            Intervals exception = exceptions.get(date);
+            int opening;
+            if (exception != null) {
+                opening = exception.firstOpenMinute(from, MINUTES_PER_DAY);
+            } else {
+                if (week.isEmpty()) {
+                    // Only exception dates can open, jump to the next one
+                    LocalDate nextException = exceptions.higherKey(date);
+                    if (nextException == null) {
+                        return Optional.empty();
+                    }
+                    date = nextException;
+                    from = 0;
+                    continue;
+                }
+                int dayStart = dayStart(date);
+                opening = week.firstOpenMinute(dayStart + from, dayStart + MINUTES_PER_DAY);
+                opening = opening < 0 ? -1 : opening - dayStart;
+                regularDays++;
+            }
+            if (opening >= 0) {
+                return Optional.of(date.atTime(LocalTime.MIN.plusMinutes(opening)).atZone(zone));
+            }
+            date = date.plusDays(1);
+            from = 0;
+        }
+        return Optional.empty();
+    }
+
+    /**
+     * @return whether the car park has no opening hours at all.
+     */
+    public boolean isEmpty() {
+        return week.isEmpty() && exceptions.values().stream().allMatch(Intervals::isEmpty);
+    }
+
+    private static int dayStart(LocalDate date) {
+        return (date.getDayOfWeek().getValue() - 1) * MINUTES_PER_DAY;
+    }
+
+    /**
+     * @return the opening and closing minutes of a row, relative to the start of its day; empty if closed or invalid.
+     */
+    private static Optional<int[]> parseHours(OpenHours row) {
+        Optional<Integer> opening = parseTime(row.getOpeningHour());
+        Optional<Integer> closing = parseTime(row.getClosingHour());
+        if (!opening.isPresent() || !closing.isPresent()) {
+            return Optional.empty();
+        }
+        int start = opening.get();
+        int end = closing.get();
+        // 23:59 is the usual way of writing "until midnight"
+        if (end == MINUTES_PER_DAY - 1) {
+            end = MINUTES_PER_DAY;
+        }
+        if (end <= start) {
+            end += MINUTES_PER_DAY;
+        }
+        return start < MINUTES_PER_DAY ? Optional.of(new int[] { start, end }) : Optional.empty();
+    }
+
+    private static Optional<Integer> parseTime(String time) {
+        if (time == null) {
+            return Optional.empty();
+        }
+        Matcher matcher = TIME_PATTERN.matcher(time.trim());
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        int hour = Integer.parseInt(matcher.group(1));
+        int minute = Integer.parseInt(matcher.group(2));
+        if (minute > 59 || hour > 24 || (hour == 24 && minute > 0)) {
+            return Optional.empty();
+        }
+        return Optional.of(hour * 60 + minute);
+    }
+
+    /**
+     * Parses day lists and ranges such as "Monday-Friday", "Sat, Sun" or "fredag-måndag".
+     */
+    static Set<DayOfWeek> parseDays(String weekday) {
+        Set<DayOfWeek> days = EnumSet.noneOf(DayOfWeek.class);
+        if (weekday == null) {
+            return days;
+        }
+        String text = weekday.trim().toLowerCase(Locale.ROOT);
+        if (text.equals("daily") || text.equals("every day") || text.equals("alla dagar")) {
+            return EnumSet.allOf(DayOfWeek.class);
+        }
+        for (String item : DAY_SEPARATOR.split(text)) {
+            String[] range = RANGE_SEPARATOR.split(item);
+            Optional<DayOfWeek> first = parseDay(range[0]);
+            Optional<DayOfWeek> last = range.length == 2 ? parseDay(range[1]) : first;
+            if (!first.isPresent() || !last.isPresent() || range.length > 2) {
+                return EnumSet.noneOf(DayOfWeek.class);
+            }
+            for (DayOfWeek day = first.get();; day = day.plus(1)) {
+                days.add(day);
+                if (day == last.get()) {
+                    break;
+                }
+            }
+        }
+        return days;
+    }
+
+    private static Optional<DayOfWeek> parseDay(String name) {
+        return name.length() < 3 ? Optional.empty() : Optional.ofNullable(DAY_PREFIXES.get(name.substring(0, 3)));
+    }
+
+    /**
+     * Sorted, disjoint and non-adjacent half-open intervals of minutes.
+     */
+    private static final class Intervals {
+
+        private final int[] starts;
+
+        private final int[] ends;
+
+        private Intervals(int[] starts, int[] ends) {
+            this.starts = starts;
+            this.ends = ends;
+        }
+
+        private static Intervals merge(List<int[]> intervals) {
+            if (intervals.isEmpty()) {
+                return CLOSED;
+            }
+            intervals.sort(Comparator.comparingInt(interval -> interval[0]));
+            int[] starts = new int[intervals.size()];
+            int[] ends = new int[intervals.size()];
+            int count = 0;
+            for (int[] interval : intervals) {
+                if (count > 0 && interval[0] <= ends[count - 1]) {
+                    ends[count - 1] = Math.max(ends[count - 1], interval[1]);
+                } else if (interval[0] < interval[1]) {
+                    starts[count] = interval[0];
+                    ends[count] = interval[1];
+                    count++;
+                }
+            }
+            return new Intervals(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count));
+        }
+
+        private boolean isEmpty() {
+            return starts.length == 0;
+        }
+
+        private boolean contains(int minute) {
+            int index = lastStartAtOrBefore(minute);
+            return index >= 0 && minute < ends[index];
+        }
+
+        /**
+         * @return the first minute within {@code [from, to)} that is inside an interval, or -1.
+         */
+        private int firstOpenMinute(int from, int to) {
+            int index = lastStartAtOrBefore(from);
+            if (index >= 0 && from < ends[index]) {
+                return from;
+            }
+            return index + 1 < starts.length && starts[index + 1] < to ? starts[index + 1] : -1;
+        }
+
+        private int lastStartAtOrBefore(int minute) {
+            int index = Arrays.binarySearch(starts, minute);
+            return index >= 0 ? index : -index - 2;
+        }
+    }
+}
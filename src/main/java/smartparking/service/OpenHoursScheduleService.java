@@ -0,0 +1,167 @@
+package smartparking.service;
+
+import static smartparking.service.util.TransactionUtil.afterCommit;
+
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.OpenHours;
+import smartparking.repository.OpenHoursRepository;
+
+/**
+ * Cache of compiled {@link OpenHoursSchedule}s, per {@link smartparking.domain.CarPark}.
+ * <p>
+ * A schedule is compiled on first use and kept until one of its {@link OpenHours} rows changes. Evictions are applied
+ * once the surrounding transaction commits, and a schedule compiled concurrently with an eviction is not cached. The
+ * rows changed by the other nodes are evicted by the {@link ClusterIndexSynchronizer}.
+ */
+@Service
+@Transactional(readOnly = true)
+public class OpenHoursScheduleService {
+
+    private final Logger log = LoggerFactory.getLogger(OpenHoursScheduleService.class);
+
+    private final OpenHoursRepository openHoursRepository;
+
+    private final ZoneId zone;
+
+    private final ConcurrentMap<Long, OpenHoursSchedule> schedules = new ConcurrentHashMap<>();
+
+    /**
+     * Car park of every compiled openHours row, to find the schedule of a deleted row.
+     */
+    private final ConcurrentMap<Long, Long> carParkIds = new ConcurrentHashMap<>();
+
+    private final AtomicLong evictions = new AtomicLong();
+
+    public OpenHoursScheduleService(OpenHoursRepository openHoursRepository, ApplicationProperties applicationProperties) {
+        this.openHoursRepository = openHoursRepository;
+        String timeZone = applicationProperties.getOpenHours().getTimeZone();
+        this.zone = timeZone != null ? ZoneId.of(timeZone) : ZoneId.systemDefault();
+    }
+
+    /**
+     * @return the time zone the opening hours are expressed in.
+     */
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * Gets the compiled schedule of a car park.
+     *
+     * @param carParkId the id of the car park.
+     * @return the schedule, closed at all times if the car park has no opening hours.
+     */
+    public OpenHoursSchedule getSchedule(Long carParkId) {
+        OpenHoursSchedule schedule = schedules.get(carParkId);
+        if (schedule != null) {
+            return schedule;
+        }
+        long evictionsBefore = evictions.get();
+        List<OpenHours> rows = openHoursRepository.findAllByCarParkId(carParkId);
+        schedule = OpenHoursSchedule.compile(rows, zone);
+        rows.forEach(row -> carParkIds.put(row.getId(), carParkId));
+        // Only cache if nothing was evicted while reading, the rows might be stale otherwise
+        synchronized (evictions) {
+            if (evictions.get() == evictionsBefore) {
+                schedules.put(carParkId, schedule);
+            }
+        }
+        log.debug("Compiled opening hours of CarPark {} from {} rows", carParkId, rows.size());
+        return schedule;
+    }
+
+    /**
+     * Checks whether a car park is open at a given time.
+     *
+     * @param carParkId the id of the car park.
+     * @param at the time to check.
+     * @return whether the car park is open.
+     */
+    public boolean isOpenAt(Long carParkId, ZonedDateTime at) {
+        return getSchedule(carParkId).isOpenAt(at);
+    }
+
+    /**
+     * Checks whether a car park is open at a given time, taking a car park without any opening hours as open.
+     *
+     * @param carParkId the id of the car park.
+     * @param at the time to check.
+     * @return whether the car park is open, or has no known opening hours.
+     */
+    public boolean isOpenOrUnscheduledAt(Long carParkId, ZonedDateTime at) {
+        OpenHoursSchedule schedule = getSchedule(carParkId);
+        return schedule.isEmpty() || schedule.isOpenAt(at);
+    }
+
+    /**
+     * Finds the first time, at or after a given time, when a car park is open.
+     *
+     * @param carParkId the id of the car park.
+     * @param at the time to start from.
+     * @return the opening time, or empty if the car park never opens again.
+     */
+    public Optional<ZonedDateTime> nextOpeningAt(Long carParkId, ZonedDateTime at) {
+        return getSchedule(carParkId).nextOpeningAt(at);
+    }
+
+    /**
+     * Drops the schedules a changed openHours row belonged to, once the current transaction commits.
+     *
+     * @param openHours the saved or deleted openHours.
+     */
+    public void evict(OpenHours openHours) {
+        Long carParkId = openHours.getCarPark() != null ? openHours.getCarPark().getId() : null;
+        evict(openHours.getId(), carParkId);
+    }
+
+    /**
+     * Drops the schedules a changed openHours row belonged to, once the current transaction commits.
+     *
+     * @param openHoursId the id of the saved or deleted openHours.
+     * @param carParkId the id of the car park the row belongs to now, if any.
+     */
+    public void evict(Long openHoursId, Long carParkId) {
+        afterCommit(() -> drop(openHoursId, carParkId));
+    }
+
+    /**
+     * Drops the schedules a changed openHours row belonged to immediately.
+     *
+     * @param openHoursId the id of the saved or deleted openHours.
+     * @param carParkId the id of the car park the row belongs to now, if any.
+     */
+    void drop(Long openHoursId, Long carParkId) {
+        synchronized (evictions) {
+            evictions.incrementAndGet();
+            Long previousCarParkId = carParkIds.remove(openHoursId);
+            if (previousCarParkId != null) {
+                schedules.remove(previousCarParkId);
+            }
+            if (carParkId != null) {
+                schedules.remove(carParkId);
+            }
+        }
+    }
+
+    /**
+     * Drops every compiled schedule immediately.
+     */
+    void dropAll() {
+        synchronized (evictions) {
+            evictions.incrementAndGet();
+            schedules.clear();
+            carParkIds.clear();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package smartparking.service;
+
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.ParkingSession;
+
+/**
+ * Creates the monthly partitions of the {@link ParkingSession} ledger in advance, on PostgreSQL.
+ * <p>
+ * Partitions are bounded by UTC month of start time, the time zone the timestamps are stored in. A session started
+ * in a month without a partition still goes to the default partition, but that month can then no longer be given
+ * its own partition, hence the partitions created months ahead.
+ */
+@Service
+public class ParkingSessionPartitionService {
+
+    private final Logger log = LoggerFactory.getLogger(ParkingSessionPartitionService.class);
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ApplicationProperties applicationProperties;
+
+    private Boolean partitioned;
+
+    public ParkingSessionPartitionService(JdbcTemplate jdbcTemplate, ApplicationProperties applicationProperties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * Creates the missing partitions, from the current month to the configured number of months ahead.
+     * <p>
+     * This is scheduled to run at 02:00 every day, and once the application is started.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 2 * * ?")
+    public void createPartitions() {
+        if (!isPartitioned()) {
+            return;
+        }
+        YearMonth current = YearMonth.now(ZoneOffset.UTC);
+        for (int i = 0; i <= applicationProperties.getParkingSession().getPartitionsAhead(); i++) {
+            YearMonth month = current.plusMonths(i);
+            try {
+                jdbcTemplate.execute(partitionDdl(month));
+            } catch (DataAccessException e) {
+                log.warn("Could not create the parking session partition of {}: {}", month, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param month the month of the partition.
+     * @return the statement creating the partition of the month, unless it exists.
+     */
+    static String partitionDdl(YearMonth month) {
+        return String.format(
+            "create table if not exists parking_session_y%04dm%02d partition of parking_session for values from ('%s') to ('%s')",
+            month.getYear(),
+            month.getMonthValue(),
+            month.atDay(1),
+            month.plusMonths(1).atDay(1)
+        );
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            String databaseProductName = jdbcTemplate.execute(
+                (ConnectionCallback<String>) connection -> connection.getMetaData().getDatabaseProductName()
+            );
+            partitioned = "PostgreSQL".equals(databaseProductName);
+        }
+        return partitioned;
+    }
+}
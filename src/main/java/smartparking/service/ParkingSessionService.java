@@ -0,0 +1,202 @@
+package smartparking.service;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.util.Calendar;
+import java.util.List;
+import java.util.Optional;
+import java.util.TimeZone;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.domain.ParkingSession;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.UserExtra;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.repository.UserExtraRepository;
+
+/**
+ * Service starting and ending {@link ParkingSession}s.
+ * <p>
+ * Starting a session claims the {@link ParkingSpot} with {@link ParkingSpotAvailabilityService#claim}, which only
+ * succeeds while the spot is available or reserved by the driver, and appends the session in the same transaction, so
+ * two drivers can never hold the same spot and no lock is held beyond the single spot row. Ending a session closes it
+ * and releases the spot with {@link ParkingSpotAvailabilityService#setAvailableIf}.
+ * <p>
+ * The parking spot and time of parking of the {@link UserExtra} of the user are kept in step with the open session,
+ * in the same transaction.
+ * <p>
+ * Every statement touches one row through an index: appending a session costs the same whatever the size of the
+ * ledger, and ending it only reads the partition of its start time.
+ */
+@Service
+@Transactional
+public class ParkingSessionService {
+
+    private final Logger log = LoggerFactory.getLogger(ParkingSessionService.class);
+
+    private static final String NEXT_SESSION_SQL = "select nextval('parking_session_sequence'), car_park_id from parking_spot where id = ?";
+
+    private static final String INSERT_SESSION_SQL =
+        "insert into parking_session (id, start_time, parking_spot_id, car_park_id, user_id) values (?, ?, ?, ?, ?)";
+
+    private static final String FIND_OPEN_SESSION_SQL =
+        "select id, start_time, car_park_id from parking_session where parking_spot_id = ? and user_id = ? and end_time is null";
+
+    private static final String END_SESSION_SQL =
+        "update parking_session set end_time = ? where id = ? and start_time = ? and end_time is null";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    private final ParkingSpotAvailabilityService parkingSpotAvailabilityService;
+
+    private final UserExtraRepository userExtraRepository;
+
+    private final SearchOutboxService searchOutboxService;
+
+    public ParkingSessionService(
+        JdbcTemplate jdbcTemplate,
+        ParkingSpotRepository parkingSpotRepository,
+        ParkingSpotAvailabilityService parkingSpotAvailabilityService,
+        UserExtraRepository userExtraRepository,
+        SearchOutboxService searchOutboxService
+    ) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.parkingSpotAvailabilityService = parkingSpotAvailabilityService;
+        this.userExtraRepository = userExtraRepository;
+        this.searchOutboxService = searchOutboxService;
+    }
+
+    /**
+     * Starts a session of a user on a parking spot, and marks the spot as unavailable.
+     *
+     * @param parkingSpotId the id of the parking spot.
+     * @param userId the id of the user.
+     * @param login the login of the user, who may hold a reservation of the parking spot.
+     * @return the started session, or empty if the parking spot does not exist.
+     * @throws ParkingSpotUnavailableException if the parking spot is neither available nor reserved by the user.
+     */
+    public Optional<ParkingSession> start(Long parkingSpotId, Long userId, String login) {
+        log.debug("Request to start a ParkingSession on ParkingSpot {} for User {}", parkingSpotId, userId);
+        Instant now = Instant.now();
+        Calendar utc = utc();
+        if (!parkingSpotAvailabilityService.claim(parkingSpotId, login, now)) {
+            if (!parkingSpotRepository.existsById(parkingSpotId)) {
+                return Optional.empty();
+            }
+            throw new ParkingSpotUnavailableException();
+        }
+
+        ParkingSession session = jdbcTemplate.queryForObject(
+            NEXT_SESSION_SQL,
+            (rs, rowNum) -> new ParkingSession().id(rs.getLong(1)).carParkId(getLong(rs, 2)),
+            parkingSpotId
+        );
+        session.startTime(now).parkingSpotId(parkingSpotId).userId(userId);
+        jdbcTemplate.update(
+            INSERT_SESSION_SQL,
+            ps -> {
+                ps.setLong(1, session.getId());
+                ps.setTimestamp(2, Timestamp.from(now), utc);
+                ps.setLong(3, parkingSpotId);
+                setLong(ps, 4, session.getCarParkId());
+                setLong(ps, 5, userId);
+            }
+        );
+        userExtraRepository
+            .findOneByUserId(userId)
+            .ifPresent(
+                userExtra -> {
+                    userExtra
+                        .parkingSpot(parkingSpotRepository.getOne(parkingSpotId))
+                        .currentParkingSpot(parkingSpotId.toString())
+                        .timeOfParking(now);
+                    searchOutboxService.index(SearchDocumentType.USER_EXTRA, userExtra.getId());
+                }
+            );
+        return Optional.of(session);
+    }
+
+    /**
+     * Ends the open session of a user on a parking spot, and marks the spot as available.
+     *
+     * @param parkingSpotId the id of the parking spot.
+     * @param userId the id of the user.
+     * @return the ended session, or empty if the user has no open session on the parking spot.
+     * @throws ConcurrencyFailureException if the session was ended concurrently.
+     */
+    public Optional<ParkingSession> end(Long parkingSpotId, Long userId) {
+        log.debug("Request to end the ParkingSession on ParkingSpot {} of User {}", parkingSpotId, userId);
+        Calendar utc = utc();
+        List<ParkingSession> openSessions = jdbcTemplate.query(
+            FIND_OPEN_SESSION_SQL,
+            (rs, rowNum) ->
+                new ParkingSession()
+                    .id(rs.getLong(1))
+                    .startTime(rs.getTimestamp(2, utc).toInstant())
+                    .carParkId(getLong(rs, 3))
+                    .parkingSpotId(parkingSpotId)
+                    .userId(userId),
+            parkingSpotId,
+            userId
+        );
+        if (openSessions.isEmpty()) {
+            return Optional.empty();
+        }
+
+        ParkingSession session = openSessions.get(0);
+        Instant now = Instant.now();
+        // The start time restricts the update to the partition of the session
+        int ended = jdbcTemplate.update(
+            END_SESSION_SQL,
+            ps -> {
+                ps.setTimestamp(1, Timestamp.from(now), utc);
+                ps.setLong(2, session.getId());
+                ps.setTimestamp(3, Timestamp.from(session.getStartTime()), utc);
+            }
+        );
+        if (ended == 0) {
+            throw new ConcurrencyFailureException("ParkingSession " + session.getId() + " has already ended");
+        }
+        // Left as is if a sensor already reported the spot as free
+        parkingSpotAvailabilityService.setAvailableIf(parkingSpotId, true, now);
+        userExtraRepository
+            .findOneByUserId(userId)
+            .filter(userExtra -> userExtra.getParkingSpot() != null && parkingSpotId.equals(userExtra.getParkingSpot().getId()))
+            .ifPresent(
+                userExtra -> {
+                    userExtra.parkingSpot(null).currentParkingSpot(null).timeOfParking(null);
+                    searchOutboxService.index(SearchDocumentType.USER_EXTRA, userExtra.getId());
+                }
+            );
+        return Optional.of(session.endTime(now));
+    }
+
+    private static Calendar utc() {
+        return Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+    }
+
+    private static Long getLong(ResultSet rs, int columnIndex) throws SQLException {
+        long value = rs.getLong(columnIndex);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static void setLong(PreparedStatement ps, int parameterIndex, Long value) throws SQLException {
+        if (value != null) {
+            ps.setLong(parameterIndex, value);
+        } else {
+            ps.setNull(parameterIndex, Types.BIGINT);
+        }
+    }
+}
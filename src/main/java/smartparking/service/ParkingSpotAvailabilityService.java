@@ -0,0 +1,318 @@
+package smartparking.service;
+
+import static smartparking.service.util.TransactionUtil.afterCommit;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TimeZone;
+import java.util.function.BinaryOperator;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManagerFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.AvailabilityIngestionResultDTO;
+import smartparking.service.dto.ParkingSpotAvailabilityEventDTO;
+
+/**
+ * Service applying bay sensor occupancy changes to {@link ParkingSpot}s in bulk.
+ * <p>
+ * Events are written with batched conditional JDBC updates, which only succeed when the event is newer than the
+ * last applied one, so a late message can never revert a newer state.
+ * <p>
+ * Reservations use the same kind of update, conditional on the current availability, so that concurrent drivers
+ * cannot both reserve the same spot. The login of the driver is stored with the reservation, and only that driver can
+ * park on the spot or release it, as long as nobody parks on it. Any other availability change clears the reservation.
+ */
+@Service
+@Transactional
+public class ParkingSpotAvailabilityService {
+
+    private final Logger log = LoggerFactory.getLogger(ParkingSpotAvailabilityService.class);
+
+    private static final String CONDITIONAL_UPDATE_SQL =
+        "update parking_spot set available = ?, availability_changed_at = ?, reserved_by = null" +
+        " where id = ? and (availability_changed_at is null or availability_changed_at < ?)";
+
+    private static final String COMPARE_AND_SET_SQL =
+        "update parking_spot set available = ?, availability_changed_at = ?, reserved_by = ? where id = ? and available = ?";
+
+    private static final String CLAIM_SQL =
+        "update parking_spot set available = false, availability_changed_at = ?, reserved_by = null" +
+        " where id = ? and (available = true or reserved_by = ?)";
+
+    private static final String RELEASE_SQL =
+        "update parking_spot set available = true, availability_changed_at = ?, reserved_by = null" +
+        " where id = ? and available = false and reserved_by = ?" +
+        " and not exists (select 1 from parking_session where parking_spot_id = ? and end_time is null)";
+
+    private final ApplicationProperties applicationProperties;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    private final SearchOutboxService searchOutboxService;
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
+
+    public ParkingSpotAvailabilityService(
+        ApplicationProperties applicationProperties,
+        JdbcTemplate jdbcTemplate,
+        EntityManagerFactory entityManagerFactory,
+        ParkingSpotRepository parkingSpotRepository,
+        SearchOutboxService searchOutboxService,
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        ClusterCacheInvalidator clusterCacheInvalidator
+    ) {
+        this.applicationProperties = applicationProperties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+    }
+
+    /**
+     * Applies a batch of sensor events in a single transaction.
+     * <p>
+     * Only the newest event of each parking spot is kept, and it is dropped if the stored state is newer.
+     *
+     * @param events the sensor events, in any order.
+     * @return the number of applied and ignored events.
+     */
+    public AvailabilityIngestionResultDTO ingest(Collection<ParkingSpotAvailabilityEventDTO> events) {
+        log.debug("Request to ingest {} ParkingSpot availability events", events.size());
+        // Sorting by id keeps a consistent row locking order between concurrent batches
+        List<ParkingSpotAvailabilityEventDTO> latestEvents = events
+            .stream()
+            .collect(
+                Collectors.toMap(
+                    ParkingSpotAvailabilityEventDTO::getSpotId,
+                    Function.identity(),
+                    BinaryOperator.maxBy(Comparator.comparing(ParkingSpotAvailabilityEventDTO::getTimestamp))
+                )
+            )
+            .values()
+            .stream()
+            .sorted(Comparator.comparing(ParkingSpotAvailabilityEventDTO::getSpotId))
+            .collect(Collectors.toList());
+
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        int[][] updateCounts = jdbcTemplate.batchUpdate(
+            CONDITIONAL_UPDATE_SQL,
+            latestEvents,
+            applicationProperties.getIngestion().getBatchSize(),
+            (ps, event) -> {
+                Timestamp timestamp = Timestamp.from(event.getTimestamp());
+                ps.setBoolean(1, event.getAvailable());
+                ps.setTimestamp(2, timestamp, utc);
+                ps.setLong(3, event.getSpotId());
+                ps.setTimestamp(4, timestamp, utc);
+            }
+        );
+
+        List<ParkingSpotAvailabilityEventDTO> appliedEvents = new ArrayList<>();
+        List<ParkingSpotAvailabilityEventDTO> unknownEvents = new ArrayList<>();
+        int index = 0;
+        for (int[] batch : updateCounts) {
+            for (int count : batch) {
+                if (count > 0) {
+                    appliedEvents.add(latestEvents.get(index));
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    unknownEvents.add(latestEvents.get(index));
+                }
+                index++;
+            }
+        }
+        if (!unknownEvents.isEmpty()) {
+            appliedEvents.addAll(findApplied(unknownEvents));
+        }
+
+        if (!appliedEvents.isEmpty()) {
+            Map<Long, Boolean> availability = new LinkedHashMap<>();
+            appliedEvents.forEach(event -> availability.put(event.getSpotId(), event.getAvailable()));
+            availabilityChanged(availability);
+        }
+        log.debug("Applied {} of {} ParkingSpot availability events", appliedEvents.size(), events.size());
+        return new AvailabilityIngestionResultDTO(events.size(), appliedEvents.size(), events.size() - appliedEvents.size());
+    }
+
+    /**
+     * Finds which of the events the driver reported without an update count were applied, by reading back the
+     * timestamp of their parking spot. An event whose timestamp was already stored counts as applied.
+     */
+    private List<ParkingSpotAvailabilityEventDTO> findApplied(List<ParkingSpotAvailabilityEventDTO> events) {
+        Map<Long, Instant> changedAt = new HashMap<>();
+        parkingSpotRepository
+            .findAvailabilityChangeByIdIn(events.stream().map(ParkingSpotAvailabilityEventDTO::getSpotId).collect(Collectors.toList()))
+            .forEach(view -> changedAt.put(view.getId(), view.getAvailabilityChangedAt()));
+        List<ParkingSpotAvailabilityEventDTO> appliedEvents = new ArrayList<>();
+        for (ParkingSpotAvailabilityEventDTO event : events) {
+            Instant stored = changedAt.get(event.getSpotId());
+            // The database may store a coarser precision than the event
+            if (stored != null && stored.truncatedTo(ChronoUnit.MICROS).equals(event.getTimestamp().truncatedTo(ChronoUnit.MICROS))) {
+                appliedEvents.add(event);
+            }
+        }
+        return appliedEvents;
+    }
+
+    /**
+     * Reserves an available parking spot.
+     *
+     * @param id the id of the parking spot.
+     * @param login the login of the user reserving the parking spot.
+     * @return the reserved parking spot, or empty if it does not exist.
+     * @throws ParkingSpotUnavailableException if the parking spot is not available.
+     */
+    public Optional<ParkingSpot> reserve(Long id, String login) {
+        log.debug("Request to reserve ParkingSpot {} for User {}", id, login);
+        if (!compareAndSet(id, false, Instant.now(), login)) {
+            if (!parkingSpotRepository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new ParkingSpotUnavailableException();
+        }
+        return parkingSpotRepository.findById(id);
+    }
+
+    /**
+     * Claims a parking spot for a user parking on it, if it is available or reserved by the user. The reservation is
+     * cleared, and among concurrent callers only one wins, as with {@link #setAvailableIf}.
+     *
+     * @param id the id of the parking spot.
+     * @param login the login of the user parking on the spot.
+     * @param time the time of the change.
+     * @return whether the parking spot was claimed.
+     */
+    public boolean claim(Long id, String login, Instant time) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        int updated = jdbcTemplate.update(
+            CLAIM_SQL,
+            ps -> {
+                ps.setTimestamp(1, Timestamp.from(time), utc);
+                ps.setLong(2, id);
+                ps.setString(3, login);
+            }
+        );
+        if (updated == 0) {
+            return false;
+        }
+        availabilityChanged(Collections.singletonMap(id, false));
+        return true;
+    }
+
+    /**
+     * Releases a parking spot reserved by a user, unless someone parks on it.
+     *
+     * @param id the id of the parking spot.
+     * @param login the login of the user releasing the parking spot.
+     * @return the released parking spot, or empty if it does not exist.
+     * @throws ConcurrencyFailureException if the parking spot is not reserved by the user, or has an open session.
+     */
+    public Optional<ParkingSpot> release(Long id, String login) {
+        log.debug("Request to release ParkingSpot {} for User {}", id, login);
+        Instant now = Instant.now();
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        int updated = jdbcTemplate.update(
+            RELEASE_SQL,
+            ps -> {
+                ps.setTimestamp(1, Timestamp.from(now), utc);
+                ps.setLong(2, id);
+                ps.setString(3, login);
+                ps.setLong(4, id);
+            }
+        );
+        if (updated == 0) {
+            if (!parkingSpotRepository.existsById(id)) {
+                return Optional.empty();
+            }
+            throw new ConcurrencyFailureException("ParkingSpot " + id + " is not reserved by " + login);
+        }
+        availabilityChanged(Collections.singletonMap(id, true));
+        return parkingSpotRepository.findById(id);
+    }
+
+    /**
+     * Flips the availability of a parking spot with a single conditional update, which only succeeds if the spot is
+     * in the opposite state. Among concurrent callers only one wins, the others fail right away instead of queueing
+     * for a lock, and the winner only locks the spot row until its transaction ends.
+     *
+     * @param id the id of the parking spot.
+     * @param available the new availability.
+     * @param time the time of the change.
+     * @return whether the availability changed.
+     */
+    public boolean setAvailableIf(Long id, boolean available, Instant time) {
+        return compareAndSet(id, available, time, null);
+    }
+
+    private boolean compareAndSet(Long id, boolean available, Instant time, String reservedBy) {
+        Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+        int updated = jdbcTemplate.update(
+            COMPARE_AND_SET_SQL,
+            ps -> {
+                ps.setBoolean(1, available);
+                ps.setTimestamp(2, Timestamp.from(time), utc);
+                ps.setString(3, reservedBy);
+                ps.setLong(4, id);
+                ps.setBoolean(5, !available);
+            }
+        );
+        if (updated == 0) {
+            return false;
+        }
+        availabilityChanged(Collections.singletonMap(id, available));
+        return true;
+    }
+
+    /**
+     * Propagates availability changes written with JDBC to the caches, the search index and the occupancy index.
+     *
+     * @param availability the new availability of each changed parking spot, by id.
+     */
+    public void availabilityChanged(Map<Long, Boolean> availability) {
+        List<Long> ids = new ArrayList<>(availability.keySet());
+        evictFromSecondLevelCache(ids);
+        searchOutboxService.indexAll(SearchDocumentType.PARKING_SPOT, ids);
+        availability.forEach(parkingSpotOccupancyIndex::updateAvailability);
+    }
+
+    /**
+     * The JDBC updates bypass Hibernate, so the cached entities are evicted now and once more after commit, in case
+     * a concurrent reader cached the previous state in between. The other nodes of the cluster are told the spots
+     * changed, so that they evict them too and read them again into their occupancy index.
+     */
+    private void evictFromSecondLevelCache(List<Long> ids) {
+        javax.persistence.Cache cache = entityManagerFactory.getCache();
+        ids.forEach(id -> cache.evict(ParkingSpot.class, id));
+        ids.forEach(id -> clusterCacheInvalidator.rowChanged(ParkingSpot.class.getName(), id));
+        afterCommit(() -> ids.forEach(id -> cache.evict(ParkingSpot.class, id)));
+    }
+}
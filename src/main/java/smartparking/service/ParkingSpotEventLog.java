@@ -0,0 +1,702 @@
+package smartparking.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.ParkingSpot;
+
+/**
+ * Local, append-only log of the {@link ParkingSpot} states applied to the {@link ParkingSpotOccupancyIndex}, from which
+ * the index is rebuilt at startup instead of scanning the {@code parking_spot} table.
+ * <p>
+ * Each record holds the full state of one spot in {@value #RECORD_SIZE} bytes, so replaying a record twice is harmless.
+ * Records are written to memory-mapped segments of a fixed number of records, which survive a crash of the process as
+ * soon as they are written. A snapshot holds the state of every spot up to a sequence number; once written, the
+ * segments it covers are deleted. Recovery maps the latest snapshot and replays the segments after it, and stops at the
+ * first record which is blank or fails its checksum.
+ * <p>
+ * The next segment is written out with zeros in the background once the current one is half full, so that appending
+ * never waits for a new file, and a segment is unmapped as soon as it is closed rather than when the garbage collector
+ * gets to it.
+ */
+@Service
+public class ParkingSpotEventLog {
+
+    static final int RECORD_SIZE = 40;
+
+    private static final int SNAPSHOT_MAGIC = 0x50534e50;
+
+    private static final int SNAPSHOT_HEADER_SIZE = 32;
+
+    private static final String SEGMENT_PREFIX = "segment-";
+
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    private static final String SNAPSHOT_PREFIX = "snapshot-";
+
+    private static final String SNAPSHOT_SUFFIX = ".bin";
+
+    /**
+     * Suffix of a segment written ahead of time, renamed once appended to.
+     */
+    private static final String PREALLOCATED_SUFFIX = ".next";
+
+    private static final int AVAILABLE = 1;
+
+    private static final int ACCESSIBLE = 2;
+
+    private static final int HAS_CAR_PARK = 4;
+
+    private static final int HAS_FLOOR = 8;
+
+    /**
+     * Used to unmap the buffers, see {@link #unmap(MappedByteBuffer)}.
+     */
+    private static final Object UNSAFE;
+
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            unsafe = theUnsafe.get(null);
+            invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LoggerFactory.getLogger(ParkingSpotEventLog.class).debug("Mapped buffers cannot be unmapped: {}", e.getMessage());
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    private final Logger log = LoggerFactory.getLogger(ParkingSpotEventLog.class);
+
+    private final ApplicationProperties.OccupancyLog properties;
+
+    private final Object snapshotLock = new Object();
+
+    private final CRC32 crc = new CRC32();
+
+    private final ExecutorService preallocator = Executors.newSingleThreadExecutor(preallocatorThreadFactory());
+
+    private Path directory;
+
+    private Segment segment;
+
+    /**
+     * The next segment being written ahead of time, {@code null} until the current segment is half full.
+     */
+    private Future<Path> nextSegment;
+
+    private long snapshotSequence = -1;
+
+    public ParkingSpotEventLog(ApplicationProperties applicationProperties) {
+        this.properties = applicationProperties.getOccupancyLog();
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Replays the latest snapshot and the records written after it, then opens the log for appending.
+     * <p>
+     * If there is nothing to replay, or the files have a gap, the log is cleared and {@code -1} is returned, in which
+     * case the caller must load the state from the database and write a snapshot.
+     *
+     * @param handler receives the state of each spot, in the order of the changes.
+     * @return the time of the last replayed change, in epoch milliseconds, or {@code -1} if nothing was replayed.
+     */
+    public long recover(RecordHandler handler) {
+        if (!isEnabled()) {
+            return -1;
+        }
+        close();
+        Path path = Paths.get(properties.getDirectory());
+        Recovery recovery = null;
+        try {
+            Files.createDirectories(path);
+            for (Path file : list(path, SEGMENT_PREFIX, PREALLOCATED_SUFFIX)) {
+                Files.deleteIfExists(file);
+            }
+            recovery = replay(path, handler);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not recover the parking spot event log from {}, starting from the database: {}", path, e.getMessage());
+        }
+        synchronized (this) {
+            directory = path;
+            if (recovery != null) {
+                segment = recovery.segment;
+                snapshotSequence = recovery.snapshotSequence;
+                return recovery.lastChange;
+            }
+            try {
+                deleteAll(path);
+                segment = Segment.create(path, 0, properties.getSegmentRecords());
+                snapshotSequence = -1;
+            } catch (IOException e) {
+                log.warn("Could not clear the parking spot event log in {}, the log is disabled: {}", path, e.getMessage());
+            }
+            return -1;
+        }
+    }
+
+    /**
+     * @return the segment to append to and the time of the last change, or {@code null} if the files cannot be replayed.
+     */
+    private Recovery replay(Path path, RecordHandler handler) throws IOException {
+        List<Path> snapshots = list(path, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX);
+        long sequence = 0;
+        long snapshotAt = -1;
+        long lastChange = -1;
+        if (!snapshots.isEmpty()) {
+            try (FileChannel channel = FileChannel.open(snapshots.get(snapshots.size() - 1), StandardOpenOption.READ)) {
+                MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                try {
+                    if (buffer.getInt() != SNAPSHOT_MAGIC) {
+                        return null;
+                    }
+                    sequence = buffer.getLong();
+                    lastChange = buffer.getLong();
+                    long count = buffer.getLong();
+                    buffer.position(SNAPSHOT_HEADER_SIZE);
+                    for (long i = 0; i < count; i++) {
+                        if (read(buffer, handler, false) < 0) {
+                            return null;
+                        }
+                    }
+                } finally {
+                    unmap(buffer);
+                }
+            }
+            snapshotAt = sequence;
+        }
+
+        // Segments wholly covered by the snapshot are left over from an interrupted compaction
+        List<Path> segments = new ArrayList<>();
+        for (Path file : list(path, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+            if (sequenceOf(file, SEGMENT_PREFIX, SEGMENT_SUFFIX) + Files.size(file) / RECORD_SIZE <= sequence) {
+                Files.deleteIfExists(file);
+            } else {
+                segments.add(file);
+            }
+        }
+        if (snapshotAt < 0 && segments.isEmpty()) {
+            return null;
+        }
+
+        Segment last = null;
+        for (Path file : segments) {
+            long base = sequenceOf(file, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+            long expected = last != null ? last.base + last.capacity : sequence;
+            if (last != null) {
+                last.close();
+            }
+            if (last != null ? base != expected : base > expected) {
+                return null;
+            }
+            last = Segment.open(file, base);
+            MappedByteBuffer buffer = last.buffer;
+            int position = 0;
+            while (position < last.capacity) {
+                long time = read(buffer, base + position >= sequence ? handler : null, true);
+                if (time < 0) {
+                    break;
+                }
+                lastChange = Math.max(lastChange, time);
+                position++;
+            }
+            last.position = position;
+            boolean incomplete = position < last.capacity && file != segments.get(segments.size() - 1);
+            if (incomplete || base + position < sequence) {
+                last.close();
+                return null;
+            }
+        }
+        if (last == null) {
+            last = Segment.create(path, sequence, properties.getSegmentRecords());
+        } else {
+            last.clearFrom(last.position);
+        }
+        return new Recovery(last, snapshotAt, Math.max(lastChange, 0));
+    }
+
+    /**
+     * Appends the state of a spot. Does nothing while the log is not open.
+     *
+     * @param spotId the id of the parking spot.
+     * @param carParkId the id of the car park owning the spot, or {@code null} if the spot was removed.
+     * @param floor the floor of the spot, if any.
+     * @param available whether the spot is free.
+     * @param accessible whether the spot is an accessible parking spot.
+     */
+    public synchronized void append(long spotId, Long carParkId, Long floor, boolean available, boolean accessible) {
+        if (segment == null) {
+            return;
+        }
+        try {
+            if (segment.position == segment.capacity) {
+                Segment next = openNextSegment();
+                segment.buffer.force();
+                segment.close();
+                segment = next;
+            }
+            MappedByteBuffer buffer = segment.buffer;
+            buffer.position(segment.position * RECORD_SIZE);
+            write(buffer, spotId, carParkId, floor, available, accessible, System.currentTimeMillis());
+            segment.position++;
+            if (nextSegment == null && segment.position >= segment.capacity / 2) {
+                long base = segment.base + segment.capacity;
+                Path file = directory.resolve(fileName(SEGMENT_PREFIX, base, PREALLOCATED_SUFFIX));
+                int capacity = properties.getSegmentRecords();
+                nextSegment = preallocator.submit(() -> Segment.preallocate(file, capacity));
+            }
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not append to the parking spot event log, the log is disabled until the next restart", e);
+            segment.close();
+            segment = null;
+            discardNextSegment();
+            snapshotSequence = -1;
+            try {
+                // Without the lost records the log would replay a wrong state
+                deleteAll(directory);
+            } catch (IOException e2) {
+                log.warn("Could not clear the parking spot event log in {}: {}", directory, e2.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Appends the current state of a spot, read while holding the log. Of concurrent appends of the same spot, the last
+     * one then reads the latest state, whatever the order in which the changes were applied and appended. Does nothing
+     * while the log is not open.
+     *
+     * @param spot writes the current state of the spot to the given handler.
+     */
+    public synchronized void append(Consumer<RecordHandler> spot) {
+        if (segment != null) {
+            spot.accept(this::append);
+        }
+    }
+
+    /**
+     * Opens the segment following the current one, from the file written ahead of time if there is one.
+     */
+    private Segment openNextSegment() throws IOException {
+        long base = segment.base + segment.capacity;
+        Future<Path> preallocated = nextSegment;
+        nextSegment = null;
+        if (preallocated != null) {
+            try {
+                Path file = directory.resolve(fileName(SEGMENT_PREFIX, base, SEGMENT_SUFFIX));
+                Files.move(preallocated.get(), file, StandardCopyOption.ATOMIC_MOVE);
+                return Segment.open(file, base);
+            } catch (ExecutionException e) {
+                log.debug("Could not write the next segment ahead of time: {}", e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        return Segment.create(directory, base, properties.getSegmentRecords());
+    }
+
+    /**
+     * Waits for the next segment being written ahead of time, if any, and deletes it.
+     */
+    private void discardNextSegment() {
+        if (nextSegment == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(nextSegment.get());
+        } catch (IOException | ExecutionException e) {
+            log.debug("Could not delete the next segment: {}", e.getMessage());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        nextSegment = null;
+    }
+
+    /**
+     * @return the sequence number of the next record, or {@code -1} while the log is not open.
+     */
+    public synchronized long getSequence() {
+        return segment != null ? segment.base + segment.position : -1;
+    }
+
+    /**
+     * Writes a snapshot of every spot, then deletes the segments and snapshots it makes obsolete. Does nothing while the
+     * log is not open, or if nothing was appended since the previous snapshot.
+     * <p>
+     * The sequence number of the snapshot is taken before the spots are read, so a change made meanwhile is both in the
+     * snapshot and replayed after it.
+     *
+     * @param spots writes the state of each spot to the given handler.
+     */
+    public void writeSnapshot(Consumer<RecordHandler> spots) {
+        synchronized (snapshotLock) {
+            long sequence;
+            long time = System.currentTimeMillis();
+            Path path;
+            synchronized (this) {
+                if (segment == null || segment.base + segment.position == snapshotSequence) {
+                    return;
+                }
+                sequence = segment.base + segment.position;
+                path = directory;
+                segment.buffer.force();
+            }
+            Path target = path.resolve(fileName(SNAPSHOT_PREFIX, sequence, SNAPSHOT_SUFFIX));
+            Path temp = path.resolve(fileName(SNAPSHOT_PREFIX, sequence, ".tmp"));
+            try {
+                long count = writeSnapshot(temp, sequence, time, spots);
+                Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                log.debug("Wrote a snapshot of {} parking spots at sequence {}", count, sequence);
+            } catch (IOException | UncheckedIOException e) {
+                log.warn("Could not write a snapshot of the parking spot event log: {}", e.getMessage());
+                try {
+                    Files.deleteIfExists(temp);
+                } catch (IOException e2) {
+                    log.debug("Could not delete {}: {}", temp, e2.getMessage());
+                }
+                return;
+            }
+            synchronized (this) {
+                if (segment == null) {
+                    return;
+                }
+                snapshotSequence = sequence;
+                compact(sequence);
+            }
+        }
+    }
+
+    private long writeSnapshot(Path file, long sequence, long time, Consumer<RecordHandler> spots) throws IOException {
+        StandardOpenOption[] options = { StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE };
+        try (FileChannel channel = FileChannel.open(file, options)) {
+            ByteBuffer buffer = ByteBuffer.allocate(RECORD_SIZE * 1024);
+            CRC32 checksum = new CRC32();
+            long[] count = new long[1];
+            channel.position(SNAPSHOT_HEADER_SIZE);
+            spots.accept(
+                (spotId, carParkId, floor, available, accessible) -> {
+                    if (buffer.remaining() < RECORD_SIZE) {
+                        flush(channel, buffer);
+                    }
+                    write(buffer, checksum, spotId, carParkId, floor, available, accessible, time);
+                    count[0]++;
+                }
+            );
+            flush(channel, buffer);
+            buffer.putInt(SNAPSHOT_MAGIC).putLong(sequence).putLong(time).putLong(count[0]).putInt(0).flip();
+            channel.write(buffer, 0);
+            channel.force(true);
+            return count[0];
+        }
+    }
+
+    private static void flush(FileChannel channel, ByteBuffer buffer) {
+        buffer.flip();
+        try {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Deletes the segments wholly covered by the snapshot at the given sequence, and the older snapshots.
+     */
+    private void compact(long sequence) {
+        try {
+            for (Path file : list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX)) {
+                long base = sequenceOf(file, SEGMENT_PREFIX, SEGMENT_SUFFIX);
+                if (base < segment.base && base + (Files.size(file) / RECORD_SIZE) <= sequence) {
+                    Files.deleteIfExists(file);
+                }
+            }
+            for (Path file : list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX)) {
+                if (sequenceOf(file, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX) < sequence) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not compact the parking spot event log: {}", e.getMessage());
+        }
+    }
+
+    public synchronized void close() {
+        if (segment != null) {
+            segment.buffer.force();
+            segment.close();
+            segment = null;
+        }
+        discardNextSegment();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        close();
+        preallocator.shutdownNow();
+    }
+
+    private void write(ByteBuffer buffer, long spotId, Long carParkId, Long floor, boolean available, boolean accessible, long time) {
+        synchronized (crc) {
+            write(buffer, crc, spotId, carParkId, floor, available, accessible, time);
+        }
+    }
+
+    private static void write(
+        ByteBuffer buffer,
+        CRC32 checksum,
+        long spotId,
+        Long carParkId,
+        Long floor,
+        boolean available,
+        boolean accessible,
+        long time
+    ) {
+        int flags =
+            (available ? AVAILABLE : 0) |
+            (accessible ? ACCESSIBLE : 0) |
+            (carParkId != null ? HAS_CAR_PARK : 0) |
+            (floor != null ? HAS_FLOOR : 0);
+        int start = buffer.position();
+        buffer
+            .putLong(spotId)
+            .putLong(carParkId != null ? carParkId : 0)
+            .putLong(floor != null ? floor : 0)
+            .putLong(time)
+            .putInt(flags);
+        checksum.reset();
+        ByteBuffer record = buffer.duplicate();
+        record.position(start).limit(start + RECORD_SIZE - 4);
+        checksum.update(record);
+        buffer.putInt((int) checksum.getValue());
+    }
+
+    /**
+     * Reads the record at the position of the buffer, and passes it to the handler if there is one.
+     *
+     * @return the time of the record, or {@code -1} if the record is blank or corrupt.
+     */
+    private long read(ByteBuffer buffer, RecordHandler handler, boolean checkBlank) {
+        if (buffer.remaining() < RECORD_SIZE) {
+            return -1;
+        }
+        int start = buffer.position();
+        long spotId = buffer.getLong();
+        long carParkId = buffer.getLong();
+        long floor = buffer.getLong();
+        long time = buffer.getLong();
+        int flags = buffer.getInt();
+        int checksum = buffer.getInt();
+        if (checkBlank && spotId == 0 && time == 0) {
+            return -1;
+        }
+        synchronized (crc) {
+            crc.reset();
+            ByteBuffer record = buffer.duplicate();
+            record.position(start).limit(start + RECORD_SIZE - 4);
+            crc.update(record);
+            if ((int) crc.getValue() != checksum) {
+                return -1;
+            }
+        }
+        if (handler != null) {
+            handler.accept(
+                spotId,
+                (flags & HAS_CAR_PARK) != 0 ? carParkId : null,
+                (flags & HAS_FLOOR) != 0 ? floor : null,
+                (flags & AVAILABLE) != 0,
+                (flags & ACCESSIBLE) != 0
+            );
+        }
+        return time;
+    }
+
+    private static List<Path> list(Path directory, String prefix, String suffix) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files
+                .filter(file -> file.getFileName().toString().startsWith(prefix) && file.getFileName().toString().endsWith(suffix))
+                .sorted()
+                .collect(Collectors.toCollection(ArrayList::new));
+        }
+    }
+
+    private static void deleteAll(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        List<Path> files = new ArrayList<>(list(directory, SEGMENT_PREFIX, SEGMENT_SUFFIX));
+        files.addAll(list(directory, SEGMENT_PREFIX, PREALLOCATED_SUFFIX));
+        files.addAll(list(directory, SNAPSHOT_PREFIX, SNAPSHOT_SUFFIX));
+        for (Path file : files) {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private static long sequenceOf(Path file, String prefix, String suffix) {
+        String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(prefix.length(), name.length() - suffix.length()));
+    }
+
+    private static String fileName(String prefix, long sequence, String suffix) {
+        // Zero padded, so that the files sort by sequence
+        return String.format("%s%020d%s", prefix, sequence, suffix);
+    }
+
+    private static CustomizableThreadFactory preallocatorThreadFactory() {
+        CustomizableThreadFactory threadFactory = new CustomizableThreadFactory("occupancy-log-preallocator-");
+        threadFactory.setDaemon(true);
+        return threadFactory;
+    }
+
+    /**
+     * Unmaps a buffer right away. The buffer must not be used afterwards.
+     * <p>
+     * There is no public API for this before Java 14, so the cleaner of the JDK is invoked through {@code sun.misc.Unsafe};
+     * if it is not there, the buffer is left to the garbage collector.
+     */
+    private static void unmap(MappedByteBuffer buffer) {
+        if (INVOKE_CLEANER == null) {
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            LoggerFactory.getLogger(ParkingSpotEventLog.class).debug("Could not unmap a buffer: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Receives the state of a parking spot read from the log, or written to a snapshot.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void accept(long spotId, Long carParkId, Long floor, boolean available, boolean accessible);
+    }
+
+    private static final class Recovery {
+
+        private final Segment segment;
+
+        private final long snapshotSequence;
+
+        private final long lastChange;
+
+        private Recovery(Segment segment, long snapshotSequence, long lastChange) {
+            this.segment = segment;
+            this.snapshotSequence = snapshotSequence;
+            this.lastChange = lastChange;
+        }
+    }
+
+    /**
+     * A mapped log file, holding the records from its base sequence number.
+     */
+    private static final class Segment {
+
+        private final long base;
+
+        private final int capacity;
+
+        private final FileChannel channel;
+
+        private final MappedByteBuffer buffer;
+
+        private int position;
+
+        private Segment(long base, FileChannel channel) throws IOException {
+            this.base = base;
+            this.capacity = (int) (channel.size() / RECORD_SIZE);
+            this.channel = channel;
+            this.buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, (long) capacity * RECORD_SIZE);
+        }
+
+        private static Segment create(Path directory, long base, int capacity) throws IOException {
+            FileChannel channel = FileChannel.open(
+                directory.resolve(fileName(SEGMENT_PREFIX, base, SEGMENT_SUFFIX)),
+                StandardOpenOption.CREATE,
+                StandardOpenOption.READ,
+                StandardOpenOption.WRITE
+            );
+            // Extends the file with zeros, so that a record which was never written reads as blank
+            channel.truncate(0);
+            channel.write(ByteBuffer.allocate(1), (long) capacity * RECORD_SIZE - 1);
+            return new Segment(base, channel);
+        }
+
+        private static Segment open(Path file, long base) throws IOException {
+            return new Segment(base, FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE));
+        }
+
+        /**
+         * Writes out a blank segment, with every block allocated so that filling it in only touches the page cache.
+         *
+         * @return the written file.
+         */
+        private static Path preallocate(Path file, int capacity) throws IOException {
+            StandardOpenOption[] options = { StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE };
+            try (FileChannel channel = FileChannel.open(file, options)) {
+                ByteBuffer zeros = ByteBuffer.allocate(RECORD_SIZE * 1024);
+                long size = (long) capacity * RECORD_SIZE;
+                for (long written = 0; written < size; ) {
+                    zeros.clear().limit((int) Math.min(zeros.capacity(), size - written));
+                    written += channel.write(zeros);
+                }
+                channel.force(true);
+            }
+            return file;
+        }
+
+        /**
+         * Blanks the records from the given one, which may hold a partly written record.
+         */
+        private void clearFrom(int from) {
+            for (int offset = from * RECORD_SIZE; offset < capacity * RECORD_SIZE; offset += 8) {
+                buffer.putLong(offset, 0);
+            }
+        }
+
+        private void close() {
+            unmap(buffer);
+            try {
+                channel.close();
+            } catch (IOException e) {
+                LoggerFactory.getLogger(ParkingSpotEventLog.class).debug("Could not close a segment: {}", e.getMessage());
+            }
+        }
+    }
+}
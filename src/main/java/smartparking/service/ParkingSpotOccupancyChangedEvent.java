@@ -0,0 +1,67 @@
+package smartparking.service;
+
+/**
+ * Published by {@link ParkingSpotOccupancyIndex} once a committed change of a parking spot has been applied to it.
+ */
+public class ParkingSpotOccupancyChangedEvent {
+
+    private final Long spotId;
+
+    private final Long previousCarParkId;
+
+    private final Long carParkId;
+
+    private final boolean available;
+
+    private final boolean accessible;
+
+    public ParkingSpotOccupancyChangedEvent(Long spotId, Long previousCarParkId, Long carParkId, boolean available, boolean accessible) {
+        this.spotId = spotId;
+        this.previousCarParkId = previousCarParkId;
+        this.carParkId = carParkId;
+        this.available = available;
+        this.accessible = accessible;
+    }
+
+    public Long getSpotId() {
+        return spotId;
+    }
+
+    /**
+     * @return the car park the spot belonged to before the change, or {@code null} if the spot is new.
+     */
+    public Long getPreviousCarParkId() {
+        return previousCarParkId;
+    }
+
+    /**
+     * @return the car park the spot belongs to after the change, or {@code null} if the spot was removed.
+     */
+    public Long getCarParkId() {
+        return carParkId;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public boolean isAccessible() {
+        return accessible;
+    }
+
+    public boolean isRemoved() {
+        return carParkId == null;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParkingSpotOccupancyChangedEvent{" +
+            "spotId=" + spotId +
+            ", previousCarParkId=" + previousCarParkId +
+            ", carParkId=" + carParkId +
+            ", available=" + available +
+            ", accessible=" + accessible +
+            "}";
+    }
+}
@@ -0,0 +1,665 @@
+package smartparking.service;
+
+import static smartparking.service.util.TransactionUtil.afterCommit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.stream.Stream;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.CarParkAvailabilityDTO;
+import smartparking.service.dto.FloorAvailabilityDTO;
+import smartparking.service.dto.ParkingSpotStateDTO;
+
+/**
+ * Resident index of {@link ParkingSpot} occupancy, per {@link CarPark}.
+ * <p>
+ * Each car park owns a set of bitsets (one bit per spot slot) together with running counters, so that
+ * free/total/accessible-free counts are answered in constant time without going through Hibernate. The total and free
+ * counts are also kept per floor.
+ * <p>
+ * Writes are applied once the surrounding transaction commits, so a rolled back change never reaches the index.
+ * The changes committed by the other nodes are read again and applied by the {@link ClusterIndexSynchronizer}. Every
+ * applied change is then published as a {@link ParkingSpotOccupancyChangedEvent}.
+ * <p>
+ * When the {@link ParkingSpotEventLog} is enabled, every applied change is also appended to it, and the index is
+ * recovered from it at startup instead of scanning every parking spot. The recovered state is then brought up to date
+ * with the database in the background, as the other nodes may have changed spots meanwhile.
+ * <p>
+ * A load builds a new state and swaps it in, so that readers never see a partial index. The changes committed by this
+ * node meanwhile are applied to both states, and win over the loaded ones.
+ */
+@Service
+public class ParkingSpotOccupancyIndex {
+
+    private final Logger log = LoggerFactory.getLogger(ParkingSpotOccupancyIndex.class);
+
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    private final ParkingSpotEventLog parkingSpotEventLog;
+
+    private final ApplicationProperties.OccupancyLog properties;
+
+    private volatile State state = new State();
+
+    /**
+     * State being loaded, {@code null} when not loading.
+     */
+    private volatile State loading;
+
+    public ParkingSpotOccupancyIndex(
+        ParkingSpotRepository parkingSpotRepository,
+        ApplicationEventPublisher applicationEventPublisher,
+        ParkingSpotEventLog parkingSpotEventLog,
+        ApplicationProperties applicationProperties
+    ) {
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.applicationEventPublisher = applicationEventPublisher;
+        this.parkingSpotEventLog = parkingSpotEventLog;
+        this.properties = applicationProperties.getOccupancyLog();
+    }
+
+    /**
+     * Loads the occupancy of every parking spot once the application is started, from the event log if it can be
+     * replayed, from the database otherwise.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public synchronized void load() {
+        log.debug("Loading parking spot occupancy index");
+        try {
+            State recovered = startLoading();
+            long lastChange = parkingSpotEventLog.recover(
+                (spotId, carParkId, floor, available, accessible) ->
+                    put(recovered, spotId, carParkId, floor, available, accessible, Source.RESTORE)
+            );
+            if (lastChange >= 0) {
+                swapIn(recovered);
+                log.info(
+                    "Recovered occupancy of {} parking spots in {} car parks from the event log",
+                    recovered.spots.size(),
+                    recovered.carParks.size()
+                );
+                applicationEventPublisher.publishEvent(new ParkingSpotOccupancyRecoveredEvent(lastChange));
+                return;
+            }
+
+            loadFromDatabase();
+        } finally {
+            loading = null;
+        }
+        snapshot();
+    }
+
+    /**
+     * Loads the occupancy of every parking spot from the database again, after the changes of other nodes were missed.
+     */
+    @Transactional(readOnly = true)
+    public synchronized void reload() {
+        log.debug("Reloading parking spot occupancy index");
+        try {
+            loadFromDatabase();
+        } finally {
+            loading = null;
+        }
+        snapshot();
+    }
+
+    private void loadFromDatabase() {
+        State loaded = startLoading();
+        try (Stream<ParkingSpotRepository.OccupancyView> views = parkingSpotRepository.streamAllOccupancy()) {
+            views.forEach(view -> put(loaded, view, Source.RESTORE));
+        }
+        swapIn(loaded);
+        log.debug("Loaded occupancy of {} parking spots in {} car parks", loaded.spots.size(), loaded.carParks.size());
+    }
+
+    /**
+     * Brings a state recovered from the event log up to date with the database, in the background.
+     * <p>
+     * The spots whose availability changed since the last recovered change are read first, then every spot, unless
+     * disabled, to pick up the spots created, moved or deleted meanwhile. Both are read ordered by id and merged with
+     * the index, so that the spots missing from the database are removed. A spot changed by this node while
+     * reconciling is left as is, as the database read may be older.
+     * <p>
+     * Only availability changes are stamped in the database, so that full read still scans every parking spot: the event
+     * log saves the startup time, not the database work. Single node deployments, where no other node writes spots, can
+     * turn it off with {@code application.occupancy-log.reconcile}.
+     *
+     * @param event the recovery of the index.
+     */
+    @Async
+    @EventListener
+    @Transactional(readOnly = true)
+    public void reconcile(ParkingSpotOccupancyRecoveredEvent event) {
+        log.debug("Reconciling parking spot occupancy index, recovered up to {}", Instant.ofEpochMilli(event.getLastChange()));
+        State current = state;
+        current.touchedSpotIds = ConcurrentHashMap.newKeySet();
+        try {
+            int[] corrected = new int[1];
+            Instant since = Instant.ofEpochMilli(event.getLastChange() - properties.getCatchUpMarginMs());
+            try (Stream<ParkingSpotRepository.OccupancyView> views = parkingSpotRepository.streamOccupancyChangedSince(since)) {
+                views.forEach(view -> corrected[0] += publish(put(current, view, Source.RECONCILE)));
+            }
+            if (properties.isReconcile()) {
+                long[] knownIds = current.spots.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+                int[] next = new int[1];
+                try (Stream<ParkingSpotRepository.OccupancyView> views = parkingSpotRepository.streamAllOccupancy()) {
+                    views.forEach(
+                        view -> {
+                            for (; next[0] < knownIds.length && knownIds[next[0]] <= view.getId(); next[0]++) {
+                                if (knownIds[next[0]] < view.getId()) {
+                                    corrected[0] += publish(put(current, knownIds[next[0]], null, null, false, false, Source.RECONCILE));
+                                }
+                            }
+                            corrected[0] += publish(put(current, view, Source.RECONCILE));
+                        }
+                    );
+                }
+                for (; next[0] < knownIds.length; next[0]++) {
+                    corrected[0] += publish(put(current, knownIds[next[0]], null, null, false, false, Source.RECONCILE));
+                }
+            }
+            log.info("Reconciled parking spot occupancy index with the database, {} parking spots corrected", corrected[0]);
+        } finally {
+            current.touchedSpotIds = null;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the index to the event log, which then drops the records it covers.
+     */
+    @Scheduled(fixedDelayString = "${application.occupancy-log.snapshot-interval-ms:600000}")
+    @PreDestroy
+    public void snapshot() {
+        parkingSpotEventLog.writeSnapshot(this::forEachSpot);
+    }
+
+    /**
+     * Records the state of a saved parking spot, once the current transaction commits.
+     *
+     * @param parkingSpot the saved parking spot.
+     */
+    public void update(ParkingSpot parkingSpot) {
+        Long spotId = parkingSpot.getId();
+        Long carParkId = parkingSpot.getCarPark() != null ? parkingSpot.getCarPark().getId() : null;
+        Long floor = parkingSpot.getFloor();
+        boolean available = Boolean.TRUE.equals(parkingSpot.getAvailable());
+        boolean accessible = Boolean.TRUE.equals(parkingSpot.getAccessableParking());
+        afterCommit(() -> apply(spotId, carParkId, floor, available, accessible));
+    }
+
+    /**
+     * Records the availability of a parking spot written without Hibernate, once the current transaction commits.
+     * <p>
+     * The car park, floor and accessibility of the spot are the ones already in the index, which saves reading the spot
+     * again; a spot missing from the index is left out. While the index is being loaded, the availability is also kept
+     * aside, and wins over the loaded one once the spot is loaded.
+     *
+     * @param spotId the id of the parking spot.
+     * @param available whether the spot is free.
+     */
+    public void updateAvailability(Long spotId, boolean available) {
+        afterCommit(() -> publish(putAvailability(spotId, available)));
+    }
+
+    /**
+     * Forgets a deleted parking spot, once the current transaction commits.
+     *
+     * @param spotId the id of the deleted parking spot.
+     */
+    public void remove(Long spotId) {
+        afterCommit(() -> apply(spotId, null, null, false, false));
+    }
+
+    /**
+     * Gets the current occupancy of a car park.
+     *
+     * @param carParkId the id of the car park.
+     * @return the occupancy counters, all zero if the car park has no known spot.
+     */
+    public CarParkAvailabilityDTO getAvailability(Long carParkId) {
+        CarParkOccupancy occupancy = state.carParks.get(carParkId);
+        if (occupancy == null) {
+            return new CarParkAvailabilityDTO(carParkId, 0, 0, 0);
+        }
+        synchronized (occupancy) {
+            return new CarParkAvailabilityDTO(carParkId, occupancy.total, occupancy.free, occupancy.accessibleFree);
+        }
+    }
+
+    /**
+     * Gets the current occupancy of each floor of a car park.
+     *
+     * @param carParkId the id of the car park.
+     * @return the total and free spot counts of each floor holding spots, ordered by floor, spots without a floor last.
+     */
+    public List<FloorAvailabilityDTO> getFloorAvailability(Long carParkId) {
+        CarParkOccupancy occupancy = state.carParks.get(carParkId);
+        if (occupancy == null) {
+            return Collections.emptyList();
+        }
+        List<FloorAvailabilityDTO> floors;
+        synchronized (occupancy) {
+            floors = new ArrayList<>(occupancy.floorCounts.size());
+            occupancy.floorCounts.forEach((floor, counts) -> floors.add(new FloorAvailabilityDTO(floor, counts[0], counts[1])));
+        }
+        floors.sort(Comparator.comparing(FloorAvailabilityDTO::getFloor, Comparator.nullsLast(Comparator.naturalOrder())));
+        return floors;
+    }
+
+    /**
+     * @return the ids of the car parks having, or having had, spots in the index.
+     */
+    public Set<Long> getCarParkIds() {
+        return Collections.unmodifiableSet(state.carParks.keySet());
+    }
+
+    /**
+     * Gets the state of every spot of a car park.
+     *
+     * @param carParkId the id of the car park.
+     * @return the state of each spot, in no particular order.
+     */
+    public List<ParkingSpotStateDTO> getSpotStates(Long carParkId) {
+        CarParkOccupancy occupancy = state.carParks.get(carParkId);
+        if (occupancy == null) {
+            return Collections.emptyList();
+        }
+        synchronized (occupancy) {
+            List<ParkingSpotStateDTO> states = new ArrayList<>(occupancy.total);
+            for (int slot = occupancy.used.nextSetBit(0); slot >= 0; slot = occupancy.used.nextSetBit(slot + 1)) {
+                boolean available = occupancy.freeSlots.get(slot);
+                states.add(new ParkingSpotStateDTO(occupancy.spotIds[slot], available, occupancy.accessibleSlots.get(slot), false));
+            }
+            return states;
+        }
+    }
+
+    /**
+     * Gets the current state of a spot within a car park.
+     *
+     * @param carParkId the id of the car park.
+     * @param spotId the id of the parking spot.
+     * @return the state of the spot, flagged as removed if the spot no longer belongs to the car park.
+     */
+    public ParkingSpotStateDTO getSpotState(Long carParkId, Long spotId) {
+        State current = state;
+        SpotSlot slot = current.spots.get(spotId);
+        CarParkOccupancy occupancy = current.carParks.get(carParkId);
+        if (slot == null || occupancy == null || !slot.carParkId.equals(carParkId)) {
+            return new ParkingSpotStateDTO(spotId, false, false, true);
+        }
+        synchronized (occupancy) {
+            if (!occupancy.used.get(slot.slot) || occupancy.spotIds[slot.slot] != spotId) {
+                return new ParkingSpotStateDTO(spotId, false, false, true);
+            }
+            return new ParkingSpotStateDTO(spotId, occupancy.freeSlots.get(slot.slot), occupancy.accessibleSlots.get(slot.slot), false);
+        }
+    }
+
+    /**
+     * Applies the state of a parking spot to the index immediately, and publishes the change if there is one.
+     *
+     * @param spotId the id of the parking spot.
+     * @param carParkId the id of the car park owning the spot, or {@code null} to remove the spot from the index.
+     * @param floor the floor of the spot, if any.
+     * @param available whether the spot is free.
+     * @param accessible whether the spot is an accessible parking spot.
+     */
+    void apply(Long spotId, Long carParkId, Long floor, boolean available, boolean accessible) {
+        // Read before the current state, which a load swaps first
+        State next = loading;
+        State current = state;
+        if (next != null && next != current) {
+            put(next, spotId, carParkId, floor, available, accessible, Source.MIRROR);
+        }
+        publish(put(current, spotId, carParkId, floor, available, accessible, Source.LIVE));
+    }
+
+    /**
+     * Gives the state of every spot of the index to a handler, one car park at a time.
+     *
+     * @param handler receives the state of each spot.
+     */
+    void forEachSpot(ParkingSpotEventLog.RecordHandler handler) {
+        state.carParks.forEach(
+            (carParkId, occupancy) -> {
+                synchronized (occupancy) {
+                    for (int slot = occupancy.used.nextSetBit(0); slot >= 0; slot = occupancy.used.nextSetBit(slot + 1)) {
+                        boolean available = occupancy.freeSlots.get(slot);
+                        boolean accessible = occupancy.accessibleSlots.get(slot);
+                        handler.accept(occupancy.spotIds[slot], carParkId, occupancy.floors[slot], available, accessible);
+                    }
+                }
+            }
+        );
+    }
+
+    private int publish(ParkingSpotOccupancyChangedEvent event) {
+        if (event == null) {
+            return 0;
+        }
+        applicationEventPublisher.publishEvent(event);
+        return 1;
+    }
+
+    private ParkingSpotOccupancyChangedEvent put(State target, ParkingSpotRepository.OccupancyView view, Source source) {
+        return put(
+            target,
+            view.getId(),
+            view.getCarParkId(),
+            view.getFloor(),
+            Boolean.TRUE.equals(view.getAvailable()),
+            Boolean.TRUE.equals(view.getAccessableParking()),
+            source
+        );
+    }
+
+    private ParkingSpotOccupancyChangedEvent put(
+        State target,
+        Long spotId,
+        Long carParkId,
+        Long floor,
+        boolean available,
+        boolean accessible,
+        Source source
+    ) {
+        ParkingSpotOccupancyChangedEvent[] change = new ParkingSpotOccupancyChangedEvent[1];
+        target.spots.compute(
+            spotId,
+            (id, current) -> {
+                // Checked under the lock of the spot, so a load or reconciliation never overwrites a newer change
+                Set<Long> touched = target.touchedSpotIds;
+                boolean local = source == Source.LIVE || source == Source.MIRROR;
+                if (touched != null && !local && touched.contains(id)) {
+                    return current;
+                } else if (touched != null && local) {
+                    touched.add(id);
+                }
+                Map<Long, Boolean> pending = target.pendingAvailability;
+                Boolean committed = source == Source.RESTORE && pending != null ? pending.get(id) : null;
+                boolean free = committed != null ? committed : available;
+                Long previousCarParkId = current != null ? current.carParkId : null;
+                boolean changed = !Objects.equals(previousCarParkId, carParkId);
+                if (current != null && changed) {
+                    CarParkOccupancy previous = target.carParks.get(previousCarParkId);
+                    synchronized (previous) {
+                        previous.release(current.slot);
+                    }
+                    current = null;
+                }
+                if (carParkId != null) {
+                    CarParkOccupancy occupancy = target.carParks.computeIfAbsent(carParkId, key -> new CarParkOccupancy());
+                    synchronized (occupancy) {
+                        if (current == null) {
+                            current = new SpotSlot(carParkId, occupancy.allocate(spotId, floor));
+                        }
+                        changed |= occupancy.set(current.slot, floor, free, accessible);
+                    }
+                }
+                if (changed) {
+                    change[0] = new ParkingSpotOccupancyChangedEvent(spotId, previousCarParkId, carParkId, free, accessible);
+                }
+                return current;
+            }
+        );
+        if (change[0] != null && (source == Source.LIVE || source == Source.RECONCILE)) {
+            append(target, spotId);
+        }
+        return change[0];
+    }
+
+    private ParkingSpotOccupancyChangedEvent putAvailability(Long spotId, boolean available) {
+        State next = loading;
+        State current = state;
+        ParkingSpotOccupancyChangedEvent change = putAvailability(current, next != current ? next : null, spotId, available);
+        if (change != null) {
+            append(current, spotId);
+        }
+        return change;
+    }
+
+    private ParkingSpotOccupancyChangedEvent putAvailability(State target, State mirror, Long spotId, boolean available) {
+        ParkingSpotOccupancyChangedEvent[] change = new ParkingSpotOccupancyChangedEvent[1];
+        target.spots.compute(
+            spotId,
+            (id, current) -> {
+                if (mirror != null) {
+                    // Under the lock of the spot, so that both states apply concurrent changes in the same order
+                    putAvailability(mirror, null, spotId, available);
+                }
+                Map<Long, Boolean> pending = target.pendingAvailability;
+                if (pending != null) {
+                    // Applied to the loaded spot, which may not be loaded yet
+                    pending.put(id, available);
+                }
+                if (current == null) {
+                    return null;
+                }
+                Set<Long> touched = target.touchedSpotIds;
+                if (touched != null) {
+                    touched.add(id);
+                }
+                CarParkOccupancy occupancy = target.carParks.get(current.carParkId);
+                boolean accessible;
+                synchronized (occupancy) {
+                    accessible = occupancy.accessibleSlots.get(current.slot);
+                    if (!occupancy.set(current.slot, occupancy.floors[current.slot], available, accessible)) {
+                        return current;
+                    }
+                }
+                change[0] = new ParkingSpotOccupancyChangedEvent(spotId, current.carParkId, current.carParkId, available, accessible);
+                return current;
+            }
+        );
+        return change[0];
+    }
+
+    /**
+     * Appends the state of a spot to the event log, after the lock of the spot is released. The state is read again
+     * while holding the log, so that the records end in the latest state whatever the order of concurrent appends.
+     */
+    private void append(State target, Long spotId) {
+        parkingSpotEventLog.append(
+            handler -> {
+                SpotSlot slot = target.spots.get(spotId);
+                CarParkOccupancy occupancy = slot != null ? target.carParks.get(slot.carParkId) : null;
+                if (occupancy == null) {
+                    handler.accept(spotId, null, null, false, false);
+                    return;
+                }
+                Long floor;
+                boolean available;
+                boolean accessible;
+                synchronized (occupancy) {
+                    floor = occupancy.floors[slot.slot];
+                    available = occupancy.freeSlots.get(slot.slot);
+                    accessible = occupancy.accessibleSlots.get(slot.slot);
+                }
+                handler.accept(spotId, slot.carParkId, floor, available, accessible);
+            }
+        );
+    }
+
+    /**
+     * Starts loading a new state, which the changes committed by this node are then also applied to.
+     */
+    private State startLoading() {
+        State next = new State();
+        next.touchedSpotIds = ConcurrentHashMap.newKeySet();
+        next.pendingAvailability = new ConcurrentHashMap<>();
+        loading = next;
+        return next;
+    }
+
+    private void swapIn(State loaded) {
+        loaded.touchedSpotIds = null;
+        loaded.pendingAvailability = null;
+        state = loaded;
+        loading = null;
+    }
+
+    /**
+     * Origin of a change applied to the index.
+     */
+    private enum Source {
+        /**
+         * Loaded from the database or replayed from the event log, not appended to the log.
+         */
+        RESTORE,
+        /**
+         * Committed by this node.
+         */
+        LIVE,
+        /**
+         * Committed by this node and applied to the state being loaded, appended to the log with the current state.
+         */
+        MIRROR,
+        /**
+         * Read from the database after a recovery, dropped if the spot was changed by this node meanwhile.
+         */
+        RECONCILE
+    }
+
+    /**
+     * Spots and car parks of the index, swapped as a whole once loaded.
+     */
+    private static final class State {
+
+        private final ConcurrentMap<Long, SpotSlot> spots = new ConcurrentHashMap<>();
+
+        private final ConcurrentMap<Long, CarParkOccupancy> carParks = new ConcurrentHashMap<>();
+
+        /**
+         * Ids of the spots changed by this node while loading or reconciling the state, {@code null} otherwise.
+         */
+        private volatile Set<Long> touchedSpotIds;
+
+        /**
+         * Availability of the spots written by this node without Hibernate while loading the state, by id, which wins
+         * over the loaded one; {@code null} otherwise.
+         */
+        private volatile Map<Long, Boolean> pendingAvailability;
+    }
+
+    /**
+     * Position of a parking spot in the bitsets of its car park.
+     */
+    private static final class SpotSlot {
+
+        private final Long carParkId;
+
+        private final int slot;
+
+        private SpotSlot(Long carParkId, int slot) {
+            this.carParkId = carParkId;
+            this.slot = slot;
+        }
+    }
+
+    /**
+     * Occupancy bitsets and counters of a single car park, with the total and free counts of each floor. Guarded by
+     * its own monitor.
+     */
+    private static final class CarParkOccupancy {
+
+        private final BitSet used = new BitSet();
+
+        private final BitSet freeSlots = new BitSet();
+
+        private final BitSet accessibleSlots = new BitSet();
+
+        private long[] spotIds = new long[16];
+
+        private Long[] floors = new Long[16];
+
+        /**
+         * Total and free spot counts, per floor. Spots without a floor are under the {@code null} key.
+         */
+        private final Map<Long, int[]> floorCounts = new HashMap<>();
+
+        private int total;
+
+        private int free;
+
+        private int accessibleFree;
+
+        private int allocate(long spotId, Long floor) {
+            int slot = used.nextClearBit(0);
+            used.set(slot);
+            if (slot >= spotIds.length) {
+                spotIds = Arrays.copyOf(spotIds, spotIds.length * 2);
+                floors = Arrays.copyOf(floors, floors.length * 2);
+            }
+            spotIds[slot] = spotId;
+            floors[slot] = floor;
+            countFloor(floor, 1, 0);
+            total++;
+            return slot;
+        }
+
+        /**
+         * @return whether the state of the slot changed.
+         */
+        private boolean set(int slot, Long floor, boolean available, boolean accessible) {
+            boolean wasFree = freeSlots.get(slot);
+            boolean wasAccessible = accessibleSlots.get(slot);
+            Long previousFloor = floors[slot];
+            freeSlots.set(slot, available);
+            accessibleSlots.set(slot, accessible);
+            floors[slot] = floor;
+            free += (available ? 1 : 0) - (wasFree ? 1 : 0);
+            accessibleFree += (available && accessible ? 1 : 0) - (wasFree && wasAccessible ? 1 : 0);
+            if (Objects.equals(previousFloor, floor)) {
+                countFloor(floor, 0, (available ? 1 : 0) - (wasFree ? 1 : 0));
+            } else {
+                countFloor(previousFloor, -1, wasFree ? -1 : 0);
+                countFloor(floor, 1, available ? 1 : 0);
+            }
+            return wasFree != available || wasAccessible != accessible || !Objects.equals(previousFloor, floor);
+        }
+
+        private void release(int slot) {
+            set(slot, floors[slot], false, false);
+            countFloor(floors[slot], -1, 0);
+            floors[slot] = null;
+            used.clear(slot);
+            total--;
+        }
+
+        private void countFloor(Long floor, int totalDelta, int freeDelta) {
+            int[] counts = floorCounts.computeIfAbsent(floor, key -> new int[2]);
+            counts[0] += totalDelta;
+            counts[1] += freeDelta;
+            if (counts[0] == 0) {
+                floorCounts.remove(floor);
+            }
+        }
+    }
+}
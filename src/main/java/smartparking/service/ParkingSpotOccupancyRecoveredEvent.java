@@ -0,0 +1,29 @@
+package smartparking.service;
+
+/**
+ * Published by {@link ParkingSpotOccupancyIndex} once its state has been recovered from the {@link ParkingSpotEventLog},
+ * which may miss the changes made by the other nodes.
+ */
+public class ParkingSpotOccupancyRecoveredEvent {
+
+    private final long lastChange;
+
+    public ParkingSpotOccupancyRecoveredEvent(long lastChange) {
+        this.lastChange = lastChange;
+    }
+
+    /**
+     * @return the time of the last recovered change, in epoch milliseconds.
+     */
+    public long getLastChange() {
+        return lastChange;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParkingSpotOccupancyRecoveredEvent{" +
+            "lastChange=" + lastChange +
+            "}";
+    }
+}
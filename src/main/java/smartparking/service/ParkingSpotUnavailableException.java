@@ -0,0 +1,10 @@
+package smartparking.service;
+
+public class ParkingSpotUnavailableException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public ParkingSpotUnavailableException() {
+        super("Parking spot is not available!");
+    }
+}
@@ -0,0 +1,144 @@
+package smartparking.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.CarParkAvailabilityDTO;
+
+/**
+ * Fills the search-only fields of the {@link CarPark} and {@link ParkingSpot} documents before they are indexed, so
+ * that a single query can filter on the city of a spot or the free spots of a car park.
+ * <p>
+ * The occupancy of a car park comes from the {@link ParkingSpotOccupancyIndex}. As it changes with every spot, the car
+ * parks whose occupancy changed are collected from the {@link ParkingSpotOccupancyChangedEvent}s and queued to the
+ * search outbox once per drain interval, so a burst of sensor events reindexes each car park once. Every node queues
+ * the car parks changed by the others as well, once its index has the change, so that whichever node drains the outbox
+ * last indexes the latest occupancy.
+ * <p>
+ * The city comes from the address of the car park, so the documents carrying it are queued again when it changes.
+ */
+@Service
+public class SearchDocumentDenormalizer {
+
+    private final Logger log = LoggerFactory.getLogger(SearchDocumentDenormalizer.class);
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final SearchOutboxService searchOutboxService;
+
+    private final CarParkRepository carParkRepository;
+
+    private final ParkingSpotRepository parkingSpotRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Set<Long> staleCarParkIds = ConcurrentHashMap.newKeySet();
+
+    public SearchDocumentDenormalizer(
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        SearchOutboxService searchOutboxService,
+        CarParkRepository carParkRepository,
+        ParkingSpotRepository parkingSpotRepository,
+        PlatformTransactionManager transactionManager
+    ) {
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.searchOutboxService = searchOutboxService;
+        this.carParkRepository = carParkRepository;
+        this.parkingSpotRepository = parkingSpotRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Fills the search-only fields of documents about to be indexed. Documents of other types are left as is.
+     *
+     * @param documents the entities to index, read in the current transaction.
+     */
+    public void denormalize(Collection<?> documents) {
+        for (Object document : documents) {
+            if (document instanceof CarPark) {
+                denormalize((CarPark) document);
+            } else if (document instanceof ParkingSpot) {
+                denormalize((ParkingSpot) document);
+            }
+        }
+    }
+
+    private void denormalize(CarPark carPark) {
+        CarParkAvailabilityDTO availability = parkingSpotOccupancyIndex.getAvailability(carPark.getId());
+        carPark.setCity(getCity(carPark));
+        carPark.setTotalSpots(availability.getTotalSpots());
+        carPark.setFreeSpots(availability.getFreeSpots());
+        carPark.setAccessibleFreeSpots(availability.getAccessibleFreeSpots());
+    }
+
+    private void denormalize(ParkingSpot parkingSpot) {
+        parkingSpot.setCity(getCity(parkingSpot.getCarPark()));
+    }
+
+    private static String getCity(CarPark carPark) {
+        Address address = carPark != null ? carPark.getAddress() : null;
+        return address != null ? address.getCity() : null;
+    }
+
+    /**
+     * Queues the reindexing of the car parks and parking spots at an address, after its city changed.
+     *
+     * @param addressId the id of the address.
+     */
+    public void addressCityChanged(Long addressId) {
+        searchOutboxService.indexAll(SearchDocumentType.CAR_PARK, carParkRepository.findIdsByAddressId(addressId));
+        searchOutboxService.indexAll(SearchDocumentType.PARKING_SPOT, parkingSpotRepository.findIdsByCarParkAddressId(addressId));
+    }
+
+    /**
+     * Queues the reindexing of the parking spots of a car park, after its address changed.
+     *
+     * @param carParkId the id of the car park.
+     */
+    public void carParkAddressChanged(Long carParkId) {
+        searchOutboxService.indexAll(SearchDocumentType.PARKING_SPOT, parkingSpotRepository.findIdsByCarParkId(carParkId));
+    }
+
+    @EventListener
+    public void onOccupancyChanged(ParkingSpotOccupancyChangedEvent event) {
+        if (event.getPreviousCarParkId() != null) {
+            staleCarParkIds.add(event.getPreviousCarParkId());
+        }
+        if (event.getCarParkId() != null) {
+            staleCarParkIds.add(event.getCarParkId());
+        }
+    }
+
+    /**
+     * Queues the reindexing of the car parks whose occupancy changed since the previous run.
+     */
+    @Scheduled(fixedDelayString = "${application.search-outbox.drain-interval-ms:1000}")
+    public void queueStaleCarParks() {
+        if (staleCarParkIds.isEmpty()) {
+            return;
+        }
+        List<Long> carParkIds = new ArrayList<>(staleCarParkIds);
+        staleCarParkIds.removeAll(carParkIds);
+        try {
+            transactionTemplate.executeWithoutResult(status -> searchOutboxService.indexAll(SearchDocumentType.CAR_PARK, carParkIds));
+        } catch (RuntimeException e) {
+            log.warn("Could not queue the reindexing of {} car parks, will retry: {}", carParkIds.size(), e.getMessage());
+            staleCarParkIds.addAll(carParkIds);
+        }
+    }
+}
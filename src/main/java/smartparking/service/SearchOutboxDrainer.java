@@ -0,0 +1,322 @@
+package smartparking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.elasticsearch.action.DocWriteRequest;
+import org.elasticsearch.action.bulk.BulkRequest;
+import org.elasticsearch.action.bulk.BulkResponse;
+import org.elasticsearch.action.delete.DeleteRequest;
+import org.elasticsearch.action.index.IndexRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.common.xcontent.XContentType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.convert.ElasticsearchConverter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.SearchOutboxEntry;
+import smartparking.domain.SearchOutboxPause;
+import smartparking.domain.User;
+import smartparking.domain.UserExtra;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
+import smartparking.repository.AddressRepository;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.OpenHoursRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.repository.SearchOutboxPauseRepository;
+import smartparking.repository.SearchOutboxRepository;
+import smartparking.repository.UserExtraRepository;
+import smartparking.repository.UserRepository;
+
+/**
+ * Background sender of the search outbox to Elasticsearch.
+ * <p>
+ * Entries are read in batches, oldest first, and collapsed to one change per document. Documents to index are
+ * re-read from the database, and the whole batch of index and delete operations is sent in a single bulk request, so
+ * the index always reflects the committed state whatever the order the entries are processed in. A batch is only removed
+ * from the outbox once Elasticsearch accepted every operation of it; on failure it is retried on the next run.
+ * <p>
+ * The outbox can be held back on every instance at once with {@link #suspend(Duration)}, which records the hold in the
+ * database.
+ */
+@Service
+public class SearchOutboxDrainer {
+
+    private final Logger log = LoggerFactory.getLogger(SearchOutboxDrainer.class);
+
+    private final SearchOutboxRepository searchOutboxRepository;
+
+    private final SearchOutboxPauseRepository searchOutboxPauseRepository;
+
+    private final SearchDocumentDenormalizer searchDocumentDenormalizer;
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private final ElasticsearchConverter elasticsearchConverter;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ApplicationProperties.SearchOutbox outboxProperties;
+
+    private final Map<SearchDocumentType, SearchTarget<?>> targets = new EnumMap<>(SearchDocumentType.class);
+
+    private final AtomicLong pending = new AtomicLong();
+
+    private final AtomicLong lagMillis = new AtomicLong();
+
+    private final Timer drainTimer;
+
+    private final Counter indexedCounter;
+
+    private final Counter deletedCounter;
+
+    public SearchOutboxDrainer(
+        SearchOutboxRepository searchOutboxRepository,
+        SearchOutboxPauseRepository searchOutboxPauseRepository,
+        SearchDocumentDenormalizer searchDocumentDenormalizer,
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        ElasticsearchConverter elasticsearchConverter,
+        PlatformTransactionManager transactionManager,
+        ApplicationProperties applicationProperties,
+        MeterRegistry meterRegistry,
+        CarParkRepository carParkRepository,
+        ParkingSpotRepository parkingSpotRepository,
+        OpenHoursRepository openHoursRepository,
+        AddressRepository addressRepository,
+        UserExtraRepository userExtraRepository,
+        UserRepository userRepository
+    ) {
+        this.searchOutboxRepository = searchOutboxRepository;
+        this.searchOutboxPauseRepository = searchOutboxPauseRepository;
+        this.searchDocumentDenormalizer = searchDocumentDenormalizer;
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.elasticsearchConverter = elasticsearchConverter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.outboxProperties = applicationProperties.getSearchOutbox();
+        targets.put(SearchDocumentType.CAR_PARK, new SearchTarget<>(carParkRepository, CarPark.class, CarPark::getId));
+        targets.put(SearchDocumentType.PARKING_SPOT, new SearchTarget<>(parkingSpotRepository, ParkingSpot.class, ParkingSpot::getId));
+        targets.put(SearchDocumentType.OPEN_HOURS, new SearchTarget<>(openHoursRepository, OpenHours.class, OpenHours::getId));
+        targets.put(SearchDocumentType.ADDRESS, new SearchTarget<>(addressRepository, Address.class, Address::getId));
+        targets.put(SearchDocumentType.USER_EXTRA, new SearchTarget<>(userExtraRepository, UserExtra.class, UserExtra::getId));
+        targets.put(SearchDocumentType.USER, new SearchTarget<>(userRepository, User.class, User::getId));
+
+        Gauge
+            .builder("search.outbox.pending", pending, AtomicLong::get)
+            .description("Entries waiting in the search outbox")
+            .register(meterRegistry);
+        Gauge
+            .builder("search.outbox.lag", lagMillis, lag -> lag.get() / 1000.0)
+            .description("Age of the oldest entry waiting in the search outbox")
+            .baseUnit("seconds")
+            .register(meterRegistry);
+        this.drainTimer = Timer.builder("search.outbox.drain").description("Time to send a search outbox batch").register(meterRegistry);
+        this.indexedCounter = meterRegistry.counter("search.outbox.documents", "operation", "index");
+        this.deletedCounter = meterRegistry.counter("search.outbox.documents", "operation", "delete");
+    }
+
+    /**
+     * Sends pending batches until the outbox is empty, or the per-run limit is reached.
+     */
+    @Scheduled(fixedDelayString = "${application.search-outbox.drain-interval-ms:1000}")
+    public void drain() {
+        if (!outboxProperties.isEnabled()) {
+            return;
+        }
+        try {
+            if (searchOutboxPauseRepository.existsByPausedUntilAfter(Instant.now())) {
+                log.debug("The search outbox is held back");
+                return;
+            }
+            int batches = 0;
+            int sent;
+            do {
+                sent = drainBatch();
+            } while (sent == outboxProperties.getBatchSize() && ++batches < outboxProperties.getMaxBatchesPerRun());
+        } catch (RuntimeException e) {
+            log.warn("Could not drain the search outbox, will retry: {}", e.getMessage());
+        } finally {
+            updateLag();
+        }
+    }
+
+    /**
+     * Holds back the scheduled drain of every instance, entries keep accumulating until {@link #resume(Long)} is called
+     * or the hold lapses.
+     *
+     * @param lease how long the hold lasts unless renewed.
+     * @return the id of the hold.
+     */
+    public Long suspend(Duration lease) {
+        return transactionTemplate.execute(
+            status -> searchOutboxPauseRepository.save(new SearchOutboxPause().pausedUntil(Instant.now().plus(lease))).getId()
+        );
+    }
+
+    /**
+     * Extends a hold taken by {@link #suspend(Duration)}.
+     *
+     * @param pauseId the id of the hold.
+     * @param lease how long the hold lasts from now unless renewed again.
+     */
+    public void renew(Long pauseId, Duration lease) {
+        transactionTemplate.executeWithoutResult(
+            status -> searchOutboxPauseRepository.findById(pauseId).ifPresent(pause -> pause.setPausedUntil(Instant.now().plus(lease)))
+        );
+    }
+
+    /**
+     * Releases a hold taken by {@link #suspend(Duration)}.
+     *
+     * @param pauseId the id of the hold.
+     */
+    public void resume(Long pauseId) {
+        transactionTemplate.executeWithoutResult(
+            status -> searchOutboxPauseRepository.findById(pauseId).ifPresent(searchOutboxPauseRepository::delete)
+        );
+    }
+
+    /**
+     * Sends the oldest batch of the outbox to Elasticsearch, and removes it from the outbox.
+     *
+     * @return the number of outbox entries processed.
+     */
+    public int drainBatch() {
+        return drainTimer.record(
+            () ->
+                transactionTemplate.execute(
+                    status -> {
+                        List<SearchOutboxEntry> entries = searchOutboxRepository.findAllByOrderByIdAsc(
+                            PageRequest.of(0, outboxProperties.getBatchSize())
+                        );
+                        if (entries.isEmpty()) {
+                            return 0;
+                        }
+                        // The last change of a document wins
+                        Map<SearchDocumentType, Map<Long, SearchOutboxOperation>> changes = new EnumMap<>(SearchDocumentType.class);
+                        entries.forEach(
+                            entry ->
+                                changes
+                                    .computeIfAbsent(entry.getDocumentType(), documentType -> new LinkedHashMap<>())
+                                    .put(entry.getDocumentId(), entry.getOperation())
+                        );
+                        BulkRequest request = new BulkRequest();
+                        changes.forEach((documentType, operations) -> targets.get(documentType).addTo(request, operations));
+                        send(request);
+                        searchOutboxRepository.deleteInBatch(entries);
+                        log.debug("Sent {} search outbox entries", entries.size());
+                        return entries.size();
+                    }
+                )
+        );
+    }
+
+    private void send(BulkRequest request) {
+        BulkResponse response = elasticsearchTemplate.execute(
+            client -> {
+                try {
+                    return client.bulk(request, RequestOptions.DEFAULT);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+        if (response.hasFailures()) {
+            throw new IllegalStateException("Elasticsearch rejected the search outbox batch: " + response.buildFailureMessage());
+        }
+        for (DocWriteRequest<?> operation : request.requests()) {
+            if (operation.opType() == DocWriteRequest.OpType.DELETE) {
+                deletedCounter.increment();
+            } else {
+                indexedCounter.increment();
+            }
+        }
+    }
+
+    private void updateLag() {
+        try {
+            pending.set(searchOutboxRepository.count());
+            lagMillis.set(
+                searchOutboxRepository
+                    .findFirstByOrderByIdAsc()
+                    .map(oldest -> Math.max(0, Duration.between(oldest.getCreatedDate(), Instant.now()).toMillis()))
+                    .orElse(0L)
+            );
+        } catch (RuntimeException e) {
+            log.debug("Could not measure the search outbox lag: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * An entity repository and the index of its documents.
+     */
+    private final class SearchTarget<T> {
+
+        private final JpaRepository<T, Long> repository;
+
+        private final Class<T> documentClass;
+
+        private final Function<T, Long> idGetter;
+
+        private SearchTarget(JpaRepository<T, Long> repository, Class<T> documentClass, Function<T, Long> idGetter) {
+            this.repository = repository;
+            this.documentClass = documentClass;
+            this.idGetter = idGetter;
+        }
+
+        private void addTo(BulkRequest request, Map<Long, SearchOutboxOperation> operations) {
+            String index = elasticsearchConverter
+                .getMappingContext()
+                .getRequiredPersistentEntity(documentClass)
+                .getIndexCoordinates()
+                .getIndexName();
+            List<Long> idsToIndex = operations
+                .entrySet()
+                .stream()
+                .filter(operation -> operation.getValue() == SearchOutboxOperation.INDEX)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+            List<T> documents = idsToIndex.isEmpty() ? Collections.emptyList() : repository.findAllById(idsToIndex);
+            searchDocumentDenormalizer.denormalize(documents);
+            for (T document : documents) {
+                request.add(
+                    new IndexRequest(index)
+                        .id(idGetter.apply(document).toString())
+                        .source(elasticsearchConverter.mapObject(document).toJson(), XContentType.JSON)
+                );
+            }
+            // Deleted documents, and the ones deleted since they were queued for indexing
+            Set<Long> indexedIds = documents.stream().map(idGetter).collect(Collectors.toSet());
+            operations
+                .keySet()
+                .stream()
+                .filter(id -> !indexedIds.contains(id))
+                .forEach(id -> request.add(new DeleteRequest(index, id.toString())));
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package smartparking.service;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.domain.SearchOutboxEntry;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
+import smartparking.repository.SearchOutboxRepository;
+
+/**
+ * Service recording Elasticsearch changes in the search outbox.
+ * <p>
+ * Entries are written in the caller's transaction, so they are committed or rolled back together with the entity
+ * change, and sent to Elasticsearch later by the {@link SearchOutboxDrainer}.
+ */
+@Service
+@Transactional
+public class SearchOutboxService {
+
+    private final Logger log = LoggerFactory.getLogger(SearchOutboxService.class);
+
+    private final SearchOutboxRepository searchOutboxRepository;
+
+    public SearchOutboxService(SearchOutboxRepository searchOutboxRepository) {
+        this.searchOutboxRepository = searchOutboxRepository;
+    }
+
+    /**
+     * Queues the (re)indexing of a document.
+     *
+     * @param documentType the type of the document.
+     * @param documentId the id of the saved entity.
+     */
+    public void index(SearchDocumentType documentType, Long documentId) {
+        log.debug("Request to queue indexing of {} : {}", documentType, documentId);
+        searchOutboxRepository.save(newEntry(documentType, documentId, SearchOutboxOperation.INDEX));
+    }
+
+    /**
+     * Queues the (re)indexing of several documents of the same type.
+     *
+     * @param documentType the type of the documents.
+     * @param documentIds the ids of the saved entities.
+     */
+    public void indexAll(SearchDocumentType documentType, Collection<Long> documentIds) {
+        log.debug("Request to queue indexing of {} {}", documentIds.size(), documentType);
+        searchOutboxRepository.saveAll(
+            documentIds
+                .stream()
+                .map(documentId -> newEntry(documentType, documentId, SearchOutboxOperation.INDEX))
+                .collect(Collectors.toList())
+        );
+    }
+
+    /**
+     * Queues the removal of a document.
+     *
+     * @param documentType the type of the document.
+     * @param documentId the id of the deleted entity.
+     */
+    public void delete(SearchDocumentType documentType, Long documentId) {
+        log.debug("Request to queue removal of {} : {}", documentType, documentId);
+        searchOutboxRepository.save(newEntry(documentType, documentId, SearchOutboxOperation.DELETE));
+    }
+
+    private SearchOutboxEntry newEntry(SearchDocumentType documentType, Long documentId, SearchOutboxOperation operation) {
+        return new SearchOutboxEntry().documentType(documentType).documentId(documentId).operation(operation).createdDate(Instant.now());
+    }
+}
@@ -0,0 +1,379 @@
+package smartparking.service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import javax.annotation.PreDestroy;
+import javax.persistence.EntityManager;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest;
+import org.elasticsearch.action.admin.indices.alias.IndicesAliasesRequest.AliasActions;
+import org.elasticsearch.action.admin.indices.alias.get.GetAliasesRequest;
+import org.elasticsearch.action.admin.indices.settings.put.UpdateSettingsRequest;
+import org.elasticsearch.client.RequestOptions;
+import org.elasticsearch.client.indices.GetIndexRequest;
+import org.elasticsearch.common.settings.Settings;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.document.Document;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.User;
+import smartparking.domain.UserExtra;
+import smartparking.service.dto.SearchReindexIndexDTO;
+import smartparking.service.dto.SearchReindexStatusDTO;
+
+/**
+ * Service rebuilding every Elasticsearch index from the database.
+ * <p>
+ * Each entity table is walked by id (keyset pagination), one chunk of ids at a time. Chunks are loaded and bulk
+ * indexed by a bounded worker pool, each in its own read-only transaction, so at most a few chunks are in heap at any
+ * time. Documents go to a fresh versioned index ({@code carpark-20261018120000}), and once it is complete the index
+ * alias is moved to it and the previous index dropped in a single atomic aliases request.
+ * <p>
+ * The search outbox of every instance is held back while the job runs, so that changes made in the meantime are
+ * applied to the new index once it is live. Every indexed type, users included, goes through the outbox. The hold is
+ * renewed as chunks are loaded, and lapses if this instance stops in the middle of the job.
+ */
+@Service
+public class SearchReindexService {
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexService.class);
+
+    private static final List<Class<?>> DOCUMENT_CLASSES = Arrays.asList(
+        CarPark.class,
+        ParkingSpot.class,
+        OpenHours.class,
+        Address.class,
+        UserExtra.class,
+        User.class
+    );
+
+    private static final DateTimeFormatter VERSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmmss").withZone(ZoneOffset.UTC);
+
+    private final EntityManager entityManager;
+
+    private final TransactionTemplate readOnlyTransactionTemplate;
+
+    private final ElasticsearchRestTemplate elasticsearchTemplate;
+
+    private final SearchOutboxDrainer searchOutboxDrainer;
+
+    private final SearchDocumentDenormalizer searchDocumentDenormalizer;
+
+    private final ApplicationProperties.SearchReindex reindexProperties;
+
+    private final ExecutorService runner = Executors.newSingleThreadExecutor(new CustomizableThreadFactory("search-reindex-job-"));
+
+    private volatile Job job;
+
+    public SearchReindexService(
+        EntityManager entityManager,
+        PlatformTransactionManager transactionManager,
+        ElasticsearchRestTemplate elasticsearchTemplate,
+        SearchOutboxDrainer searchOutboxDrainer,
+        SearchDocumentDenormalizer searchDocumentDenormalizer,
+        ApplicationProperties applicationProperties
+    ) {
+        this.entityManager = entityManager;
+        this.readOnlyTransactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTransactionTemplate.setReadOnly(true);
+        this.elasticsearchTemplate = elasticsearchTemplate;
+        this.searchOutboxDrainer = searchOutboxDrainer;
+        this.searchDocumentDenormalizer = searchDocumentDenormalizer;
+        this.reindexProperties = applicationProperties.getSearchReindex();
+    }
+
+    /**
+     * Starts a full reindex in the background.
+     *
+     * @return the status of the started job, or empty if a job is already running.
+     */
+    public synchronized Optional<SearchReindexStatusDTO> start() {
+        if (job != null && job.finishedAt == null) {
+            return Optional.empty();
+        }
+        Job newJob = new Job();
+        job = newJob;
+        runner.execute(() -> run(newJob));
+        return Optional.of(newJob.toDto());
+    }
+
+    /**
+     * Gets the progress of the current or last reindex job.
+     *
+     * @return the status of the job, or empty if no job was started.
+     */
+    public Optional<SearchReindexStatusDTO> getStatus() {
+        Job current = job;
+        return Optional.ofNullable(current).map(Job::toDto);
+    }
+
+    @PreDestroy
+    public void destroy() {
+        runner.shutdownNow();
+    }
+
+    private void run(Job job) {
+        log.info("Starting full Elasticsearch reindex");
+        Duration pauseLease = Duration.ofMillis(reindexProperties.getPauseLeaseMs());
+        job.pauseId = searchOutboxDrainer.suspend(pauseLease);
+        ThreadPoolExecutor workers = new ThreadPoolExecutor(
+            reindexProperties.getThreads(),
+            reindexProperties.getThreads(),
+            0L,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(reindexProperties.getThreads()),
+            new CustomizableThreadFactory("search-reindex-"),
+            // A full queue makes the reader load chunks too, instead of reading ahead of the workers
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        try {
+            for (IndexJob indexJob : job.indices) {
+                reindex(job, indexJob, workers);
+            }
+        } catch (Exception e) {
+            log.error("Full Elasticsearch reindex failed", e);
+            job.error = e.getMessage();
+        } finally {
+            workers.shutdownNow();
+            searchOutboxDrainer.resume(job.pauseId);
+            job.finishedAt = Instant.now();
+        }
+        log.info("Finished full Elasticsearch reindex in {}", Duration.between(job.startedAt, job.finishedAt));
+    }
+
+    private void reindex(Job job, IndexJob indexJob, ExecutorService workers) throws ExecutionException, InterruptedException {
+        String entityName = entityManager.getMetamodel().entity(indexJob.documentClass).getName();
+        indexJob.total = readOnlyTransactionTemplate.execute(
+            status -> entityManager.createQuery("select count(e) from " + entityName + " e", Long.class).getSingleResult()
+        );
+        indexJob.startedAt = Instant.now();
+        IndexCoordinates index = IndexCoordinates.of(indexJob.indexName);
+        createIndex(indexJob.documentClass, index);
+        try {
+            loadIndex(job, indexJob, entityName, index, workers);
+        } catch (ExecutionException | InterruptedException | RuntimeException e) {
+            elasticsearchTemplate.indexOps(index).delete();
+            throw e;
+        }
+        swapAlias(indexJob.alias, indexJob.indexName);
+        indexJob.finishedAt = Instant.now();
+        log.info("Reindexed {} documents into {} at {} documents/s", indexJob.indexed.get(), indexJob.indexName, indexJob.rate());
+    }
+
+    private void loadIndex(Job job, IndexJob indexJob, String entityName, IndexCoordinates index, ExecutorService workers)
+        throws ExecutionException, InterruptedException {
+        List<Future<?>> chunks = new ArrayList<>();
+        Long lastId = Long.MIN_VALUE;
+        List<Long> ids;
+        do {
+            ids = readIdChunk(entityName, lastId);
+            if (!ids.isEmpty()) {
+                List<Long> chunk = ids;
+                chunks.add(workers.submit(() -> indexChunk(indexJob, entityName, chunk, index)));
+                lastId = ids.get(ids.size() - 1);
+            }
+            // Drop the futures of completed chunks, and surface their failures early
+            for (Future<?> completed : chunks.stream().filter(Future::isDone).collect(Collectors.toList())) {
+                completed.get();
+                chunks.remove(completed);
+            }
+            renewPause(job);
+        } while (ids.size() == reindexProperties.getChunkSize());
+        for (Future<?> chunk : chunks) {
+            chunk.get();
+        }
+    }
+
+    private void renewPause(Job job) {
+        Duration pauseLease = Duration.ofMillis(reindexProperties.getPauseLeaseMs());
+        if (Duration.between(job.pauseRenewedAt, Instant.now()).compareTo(pauseLease.dividedBy(2)) > 0) {
+            searchOutboxDrainer.renew(job.pauseId, pauseLease);
+            job.pauseRenewedAt = Instant.now();
+        }
+    }
+
+    private List<Long> readIdChunk(String entityName, Long lastId) {
+        return readOnlyTransactionTemplate.execute(
+            status ->
+                entityManager
+                    .createQuery("select e.id from " + entityName + " e where e.id > :lastId order by e.id", Long.class)
+                    .setParameter("lastId", lastId)
+                    .setMaxResults(reindexProperties.getChunkSize())
+                    .getResultList()
+        );
+    }
+
+    private void indexChunk(IndexJob indexJob, String entityName, List<Long> ids, IndexCoordinates index) {
+        // Documents are mapped within the transaction, so that their lazy associations can still be read
+        readOnlyTransactionTemplate.executeWithoutResult(
+            status -> {
+                List<?> documents = entityManager
+                    .createQuery("select e from " + entityName + " e where e.id in :ids", indexJob.documentClass)
+                    .setParameter("ids", ids)
+                    .getResultList();
+                searchDocumentDenormalizer.denormalize(documents);
+                elasticsearchTemplate.save(documents, index);
+                indexJob.indexed.addAndGet(documents.size());
+            }
+        );
+    }
+
+    private void createIndex(Class<?> documentClass, IndexCoordinates index) {
+        IndexOperations indexOperations = elasticsearchTemplate.indexOps(index);
+        // No refreshes while loading, the index is refreshed once before it goes live
+        indexOperations.create(Document.from(Collections.singletonMap("index.refresh_interval", "-1")));
+        indexOperations.putMapping(indexOperations.createMapping(documentClass));
+    }
+
+    /**
+     * Points the alias to the new index, in one atomic request that also drops every index the alias pointed to,
+     * as well as a former concrete index with the name of the alias.
+     */
+    private void swapAlias(String alias, String indexName) {
+        elasticsearchTemplate.execute(
+            client -> {
+                try {
+                    client
+                        .indices()
+                        .putSettings(
+                            new UpdateSettingsRequest(indexName).settings(Settings.builder().putNull("index.refresh_interval")),
+                            RequestOptions.DEFAULT
+                        );
+                    elasticsearchTemplate.indexOps(IndexCoordinates.of(indexName)).refresh();
+
+                    IndicesAliasesRequest request = new IndicesAliasesRequest();
+                    request.addAliasAction(AliasActions.add().index(indexName).alias(alias));
+                    if (client.indices().existsAlias(new GetAliasesRequest(alias), RequestOptions.DEFAULT)) {
+                        client
+                            .indices()
+                            .getAlias(new GetAliasesRequest(alias), RequestOptions.DEFAULT)
+                            .getAliases()
+                            .keySet()
+                            .forEach(previous -> request.addAliasAction(AliasActions.removeIndex().index(previous)));
+                    } else if (client.indices().exists(new GetIndexRequest(alias), RequestOptions.DEFAULT)) {
+                        request.addAliasAction(AliasActions.removeIndex().index(alias));
+                    }
+                    return client.indices().updateAliases(request, RequestOptions.DEFAULT).isAcknowledged();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        );
+    }
+
+    /**
+     * A running or finished reindex job.
+     */
+    private final class Job {
+
+        private final Instant startedAt = Instant.now();
+
+        private final List<IndexJob> indices;
+
+        private volatile Instant finishedAt;
+
+        private volatile String error;
+
+        private Long pauseId;
+
+        private Instant pauseRenewedAt = startedAt;
+
+        private Job() {
+            String version = VERSION_FORMAT.format(startedAt);
+            this.indices =
+                DOCUMENT_CLASSES
+                    .stream()
+                    .map(
+                        documentClass -> {
+                            String alias = elasticsearchTemplate.getIndexCoordinatesFor(documentClass).getIndexName();
+                            return new IndexJob(documentClass, alias, alias + "-" + version);
+                        }
+                    )
+                    .collect(Collectors.toList());
+        }
+
+        private SearchReindexStatusDTO toDto() {
+            SearchReindexStatusDTO dto = new SearchReindexStatusDTO();
+            dto.setRunning(finishedAt == null);
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setError(error);
+            dto.setIndices(indices.stream().map(IndexJob::toDto).collect(Collectors.toList()));
+            return dto;
+        }
+    }
+
+    /**
+     * The rebuild of one index.
+     */
+    private static final class IndexJob {
+
+        private final Class<?> documentClass;
+
+        private final String alias;
+
+        private final String indexName;
+
+        private final AtomicLong indexed = new AtomicLong();
+
+        private volatile long total;
+
+        private volatile Instant startedAt;
+
+        private volatile Instant finishedAt;
+
+        private IndexJob(Class<?> documentClass, String alias, String indexName) {
+            this.documentClass = documentClass;
+            this.alias = alias;
+            this.indexName = indexName;
+        }
+
+        private double rate() {
+            if (startedAt == null) {
+                return 0;
+            }
+            long millis = Duration.between(startedAt, finishedAt != null ? finishedAt : Instant.now()).toMillis();
+            return millis > 0 ? indexed.get() * 1000.0 / millis : 0;
+        }
+
+        private SearchReindexIndexDTO toDto() {
+            SearchReindexIndexDTO dto = new SearchReindexIndexDTO();
+            dto.setAlias(alias);
+            dto.setIndexName(indexName);
+            dto.setTotal(total);
+            dto.setIndexed(indexed.get());
+            dto.setStartedAt(startedAt);
+            dto.setFinishedAt(finishedAt);
+            dto.setDocumentsPerSecond(rate());
+            return dto;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package smartparking.service;
+
+import java.io.Serializable;
+import org.hibernate.event.spi.AbstractCollectionEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEvent;
+import org.hibernate.event.spi.PostCollectionRecreateEventListener;
+import org.hibernate.event.spi.PostCollectionRemoveEvent;
+import org.hibernate.event.spi.PostCollectionRemoveEventListener;
+import org.hibernate.event.spi.PostCollectionUpdateEvent;
+import org.hibernate.event.spi.PostCollectionUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+
+/**
+ * Hibernate listener forwarding the changes of cached entities and collections to the
+ * {@link ClusterCacheInvalidator}.
+ * <p>
+ * The changes of the entities held in the resident indices of the other nodes are forwarded as row changes, inserts
+ * included. Inserts of other entities are not forwarded, as the other nodes cannot have cached an entity which did not
+ * exist yet.
+ */
+class SecondLevelCacheInvalidationListener
+    implements
+        PostInsertEventListener,
+        PostUpdateEventListener,
+        PostDeleteEventListener,
+        PostCollectionRecreateEventListener,
+        PostCollectionUpdateEventListener,
+        PostCollectionRemoveEventListener {
+
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
+
+    SecondLevelCacheInvalidationListener(ClusterCacheInvalidator clusterCacheInvalidator) {
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        String entityName = event.getPersister().getEntityName();
+        if (ClusterIndexSynchronizer.INDEXED_ENTITY_NAMES.contains(entityName)) {
+            clusterCacheInvalidator.rowChanged(entityName, (Long) event.getId());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        entityChanged(event.getPersister(), event.getId());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        entityChanged(event.getPersister(), event.getId());
+    }
+
+    private void entityChanged(EntityPersister persister, Serializable id) {
+        String entityName = persister.getEntityName();
+        if (ClusterIndexSynchronizer.INDEXED_ENTITY_NAMES.contains(entityName)) {
+            clusterCacheInvalidator.rowChanged(entityName, (Long) id);
+        } else if (persister.canWriteToCache()) {
+            clusterCacheInvalidator.evictEntity(entityName, id);
+        }
+    }
+
+    @Override
+    public void onPostRecreateCollection(PostCollectionRecreateEvent event) {
+        evictCollection(event);
+    }
+
+    @Override
+    public void onPostUpdateCollection(PostCollectionUpdateEvent event) {
+        evictCollection(event);
+    }
+
+    @Override
+    public void onPostRemoveCollection(PostCollectionRemoveEvent event) {
+        evictCollection(event);
+    }
+
+    private void evictCollection(AbstractCollectionEvent event) {
+        String role = event.getCollection().getRole();
+        if (role != null && event.getSession().getFactory().getMetamodel().collectionPersister(role).hasCache()) {
+            clusterCacheInvalidator.evictCollection(role, event.getAffectedOwnerIdOrNull());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /**
+     * Still abstract in Hibernate 5.4, see {@link #requiresPostCommitHandling(EntityPersister)}.
+     */
+    @Override
+    @Deprecated
+    public boolean requiresPostCommitHanding(EntityPersister persister) {
+        return requiresPostCommitHandling(persister);
+    }
+}
@@ -19,11 +19,10 @@ import smartparking.config.Constants;
 import smartparking.domain.Authority;
 import smartparking.domain.User;
 import smartparking.domain.UserExtra;
+import smartparking.domain.enumeration.SearchDocumentType;
 import smartparking.repository.AuthorityRepository;
 import smartparking.repository.UserExtraRepository;
 import smartparking.repository.UserRepository;
-import smartparking.repository.search.UserExtraSearchRepository;
-import smartparking.repository.search.UserSearchRepository;
 import smartparking.security.AuthoritiesConstants;
 import smartparking.security.SecurityUtils;
 import smartparking.service.dto.AdminUserDTO;
@@ -43,33 +42,32 @@ public class UserService {
 
     private final PasswordEncoder passwordEncoder;
 
-    private final UserSearchRepository userSearchRepository;
-
     private final AuthorityRepository authorityRepository;
 
     private final CacheManager cacheManager;
 
     private final UserExtraRepository userExtraRepository;
 
-    private final UserExtraSearchRepository userExtraSearchRepository;
+    private final SearchOutboxService searchOutboxService;
+
+    private final ClusterCacheInvalidator clusterCacheInvalidator;
 
     public UserService(
         UserRepository userRepository,
         PasswordEncoder passwordEncoder,
-        UserSearchRepository userSearchRepository,
         AuthorityRepository authorityRepository,
         CacheManager cacheManager,
         UserExtraRepository userExtraRepository,
-        UserExtraSearchRepository userExtraSearchRepository
-
+        SearchOutboxService searchOutboxService,
+        ClusterCacheInvalidator clusterCacheInvalidator
     ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
-        this.userSearchRepository = userSearchRepository;
         this.authorityRepository = authorityRepository;
         this.cacheManager = cacheManager;
         this.userExtraRepository = userExtraRepository;
-        this.userExtraSearchRepository = userExtraSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.clusterCacheInvalidator = clusterCacheInvalidator;
     }
 
     public Optional<User> activateRegistration(String key) {
@@ -81,7 +79,7 @@ public class UserService {
                     // activate given user for the registration key.
                     user.setActivated(true);
                     user.setActivationKey(null);
-                    userSearchRepository.save(user);
+                    searchOutboxService.index(SearchDocumentType.USER, user.getId());
                     this.clearUserCaches(user);
                     log.debug("Activated user: {}", user);
                     return user;
@@ -160,7 +158,7 @@ public class UserService {
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
         userRepository.save(newUser);
-        userSearchRepository.save(newUser);
+        searchOutboxService.index(SearchDocumentType.USER, newUser.getId());
         this.clearUserCaches(newUser);
         log.debug("Created Information for User: {}", newUser);
 
@@ -171,7 +169,7 @@ public class UserService {
         newUserExtra.setTimeOfParking(null);
         newUserExtra.setCurrentParkingSpot(null);
         userExtraRepository.save(newUserExtra);
-        userExtraSearchRepository.save(newUserExtra);
+        searchOutboxService.index(SearchDocumentType.USER_EXTRA, newUserExtra.getId());
         log.debug("Created Information for UserExtra: {}", newUserExtra);
 
         return newUser;
@@ -217,7 +215,7 @@ public class UserService {
             user.setAuthorities(authorities);
         }
         userRepository.save(user);
-        userSearchRepository.save(user);
+        searchOutboxService.index(SearchDocumentType.USER, user.getId());
         this.clearUserCaches(user);
         log.debug("Created Information for User: {}", user);
 
@@ -228,7 +226,7 @@ public class UserService {
         newUserExtra.setTimeOfParking(null);
         newUserExtra.setCurrentParkingSpot(null);
         userExtraRepository.save(newUserExtra);
-        userExtraSearchRepository.save(newUserExtra);
+        searchOutboxService.index(SearchDocumentType.USER_EXTRA, newUserExtra.getId());
         log.debug("Created Information for UserExtra: {}", newUserExtra);
 
         return user;
@@ -266,7 +264,7 @@ public class UserService {
                         .filter(Optional::isPresent)
                         .map(Optional::get)
                         .forEach(managedAuthorities::add);
-                    userSearchRepository.save(user);
+                    searchOutboxService.index(SearchDocumentType.USER, user.getId());
                     this.clearUserCaches(user);
                     log.debug("Changed Information for User: {}", user);
                     return user;
@@ -281,7 +279,7 @@ public class UserService {
             .ifPresent(
                 user -> {
                     userRepository.delete(user);
-                    userSearchRepository.delete(user);
+                    searchOutboxService.delete(SearchDocumentType.USER, user.getId());
                     this.clearUserCaches(user);
                     log.debug("Deleted User: {}", user);
                 }
@@ -310,7 +308,7 @@ public class UserService {
                     }
                     user.setLangKey(langKey);
                     user.setImageUrl(imageUrl);
-                    userSearchRepository.save(user);
+                    searchOutboxService.index(SearchDocumentType.USER, user.getId());
                     this.clearUserCaches(user);
                     log.debug("Changed Information for User: {}", user);
                 }
@@ -369,7 +367,7 @@ public class UserService {
                 user -> {
                     log.debug("Deleting not activated user {}", user.getLogin());
                     userRepository.delete(user);
-                    userSearchRepository.delete(user);
+                    searchOutboxService.delete(SearchDocumentType.USER, user.getId());
                     this.clearUserCaches(user);
                 }
             );
@@ -386,8 +384,10 @@ public class UserService {
 
     private void clearUserCaches(User user) {
         Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).evict(user.getLogin());
+        clusterCacheInvalidator.evict(UserRepository.USERS_BY_LOGIN_CACHE, user.getLogin());
         if (user.getEmail() != null) {
             Objects.requireNonNull(cacheManager.getCache(UserRepository.USERS_BY_EMAIL_CACHE)).evict(user.getEmail());
+            clusterCacheInvalidator.evict(UserRepository.USERS_BY_EMAIL_CACHE, user.getEmail());
         }
     }
 }
@@ -0,0 +1,60 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO summarizing the outcome of a bulk ingestion of {@link ParkingSpotAvailabilityEventDTO}.
+ */
+public class AvailabilityIngestionResultDTO {
+
+    private int received;
+
+    private int applied;
+
+    private int ignored;
+
+    public AvailabilityIngestionResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public AvailabilityIngestionResultDTO(int received, int applied, int ignored) {
+        this.received = received;
+        this.applied = applied;
+        this.ignored = ignored;
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public void setReceived(int received) {
+        this.received = received;
+    }
+
+    public int getApplied() {
+        return applied;
+    }
+
+    public void setApplied(int applied) {
+        this.applied = applied;
+    }
+
+    /**
+     * @return the number of events superseded by a newer event, or targeting an unknown parking spot.
+     */
+    public int getIgnored() {
+        return ignored;
+    }
+
+    public void setIgnored(int ignored) {
+        this.ignored = ignored;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AvailabilityIngestionResultDTO{" +
+            "received=" + received +
+            ", applied=" + applied +
+            ", ignored=" + ignored +
+            "}";
+    }
+}
@@ -0,0 +1,49 @@
+package smartparking.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO pushed to live availability subscribers of a {@link smartparking.domain.CarPark}: the current counters,
+ * together with either every spot (snapshot) or only the spots changed since the previous push (delta).
+ */
+public class CarParkAvailabilityChangeDTO {
+
+    private CarParkAvailabilityDTO availability;
+
+    private List<ParkingSpotStateDTO> spots = new ArrayList<>();
+
+    public CarParkAvailabilityChangeDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CarParkAvailabilityChangeDTO(CarParkAvailabilityDTO availability, List<ParkingSpotStateDTO> spots) {
+        this.availability = availability;
+        this.spots = spots;
+    }
+
+    public CarParkAvailabilityDTO getAvailability() {
+        return availability;
+    }
+
+    public void setAvailability(CarParkAvailabilityDTO availability) {
+        this.availability = availability;
+    }
+
+    public List<ParkingSpotStateDTO> getSpots() {
+        return spots;
+    }
+
+    public void setSpots(List<ParkingSpotStateDTO> spots) {
+        this.spots = spots;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkAvailabilityChangeDTO{" +
+            "availability=" + availability +
+            ", spots=" + spots +
+            "}";
+    }
+}
@@ -0,0 +1,69 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO representing the current occupancy of a {@link smartparking.domain.CarPark}.
+ */
+public class CarParkAvailabilityDTO {
+
+    private Long carParkId;
+
+    private int totalSpots;
+
+    private int freeSpots;
+
+    private int accessibleFreeSpots;
+
+    public CarParkAvailabilityDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CarParkAvailabilityDTO(Long carParkId, int totalSpots, int freeSpots, int accessibleFreeSpots) {
+        this.carParkId = carParkId;
+        this.totalSpots = totalSpots;
+        this.freeSpots = freeSpots;
+        this.accessibleFreeSpots = accessibleFreeSpots;
+    }
+
+    public Long getCarParkId() {
+        return carParkId;
+    }
+
+    public void setCarParkId(Long carParkId) {
+        this.carParkId = carParkId;
+    }
+
+    public int getTotalSpots() {
+        return totalSpots;
+    }
+
+    public void setTotalSpots(int totalSpots) {
+        this.totalSpots = totalSpots;
+    }
+
+    public int getFreeSpots() {
+        return freeSpots;
+    }
+
+    public void setFreeSpots(int freeSpots) {
+        this.freeSpots = freeSpots;
+    }
+
+    public int getAccessibleFreeSpots() {
+        return accessibleFreeSpots;
+    }
+
+    public void setAccessibleFreeSpots(int accessibleFreeSpots) {
+        this.accessibleFreeSpots = accessibleFreeSpots;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkAvailabilityDTO{" +
+            "carParkId=" + carParkId +
+            ", totalSpots=" + totalSpots +
+            ", freeSpots=" + freeSpots +
+            ", accessibleFreeSpots=" + accessibleFreeSpots +
+            "}";
+    }
+}
@@ -0,0 +1,102 @@
+package smartparking.service.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.HashSet;
+import java.util.Set;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+
+/**
+ * A DTO representing a {@link CarPark} with its address, its open hours and its current occupancy.
+ */
+public class CarParkDetailsDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String owner;
+
+    @JsonIgnoreProperties(value = { "carParks" }, allowSetters = true)
+    private Address address;
+
+    @JsonIgnoreProperties(value = { "carPark" }, allowSetters = true)
+    private Set<OpenHours> openHours = new HashSet<>();
+
+    private CarParkAvailabilityDTO availability;
+
+    public CarParkDetailsDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CarParkDetailsDTO(CarPark carPark, CarParkAvailabilityDTO availability) {
+        this.id = carPark.getId();
+        this.name = carPark.getName();
+        this.owner = carPark.getOwner();
+        this.address = carPark.getAddress();
+        this.openHours = new HashSet<>(carPark.getOpenHours());
+        this.availability = availability;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public Address getAddress() {
+        return address;
+    }
+
+    public void setAddress(Address address) {
+        this.address = address;
+    }
+
+    public Set<OpenHours> getOpenHours() {
+        return openHours;
+    }
+
+    public void setOpenHours(Set<OpenHours> openHours) {
+        this.openHours = openHours;
+    }
+
+    public CarParkAvailabilityDTO getAvailability() {
+        return availability;
+    }
+
+    public void setAvailability(CarParkAvailabilityDTO availability) {
+        this.availability = availability;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkDetailsDTO{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", owner='" + owner + "'" +
+            ", address=" + address +
+            ", openHours=" + openHours +
+            ", availability=" + availability +
+            "}";
+    }
+}
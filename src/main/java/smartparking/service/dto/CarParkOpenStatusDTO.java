@@ -0,0 +1,71 @@
+package smartparking.service.dto;
+
+import java.time.ZonedDateTime;
+
+/**
+ * A DTO representing whether a {@link smartparking.domain.CarPark} is open at a given time.
+ */
+public class CarParkOpenStatusDTO {
+
+    private Long carParkId;
+
+    private ZonedDateTime at;
+
+    private boolean open;
+
+    private ZonedDateTime nextOpening;
+
+    public CarParkOpenStatusDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CarParkOpenStatusDTO(Long carParkId, ZonedDateTime at, boolean open, ZonedDateTime nextOpening) {
+        this.carParkId = carParkId;
+        this.at = at;
+        this.open = open;
+        this.nextOpening = nextOpening;
+    }
+
+    public Long getCarParkId() {
+        return carParkId;
+    }
+
+    public void setCarParkId(Long carParkId) {
+        this.carParkId = carParkId;
+    }
+
+    public ZonedDateTime getAt() {
+        return at;
+    }
+
+    public void setAt(ZonedDateTime at) {
+        this.at = at;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void setOpen(boolean open) {
+        this.open = open;
+    }
+
+    public ZonedDateTime getNextOpening() {
+        return nextOpening;
+    }
+
+    public void setNextOpening(ZonedDateTime nextOpening) {
+        this.nextOpening = nextOpening;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkOpenStatusDTO{" +
+            "carParkId=" + carParkId +
+            ", at='" + at + "'" +
+            ", open=" + open +
+            ", nextOpening='" + nextOpening + "'" +
+            "}";
+    }
+}
@@ -0,0 +1,47 @@
+package smartparking.service.dto;
+
+/**
+ * The filters of a faceted {@link smartparking.domain.CarPark} search, each ignored when {@code null}.
+ */
+public class CarParkSearchCriteria {
+
+    private String city;
+
+    private Integer minFreeSpots;
+
+    private Integer minAccessibleFreeSpots;
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Integer getMinFreeSpots() {
+        return minFreeSpots;
+    }
+
+    public void setMinFreeSpots(Integer minFreeSpots) {
+        this.minFreeSpots = minFreeSpots;
+    }
+
+    public Integer getMinAccessibleFreeSpots() {
+        return minAccessibleFreeSpots;
+    }
+
+    public void setMinAccessibleFreeSpots(Integer minAccessibleFreeSpots) {
+        this.minAccessibleFreeSpots = minAccessibleFreeSpots;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkSearchCriteria{" +
+            "city='" + city + "'" +
+            ", minFreeSpots=" + minFreeSpots +
+            ", minAccessibleFreeSpots=" + minAccessibleFreeSpots +
+            "}";
+    }
+}
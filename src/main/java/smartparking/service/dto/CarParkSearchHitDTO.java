@@ -0,0 +1,92 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO representing a {@link smartparking.domain.CarPark} found by a faceted search, with its occupancy when it was
+ * last indexed.
+ */
+public class CarParkSearchHitDTO {
+
+    private Long id;
+
+    private String name;
+
+    private String owner;
+
+    private String city;
+
+    private Integer totalSpots;
+
+    private Integer freeSpots;
+
+    private Integer accessibleFreeSpots;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    public void setOwner(String owner) {
+        this.owner = owner;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Integer getTotalSpots() {
+        return totalSpots;
+    }
+
+    public void setTotalSpots(Integer totalSpots) {
+        this.totalSpots = totalSpots;
+    }
+
+    public Integer getFreeSpots() {
+        return freeSpots;
+    }
+
+    public void setFreeSpots(Integer freeSpots) {
+        this.freeSpots = freeSpots;
+    }
+
+    public Integer getAccessibleFreeSpots() {
+        return accessibleFreeSpots;
+    }
+
+    public void setAccessibleFreeSpots(Integer accessibleFreeSpots) {
+        this.accessibleFreeSpots = accessibleFreeSpots;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkSearchHitDTO{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", owner='" + owner + "'" +
+            ", city='" + city + "'" +
+            ", totalSpots=" + totalSpots +
+            ", freeSpots=" + freeSpots +
+            ", accessibleFreeSpots=" + accessibleFreeSpots +
+            "}";
+    }
+}
@@ -0,0 +1,114 @@
+package smartparking.service.dto;
+
+import java.util.List;
+
+/**
+ * A DTO representing the summary of a {@link smartparking.domain.CarPark} shown in list and map views: its name, its
+ * current occupancy, overall and per floor, and whether it is open.
+ */
+public class CarParkSummaryDTO {
+
+    private Long id;
+
+    private String name;
+
+    private int totalSpots;
+
+    private int freeSpots;
+
+    private int accessibleFreeSpots;
+
+    private List<FloorAvailabilityDTO> floors;
+
+    private boolean open;
+
+    public CarParkSummaryDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CarParkSummaryDTO(
+        Long id,
+        String name,
+        CarParkAvailabilityDTO availability,
+        List<FloorAvailabilityDTO> floors,
+        boolean open
+    ) {
+        this.id = id;
+        this.name = name;
+        this.totalSpots = availability.getTotalSpots();
+        this.freeSpots = availability.getFreeSpots();
+        this.accessibleFreeSpots = availability.getAccessibleFreeSpots();
+        this.floors = floors;
+        this.open = open;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public int getTotalSpots() {
+        return totalSpots;
+    }
+
+    public void setTotalSpots(int totalSpots) {
+        this.totalSpots = totalSpots;
+    }
+
+    public int getFreeSpots() {
+        return freeSpots;
+    }
+
+    public void setFreeSpots(int freeSpots) {
+        this.freeSpots = freeSpots;
+    }
+
+    public int getAccessibleFreeSpots() {
+        return accessibleFreeSpots;
+    }
+
+    public void setAccessibleFreeSpots(int accessibleFreeSpots) {
+        this.accessibleFreeSpots = accessibleFreeSpots;
+    }
+
+    public List<FloorAvailabilityDTO> getFloors() {
+        return floors;
+    }
+
+    public void setFloors(List<FloorAvailabilityDTO> floors) {
+        this.floors = floors;
+    }
+
+    public boolean isOpen() {
+        return open;
+    }
+
+    public void setOpen(boolean open) {
+        this.open = open;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkSummaryDTO{" +
+            "id=" + id +
+            ", name='" + name + "'" +
+            ", totalSpots=" + totalSpots +
+            ", freeSpots=" + freeSpots +
+            ", accessibleFreeSpots=" + accessibleFreeSpots +
+            ", floors=" + floors +
+            ", open=" + open +
+            "}";
+    }
+}
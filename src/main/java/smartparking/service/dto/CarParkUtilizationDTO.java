@@ -0,0 +1,99 @@
+package smartparking.service.dto;
+
+import java.time.Instant;
+
+/**
+ * A DTO representing the utilization of a {@link smartparking.domain.CarPark} during a time bucket.
+ */
+public class CarParkUtilizationDTO {
+
+    private Instant bucketStart;
+
+    private double averageOccupied;
+
+    private int peakOccupied;
+
+    private int arrivals;
+
+    private int capacity;
+
+    public CarParkUtilizationDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public CarParkUtilizationDTO(Instant bucketStart, double averageOccupied, int peakOccupied, int arrivals, int capacity) {
+        this.bucketStart = bucketStart;
+        this.averageOccupied = averageOccupied;
+        this.peakOccupied = peakOccupied;
+        this.arrivals = arrivals;
+        this.capacity = capacity;
+    }
+
+    public Instant getBucketStart() {
+        return bucketStart;
+    }
+
+    public void setBucketStart(Instant bucketStart) {
+        this.bucketStart = bucketStart;
+    }
+
+    /**
+     * @return the time-weighted average number of occupied spots over the observed part of the bucket.
+     */
+    public double getAverageOccupied() {
+        return averageOccupied;
+    }
+
+    public void setAverageOccupied(double averageOccupied) {
+        this.averageOccupied = averageOccupied;
+    }
+
+    public int getPeakOccupied() {
+        return peakOccupied;
+    }
+
+    public void setPeakOccupied(int peakOccupied) {
+        this.peakOccupied = peakOccupied;
+    }
+
+    /**
+     * @return the number of times a spot became occupied during the bucket.
+     */
+    public int getArrivals() {
+        return arrivals;
+    }
+
+    public void setArrivals(int arrivals) {
+        this.arrivals = arrivals;
+    }
+
+    /**
+     * @return the number of spots of the car park at the end of the bucket.
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    /**
+     * @return the number of arrivals per spot.
+     */
+    public double getTurnover() {
+        return capacity > 0 ? (double) arrivals / capacity : 0;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "CarParkUtilizationDTO{" +
+            "bucketStart=" + bucketStart +
+            ", averageOccupied=" + averageOccupied +
+            ", peakOccupied=" + peakOccupied +
+            ", arrivals=" + arrivals +
+            ", capacity=" + capacity +
+            "}";
+    }
+}
@@ -0,0 +1,45 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO representing a bucket of a search facet: a value, or a range of values, and the number of hits having it.
+ */
+public class FacetBucketDTO {
+
+    private String key;
+
+    private long count;
+
+    public FacetBucketDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FacetBucketDTO(String key, long count) {
+        this.key = key;
+        this.count = count;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public void setCount(long count) {
+        this.count = count;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FacetBucketDTO{" +
+            "key='" + key + "'" +
+            ", count=" + count +
+            "}";
+    }
+}
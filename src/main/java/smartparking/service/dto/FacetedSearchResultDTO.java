@@ -0,0 +1,70 @@
+package smartparking.service.dto;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A DTO representing a page of search hits, with the facets of all the hits matching the search.
+ *
+ * @param <T> the type of the hits.
+ */
+public class FacetedSearchResultDTO<T> {
+
+    private long total;
+
+    private List<T> hits = new ArrayList<>();
+
+    private Map<String, List<FacetBucketDTO>> facets = new LinkedHashMap<>();
+
+    public FacetedSearchResultDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FacetedSearchResultDTO(long total, List<T> hits, Map<String, List<FacetBucketDTO>> facets) {
+        this.total = total;
+        this.hits = hits;
+        this.facets = facets;
+    }
+
+    /**
+     * @return the number of hits matching the search, on every page.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public List<T> getHits() {
+        return hits;
+    }
+
+    public void setHits(List<T> hits) {
+        this.hits = hits;
+    }
+
+    /**
+     * @return the buckets of each facet, by facet name.
+     */
+    public Map<String, List<FacetBucketDTO>> getFacets() {
+        return facets;
+    }
+
+    public void setFacets(Map<String, List<FacetBucketDTO>> facets) {
+        this.facets = facets;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FacetedSearchResultDTO{" +
+            "total=" + total +
+            ", hits=" + hits +
+            ", facets=" + facets +
+            "}";
+    }
+}
@@ -0,0 +1,60 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO representing the current occupancy of a floor of a {@link smartparking.domain.CarPark}.
+ */
+public class FloorAvailabilityDTO {
+
+    private Long floor;
+
+    private int totalSpots;
+
+    private int freeSpots;
+
+    public FloorAvailabilityDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public FloorAvailabilityDTO(Long floor, int totalSpots, int freeSpots) {
+        this.floor = floor;
+        this.totalSpots = totalSpots;
+        this.freeSpots = freeSpots;
+    }
+
+    /**
+     * @return the floor, {@code null} for the spots without a floor.
+     */
+    public Long getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Long floor) {
+        this.floor = floor;
+    }
+
+    public int getTotalSpots() {
+        return totalSpots;
+    }
+
+    public void setTotalSpots(int totalSpots) {
+        this.totalSpots = totalSpots;
+    }
+
+    public int getFreeSpots() {
+        return freeSpots;
+    }
+
+    public void setFreeSpots(int freeSpots) {
+        this.freeSpots = freeSpots;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "FloorAvailabilityDTO{" +
+            "floor=" + floor +
+            ", totalSpots=" + totalSpots +
+            ", freeSpots=" + freeSpots +
+            "}";
+    }
+}
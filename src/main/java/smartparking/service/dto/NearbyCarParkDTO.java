@@ -0,0 +1,84 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO representing a {@link smartparking.domain.CarPark} near a point, with its distance to that point.
+ */
+public class NearbyCarParkDTO {
+
+    private Long carParkId;
+
+    private double latitude;
+
+    private double longitude;
+
+    private double distance;
+
+    private int freeSpots;
+
+    public NearbyCarParkDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public NearbyCarParkDTO(Long carParkId, double latitude, double longitude, double distance, int freeSpots) {
+        this.carParkId = carParkId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.distance = distance;
+        this.freeSpots = freeSpots;
+    }
+
+    public Long getCarParkId() {
+        return carParkId;
+    }
+
+    public void setCarParkId(Long carParkId) {
+        this.carParkId = carParkId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public void setLatitude(double latitude) {
+        this.latitude = latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public void setLongitude(double longitude) {
+        this.longitude = longitude;
+    }
+
+    /**
+     * @return the distance to the query point, in meters.
+     */
+    public double getDistance() {
+        return distance;
+    }
+
+    public void setDistance(double distance) {
+        this.distance = distance;
+    }
+
+    public int getFreeSpots() {
+        return freeSpots;
+    }
+
+    public void setFreeSpots(int freeSpots) {
+        this.freeSpots = freeSpots;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "NearbyCarParkDTO{" +
+            "carParkId=" + carParkId +
+            ", latitude=" + latitude +
+            ", longitude=" + longitude +
+            ", distance=" + distance +
+            ", freeSpots=" + freeSpots +
+            "}";
+    }
+}
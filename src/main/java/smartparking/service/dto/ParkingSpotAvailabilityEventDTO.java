@@ -0,0 +1,63 @@
+package smartparking.service.dto;
+
+import java.time.Instant;
+import javax.validation.constraints.NotNull;
+
+/**
+ * A DTO representing an occupancy change reported by a bay sensor for a {@link smartparking.domain.ParkingSpot}.
+ */
+public class ParkingSpotAvailabilityEventDTO {
+
+    @NotNull
+    private Long spotId;
+
+    @NotNull
+    private Boolean available;
+
+    @NotNull
+    private Instant timestamp;
+
+    public ParkingSpotAvailabilityEventDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ParkingSpotAvailabilityEventDTO(Long spotId, Boolean available, Instant timestamp) {
+        this.spotId = spotId;
+        this.available = available;
+        this.timestamp = timestamp;
+    }
+
+    public Long getSpotId() {
+        return spotId;
+    }
+
+    public void setSpotId(Long spotId) {
+        this.spotId = spotId;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    public void setTimestamp(Instant timestamp) {
+        this.timestamp = timestamp;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParkingSpotAvailabilityEventDTO{" +
+            "spotId=" + spotId +
+            ", available=" + available +
+            ", timestamp='" + timestamp + "'" +
+            "}";
+    }
+}
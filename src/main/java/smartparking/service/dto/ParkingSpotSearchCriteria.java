@@ -0,0 +1,69 @@
+package smartparking.service.dto;
+
+/**
+ * The filters of a faceted {@link smartparking.domain.ParkingSpot} search, each ignored when {@code null}.
+ */
+public class ParkingSpotSearchCriteria {
+
+    private String city;
+
+    private Long carParkId;
+
+    private Long floor;
+
+    private Boolean accessableParking;
+
+    private Boolean available;
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Long getCarParkId() {
+        return carParkId;
+    }
+
+    public void setCarParkId(Long carParkId) {
+        this.carParkId = carParkId;
+    }
+
+    public Long getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Long floor) {
+        this.floor = floor;
+    }
+
+    public Boolean getAccessableParking() {
+        return accessableParking;
+    }
+
+    public void setAccessableParking(Boolean accessableParking) {
+        this.accessableParking = accessableParking;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParkingSpotSearchCriteria{" +
+            "city='" + city + "'" +
+            ", carParkId=" + carParkId +
+            ", floor=" + floor +
+            ", accessableParking=" + accessableParking +
+            ", available=" + available +
+            "}";
+    }
+}
@@ -0,0 +1,80 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO representing a {@link smartparking.domain.ParkingSpot} found by a faceted search.
+ */
+public class ParkingSpotSearchHitDTO {
+
+    private Long id;
+
+    private Long carParkId;
+
+    private String city;
+
+    private Long floor;
+
+    private Boolean accessableParking;
+
+    private Boolean available;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getCarParkId() {
+        return carParkId;
+    }
+
+    public void setCarParkId(Long carParkId) {
+        this.carParkId = carParkId;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public void setCity(String city) {
+        this.city = city;
+    }
+
+    public Long getFloor() {
+        return floor;
+    }
+
+    public void setFloor(Long floor) {
+        this.floor = floor;
+    }
+
+    public Boolean getAccessableParking() {
+        return accessableParking;
+    }
+
+    public void setAccessableParking(Boolean accessableParking) {
+        this.accessableParking = accessableParking;
+    }
+
+    public Boolean getAvailable() {
+        return available;
+    }
+
+    public void setAvailable(Boolean available) {
+        this.available = available;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParkingSpotSearchHitDTO{" +
+            "id=" + id +
+            ", carParkId=" + carParkId +
+            ", city='" + city + "'" +
+            ", floor=" + floor +
+            ", accessableParking=" + accessableParking +
+            ", available=" + available +
+            "}";
+    }
+}
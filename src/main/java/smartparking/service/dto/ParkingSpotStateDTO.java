@@ -0,0 +1,72 @@
+package smartparking.service.dto;
+
+/**
+ * A DTO representing the occupancy state of a single {@link smartparking.domain.ParkingSpot}.
+ */
+public class ParkingSpotStateDTO {
+
+    private Long spotId;
+
+    private boolean available;
+
+    private boolean accessible;
+
+    private boolean removed;
+
+    public ParkingSpotStateDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public ParkingSpotStateDTO(Long spotId, boolean available, boolean accessible, boolean removed) {
+        this.spotId = spotId;
+        this.available = available;
+        this.accessible = accessible;
+        this.removed = removed;
+    }
+
+    public Long getSpotId() {
+        return spotId;
+    }
+
+    public void setSpotId(Long spotId) {
+        this.spotId = spotId;
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void setAvailable(boolean available) {
+        this.available = available;
+    }
+
+    public boolean isAccessible() {
+        return accessible;
+    }
+
+    public void setAccessible(boolean accessible) {
+        this.accessible = accessible;
+    }
+
+    /**
+     * @return whether the spot was deleted or moved to another car park.
+     */
+    public boolean isRemoved() {
+        return removed;
+    }
+
+    public void setRemoved(boolean removed) {
+        this.removed = removed;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "ParkingSpotStateDTO{" +
+            "spotId=" + spotId +
+            ", available=" + available +
+            ", accessible=" + accessible +
+            ", removed=" + removed +
+            "}";
+    }
+}
@@ -0,0 +1,97 @@
+package smartparking.service.dto;
+
+import java.time.Instant;
+
+/**
+ * A DTO representing the progress of the rebuild of one Elasticsearch index.
+ */
+public class SearchReindexIndexDTO {
+
+    private String alias;
+
+    private String indexName;
+
+    private long total;
+
+    private long indexed;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private double documentsPerSecond;
+
+    public SearchReindexIndexDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public String getAlias() {
+        return alias;
+    }
+
+    public void setAlias(String alias) {
+        this.alias = alias;
+    }
+
+    public String getIndexName() {
+        return indexName;
+    }
+
+    public void setIndexName(String indexName) {
+        this.indexName = indexName;
+    }
+
+    public long getTotal() {
+        return total;
+    }
+
+    public void setTotal(long total) {
+        this.total = total;
+    }
+
+    public long getIndexed() {
+        return indexed;
+    }
+
+    public void setIndexed(long indexed) {
+        this.indexed = indexed;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public double getDocumentsPerSecond() {
+        return documentsPerSecond;
+    }
+
+    public void setDocumentsPerSecond(double documentsPerSecond) {
+        this.documentsPerSecond = documentsPerSecond;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchReindexIndexDTO{" +
+            "alias='" + getAlias() + "'" +
+            ", indexName='" + getIndexName() + "'" +
+            ", total=" + getTotal() +
+            ", indexed=" + getIndexed() +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", documentsPerSecond=" + getDocumentsPerSecond() +
+            "}";
+    }
+}
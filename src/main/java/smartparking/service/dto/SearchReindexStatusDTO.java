@@ -0,0 +1,76 @@
+package smartparking.service.dto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * A DTO representing the state of the last full Elasticsearch reindex job.
+ */
+public class SearchReindexStatusDTO {
+
+    private boolean running;
+
+    private Instant startedAt;
+
+    private Instant finishedAt;
+
+    private String error;
+
+    private List<SearchReindexIndexDTO> indices;
+
+    public SearchReindexStatusDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public void setRunning(boolean running) {
+        this.running = running;
+    }
+
+    public Instant getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    public void setFinishedAt(Instant finishedAt) {
+        this.finishedAt = finishedAt;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+
+    public List<SearchReindexIndexDTO> getIndices() {
+        return indices;
+    }
+
+    public void setIndices(List<SearchReindexIndexDTO> indices) {
+        this.indices = indices;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "SearchReindexStatusDTO{" +
+            "running=" + isRunning() +
+            ", startedAt='" + getStartedAt() + "'" +
+            ", finishedAt='" + getFinishedAt() + "'" +
+            ", error='" + getError() + "'" +
+            ", indices=" + getIndices() +
+            "}";
+    }
+}
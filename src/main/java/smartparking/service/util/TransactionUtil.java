@@ -0,0 +1,34 @@
+package smartparking.service.util;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for applying changes to in-memory state only once the surrounding transaction commits, so that a
+ * rolled back change never reaches it.
+ */
+public final class TransactionUtil {
+
+    private TransactionUtil() {}
+
+    /**
+     * Runs an action once the current transaction commits, or right away outside of a transaction. The action is
+     * dropped if the transaction rolls back.
+     *
+     * @param action the action to run.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        action.run();
+                    }
+                }
+            );
+        } else {
+            action.run();
+        }
+    }
+}
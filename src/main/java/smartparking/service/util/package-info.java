@@ -0,0 +1,4 @@
+/**
+ * Utility classes for the services.
+ */
+package smartparking.service.util;
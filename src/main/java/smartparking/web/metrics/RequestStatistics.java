@@ -0,0 +1,94 @@
+package smartparking.web.metrics;
+
+/**
+ * Persistence work done while handling a single request, collected on the handling thread by the
+ * {@link RequestStatisticsListener} between {@link #start()} and {@link #stop()}.
+ * <p>
+ * Plain fields are enough: an instance is only ever touched by the thread it is bound to.
+ */
+public final class RequestStatistics {
+
+    private static final ThreadLocal<RequestStatistics> CURRENT = new ThreadLocal<>();
+
+    long statements;
+
+    long entityLoads;
+
+    long cacheHits;
+
+    long cacheMisses;
+
+    long jdbcNanos;
+
+    RequestStatistics() {}
+
+    /**
+     * Starts collecting for the current thread, dropping anything collected before.
+     *
+     * @return the statistics bound to the current thread.
+     */
+    public static RequestStatistics start() {
+        RequestStatistics statistics = new RequestStatistics();
+        CURRENT.set(statistics);
+        return statistics;
+    }
+
+    /**
+     * @return the statistics bound to the current thread, or {@code null} outside of a collected request.
+     */
+    public static RequestStatistics current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * Stops collecting for the current thread.
+     *
+     * @return the statistics which were bound to the current thread, or {@code null} if none were.
+     */
+    public static RequestStatistics stop() {
+        RequestStatistics statistics = CURRENT.get();
+        CURRENT.remove();
+        return statistics;
+    }
+
+    /**
+     * @return the number of JDBC statements prepared.
+     */
+    public long getStatements() {
+        return statements;
+    }
+
+    /**
+     * @return the number of entities loaded from JDBC result sets or from the second-level cache.
+     */
+    public long getEntityLoads() {
+        return entityLoads;
+    }
+
+    public long getCacheHits() {
+        return cacheHits;
+    }
+
+    public long getCacheMisses() {
+        return cacheMisses;
+    }
+
+    /**
+     * @return the time spent executing JDBC statements and batches, in nanoseconds.
+     */
+    public long getJdbcNanos() {
+        return jdbcNanos;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "RequestStatistics{" +
+            "statements=" + statements +
+            ", entityLoads=" + entityLoads +
+            ", cacheHits=" + cacheHits +
+            ", cacheMisses=" + cacheMisses +
+            ", jdbcNanos=" + jdbcNanos +
+            "}";
+    }
+}
@@ -0,0 +1,116 @@
+package smartparking.web.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+/**
+ * Collects the {@link RequestStatistics} of each request handled by a controller method, and records them in
+ * meters tagged with the handler, e.g. {@code handler="ParkingSpotResource.partialUpdateParkingSpot"}:
+ * <ul>
+ *     <li>{@code hibernate.request.statements}: JDBC statements per request.</li>
+ *     <li>{@code hibernate.request.entity.loads}: entities loaded per request.</li>
+ *     <li>{@code hibernate.request.cache}: second-level cache reads, tagged with the {@code result}.</li>
+ *     <li>{@code hibernate.request.jdbc}: time spent in JDBC per request.</li>
+ * </ul>
+ * The meters of a handler are registered on its first request and then reused.
+ */
+public class RequestStatisticsInterceptor implements AsyncHandlerInterceptor {
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentMap<Method, HandlerMeters> meters = new ConcurrentHashMap<>();
+
+    public RequestStatisticsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod) {
+            RequestStatistics.start();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        // The rest of the request runs on other threads, it is recorded when dispatched back
+        RequestStatistics.stop();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        RequestStatistics statistics = RequestStatistics.stop();
+        if (statistics != null && handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            meters
+                .computeIfAbsent(handlerMethod.getMethod(), method -> new HandlerMeters(meterRegistry, handlerName(handlerMethod)))
+                .record(statistics);
+        }
+    }
+
+    static String handlerName(HandlerMethod handlerMethod) {
+        return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+    }
+
+    /**
+     * Meters of a single handler.
+     */
+    private static final class HandlerMeters {
+
+        private final DistributionSummary statements;
+
+        private final DistributionSummary entityLoads;
+
+        private final Counter cacheHits;
+
+        private final Counter cacheMisses;
+
+        private final Timer jdbc;
+
+        private HandlerMeters(MeterRegistry meterRegistry, String handler) {
+            statements =
+                DistributionSummary
+                    .builder("hibernate.request.statements")
+                    .description("JDBC statements per request")
+                    .tag("handler", handler)
+                    .register(meterRegistry);
+            entityLoads =
+                DistributionSummary
+                    .builder("hibernate.request.entity.loads")
+                    .description("Entities loaded per request")
+                    .tag("handler", handler)
+                    .register(meterRegistry);
+            cacheHits = meterRegistry.counter("hibernate.request.cache", "handler", handler, "result", "hit");
+            cacheMisses = meterRegistry.counter("hibernate.request.cache", "handler", handler, "result", "miss");
+            jdbc =
+                Timer
+                    .builder("hibernate.request.jdbc")
+                    .description("Time spent in JDBC per request")
+                    .tag("handler", handler)
+                    .register(meterRegistry);
+        }
+
+        private void record(RequestStatistics statistics) {
+            statements.record(statistics.getStatements());
+            entityLoads.record(statistics.getEntityLoads());
+            if (statistics.getCacheHits() > 0) {
+                cacheHits.increment(statistics.getCacheHits());
+            }
+            if (statistics.getCacheMisses() > 0) {
+                cacheMisses.increment(statistics.getCacheMisses());
+            }
+            jdbc.record(statistics.getJdbcNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+}
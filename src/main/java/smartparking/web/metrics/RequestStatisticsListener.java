@@ -0,0 +1,75 @@
+package smartparking.web.metrics;
+
+import org.hibernate.BaseSessionEventListener;
+import org.hibernate.event.spi.PostLoadEvent;
+import org.hibernate.event.spi.PostLoadEventListener;
+
+/**
+ * Hibernate listener adding the work of the current session to the {@link RequestStatistics} of the current thread,
+ * and doing nothing when there are none, e.g. in scheduled jobs.
+ * <p>
+ * Hibernate creates one instance per session from the {@code hibernate.session.events.auto} setting, which times the
+ * JDBC executions and counts the statements and second-level cache reads. A shared instance is registered as a
+ * post-load listener to count the loaded entities. Each callback costs a thread-local read and an increment.
+ */
+public class RequestStatisticsListener extends BaseSessionEventListener implements PostLoadEventListener {
+
+    private static final long serialVersionUID = 1L;
+
+    private transient long executeStart;
+
+    @Override
+    public void jdbcPrepareStatementEnd() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.statements++;
+        }
+    }
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        addJdbcTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        executeStart = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        addJdbcTime();
+    }
+
+    @Override
+    public void cacheGetEnd(boolean hit) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            if (hit) {
+                statistics.cacheHits++;
+            } else {
+                statistics.cacheMisses++;
+            }
+        }
+    }
+
+    @Override
+    public void onPostLoad(PostLoadEvent event) {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.entityLoads++;
+        }
+    }
+
+    private void addJdbcTime() {
+        RequestStatistics statistics = RequestStatistics.current();
+        if (statistics != null) {
+            statistics.jdbcNanos += System.nanoTime() - executeStart;
+        }
+    }
+}
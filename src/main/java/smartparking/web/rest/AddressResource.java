@@ -14,13 +14,23 @@ import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import smartparking.config.ApplicationProperties;
 import smartparking.domain.Address;
+import smartparking.domain.enumeration.SearchDocumentType;
 import smartparking.repository.AddressRepository;
 import smartparking.repository.search.AddressSearchRepository;
+import smartparking.service.CarParkLocationIndex;
+import smartparking.service.SearchDocumentDenormalizer;
+import smartparking.service.SearchOutboxService;
 import smartparking.web.rest.errors.BadRequestAlertException;
+import smartparking.web.rest.util.CursorPaginationUtil;
+import smartparking.web.rest.util.EntityUpdateUtil;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -43,9 +53,28 @@ public class AddressResource {
 
     private final AddressSearchRepository addressSearchRepository;
 
-    public AddressResource(AddressRepository addressRepository, AddressSearchRepository addressSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final CarParkLocationIndex carParkLocationIndex;
+
+    private final SearchDocumentDenormalizer searchDocumentDenormalizer;
+
+    public AddressResource(
+        AddressRepository addressRepository,
+        AddressSearchRepository addressSearchRepository,
+        SearchOutboxService searchOutboxService,
+        ApplicationProperties applicationProperties,
+        CarParkLocationIndex carParkLocationIndex,
+        SearchDocumentDenormalizer searchDocumentDenormalizer
+    ) {
         this.addressRepository = addressRepository;
         this.addressSearchRepository = addressSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.applicationProperties = applicationProperties;
+        this.carParkLocationIndex = carParkLocationIndex;
+        this.searchDocumentDenormalizer = searchDocumentDenormalizer;
     }
 
     /**
@@ -62,7 +91,7 @@ public class AddressResource {
             throw new BadRequestAlertException("A new address cannot already have an ID", ENTITY_NAME, "idexists");
         }
         Address result = addressRepository.save(address);
-        addressSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.ADDRESS, result.getId());
         return ResponseEntity
             .created(new URI("/api/addresses/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -92,12 +121,13 @@ public class AddressResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!addressRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
+        String previousCity = EntityUpdateUtil.findExisting(addressRepository, id, ENTITY_NAME).getCity();
         Address result = addressRepository.save(address);
-        addressSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.ADDRESS, result.getId());
+        if (!Objects.equals(previousCity, result.getCity())) {
+            searchDocumentDenormalizer.addressCityChanged(result.getId());
+        }
+        carParkLocationIndex.updateAddress(result.getId());
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, address.getId().toString()))
@@ -110,8 +140,7 @@ public class AddressResource {
      * @param id the id of the address to save.
      * @param address the address to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated address,
-     * or with status {@code 400 (Bad Request)} if the address is not valid,
-     * or with status {@code 404 (Not Found)} if the address is not found,
+     * or with status {@code 400 (Bad Request)} if the address is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the address couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -128,51 +157,62 @@ public class AddressResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!addressRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        Address existingAddress = EntityUpdateUtil.findExisting(addressRepository, id, ENTITY_NAME);
+        if (address.getStreetAddress() != null) {
+            existingAddress.setStreetAddress(address.getStreetAddress());
+        }
+        if (address.getPostalCode() != null) {
+            existingAddress.setPostalCode(address.getPostalCode());
+        }
+        boolean cityChanged = address.getCity() != null && !address.getCity().equals(existingAddress.getCity());
+        if (address.getCity() != null) {
+            existingAddress.setCity(address.getCity());
+        }
+        if (address.getLatitude() != null) {
+            existingAddress.setLatitude(address.getLatitude());
+        }
+        if (address.getLongitude() != null) {
+            existingAddress.setLongitude(address.getLongitude());
+        }
+
+        searchOutboxService.index(SearchDocumentType.ADDRESS, existingAddress.getId());
+        if (cityChanged) {
+            searchDocumentDenormalizer.addressCityChanged(existingAddress.getId());
         }
+        carParkLocationIndex.updateAddress(existingAddress.getId());
 
-        Optional<Address> result = addressRepository
-            .findById(address.getId())
-            .map(
-                existingAddress -> {
-                    if (address.getStreetAddress() != null) {
-                        existingAddress.setStreetAddress(address.getStreetAddress());
-                    }
-                    if (address.getPostalCode() != null) {
-                        existingAddress.setPostalCode(address.getPostalCode());
-                    }
-                    if (address.getCity() != null) {
-                        existingAddress.setCity(address.getCity());
-                    }
-
-                    return existingAddress;
-                }
-            )
-            .map(addressRepository::save)
-            .map(
-                savedAddress -> {
-                    addressSearchRepository.save(savedAddress);
-
-                    return savedAddress;
-                }
-            );
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, address.getId().toString())
-        );
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, address.getId().toString()))
+            .body(existingAddress);
     }
 
     /**
-     * {@code GET  /addresses} : get all the addresses.
+     * {@code GET  /addresses?cursor=:cursor&size=:size} : get a page of the addresses, ordered by id.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of addresses in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
      */
     @GetMapping("/addresses")
-    public List<Address> getAllAddresses() {
-        log.debug("REST request to get all Addresses");
-        return addressRepository.findAll();
+    public ResponseEntity<List<Address>> getAllAddresses(
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of Addresses after : {}", cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        List<Address> page = addressRepository.findAllByIdGreaterThanOrderByIdAsc(
+            CursorPaginationUtil.startAfter(cursor),
+            PageRequest.of(0, pageSize)
+        );
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page,
+            pageSize,
+            Address::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(page);
     }
 
     /**
@@ -198,7 +238,7 @@ public class AddressResource {
     public ResponseEntity<Void> deleteAddress(@PathVariable Long id) {
         log.debug("REST request to delete Address : {}", id);
         addressRepository.deleteById(id);
-        addressSearchRepository.deleteById(id);
+        searchOutboxService.delete(SearchDocumentType.ADDRESS, id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -0,0 +1,218 @@
+package smartparking.web.rest;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import javax.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import smartparking.config.ApplicationProperties;
+import smartparking.service.ParkingSpotOccupancyChangedEvent;
+import smartparking.service.ParkingSpotOccupancyIndex;
+import smartparking.service.dto.CarParkAvailabilityChangeDTO;
+import smartparking.service.dto.ParkingSpotStateDTO;
+
+/**
+ * REST controller streaming the live availability of a {@link smartparking.domain.CarPark} as Server-Sent Events.
+ * <p>
+ * A subscriber first receives a {@code snapshot} event with every spot, then {@code delta} events holding only the
+ * spots changed since the previous push. Changes are only recorded as "dirty spot ids" per subscriber and read back
+ * from the {@link ParkingSpotOccupancyIndex} when sent, so a slow consumer gets coalesced updates instead of an
+ * ever-growing queue.
+ */
+@RestController
+@RequestMapping("/api")
+public class CarParkAvailabilityStreamResource {
+
+    private final Logger log = LoggerFactory.getLogger(CarParkAvailabilityStreamResource.class);
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final ApplicationProperties.AvailabilityStream streamProperties;
+
+    private final ConcurrentMap<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+
+    private final ExecutorService sender;
+
+    public CarParkAvailabilityStreamResource(
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        ApplicationProperties applicationProperties
+    ) {
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.streamProperties = applicationProperties.getAvailabilityStream();
+        this.sender =
+            Executors.newFixedThreadPool(streamProperties.getSenderThreads(), new CustomizableThreadFactory("availability-stream-"));
+    }
+
+    /**
+     * {@code GET  /car-parks/:id/availability/stream} : subscribe to the live availability of the "id" carPark.
+     *
+     * @param id the id of the carPark.
+     * @return the {@link SseEmitter} sending a {@code snapshot} event, then {@code delta} events.
+     */
+    @GetMapping(value = "/car-parks/{id}/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCarParkAvailability(@PathVariable Long id) {
+        log.debug("REST request to stream availability of CarPark : {}", id);
+        SseEmitter emitter = new SseEmitter(streamProperties.getTimeoutMs());
+        Subscriber subscriber = new Subscriber(id, emitter);
+        emitter.onCompletion(() -> unsubscribe(subscriber));
+        emitter.onTimeout(() -> unsubscribe(subscriber));
+        emitter.onError(e -> unsubscribe(subscriber));
+
+        // Subscribe before taking the snapshot, so that no change can fall in between
+        subscribers.compute(
+            id,
+            (carParkId, carParkSubscribers) -> {
+                Set<Subscriber> result = carParkSubscribers != null ? carParkSubscribers : ConcurrentHashMap.newKeySet();
+                result.add(subscriber);
+                return result;
+            }
+        );
+        try {
+            CarParkAvailabilityChangeDTO snapshot = new CarParkAvailabilityChangeDTO(
+                parkingSpotOccupancyIndex.getAvailability(id),
+                parkingSpotOccupancyIndex.getSpotStates(id)
+            );
+            emitter.send(SseEmitter.event().name("snapshot").data(snapshot, MediaType.APPLICATION_JSON));
+            subscriber.lastSentAt = System.currentTimeMillis();
+        } catch (IOException e) {
+            log.debug("Could not send availability snapshot of CarPark {}", id, e);
+            unsubscribe(subscriber);
+        } finally {
+            subscriber.sending.set(false);
+        }
+        return emitter;
+    }
+
+    /**
+     * Marks the changed spot as dirty for the subscribers of the car parks it left or joined.
+     *
+     * @param event the applied occupancy change.
+     */
+    @EventListener
+    public void onOccupancyChanged(ParkingSpotOccupancyChangedEvent event) {
+        if (event.getPreviousCarParkId() != null && !Objects.equals(event.getPreviousCarParkId(), event.getCarParkId())) {
+            markDirty(event.getPreviousCarParkId(), event.getSpotId());
+        }
+        if (event.getCarParkId() != null) {
+            markDirty(event.getCarParkId(), event.getSpotId());
+        }
+    }
+
+    /**
+     * Hands every subscriber with pending changes, or due for a heartbeat, to the sender pool.
+     * <p>
+     * A subscriber whose previous push is still being written is skipped, its changes keep coalescing until the next run.
+     */
+    @Scheduled(fixedDelayString = "${application.availability-stream.flush-interval-ms:500}")
+    public void flush() {
+        long now = System.currentTimeMillis();
+        subscribers
+            .values()
+            .forEach(
+                carParkSubscribers ->
+                    carParkSubscribers.forEach(
+                        subscriber -> {
+                            long idle = now - subscriber.lastSentAt;
+                            boolean due = !subscriber.dirtySpots.isEmpty() || idle >= streamProperties.getHeartbeatIntervalMs();
+                            if (due && subscriber.sending.compareAndSet(false, true)) {
+                                try {
+                                    sender.execute(() -> send(subscriber));
+                                } catch (RejectedExecutionException e) {
+                                    subscriber.sending.set(false);
+                                }
+                            }
+                        }
+                    )
+            );
+    }
+
+    @PreDestroy
+    public void destroy() {
+        sender.shutdownNow();
+        subscribers.values().forEach(carParkSubscribers -> carParkSubscribers.forEach(subscriber -> subscriber.emitter.complete()));
+    }
+
+    private void send(Subscriber subscriber) {
+        try {
+            List<ParkingSpotStateDTO> changes = new ArrayList<>();
+            Iterator<Long> dirtySpots = subscriber.dirtySpots.iterator();
+            while (dirtySpots.hasNext()) {
+                Long spotId = dirtySpots.next();
+                dirtySpots.remove();
+                changes.add(parkingSpotOccupancyIndex.getSpotState(subscriber.carParkId, spotId));
+            }
+            if (changes.isEmpty()) {
+                subscriber.emitter.send(SseEmitter.event().comment("heartbeat"));
+            } else {
+                CarParkAvailabilityChangeDTO delta = new CarParkAvailabilityChangeDTO(
+                    parkingSpotOccupancyIndex.getAvailability(subscriber.carParkId),
+                    changes
+                );
+                subscriber.emitter.send(SseEmitter.event().name("delta").data(delta, MediaType.APPLICATION_JSON));
+            }
+            subscriber.lastSentAt = System.currentTimeMillis();
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping availability subscriber of CarPark {}", subscriber.carParkId, e);
+            unsubscribe(subscriber);
+        } finally {
+            subscriber.sending.set(false);
+        }
+    }
+
+    private void markDirty(Long carParkId, Long spotId) {
+        Set<Subscriber> carParkSubscribers = subscribers.get(carParkId);
+        if (carParkSubscribers != null) {
+            carParkSubscribers.forEach(subscriber -> subscriber.dirtySpots.add(spotId));
+        }
+    }
+
+    private void unsubscribe(Subscriber subscriber) {
+        subscribers.computeIfPresent(
+            subscriber.carParkId,
+            (carParkId, carParkSubscribers) -> {
+                carParkSubscribers.remove(subscriber);
+                return carParkSubscribers.isEmpty() ? null : carParkSubscribers;
+            }
+        );
+    }
+
+    /**
+     * A client subscribed to a car park.
+     */
+    private static final class Subscriber {
+
+        private final Long carParkId;
+
+        private final SseEmitter emitter;
+
+        private final Set<Long> dirtySpots = ConcurrentHashMap.newKeySet();
+
+        /**
+         * Set while a push is being written; starts set until the snapshot is sent.
+         */
+        private final AtomicBoolean sending = new AtomicBoolean(true);
+
+        private volatile long lastSentAt;
+
+        private Subscriber(Long carParkId, SseEmitter emitter) {
+            this.carParkId = carParkId;
+            this.emitter = emitter;
+        }
+    }
+}
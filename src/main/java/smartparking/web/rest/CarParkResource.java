@@ -4,6 +4,7 @@ import static org.elasticsearch.index.query.QueryBuilders.*;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.time.ZonedDateTime;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
@@ -12,13 +13,38 @@ import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.Address;
 import smartparking.domain.CarPark;
+import smartparking.domain.enumeration.SearchDocumentType;
 import smartparking.repository.CarParkRepository;
 import smartparking.repository.search.CarParkSearchRepository;
+import smartparking.service.CarParkLocationIndex;
+import smartparking.service.CarParkSummaryIndex;
+import smartparking.service.FacetedSearchService;
+import smartparking.service.OpenHoursScheduleService;
+import smartparking.service.ParkingSpotOccupancyIndex;
+import smartparking.service.SearchDocumentDenormalizer;
+import smartparking.service.SearchOutboxService;
+import smartparking.service.dto.CarParkAvailabilityDTO;
+import smartparking.service.dto.CarParkDetailsDTO;
+import smartparking.service.dto.CarParkOpenStatusDTO;
+import smartparking.service.dto.CarParkSearchCriteria;
+import smartparking.service.dto.CarParkSearchHitDTO;
+import smartparking.service.dto.CarParkSummaryDTO;
+import smartparking.service.dto.FacetedSearchResultDTO;
+import smartparking.service.dto.NearbyCarParkDTO;
 import smartparking.web.rest.errors.BadRequestAlertException;
+import smartparking.web.rest.util.CursorPaginationUtil;
+import smartparking.web.rest.util.EntityUpdateUtil;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -41,9 +67,44 @@ public class CarParkResource {
 
     private final CarParkSearchRepository carParkSearchRepository;
 
-    public CarParkResource(CarParkRepository carParkRepository, CarParkSearchRepository carParkSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final FacetedSearchService facetedSearchService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final OpenHoursScheduleService openHoursScheduleService;
+
+    private final CarParkLocationIndex carParkLocationIndex;
+
+    private final CarParkSummaryIndex carParkSummaryIndex;
+
+    private final SearchDocumentDenormalizer searchDocumentDenormalizer;
+
+    public CarParkResource(
+        CarParkRepository carParkRepository,
+        CarParkSearchRepository carParkSearchRepository,
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        SearchOutboxService searchOutboxService,
+        FacetedSearchService facetedSearchService,
+        ApplicationProperties applicationProperties,
+        OpenHoursScheduleService openHoursScheduleService,
+        CarParkLocationIndex carParkLocationIndex,
+        CarParkSummaryIndex carParkSummaryIndex,
+        SearchDocumentDenormalizer searchDocumentDenormalizer
+    ) {
         this.carParkRepository = carParkRepository;
         this.carParkSearchRepository = carParkSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.facetedSearchService = facetedSearchService;
+        this.applicationProperties = applicationProperties;
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.openHoursScheduleService = openHoursScheduleService;
+        this.carParkLocationIndex = carParkLocationIndex;
+        this.carParkSummaryIndex = carParkSummaryIndex;
+        this.searchDocumentDenormalizer = searchDocumentDenormalizer;
     }
 
     /**
@@ -60,7 +121,9 @@ public class CarParkResource {
             throw new BadRequestAlertException("A new carPark cannot already have an ID", ENTITY_NAME, "idexists");
         }
         CarPark result = carParkRepository.save(carPark);
-        carParkSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, result.getId());
+        carParkLocationIndex.update(result.getId());
+        carParkSummaryIndex.update(result);
         return ResponseEntity
             .created(new URI("/api/car-parks/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -88,12 +151,15 @@ public class CarParkResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!carParkRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
+        Address previousAddress = EntityUpdateUtil.findExisting(carParkRepository, id, ENTITY_NAME).getAddress();
+        Long previousAddressId = previousAddress != null ? previousAddress.getId() : null;
         CarPark result = carParkRepository.save(carPark);
-        carParkSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, result.getId());
+        if (!Objects.equals(previousAddressId, result.getAddress() != null ? result.getAddress().getId() : null)) {
+            searchDocumentDenormalizer.carParkAddressChanged(result.getId());
+        }
+        carParkLocationIndex.update(result.getId());
+        carParkSummaryIndex.update(result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, carPark.getId().toString()))
@@ -106,8 +172,7 @@ public class CarParkResource {
      * @param id the id of the carPark to save.
      * @param carPark the carPark to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated carPark,
-     * or with status {@code 400 (Bad Request)} if the carPark is not valid,
-     * or with status {@code 404 (Not Found)} if the carPark is not found,
+     * or with status {@code 400 (Bad Request)} if the carPark is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the carPark couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -124,48 +189,142 @@ public class CarParkResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!carParkRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        CarPark existingCarPark = EntityUpdateUtil.findExisting(carParkRepository, id, ENTITY_NAME);
+        if (carPark.getName() != null) {
+            existingCarPark.setName(carPark.getName());
+        }
+        if (carPark.getOwner() != null) {
+            existingCarPark.setOwner(carPark.getOwner());
         }
 
-        Optional<CarPark> result = carParkRepository
-            .findById(carPark.getId())
-            .map(
-                existingCarPark -> {
-                    if (carPark.getName() != null) {
-                        existingCarPark.setName(carPark.getName());
-                    }
-                    if (carPark.getOwner() != null) {
-                        existingCarPark.setOwner(carPark.getOwner());
-                    }
-
-                    return existingCarPark;
-                }
-            )
-            .map(carParkRepository::save)
-            .map(
-                savedCarPark -> {
-                    carParkSearchRepository.save(savedCarPark);
-
-                    return savedCarPark;
-                }
-            );
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, carPark.getId().toString())
-        );
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, existingCarPark.getId());
+        carParkSummaryIndex.update(existingCarPark);
+
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, carPark.getId().toString()))
+            .body(existingCarPark);
     }
 
     /**
-     * {@code GET  /car-parks} : get all the carParks.
+     * {@code GET  /car-parks?cursor=:cursor&size=:size} : get a page of the carParks, ordered by id.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of carParks in body.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of carParks in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
      */
     @GetMapping("/car-parks")
-    public List<CarPark> getAllCarParks() {
-        log.debug("REST request to get all CarParks");
-        return carParkRepository.findAll();
+    public ResponseEntity<List<CarPark>> getAllCarParks(
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of CarParks after : {}", cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        List<CarPark> page = carParkRepository.findAllByIdGreaterThanOrderByIdAsc(
+            CursorPaginationUtil.startAfter(cursor),
+            PageRequest.of(0, pageSize)
+        );
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page,
+            pageSize,
+            CarPark::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+
+    /**
+     * {@code GET  /car-parks/details?cursor=:cursor&size=:size} : get a page of the carParks with their address, open hours
+     * and current occupancy, ordered by id.
+     * <p>
+     * The page takes two queries whatever its size, one for the carParks and their address and one for their open hours.
+     * The occupancy is served from the in-memory {@link ParkingSpotOccupancyIndex}.
+     *
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of carParks in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
+     */
+    @GetMapping("/car-parks/details")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<CarParkDetailsDTO>> getAllCarParkDetails(
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of CarPark details after : {}", cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        List<CarPark> page = carParkRepository.findAllByIdGreaterThanOrderByIdAsc(
+            CursorPaginationUtil.startAfter(cursor),
+            PageRequest.of(0, pageSize)
+        );
+        if (!page.isEmpty()) {
+            // Initializes the open hours of the carParks of the page, which are the same managed instances
+            carParkRepository.findAllWithOpenHoursByIdIn(page.stream().map(CarPark::getId).collect(Collectors.toList()));
+        }
+        List<CarParkDetailsDTO> details = page
+            .stream()
+            .map(carPark -> new CarParkDetailsDTO(carPark, parkingSpotOccupancyIndex.getAvailability(carPark.getId())))
+            .collect(Collectors.toList());
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            details,
+            pageSize,
+            CarParkDetailsDTO::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(details);
+    }
+
+    /**
+     * {@code GET  /car-parks/summaries?cursor=:cursor&size=:size&at=:at} : get a page of the carPark summaries, ordered by id.
+     * <p>
+     * Served from the in-memory {@link CarParkSummaryIndex}, so the response does not grow with the number of spots. Only
+     * the opening hours of a carPark whose schedule is not compiled yet are read from the database.
+     *
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @param at the time the open states are given at, now if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of summaries in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
+     */
+    @GetMapping("/car-parks/summaries")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<CarParkSummaryDTO>> getAllCarParkSummaries(
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime at
+    ) {
+        log.debug("REST request to get a page of CarPark summaries after : {}", cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        ZonedDateTime time = at != null ? at : ZonedDateTime.now(openHoursScheduleService.getZone());
+        List<CarParkSummaryDTO> page = carParkSummaryIndex.getSummaries(CursorPaginationUtil.startAfter(cursor), pageSize, time);
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page,
+            pageSize,
+            CarParkSummaryDTO::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+
+    /**
+     * {@code GET  /car-parks/:id/summary?at=:at} : get the summary of the "id" carPark.
+     * <p>
+     * Served from the in-memory {@link CarParkSummaryIndex}.
+     *
+     * @param id the id of the carPark.
+     * @param at the time the open state is given at, now if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the summary, or with status {@code 404 (Not Found)}.
+     */
+    @GetMapping("/car-parks/{id}/summary")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CarParkSummaryDTO> getCarParkSummary(
+        @PathVariable Long id,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime at
+    ) {
+        log.debug("REST request to get summary of CarPark : {}, {}", id, at);
+        ZonedDateTime time = at != null ? at : ZonedDateTime.now(openHoursScheduleService.getZone());
+        return ResponseUtil.wrapOrNotFound(carParkSummaryIndex.getSummary(id, time));
     }
 
     /**
@@ -181,6 +340,83 @@ public class CarParkResource {
         return ResponseUtil.wrapOrNotFound(carPark);
     }
 
+    /**
+     * {@code GET  /car-parks/:id/availability} : get the current occupancy of the "id" carPark.
+     * <p>
+     * Served from the in-memory {@link ParkingSpotOccupancyIndex}, without touching the database.
+     *
+     * @param id the id of the carPark.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the total, free and accessible free spot counts.
+     */
+    @GetMapping("/car-parks/{id}/availability")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<CarParkAvailabilityDTO> getCarParkAvailability(@PathVariable Long id) {
+        log.debug("REST request to get availability of CarPark : {}", id);
+        return ResponseEntity.ok(parkingSpotOccupancyIndex.getAvailability(id));
+    }
+
+    /**
+     * {@code GET  /car-parks/:id/open?at=:at} : get whether the "id" carPark is open at a given time.
+     * <p>
+     * Answered from the compiled {@link smartparking.service.OpenHoursSchedule} of the carPark.
+     *
+     * @param id the id of the carPark.
+     * @param at the time to check, now if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body whether the carPark is open, and when it opens next.
+     */
+    @GetMapping("/car-parks/{id}/open")
+    @Transactional(readOnly = true)
+    public ResponseEntity<CarParkOpenStatusDTO> getCarParkOpenStatus(
+        @PathVariable Long id,
+        @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) ZonedDateTime at
+    ) {
+        log.debug("REST request to get open status of CarPark : {}, {}", id, at);
+        ZonedDateTime time = at != null ? at : ZonedDateTime.now(openHoursScheduleService.getZone());
+        boolean open = openHoursScheduleService.isOpenAt(id, time);
+        ZonedDateTime nextOpening = openHoursScheduleService.nextOpeningAt(id, time).orElse(null);
+        return ResponseEntity.ok(new CarParkOpenStatusDTO(id, time, open, nextOpening));
+    }
+
+    /**
+     * {@code GET  /car-parks/nearest?latitude=:latitude&longitude=:longitude} : get the carParks nearest to a point,
+     * which are open now and have enough free spots.
+     * <p>
+     * Served from the in-memory {@link CarParkLocationIndex}.
+     *
+     * @param latitude the latitude of the point, in degrees.
+     * @param longitude the longitude of the point, in degrees.
+     * @param limit the maximum number of carParks to return, the configured default if absent.
+     * @param minFreeSpots the minimum number of free spots of a returned carPark.
+     * @param maxDistance the maximum distance of a returned carPark in meters, the configured default if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of carParks in body, nearest first,
+     * or with status {@code 400 (Bad Request)} if the query is not valid.
+     */
+    @GetMapping("/car-parks/nearest")
+    @Transactional(readOnly = true)
+    public ResponseEntity<List<NearbyCarParkDTO>> getNearestCarParks(
+        @RequestParam double latitude,
+        @RequestParam double longitude,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(defaultValue = "1") int minFreeSpots,
+        @RequestParam(required = false) Double maxDistance
+    ) {
+        log.debug("REST request to get CarParks nearest to : {}, {}", latitude, longitude);
+        ApplicationProperties.CarParkLocation properties = applicationProperties.getCarParkLocation();
+        if (latitude < -90 || latitude > 90 || longitude < -180 || longitude > 180) {
+            throw new BadRequestAlertException("Invalid coordinates", ENTITY_NAME, "coordinatesinvalid");
+        }
+        int resultLimit = limit != null ? limit : properties.getDefaultLimit();
+        if (resultLimit < 1 || resultLimit > properties.getMaxLimit()) {
+            throw new BadRequestAlertException("Invalid limit", ENTITY_NAME, "limitinvalid");
+        }
+        double distance = maxDistance != null ? maxDistance : properties.getDefaultMaxDistanceMeters();
+        if (distance <= 0 || distance > properties.getMaxDistanceMeters()) {
+            throw new BadRequestAlertException("Invalid maximum distance", ENTITY_NAME, "maxdistanceinvalid");
+        }
+        ZonedDateTime now = ZonedDateTime.now(openHoursScheduleService.getZone());
+        return ResponseEntity.ok(carParkLocationIndex.findNearest(latitude, longitude, resultLimit, minFreeSpots, distance, now));
+    }
+
     /**
      * {@code DELETE  /car-parks/:id} : delete the "id" carPark.
      *
@@ -191,13 +427,44 @@ public class CarParkResource {
     public ResponseEntity<Void> deleteCarPark(@PathVariable Long id) {
         log.debug("REST request to delete CarPark : {}", id);
         carParkRepository.deleteById(id);
-        carParkSearchRepository.deleteById(id);
+        searchOutboxService.delete(SearchDocumentType.CAR_PARK, id);
+        carParkLocationIndex.remove(id);
+        carParkSummaryIndex.remove(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
 
+    /**
+     * {@code GET  /_search/car-parks/faceted?cursor=:cursor&size=:size} : search the carParks matching filters, ordered by id,
+     * with facets on the city and the free spots.
+     *
+     * @param criteria the filters, each ignored if absent.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the hits, their total and the facets in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
+     */
+    @GetMapping("/_search/car-parks/faceted")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<FacetedSearchResultDTO<CarParkSearchHitDTO>> facetedSearchCarParks(
+        CarParkSearchCriteria criteria,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to search CarParks : {} after {}", criteria, cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        FacetedSearchResultDTO<CarParkSearchHitDTO> result = facetedSearchService.searchCarParks(criteria, cursor, pageSize);
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            result.getHits(),
+            pageSize,
+            CarParkSearchHitDTO::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(result);
+    }
+
     /**
      * {@code SEARCH  /_search/car-parks?query=:query} : search for the carPark corresponding
      * to the query.
@@ -0,0 +1,67 @@
+package smartparking.web.rest;
+
+import java.time.Instant;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.enumeration.UtilizationGranularity;
+import smartparking.service.CarParkUtilizationService;
+import smartparking.service.dto.CarParkUtilizationDTO;
+import smartparking.web.rest.errors.BadRequestAlertException;
+
+/**
+ * REST controller serving the utilization charts of a {@link smartparking.domain.CarPark}, from the rollups kept by
+ * {@link smartparking.service.CarParkUtilizationAggregator}.
+ */
+@RestController
+@RequestMapping("/api")
+public class CarParkUtilizationResource {
+
+    private final Logger log = LoggerFactory.getLogger(CarParkUtilizationResource.class);
+
+    private static final String ENTITY_NAME = "carPark";
+
+    private final CarParkUtilizationService carParkUtilizationService;
+
+    private final ApplicationProperties applicationProperties;
+
+    public CarParkUtilizationResource(CarParkUtilizationService carParkUtilizationService, ApplicationProperties applicationProperties) {
+        this.carParkUtilizationService = carParkUtilizationService;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code GET  /car-parks/:id/utilization?granularity=:granularity&from=:from&to=:to} : get the utilization of the
+     * "id" carPark per time bucket.
+     * <p>
+     * The rollups are written every {@code application.utilization.flush-interval-ms}, so the last bucket lags by as much.
+     *
+     * @param id the id of the carPark.
+     * @param granularity the size of the buckets: {@code FIVE_MINUTES}, {@code HOUR} or {@code DAY}.
+     * @param from the start of the range.
+     * @param to the exclusive end of the range.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the buckets holding data in body,
+     * or with status {@code 400 (Bad Request)} if the range is empty or holds too many buckets.
+     */
+    @GetMapping("/car-parks/{id}/utilization")
+    public ResponseEntity<List<CarParkUtilizationDTO>> getCarParkUtilization(
+        @PathVariable Long id,
+        @RequestParam UtilizationGranularity granularity,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to
+    ) {
+        log.debug("REST request to get the {} utilization of CarPark {} from {} to {}", granularity, id, from, to);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("Invalid time range", ENTITY_NAME, "rangeinvalid");
+        }
+        long buckets = (to.toEpochMilli() - granularity.bucketStart(from.toEpochMilli()) - 1) / granularity.getMillis() + 1;
+        if (buckets > applicationProperties.getUtilization().getMaxPoints()) {
+            throw new BadRequestAlertException("Too many buckets, use a larger granularity", ENTITY_NAME, "toomanybuckets");
+        }
+        return ResponseEntity.ok(carParkUtilizationService.findUtilization(id, granularity, from, to));
+    }
+}
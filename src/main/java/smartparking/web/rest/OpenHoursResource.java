@@ -12,13 +12,22 @@ import java.util.stream.StreamSupport;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import smartparking.config.ApplicationProperties;
 import smartparking.domain.OpenHours;
+import smartparking.domain.enumeration.SearchDocumentType;
 import smartparking.repository.OpenHoursRepository;
 import smartparking.repository.search.OpenHoursSearchRepository;
+import smartparking.service.OpenHoursScheduleService;
+import smartparking.service.SearchOutboxService;
 import smartparking.web.rest.errors.BadRequestAlertException;
+import smartparking.web.rest.util.CursorPaginationUtil;
+import smartparking.web.rest.util.EntityUpdateUtil;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -41,9 +50,24 @@ public class OpenHoursResource {
 
     private final OpenHoursSearchRepository openHoursSearchRepository;
 
-    public OpenHoursResource(OpenHoursRepository openHoursRepository, OpenHoursSearchRepository openHoursSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final OpenHoursScheduleService openHoursScheduleService;
+
+    public OpenHoursResource(
+        OpenHoursRepository openHoursRepository,
+        OpenHoursSearchRepository openHoursSearchRepository,
+        SearchOutboxService searchOutboxService,
+        ApplicationProperties applicationProperties,
+        OpenHoursScheduleService openHoursScheduleService
+    ) {
         this.openHoursRepository = openHoursRepository;
         this.openHoursSearchRepository = openHoursSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.applicationProperties = applicationProperties;
+        this.openHoursScheduleService = openHoursScheduleService;
     }
 
     /**
@@ -60,7 +84,8 @@ public class OpenHoursResource {
             throw new BadRequestAlertException("A new openHours cannot already have an ID", ENTITY_NAME, "idexists");
         }
         OpenHours result = openHoursRepository.save(openHours);
-        openHoursSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.OPEN_HOURS, result.getId());
+        openHoursScheduleService.evict(result);
         return ResponseEntity
             .created(new URI("/api/open-hours/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -90,12 +115,10 @@ public class OpenHoursResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!openHoursRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
+        EntityUpdateUtil.findExisting(openHoursRepository, id, ENTITY_NAME);
         OpenHours result = openHoursRepository.save(openHours);
-        openHoursSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.OPEN_HOURS, result.getId());
+        openHoursScheduleService.evict(result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, openHours.getId().toString()))
@@ -108,8 +131,7 @@ public class OpenHoursResource {
      * @param id the id of the openHours to save.
      * @param openHours the openHours to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated openHours,
-     * or with status {@code 400 (Bad Request)} if the openHours is not valid,
-     * or with status {@code 404 (Not Found)} if the openHours is not found,
+     * or with status {@code 400 (Bad Request)} if the openHours is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the openHours couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -126,54 +148,55 @@ public class OpenHoursResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!openHoursRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        OpenHours existingOpenHours = EntityUpdateUtil.findExisting(openHoursRepository, id, ENTITY_NAME);
+        if (openHours.getWeekday() != null) {
+            existingOpenHours.setWeekday(openHours.getWeekday());
+        }
+        if (openHours.getOpeningHour() != null) {
+            existingOpenHours.setOpeningHour(openHours.getOpeningHour());
+        }
+        if (openHours.getClosingHour() != null) {
+            existingOpenHours.setClosingHour(openHours.getClosingHour());
+        }
+        if (openHours.getDate() != null) {
+            existingOpenHours.setDate(openHours.getDate());
         }
 
-        Optional<OpenHours> result = openHoursRepository
-            .findById(openHours.getId())
-            .map(
-                existingOpenHours -> {
-                    if (openHours.getWeekday() != null) {
-                        existingOpenHours.setWeekday(openHours.getWeekday());
-                    }
-                    if (openHours.getOpeningHour() != null) {
-                        existingOpenHours.setOpeningHour(openHours.getOpeningHour());
-                    }
-                    if (openHours.getClosingHour() != null) {
-                        existingOpenHours.setClosingHour(openHours.getClosingHour());
-                    }
-                    if (openHours.getDate() != null) {
-                        existingOpenHours.setDate(openHours.getDate());
-                    }
-
-                    return existingOpenHours;
-                }
-            )
-            .map(openHoursRepository::save)
-            .map(
-                savedOpenHours -> {
-                    openHoursSearchRepository.save(savedOpenHours);
-
-                    return savedOpenHours;
-                }
-            );
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, openHours.getId().toString())
-        );
+        searchOutboxService.index(SearchDocumentType.OPEN_HOURS, existingOpenHours.getId());
+        openHoursScheduleService.evict(existingOpenHours);
+
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, openHours.getId().toString()))
+            .body(existingOpenHours);
     }
 
     /**
-     * {@code GET  /open-hours} : get all the openHours.
+     * {@code GET  /open-hours?cursor=:cursor&size=:size} : get a page of the openHours, ordered by id.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of openHours in body.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of openHours in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
      */
     @GetMapping("/open-hours")
-    public List<OpenHours> getAllOpenHours() {
-        log.debug("REST request to get all OpenHours");
-        return openHoursRepository.findAll();
+    public ResponseEntity<List<OpenHours>> getAllOpenHours(
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of OpenHours after : {}", cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        List<OpenHours> page = openHoursRepository.findAllByIdGreaterThanOrderByIdAsc(
+            CursorPaginationUtil.startAfter(cursor),
+            PageRequest.of(0, pageSize)
+        );
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page,
+            pageSize,
+            OpenHours::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(page);
     }
 
     /**
@@ -199,7 +222,8 @@ public class OpenHoursResource {
     public ResponseEntity<Void> deleteOpenHours(@PathVariable Long id) {
         log.debug("REST request to delete OpenHours : {}", id);
         openHoursRepository.deleteById(id);
-        openHoursSearchRepository.deleteById(id);
+        searchOutboxService.delete(SearchDocumentType.OPEN_HOURS, id);
+        openHoursScheduleService.evict(id, null);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
@@ -0,0 +1,156 @@
+package smartparking.web.rest;
+
+import java.net.URI;
+import java.net.URISyntaxException;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.ParkingSession;
+import smartparking.domain.User;
+import smartparking.repository.ParkingSessionRepository;
+import smartparking.repository.UserRepository;
+import smartparking.security.AuthoritiesConstants;
+import smartparking.security.SecurityUtils;
+import smartparking.service.ParkingSessionService;
+import smartparking.web.rest.errors.BadRequestAlertException;
+import smartparking.web.rest.util.CursorPaginationUtil;
+import tech.jhipster.web.util.HeaderUtil;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for managing {@link smartparking.domain.ParkingSession}.
+ */
+@RestController
+@RequestMapping("/api")
+public class ParkingSessionResource {
+
+    private final Logger log = LoggerFactory.getLogger(ParkingSessionResource.class);
+
+    private static final String ENTITY_NAME = "parkingSession";
+
+    @Value("${jhipster.clientApp.name}")
+    private String applicationName;
+
+    private final ParkingSessionService parkingSessionService;
+
+    private final ParkingSessionRepository parkingSessionRepository;
+
+    private final UserRepository userRepository;
+
+    private final ApplicationProperties applicationProperties;
+
+    public ParkingSessionResource(
+        ParkingSessionService parkingSessionService,
+        ParkingSessionRepository parkingSessionRepository,
+        UserRepository userRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.parkingSessionService = parkingSessionService;
+        this.parkingSessionRepository = parkingSessionRepository;
+        this.userRepository = userRepository;
+        this.applicationProperties = applicationProperties;
+    }
+
+    /**
+     * {@code POST  /parking-spots/:id/park} : Start a parkingSession of the current user on the "id" parkingSpot.
+     *
+     * @param id the id of the parkingSpot.
+     * @return the {@link ResponseEntity} with status {@code 201 (Created)} and with body the new parkingSession,
+     * or with status {@code 404 (Not Found)} if the parkingSpot is not found,
+     * or with status {@code 409 (Conflict)} if the parkingSpot is neither available nor reserved by the current user.
+     * @throws URISyntaxException if the Location URI syntax is incorrect.
+     */
+    @PostMapping("/parking-spots/{id}/park")
+    public ResponseEntity<ParkingSession> startParkingSession(@PathVariable Long id) throws URISyntaxException {
+        log.debug("REST request to start a ParkingSession on ParkingSpot : {}", id);
+        User user = getCurrentUser();
+        Optional<ParkingSession> result = parkingSessionService.start(id, user.getId(), user.getLogin());
+        if (!result.isPresent()) {
+            return ResponseEntity.notFound().build();
+        }
+        ParkingSession session = result.get();
+        return ResponseEntity
+            .created(new URI("/api/parking-sessions/" + session.getId()))
+            .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, session.getId().toString()))
+            .body(session);
+    }
+
+    /**
+     * {@code POST  /parking-spots/:id/leave} : End the open parkingSession of the current user on the "id" parkingSpot.
+     *
+     * @param id the id of the parkingSpot.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the ended parkingSession,
+     * or with status {@code 404 (Not Found)} if the current user has no open parkingSession on the parkingSpot,
+     * or with status {@code 409 (Conflict)} if the parkingSession was ended concurrently.
+     */
+    @PostMapping("/parking-spots/{id}/leave")
+    public ResponseEntity<ParkingSession> endParkingSession(@PathVariable Long id) {
+        log.debug("REST request to end the ParkingSession on ParkingSpot : {}", id);
+        Optional<ParkingSession> result = parkingSessionService.end(id, getCurrentUser().getId());
+        return ResponseUtil.wrapOrNotFound(
+            result,
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, result.map(s -> s.getId().toString()).orElse(""))
+        );
+    }
+
+    /**
+     * {@code GET  /parking-sessions?carParkId=:carParkId&from=:from&to=:to&cursor=:cursor&size=:size} : get a page of the
+     * parkingSessions of a carPark started within a time range, ordered by id.
+     *
+     * @param carParkId the id of the carPark.
+     * @param from the inclusive lower bound of the start time.
+     * @param to the exclusive upper bound of the start time.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of parkingSessions in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full,
+     * or with status {@code 400 (Bad Request)} if the time range is empty.
+     */
+    @GetMapping("/parking-sessions")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<ParkingSession>> getParkingSessions(
+        @RequestParam Long carParkId,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+        @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of ParkingSessions of CarPark {} from {} to {} after : {}", carParkId, from, to, cursor);
+        if (!from.isBefore(to)) {
+            throw new BadRequestAlertException("Invalid time range", ENTITY_NAME, "rangeinvalid");
+        }
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        List<ParkingSession> page = parkingSessionRepository.findAllByCarParkStartedBetween(
+            carParkId,
+            from,
+            to,
+            CursorPaginationUtil.startAfter(cursor),
+            PageRequest.of(0, pageSize)
+        );
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page,
+            pageSize,
+            ParkingSession::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+
+    private User getCurrentUser() {
+        return SecurityUtils
+            .getCurrentUserLogin()
+            .flatMap(userRepository::findOneByLogin)
+            .orElseThrow(() -> new BadRequestAlertException("Current user not found", ENTITY_NAME, "usernotfound"));
+    }
+}
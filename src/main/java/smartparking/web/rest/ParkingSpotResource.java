@@ -2,25 +2,47 @@ package smartparking.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import javax.validation.constraints.NotNull;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import smartparking.config.ApplicationProperties;
 import smartparking.domain.ParkingSpot;
+import smartparking.domain.enumeration.SearchDocumentType;
 import smartparking.repository.ParkingSpotRepository;
 import smartparking.repository.search.ParkingSpotSearchRepository;
+import smartparking.security.SecurityUtils;
+import smartparking.service.EntityExportService;
+import smartparking.service.FacetedSearchService;
+import smartparking.service.ParkingSpotAvailabilityService;
+import smartparking.service.ParkingSpotOccupancyIndex;
+import smartparking.service.SearchOutboxService;
+import smartparking.service.dto.AvailabilityIngestionResultDTO;
+import smartparking.service.dto.FacetedSearchResultDTO;
+import smartparking.service.dto.ParkingSpotAvailabilityEventDTO;
+import smartparking.service.dto.ParkingSpotSearchCriteria;
+import smartparking.service.dto.ParkingSpotSearchHitDTO;
 import smartparking.web.rest.errors.BadRequestAlertException;
+import smartparking.web.rest.util.CursorPaginationUtil;
+import smartparking.web.rest.util.EntityUpdateUtil;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -43,9 +65,36 @@ public class ParkingSpotResource {
 
     private final ParkingSpotSearchRepository parkingSpotSearchRepository;
 
-    public ParkingSpotResource(ParkingSpotRepository parkingSpotRepository, ParkingSpotSearchRepository parkingSpotSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final FacetedSearchService facetedSearchService;
+
+    private final ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private final ParkingSpotAvailabilityService parkingSpotAvailabilityService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final EntityExportService entityExportService;
+
+    public ParkingSpotResource(
+        ParkingSpotRepository parkingSpotRepository,
+        ParkingSpotSearchRepository parkingSpotSearchRepository,
+        ParkingSpotOccupancyIndex parkingSpotOccupancyIndex,
+        ParkingSpotAvailabilityService parkingSpotAvailabilityService,
+        ApplicationProperties applicationProperties,
+        SearchOutboxService searchOutboxService,
+        FacetedSearchService facetedSearchService,
+        EntityExportService entityExportService
+    ) {
         this.parkingSpotRepository = parkingSpotRepository;
         this.parkingSpotSearchRepository = parkingSpotSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.facetedSearchService = facetedSearchService;
+        this.parkingSpotOccupancyIndex = parkingSpotOccupancyIndex;
+        this.parkingSpotAvailabilityService = parkingSpotAvailabilityService;
+        this.applicationProperties = applicationProperties;
+        this.entityExportService = entityExportService;
     }
 
     /**
@@ -62,7 +111,8 @@ public class ParkingSpotResource {
             throw new BadRequestAlertException("A new parkingSpot cannot already have an ID", ENTITY_NAME, "idexists");
         }
         ParkingSpot result = parkingSpotRepository.save(parkingSpot);
-        parkingSpotSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.PARKING_SPOT, result.getId());
+        parkingSpotOccupancyIndex.update(result);
         return ResponseEntity
             .created(new URI("/api/parking-spots/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -74,8 +124,11 @@ public class ParkingSpotResource {
      *
      * @param id the id of the parkingSpot to save.
      * @param parkingSpot the parkingSpot to update.
+     * <p>
+     * The availability cannot be changed here, it changes through reservations, parking sessions and sensor events.
+     *
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated parkingSpot,
-     * or with status {@code 400 (Bad Request)} if the parkingSpot is not valid,
+     * or with status {@code 400 (Bad Request)} if the parkingSpot is not valid or its availability is changed,
      * or with status {@code 500 (Internal Server Error)} if the parkingSpot couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -92,12 +145,11 @@ public class ParkingSpotResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!parkingSpotRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
+        ParkingSpot existingParkingSpot = EntityUpdateUtil.findExisting(parkingSpotRepository, id, ENTITY_NAME);
+        checkAvailabilityUnchanged(existingParkingSpot, parkingSpot);
         ParkingSpot result = parkingSpotRepository.save(parkingSpot);
-        parkingSpotSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.PARKING_SPOT, result.getId());
+        parkingSpotOccupancyIndex.update(result);
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, parkingSpot.getId().toString()))
@@ -110,8 +162,7 @@ public class ParkingSpotResource {
      * @param id the id of the parkingSpot to save.
      * @param parkingSpot the parkingSpot to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated parkingSpot,
-     * or with status {@code 400 (Bad Request)} if the parkingSpot is not valid,
-     * or with status {@code 404 (Not Found)} if the parkingSpot is not found,
+     * or with status {@code 400 (Bad Request)} if the parkingSpot is not valid or not found, or its availability is changed,
      * or with status {@code 500 (Internal Server Error)} if the parkingSpot couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -128,51 +179,138 @@ public class ParkingSpotResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!parkingSpotRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        ParkingSpot existingParkingSpot = EntityUpdateUtil.findExisting(parkingSpotRepository, id, ENTITY_NAME);
+        if (parkingSpot.getAccessableParking() != null) {
+            existingParkingSpot.setAccessableParking(parkingSpot.getAccessableParking());
+        }
+        if (parkingSpot.getAvailable() != null) {
+            checkAvailabilityUnchanged(existingParkingSpot, parkingSpot);
         }
+        if (parkingSpot.getFloor() != null) {
+            existingParkingSpot.setFloor(parkingSpot.getFloor());
+        }
+
+        searchOutboxService.index(SearchDocumentType.PARKING_SPOT, existingParkingSpot.getId());
+        parkingSpotOccupancyIndex.update(existingParkingSpot);
+
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, parkingSpot.getId().toString()))
+            .body(existingParkingSpot);
+    }
 
-        Optional<ParkingSpot> result = parkingSpotRepository
-            .findById(parkingSpot.getId())
-            .map(
-                existingParkingSpot -> {
-                    if (parkingSpot.getAccessableParking() != null) {
-                        existingParkingSpot.setAccessableParking(parkingSpot.getAccessableParking());
-                    }
-                    if (parkingSpot.getAvailable() != null) {
-                        existingParkingSpot.setAvailable(parkingSpot.getAvailable());
-                    }
-                    if (parkingSpot.getFloor() != null) {
-                        existingParkingSpot.setFloor(parkingSpot.getFloor());
-                    }
-
-                    return existingParkingSpot;
-                }
-            )
-            .map(parkingSpotRepository::save)
-            .map(
-                savedParkingSpot -> {
-                    parkingSpotSearchRepository.save(savedParkingSpot);
-
-                    return savedParkingSpot;
-                }
-            );
+    /**
+     * {@code POST  /parking-spots/:id/reserve} : Reserve the "id" parkingSpot, if it is available.
+     * <p>
+     * Unlike an update of the whole parkingSpot, only one of concurrent reservations of the same parkingSpot succeeds.
+     * The reservation is held by the current user.
+     *
+     * @param id the id of the parkingSpot to reserve.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the reserved parkingSpot,
+     * or with status {@code 404 (Not Found)} if the parkingSpot is not found,
+     * or with status {@code 409 (Conflict)} if the parkingSpot is not available.
+     */
+    @PostMapping("/parking-spots/{id}/reserve")
+    public ResponseEntity<ParkingSpot> reserveParkingSpot(@PathVariable Long id) {
+        log.debug("REST request to reserve ParkingSpot : {}", id);
+        return ResponseUtil.wrapOrNotFound(
+            parkingSpotAvailabilityService.reserve(id, getCurrentUserLogin()),
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString())
+        );
+    }
 
+    /**
+     * {@code POST  /parking-spots/:id/release} : Release the "id" parkingSpot, if it is reserved by the current user
+     * and nobody parks on it.
+     *
+     * @param id the id of the parkingSpot to release.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the released parkingSpot,
+     * or with status {@code 404 (Not Found)} if the parkingSpot is not found,
+     * or with status {@code 409 (Conflict)} if the parkingSpot is not reserved by the current user or has an open session.
+     */
+    @PostMapping("/parking-spots/{id}/release")
+    public ResponseEntity<ParkingSpot> releaseParkingSpot(@PathVariable Long id) {
+        log.debug("REST request to release ParkingSpot : {}", id);
         return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, parkingSpot.getId().toString())
+            parkingSpotAvailabilityService.release(id, getCurrentUserLogin()),
+            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, id.toString())
         );
     }
 
     /**
-     * {@code GET  /parking-spots} : get all the parkingSpots.
+     * {@code POST  /parking-spots/availability-events} : Apply a batch of sensor availability events.
+     * <p>
+     * All events are applied in one transaction; an event older than the last applied state of its parkingSpot is dropped.
+     *
+     * @param events the availability events to apply.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the number of applied and ignored events,
+     * or with status {@code 400 (Bad Request)} if an event is incomplete or the batch is too large.
+     */
+    @PostMapping("/parking-spots/availability-events")
+    public ResponseEntity<AvailabilityIngestionResultDTO> ingestAvailabilityEvents(
+        @NotNull @RequestBody List<ParkingSpotAvailabilityEventDTO> events
+    ) {
+        log.debug("REST request to ingest {} ParkingSpot availability events", events.size());
+        if (events.size() > applicationProperties.getIngestion().getMaxEventsPerRequest()) {
+            throw new BadRequestAlertException("Too many events", ENTITY_NAME, "toomanyevents");
+        }
+        boolean incomplete = events
+            .stream()
+            .anyMatch(event -> event == null || event.getSpotId() == null || event.getAvailable() == null || event.getTimestamp() == null);
+        if (incomplete) {
+            throw new BadRequestAlertException("Invalid event", ENTITY_NAME, "eventinvalid");
+        }
+        return ResponseEntity.ok(parkingSpotAvailabilityService.ingest(events));
+    }
+
+    /**
+     * {@code GET  /parking-spots?cursor=:cursor&size=:size} : get a page of the parkingSpots, ordered by id.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of parkingSpots in body.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of parkingSpots in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
      */
     @GetMapping("/parking-spots")
-    public List<ParkingSpot> getAllParkingSpots() {
-        log.debug("REST request to get all ParkingSpots");
-        return parkingSpotRepository.findAll();
+    public ResponseEntity<List<ParkingSpot>> getAllParkingSpots(
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of ParkingSpots after : {}", cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        List<ParkingSpot> page = parkingSpotRepository.findAllByIdGreaterThanOrderByIdAsc(
+            CursorPaginationUtil.startAfter(cursor),
+            PageRequest.of(0, pageSize)
+        );
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page,
+            pageSize,
+            ParkingSpot::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+
+    /**
+     * {@code GET  /parking-spots/export?format=:format} : stream every parkingSpot as NDJSON (the default) or CSV.
+     * <p>
+     * Rows are written as they are read from the database, the first one right away.
+     *
+     * @param format the output format, {@code ndjson} or {@code csv}.
+     * @param response the response to write the rows to.
+     * @throws IOException if the response cannot be written.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @GetMapping("/parking-spots/export")
+    public void exportParkingSpots(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export ParkingSpots as {}", format);
+        EntityExportService.Format exportFormat = EntityExportService.Format
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Invalid export format", ENTITY_NAME, "formatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"parking-spots." + exportFormat.getExtension() + "\"");
+        entityExportService.exportParkingSpots(exportFormat, response.getOutputStream());
     }
 
     /**
@@ -198,13 +336,43 @@ public class ParkingSpotResource {
     public ResponseEntity<Void> deleteParkingSpot(@PathVariable Long id) {
         log.debug("REST request to delete ParkingSpot : {}", id);
         parkingSpotRepository.deleteById(id);
-        parkingSpotSearchRepository.deleteById(id);
+        searchOutboxService.delete(SearchDocumentType.PARKING_SPOT, id);
+        parkingSpotOccupancyIndex.remove(id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
             .build();
     }
 
+    /**
+     * {@code GET  /_search/parking-spots/faceted?cursor=:cursor&size=:size} : search the parkingSpots matching filters, ordered by id,
+     * with facets on the city, the floor, the accessibility and the availability.
+     *
+     * @param criteria the filters, each ignored if absent.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the hits, their total and the facets in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
+     */
+    @GetMapping("/_search/parking-spots/faceted")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ResponseEntity<FacetedSearchResultDTO<ParkingSpotSearchHitDTO>> facetedSearchParkingSpots(
+        ParkingSpotSearchCriteria criteria,
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to search ParkingSpots : {} after {}", criteria, cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        FacetedSearchResultDTO<ParkingSpotSearchHitDTO> result = facetedSearchService.searchParkingSpots(criteria, cursor, pageSize);
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            result.getHits(),
+            pageSize,
+            ParkingSpotSearchHitDTO::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(result);
+    }
+
     /**
      * {@code SEARCH  /_search/parking-spots?query=:query} : search for the parkingSpot corresponding
      * to the query.
@@ -219,4 +387,19 @@ public class ParkingSpotResource {
             .stream(parkingSpotSearchRepository.search(queryStringQuery(query)).spliterator(), false)
             .collect(Collectors.toList());
     }
+
+    /**
+     * Rejects an update changing the availability, which would overwrite a concurrent reservation or sensor event.
+     */
+    private static void checkAvailabilityUnchanged(ParkingSpot existingParkingSpot, ParkingSpot parkingSpot) {
+        if (!Objects.equals(existingParkingSpot.getAvailable(), parkingSpot.getAvailable())) {
+            throw new BadRequestAlertException("The availability changes through reservations", ENTITY_NAME, "availabilityreadonly");
+        }
+    }
+
+    private static String getCurrentUserLogin() {
+        return SecurityUtils
+            .getCurrentUserLogin()
+            .orElseThrow(() -> new BadRequestAlertException("Current user login not found", ENTITY_NAME, "usernotfound"));
+    }
 }
@@ -0,0 +1,60 @@
+package smartparking.web.rest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import smartparking.security.AuthoritiesConstants;
+import smartparking.service.SearchReindexService;
+import smartparking.service.dto.SearchReindexStatusDTO;
+import smartparking.web.rest.errors.BadRequestAlertException;
+import tech.jhipster.web.util.ResponseUtil;
+
+/**
+ * REST controller for rebuilding the Elasticsearch indices.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class SearchReindexResource {
+
+    private final Logger log = LoggerFactory.getLogger(SearchReindexResource.class);
+
+    private static final String ENTITY_NAME = "searchReindex";
+
+    private final SearchReindexService searchReindexService;
+
+    public SearchReindexResource(SearchReindexService searchReindexService) {
+        this.searchReindexService = searchReindexService;
+    }
+
+    /**
+     * {@code POST  /admin/search/reindex} : Starts rebuilding every Elasticsearch index.
+     *
+     * @return the {@link ResponseEntity} with status {@code 202 (Accepted)} and with body the status of the started job,
+     * or with status {@code 400 (Bad Request)} if a reindex is already running.
+     */
+    @PostMapping("/search/reindex")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<SearchReindexStatusDTO> startReindex() {
+        log.debug("REST request to reindex Elasticsearch");
+        return searchReindexService
+            .start()
+            .map(status -> ResponseEntity.status(HttpStatus.ACCEPTED).body(status))
+            .orElseThrow(() -> new BadRequestAlertException("A reindex is already running", ENTITY_NAME, "reindexrunning"));
+    }
+
+    /**
+     * {@code GET  /admin/search/reindex} : get the progress of the current or last reindex.
+     *
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the status of the job,
+     * or with status {@code 404 (Not Found)} if no reindex was started.
+     */
+    @GetMapping("/search/reindex")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<SearchReindexStatusDTO> getReindexStatus() {
+        log.debug("REST request to get the Elasticsearch reindex status");
+        return ResponseUtil.wrapOrNotFound(searchReindexService.getStatus());
+    }
+}
@@ -2,23 +2,35 @@ package smartparking.web.rest;
 
 import static org.elasticsearch.index.query.QueryBuilders.*;
 
+import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.stream.Collectors;
 import java.util.stream.StreamSupport;
+import javax.servlet.http.HttpServletResponse;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import smartparking.config.ApplicationProperties;
 import smartparking.domain.UserExtra;
+import smartparking.domain.enumeration.SearchDocumentType;
 import smartparking.repository.UserExtraRepository;
 import smartparking.repository.search.UserExtraSearchRepository;
+import smartparking.service.EntityExportService;
+import smartparking.service.SearchOutboxService;
 import smartparking.web.rest.errors.BadRequestAlertException;
+import smartparking.web.rest.util.CursorPaginationUtil;
+import smartparking.web.rest.util.EntityUpdateUtil;
 import tech.jhipster.web.util.HeaderUtil;
 import tech.jhipster.web.util.ResponseUtil;
 
@@ -41,9 +53,24 @@ public class UserExtraResource {
 
     private final UserExtraSearchRepository userExtraSearchRepository;
 
-    public UserExtraResource(UserExtraRepository userExtraRepository, UserExtraSearchRepository userExtraSearchRepository) {
+    private final SearchOutboxService searchOutboxService;
+
+    private final ApplicationProperties applicationProperties;
+
+    private final EntityExportService entityExportService;
+
+    public UserExtraResource(
+        UserExtraRepository userExtraRepository,
+        UserExtraSearchRepository userExtraSearchRepository,
+        SearchOutboxService searchOutboxService,
+        ApplicationProperties applicationProperties,
+        EntityExportService entityExportService
+    ) {
         this.userExtraRepository = userExtraRepository;
         this.userExtraSearchRepository = userExtraSearchRepository;
+        this.searchOutboxService = searchOutboxService;
+        this.applicationProperties = applicationProperties;
+        this.entityExportService = entityExportService;
     }
 
     /**
@@ -60,7 +87,7 @@ public class UserExtraResource {
             throw new BadRequestAlertException("A new userExtra cannot already have an ID", ENTITY_NAME, "idexists");
         }
         UserExtra result = userExtraRepository.save(userExtra);
-        userExtraSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.USER_EXTRA, result.getId());
         return ResponseEntity
             .created(new URI("/api/user-extras/" + result.getId()))
             .headers(HeaderUtil.createEntityCreationAlert(applicationName, true, ENTITY_NAME, result.getId().toString()))
@@ -90,12 +117,9 @@ public class UserExtraResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!userExtraRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
-        }
-
+        EntityUpdateUtil.findExisting(userExtraRepository, id, ENTITY_NAME);
         UserExtra result = userExtraRepository.save(userExtra);
-        userExtraSearchRepository.save(result);
+        searchOutboxService.index(SearchDocumentType.USER_EXTRA, result.getId());
         return ResponseEntity
             .ok()
             .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, userExtra.getId().toString()))
@@ -108,8 +132,7 @@ public class UserExtraResource {
      * @param id the id of the userExtra to save.
      * @param userExtra the userExtra to update.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated userExtra,
-     * or with status {@code 400 (Bad Request)} if the userExtra is not valid,
-     * or with status {@code 404 (Not Found)} if the userExtra is not found,
+     * or with status {@code 400 (Bad Request)} if the userExtra is not valid or not found,
      * or with status {@code 500 (Internal Server Error)} if the userExtra couldn't be updated.
      * @throws URISyntaxException if the Location URI syntax is incorrect.
      */
@@ -126,48 +149,70 @@ public class UserExtraResource {
             throw new BadRequestAlertException("Invalid ID", ENTITY_NAME, "idinvalid");
         }
 
-        if (!userExtraRepository.existsById(id)) {
-            throw new BadRequestAlertException("Entity not found", ENTITY_NAME, "idnotfound");
+        UserExtra existingUserExtra = EntityUpdateUtil.findExisting(userExtraRepository, id, ENTITY_NAME);
+        if (userExtra.getCurrentParkingSpot() != null) {
+            existingUserExtra.setCurrentParkingSpot(userExtra.getCurrentParkingSpot());
+        }
+        if (userExtra.getTimeOfParking() != null) {
+            existingUserExtra.setTimeOfParking(userExtra.getTimeOfParking());
         }
 
-        Optional<UserExtra> result = userExtraRepository
-            .findById(userExtra.getId())
-            .map(
-                existingUserExtra -> {
-                    if (userExtra.getCurrentParkingSpot() != null) {
-                        existingUserExtra.setCurrentParkingSpot(userExtra.getCurrentParkingSpot());
-                    }
-                    if (userExtra.getTimeOfParking() != null) {
-                        existingUserExtra.setTimeOfParking(userExtra.getTimeOfParking());
-                    }
-
-                    return existingUserExtra;
-                }
-            )
-            .map(userExtraRepository::save)
-            .map(
-                savedUserExtra -> {
-                    userExtraSearchRepository.save(savedUserExtra);
-
-                    return savedUserExtra;
-                }
-            );
-
-        return ResponseUtil.wrapOrNotFound(
-            result,
-            HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, userExtra.getId().toString())
-        );
+        searchOutboxService.index(SearchDocumentType.USER_EXTRA, existingUserExtra.getId());
+
+        return ResponseEntity
+            .ok()
+            .headers(HeaderUtil.createEntityUpdateAlert(applicationName, true, ENTITY_NAME, userExtra.getId().toString()))
+            .body(existingUserExtra);
     }
 
     /**
-     * {@code GET  /user-extras} : get all the userExtras.
+     * {@code GET  /user-extras?cursor=:cursor&size=:size} : get a page of the userExtras, ordered by id.
      *
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of userExtras in body.
+     * @param cursor the id after which the page starts, the first page if absent.
+     * @param size the size of the page, the configured default size if absent.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and the list of userExtras in body,
+     * and the cursor of the next page in the {@code Link} and {@code X-Next-Cursor} headers when the page is full.
      */
     @GetMapping("/user-extras")
-    public List<UserExtra> getAllUserExtras() {
-        log.debug("REST request to get all UserExtras");
-        return userExtraRepository.findAll();
+    public ResponseEntity<List<UserExtra>> getAllUserExtras(
+        @RequestParam(required = false) Long cursor,
+        @RequestParam(required = false) Integer size
+    ) {
+        log.debug("REST request to get a page of UserExtras after : {}", cursor);
+        int pageSize = CursorPaginationUtil.pageSize(size, applicationProperties.getPagination());
+        List<UserExtra> page = userExtraRepository.findAllByIdGreaterThanOrderByIdAsc(
+            CursorPaginationUtil.startAfter(cursor),
+            PageRequest.of(0, pageSize)
+        );
+        HttpHeaders headers = CursorPaginationUtil.generateCursorHttpHeaders(
+            ServletUriComponentsBuilder.fromCurrentRequest(),
+            page,
+            pageSize,
+            UserExtra::getId
+        );
+        return ResponseEntity.ok().headers(headers).body(page);
+    }
+
+    /**
+     * {@code GET  /user-extras/export?format=:format} : stream every userExtra as NDJSON (the default) or CSV.
+     * <p>
+     * Rows are written as they are read from the database, the first one right away.
+     *
+     * @param format the output format, {@code ndjson} or {@code csv}.
+     * @param response the response to write the rows to.
+     * @throws IOException if the response cannot be written.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if the format is unknown.
+     */
+    @GetMapping("/user-extras/export")
+    public void exportUserExtras(@RequestParam(defaultValue = "ndjson") String format, HttpServletResponse response) throws IOException {
+        log.debug("REST request to export UserExtras as {}", format);
+        EntityExportService.Format exportFormat = EntityExportService.Format
+            .fromExtension(format)
+            .orElseThrow(() -> new BadRequestAlertException("Invalid export format", ENTITY_NAME, "formatinvalid"));
+        response.setContentType(exportFormat.getContentType());
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"user-extras." + exportFormat.getExtension() + "\"");
+        entityExportService.exportUserExtras(exportFormat, response.getOutputStream());
     }
 
     /**
@@ -193,7 +238,7 @@ public class UserExtraResource {
     public ResponseEntity<Void> deleteUserExtra(@PathVariable Long id) {
         log.debug("REST request to delete UserExtra : {}", id);
         userExtraRepository.deleteById(id);
-        userExtraSearchRepository.deleteById(id);
+        searchOutboxService.delete(SearchDocumentType.USER_EXTRA, id);
         return ResponseEntity
             .noContent()
             .headers(HeaderUtil.createEntityDeletionAlert(applicationName, true, ENTITY_NAME, id.toString()))
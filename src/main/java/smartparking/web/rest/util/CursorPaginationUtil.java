@@ -0,0 +1,73 @@
+package smartparking.web.rest.util;
+
+import java.util.List;
+import java.util.function.Function;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.util.UriComponentsBuilder;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Utility class for handling keyset (cursor) pagination on the entity id.
+ * <p>
+ * The cursor of a page is the id of its last element, and the next page holds the elements with a greater id.
+ * Unlike offset pagination, fetching a deep page costs the same as fetching the first one.
+ * <p>
+ * Following the GitHub API, the next page is given by a {@code Link} header, see
+ * <a href="https://developer.github.com/v3/#pagination">GitHub API pagination</a>.
+ */
+public final class CursorPaginationUtil {
+
+    public static final String HEADER_X_NEXT_CURSOR = "X-Next-Cursor";
+
+    private CursorPaginationUtil() {}
+
+    /**
+     * Gets the exclusive lower bound of the ids of a page.
+     *
+     * @param cursor the requested cursor, {@code null} for the first page.
+     * @return the id after which the page starts.
+     */
+    public static long startAfter(Long cursor) {
+        return cursor != null ? cursor : Long.MIN_VALUE;
+    }
+
+    /**
+     * Gets the size of a page, bounded by the configured maximum.
+     *
+     * @param size the requested page size, {@code null} for the default one.
+     * @param pagination the pagination properties.
+     * @return the page size to use.
+     */
+    public static int pageSize(Integer size, ApplicationProperties.Pagination pagination) {
+        if (size == null) {
+            return pagination.getDefaultSize();
+        }
+        return Math.max(1, Math.min(size, pagination.getMaxSize()));
+    }
+
+    /**
+     * Generates the pagination headers of a page: the cursor and the link of the next page, when the page is full.
+     *
+     * @param uriBuilder the builder of the current request URI.
+     * @param content the elements of the page, ordered by id.
+     * @param size the page size.
+     * @param idGetter the getter of the element id.
+     * @param <T> the type of the elements.
+     * @return the {@link HttpHeaders}.
+     */
+    public static <T> HttpHeaders generateCursorHttpHeaders(
+        UriComponentsBuilder uriBuilder,
+        List<T> content,
+        int size,
+        Function<T, Long> idGetter
+    ) {
+        HttpHeaders headers = new HttpHeaders();
+        if (content.size() == size) {
+            Long nextCursor = idGetter.apply(content.get(content.size() - 1));
+            String next = uriBuilder.replaceQueryParam("cursor", nextCursor).replaceQueryParam("size", size).toUriString();
+            headers.add(HEADER_X_NEXT_CURSOR, nextCursor.toString());
+            headers.add(HttpHeaders.LINK, "<" + next + ">; rel=\"next\"");
+        }
+        return headers;
+    }
+}
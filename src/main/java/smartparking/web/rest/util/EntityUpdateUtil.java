@@ -0,0 +1,30 @@
+package smartparking.web.rest.util;
+
+import org.springframework.data.repository.CrudRepository;
+import smartparking.web.rest.errors.BadRequestAlertException;
+
+/**
+ * Utility class for updating existing entities from the REST controllers.
+ * <p>
+ * The entity is loaded once, from the second level cache when it holds it, and stays managed until the transaction of
+ * the controller commits. A partial update sets the given fields on the managed entity and dirty checking writes them
+ * with a single UPDATE, while a full update is merged into the already loaded entity without reading it again.
+ */
+public final class EntityUpdateUtil {
+
+    private EntityUpdateUtil() {}
+
+    /**
+     * Loads an existing entity to update it in the current transaction.
+     *
+     * @param repository the repository of the entity.
+     * @param id the id of the entity.
+     * @param entityName the name of the entity, for the error alert.
+     * @param <T> the type of the entity.
+     * @return the managed entity.
+     * @throws BadRequestAlertException if the entity does not exist.
+     */
+    public static <T> T findExisting(CrudRepository<T, Long> repository, Long id, String entityName) {
+        return repository.findById(id).orElseThrow(() -> new BadRequestAlertException("Entity not found", entityName, "idnotfound"));
+    }
+}
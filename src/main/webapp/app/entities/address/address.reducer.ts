@@ -2,6 +2,7 @@ import axios from 'axios';
 import { ICrudSearchAction, ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getNextCursor } from 'app/shared/util/cursor-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IAddress, defaultValue } from 'app/shared/model/address.model';
@@ -9,6 +10,7 @@ import { IAddress, defaultValue } from 'app/shared/model/address.model';
 export const ACTION_TYPES = {
   SEARCH_ADDRESSES: 'address/SEARCH_ADDRESSES',
   FETCH_ADDRESS_LIST: 'address/FETCH_ADDRESS_LIST',
+  FETCH_ADDRESS_LIST_NEXT_PAGE: 'address/FETCH_ADDRESS_LIST_NEXT_PAGE',
   FETCH_ADDRESS: 'address/FETCH_ADDRESS',
   CREATE_ADDRESS: 'address/CREATE_ADDRESS',
   UPDATE_ADDRESS: 'address/UPDATE_ADDRESS',
@@ -22,6 +24,7 @@ const initialState = {
   errorMessage: null,
   entities: [] as ReadonlyArray<IAddress>,
   entity: defaultValue,
+  nextCursor: null as number,
   updating: false,
   updateSuccess: false,
 };
@@ -34,6 +37,7 @@ export default (state: AddressState = initialState, action): AddressState => {
   switch (action.type) {
     case REQUEST(ACTION_TYPES.SEARCH_ADDRESSES):
     case REQUEST(ACTION_TYPES.FETCH_ADDRESS_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_ADDRESS_LIST_NEXT_PAGE):
     case REQUEST(ACTION_TYPES.FETCH_ADDRESS):
       return {
         ...state,
@@ -53,6 +57,7 @@ export default (state: AddressState = initialState, action): AddressState => {
       };
     case FAILURE(ACTION_TYPES.SEARCH_ADDRESSES):
     case FAILURE(ACTION_TYPES.FETCH_ADDRESS_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_ADDRESS_LIST_NEXT_PAGE):
     case FAILURE(ACTION_TYPES.FETCH_ADDRESS):
     case FAILURE(ACTION_TYPES.CREATE_ADDRESS):
     case FAILURE(ACTION_TYPES.UPDATE_ADDRESS):
@@ -66,11 +71,29 @@ export default (state: AddressState = initialState, action): AddressState => {
         errorMessage: action.payload,
       };
     case SUCCESS(ACTION_TYPES.SEARCH_ADDRESSES):
+      return {
+        ...state,
+        loading: false,
+        entities: action.payload.data,
+        nextCursor: null,
+      };
     case SUCCESS(ACTION_TYPES.FETCH_ADDRESS_LIST):
       return {
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: getNextCursor(action.payload.headers),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_ADDRESS_LIST_NEXT_PAGE):
+      if (action.meta.cursor !== state.nextCursor) {
+        // The page followed a list fetched since
+        return { ...state, loading: false };
+      }
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: getNextCursor(action.payload.headers),
       };
     case SUCCESS(ACTION_TYPES.FETCH_ADDRESS):
       return {
@@ -118,6 +141,12 @@ export const getEntities: ICrudGetAllAction<IAddress> = (page, size, sort) => ({
   payload: axios.get<IAddress>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextEntities = (cursor: number) => ({
+  type: ACTION_TYPES.FETCH_ADDRESS_LIST_NEXT_PAGE,
+  payload: axios.get<IAddress>(`${apiUrl}?cursor=${cursor}&cacheBuster=${new Date().getTime()}`),
+  meta: { cursor },
+});
+
 export const getEntity: ICrudGetAction<IAddress> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
@@ -5,9 +5,10 @@ import { Button, InputGroup, Col, Row, Table } from 'reactstrap';
 import { AvForm, AvGroup, AvInput } from 'availity-reactstrap-validation';
 import { Translate, translate, ICrudSearchAction } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
+import InfiniteScroll from 'react-infinite-scroller';
 
 import { IRootState } from 'app/shared/reducers';
-import { getSearchEntities, getEntities } from './address.reducer';
+import { getSearchEntities, getEntities, getNextEntities } from './address.reducer';
 import { IAddress } from 'app/shared/model/address.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -37,6 +38,12 @@ export const Address = (props: IAddressProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextEntities(props.nextCursor);
+    }
+  };
+
   const { addressList, match, loading } = props;
   return (
     <div>
@@ -79,61 +86,70 @@ export const Address = (props: IAddressProps) => {
       </Row>
       <div className="table-responsive">
         {addressList && addressList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="smartParkingApp.address.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.address.streetAddress">Street Address</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.address.postalCode">Postal Code</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.address.city">City</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {addressList.map((address, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${address.id}`} color="link" size="sm">
-                      {address.id}
-                    </Button>
-                  </td>
-                  <td>{address.streetAddress}</td>
-                  <td>{address.postalCode}</td>
-                  <td>{address.city}</td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${address.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${address.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${address.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="smartParkingApp.address.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.address.streetAddress">Street Address</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.address.postalCode">Postal Code</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.address.city">City</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {addressList.map((address, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${address.id}`} color="link" size="sm">
+                        {address.id}
+                      </Button>
+                    </td>
+                    <td>{address.streetAddress}</td>
+                    <td>{address.postalCode}</td>
+                    <td>{address.city}</td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${address.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${address.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${address.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -149,11 +165,13 @@ export const Address = (props: IAddressProps) => {
 const mapStateToProps = ({ address }: IRootState) => ({
   addressList: address.entities,
   loading: address.loading,
+  nextCursor: address.nextCursor,
 });
 
 const mapDispatchToProps = {
   getSearchEntities,
   getEntities,
+  getNextEntities,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
@@ -8,7 +8,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { IAddress } from 'app/shared/model/address.model';
-import { getEntities as getAddresses } from 'app/entities/address/address.reducer';
+import { getEntities as getAddresses, getNextEntities as getNextAddresses } from 'app/entities/address/address.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './car-park.reducer';
 import { ICarPark } from 'app/shared/model/car-park.model';
 import { convertDateTimeFromServer, convertDateTimeToServer, displayDefaultDateTime } from 'app/shared/util/date-utils';
@@ -35,6 +35,13 @@ export const CarParkUpdate = (props: ICarParkUpdateProps) => {
     props.getAddresses();
   }, []);
 
+  useEffect(() => {
+    // The select lists every address, page after page
+    if (props.addressesNextCursor) {
+      props.getNextAddresses(props.addressesNextCursor);
+    }
+  }, [props.addressesNextCursor]);
+
   useEffect(() => {
     if (props.updateSuccess) {
       handleClose();
@@ -130,6 +137,7 @@ export const CarParkUpdate = (props: ICarParkUpdateProps) => {
 
 const mapStateToProps = (storeState: IRootState) => ({
   addresses: storeState.address.entities,
+  addressesNextCursor: storeState.address.nextCursor,
   carParkEntity: storeState.carPark.entity,
   loading: storeState.carPark.loading,
   updating: storeState.carPark.updating,
@@ -138,6 +146,7 @@ const mapStateToProps = (storeState: IRootState) => ({
 
 const mapDispatchToProps = {
   getAddresses,
+  getNextAddresses,
   getEntity,
   updateEntity,
   createEntity,
@@ -2,6 +2,7 @@ import axios from 'axios';
 import { ICrudSearchAction, ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getNextCursor } from 'app/shared/util/cursor-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { ICarPark, defaultValue } from 'app/shared/model/car-park.model';
@@ -9,6 +10,7 @@ import { ICarPark, defaultValue } from 'app/shared/model/car-park.model';
 export const ACTION_TYPES = {
   SEARCH_CARPARKS: 'carPark/SEARCH_CARPARKS',
   FETCH_CARPARK_LIST: 'carPark/FETCH_CARPARK_LIST',
+  FETCH_CARPARK_LIST_NEXT_PAGE: 'carPark/FETCH_CARPARK_LIST_NEXT_PAGE',
   FETCH_CARPARK: 'carPark/FETCH_CARPARK',
   CREATE_CARPARK: 'carPark/CREATE_CARPARK',
   UPDATE_CARPARK: 'carPark/UPDATE_CARPARK',
@@ -22,6 +24,7 @@ const initialState = {
   errorMessage: null,
   entities: [] as ReadonlyArray<ICarPark>,
   entity: defaultValue,
+  nextCursor: null as number,
   updating: false,
   updateSuccess: false,
 };
@@ -34,6 +37,7 @@ export default (state: CarParkState = initialState, action): CarParkState => {
   switch (action.type) {
     case REQUEST(ACTION_TYPES.SEARCH_CARPARKS):
     case REQUEST(ACTION_TYPES.FETCH_CARPARK_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_CARPARK_LIST_NEXT_PAGE):
     case REQUEST(ACTION_TYPES.FETCH_CARPARK):
       return {
         ...state,
@@ -53,6 +57,7 @@ export default (state: CarParkState = initialState, action): CarParkState => {
       };
     case FAILURE(ACTION_TYPES.SEARCH_CARPARKS):
     case FAILURE(ACTION_TYPES.FETCH_CARPARK_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_CARPARK_LIST_NEXT_PAGE):
     case FAILURE(ACTION_TYPES.FETCH_CARPARK):
     case FAILURE(ACTION_TYPES.CREATE_CARPARK):
     case FAILURE(ACTION_TYPES.UPDATE_CARPARK):
@@ -66,11 +71,29 @@ export default (state: CarParkState = initialState, action): CarParkState => {
         errorMessage: action.payload,
       };
     case SUCCESS(ACTION_TYPES.SEARCH_CARPARKS):
+      return {
+        ...state,
+        loading: false,
+        entities: action.payload.data,
+        nextCursor: null,
+      };
     case SUCCESS(ACTION_TYPES.FETCH_CARPARK_LIST):
       return {
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: getNextCursor(action.payload.headers),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_CARPARK_LIST_NEXT_PAGE):
+      if (action.meta.cursor !== state.nextCursor) {
+        // The page followed a list fetched since
+        return { ...state, loading: false };
+      }
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: getNextCursor(action.payload.headers),
       };
     case SUCCESS(ACTION_TYPES.FETCH_CARPARK):
       return {
@@ -118,6 +141,12 @@ export const getEntities: ICrudGetAllAction<ICarPark> = (page, size, sort) => ({
   payload: axios.get<ICarPark>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextEntities = (cursor: number) => ({
+  type: ACTION_TYPES.FETCH_CARPARK_LIST_NEXT_PAGE,
+  payload: axios.get<ICarPark>(`${apiUrl}?cursor=${cursor}&cacheBuster=${new Date().getTime()}`),
+  meta: { cursor },
+});
+
 export const getEntity: ICrudGetAction<ICarPark> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
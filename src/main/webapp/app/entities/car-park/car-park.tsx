@@ -5,8 +5,9 @@ import { Button, InputGroup, Col, Row, Table } from 'reactstrap';
 import { AvForm, AvGroup, AvInput } from 'availity-reactstrap-validation';
 import { Translate, translate, ICrudSearchAction } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
+import InfiniteScroll from 'react-infinite-scroller';
 import { IRootState } from 'app/shared/reducers';
-import { getSearchEntities, getEntities } from './car-park.reducer';
+import { getSearchEntities, getEntities, getNextEntities } from './car-park.reducer';
 import { ICarPark } from 'app/shared/model/car-park.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -36,6 +37,12 @@ export const CarPark = (props: ICarParkProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextEntities(props.nextCursor);
+    }
+  };
+
   const { carParkList, match, loading } = props;
   return (
     <div>
@@ -78,61 +85,70 @@ export const CarPark = (props: ICarParkProps) => {
       </Row>
       <div className="table-responsive">
         {carParkList && carParkList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="smartParkingApp.carPark.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.carPark.name">Name</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.carPark.owner">Owner</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.carPark.address">Address</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {carParkList.map((carPark, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${carPark.id}`} color="link" size="sm">
-                      {carPark.id}
-                    </Button>
-                  </td>
-                  <td>{carPark.name}</td>
-                  <td>{carPark.owner}</td>
-                  <td>{carPark.address ? <Link to={`address/${carPark.address.id}`}>{carPark.address.id}</Link> : ''}</td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${carPark.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${carPark.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${carPark.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="smartParkingApp.carPark.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.carPark.name">Name</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.carPark.owner">Owner</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.carPark.address">Address</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {carParkList.map((carPark, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${carPark.id}`} color="link" size="sm">
+                        {carPark.id}
+                      </Button>
+                    </td>
+                    <td>{carPark.name}</td>
+                    <td>{carPark.owner}</td>
+                    <td>{carPark.address ? <Link to={`address/${carPark.address.id}`}>{carPark.address.id}</Link> : ''}</td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${carPark.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${carPark.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${carPark.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -148,11 +164,13 @@ export const CarPark = (props: ICarParkProps) => {
 const mapStateToProps = ({ carPark }: IRootState) => ({
   carParkList: carPark.entities,
   loading: carPark.loading,
+  nextCursor: carPark.nextCursor,
 });
 
 const mapDispatchToProps = {
   getSearchEntities,
   getEntities,
+  getNextEntities,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
@@ -8,7 +8,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { ICarPark } from 'app/shared/model/car-park.model';
-import { getEntities as getCarParks } from 'app/entities/car-park/car-park.reducer';
+import { getEntities as getCarParks, getNextEntities as getNextCarParks } from 'app/entities/car-park/car-park.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './open-hours.reducer';
 import { IOpenHours } from 'app/shared/model/open-hours.model';
 import { convertDateTimeFromServer, convertDateTimeToServer, displayDefaultDateTime } from 'app/shared/util/date-utils';
@@ -35,6 +35,13 @@ export const OpenHoursUpdate = (props: IOpenHoursUpdateProps) => {
     props.getCarParks();
   }, []);
 
+  useEffect(() => {
+    // The select lists every car park, page after page
+    if (props.carParksNextCursor) {
+      props.getNextCarParks(props.carParksNextCursor);
+    }
+  }, [props.carParksNextCursor]);
+
   useEffect(() => {
     if (props.updateSuccess) {
       handleClose();
@@ -142,6 +149,7 @@ export const OpenHoursUpdate = (props: IOpenHoursUpdateProps) => {
 
 const mapStateToProps = (storeState: IRootState) => ({
   carParks: storeState.carPark.entities,
+  carParksNextCursor: storeState.carPark.nextCursor,
   openHoursEntity: storeState.openHours.entity,
   loading: storeState.openHours.loading,
   updating: storeState.openHours.updating,
@@ -150,6 +158,7 @@ const mapStateToProps = (storeState: IRootState) => ({
 
 const mapDispatchToProps = {
   getCarParks,
+  getNextCarParks,
   getEntity,
   updateEntity,
   createEntity,
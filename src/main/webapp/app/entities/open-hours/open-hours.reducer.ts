@@ -2,6 +2,7 @@ import axios from 'axios';
 import { ICrudSearchAction, ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getNextCursor } from 'app/shared/util/cursor-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IOpenHours, defaultValue } from 'app/shared/model/open-hours.model';
@@ -9,6 +10,7 @@ import { IOpenHours, defaultValue } from 'app/shared/model/open-hours.model';
 export const ACTION_TYPES = {
   SEARCH_OPENHOURS: 'openHours/SEARCH_OPENHOURS',
   FETCH_OPENHOURS_LIST: 'openHours/FETCH_OPENHOURS_LIST',
+  FETCH_OPENHOURS_LIST_NEXT_PAGE: 'openHours/FETCH_OPENHOURS_LIST_NEXT_PAGE',
   FETCH_OPENHOURS: 'openHours/FETCH_OPENHOURS',
   CREATE_OPENHOURS: 'openHours/CREATE_OPENHOURS',
   UPDATE_OPENHOURS: 'openHours/UPDATE_OPENHOURS',
@@ -22,6 +24,7 @@ const initialState = {
   errorMessage: null,
   entities: [] as ReadonlyArray<IOpenHours>,
   entity: defaultValue,
+  nextCursor: null as number,
   updating: false,
   updateSuccess: false,
 };
@@ -34,6 +37,7 @@ export default (state: OpenHoursState = initialState, action): OpenHoursState =>
   switch (action.type) {
     case REQUEST(ACTION_TYPES.SEARCH_OPENHOURS):
     case REQUEST(ACTION_TYPES.FETCH_OPENHOURS_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_OPENHOURS_LIST_NEXT_PAGE):
     case REQUEST(ACTION_TYPES.FETCH_OPENHOURS):
       return {
         ...state,
@@ -53,6 +57,7 @@ export default (state: OpenHoursState = initialState, action): OpenHoursState =>
       };
     case FAILURE(ACTION_TYPES.SEARCH_OPENHOURS):
     case FAILURE(ACTION_TYPES.FETCH_OPENHOURS_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_OPENHOURS_LIST_NEXT_PAGE):
     case FAILURE(ACTION_TYPES.FETCH_OPENHOURS):
     case FAILURE(ACTION_TYPES.CREATE_OPENHOURS):
     case FAILURE(ACTION_TYPES.UPDATE_OPENHOURS):
@@ -66,11 +71,29 @@ export default (state: OpenHoursState = initialState, action): OpenHoursState =>
         errorMessage: action.payload,
       };
     case SUCCESS(ACTION_TYPES.SEARCH_OPENHOURS):
+      return {
+        ...state,
+        loading: false,
+        entities: action.payload.data,
+        nextCursor: null,
+      };
     case SUCCESS(ACTION_TYPES.FETCH_OPENHOURS_LIST):
       return {
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: getNextCursor(action.payload.headers),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_OPENHOURS_LIST_NEXT_PAGE):
+      if (action.meta.cursor !== state.nextCursor) {
+        // The page followed a list fetched since
+        return { ...state, loading: false };
+      }
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: getNextCursor(action.payload.headers),
       };
     case SUCCESS(ACTION_TYPES.FETCH_OPENHOURS):
       return {
@@ -118,6 +141,12 @@ export const getEntities: ICrudGetAllAction<IOpenHours> = (page, size, sort) =>
   payload: axios.get<IOpenHours>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextEntities = (cursor: number) => ({
+  type: ACTION_TYPES.FETCH_OPENHOURS_LIST_NEXT_PAGE,
+  payload: axios.get<IOpenHours>(`${apiUrl}?cursor=${cursor}&cacheBuster=${new Date().getTime()}`),
+  meta: { cursor },
+});
+
 export const getEntity: ICrudGetAction<IOpenHours> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
@@ -5,9 +5,10 @@ import { Button, InputGroup, Col, Row, Table } from 'reactstrap';
 import { AvForm, AvGroup, AvInput } from 'availity-reactstrap-validation';
 import { Translate, translate, ICrudSearchAction, TextFormat } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
+import InfiniteScroll from 'react-infinite-scroller';
 
 import { IRootState } from 'app/shared/reducers';
-import { getSearchEntities, getEntities } from './open-hours.reducer';
+import { getSearchEntities, getEntities, getNextEntities } from './open-hours.reducer';
 import { IOpenHours } from 'app/shared/model/open-hours.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -37,6 +38,12 @@ export const OpenHours = (props: IOpenHoursProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextEntities(props.nextCursor);
+    }
+  };
+
   const { openHoursList, match, loading } = props;
   return (
     <div>
@@ -79,69 +86,78 @@ export const OpenHours = (props: IOpenHoursProps) => {
       </Row>
       <div className="table-responsive">
         {openHoursList && openHoursList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="smartParkingApp.openHours.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.openHours.weekday">Weekday</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.openHours.openingHour">Opening Hour</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.openHours.closingHour">Closing Hour</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.openHours.date">Date</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.openHours.carPark">Car Park</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {openHoursList.map((openHours, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${openHours.id}`} color="link" size="sm">
-                      {openHours.id}
-                    </Button>
-                  </td>
-                  <td>{openHours.weekday}</td>
-                  <td>{openHours.openingHour}</td>
-                  <td>{openHours.closingHour}</td>
-                  <td>{openHours.date ? <TextFormat type="date" value={openHours.date} format={APP_LOCAL_DATE_FORMAT} /> : null}</td>
-                  <td>{openHours.carPark ? <Link to={`car-park/${openHours.carPark.id}`}>{openHours.carPark.id}</Link> : ''}</td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${openHours.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${openHours.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${openHours.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="smartParkingApp.openHours.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.openHours.weekday">Weekday</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.openHours.openingHour">Opening Hour</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.openHours.closingHour">Closing Hour</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.openHours.date">Date</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.openHours.carPark">Car Park</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {openHoursList.map((openHours, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${openHours.id}`} color="link" size="sm">
+                        {openHours.id}
+                      </Button>
+                    </td>
+                    <td>{openHours.weekday}</td>
+                    <td>{openHours.openingHour}</td>
+                    <td>{openHours.closingHour}</td>
+                    <td>{openHours.date ? <TextFormat type="date" value={openHours.date} format={APP_LOCAL_DATE_FORMAT} /> : null}</td>
+                    <td>{openHours.carPark ? <Link to={`car-park/${openHours.carPark.id}`}>{openHours.carPark.id}</Link> : ''}</td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${openHours.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${openHours.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${openHours.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -157,11 +173,13 @@ export const OpenHours = (props: IOpenHoursProps) => {
 const mapStateToProps = ({ openHours }: IRootState) => ({
   openHoursList: openHours.entities,
   loading: openHours.loading,
+  nextCursor: openHours.nextCursor,
 });
 
 const mapDispatchToProps = {
   getSearchEntities,
   getEntities,
+  getNextEntities,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
@@ -8,7 +8,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { ICarPark } from 'app/shared/model/car-park.model';
-import { getEntities as getCarParks } from 'app/entities/car-park/car-park.reducer';
+import { getEntities as getCarParks, getNextEntities as getNextCarParks } from 'app/entities/car-park/car-park.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './parking-spot.reducer';
 import { IParkingSpot } from 'app/shared/model/parking-spot.model';
 import { convertDateTimeFromServer, convertDateTimeToServer, displayDefaultDateTime } from 'app/shared/util/date-utils';
@@ -35,6 +35,13 @@ export const ParkingSpotUpdate = (props: IParkingSpotUpdateProps) => {
     props.getCarParks();
   }, []);
 
+  useEffect(() => {
+    // The select lists every car park, page after page
+    if (props.carParksNextCursor) {
+      props.getNextCarParks(props.carParksNextCursor);
+    }
+  }, [props.carParksNextCursor]);
+
   useEffect(() => {
     if (props.updateSuccess) {
       handleClose();
@@ -92,12 +99,20 @@ export const ParkingSpotUpdate = (props: IParkingSpotUpdateProps) => {
                   <Translate contentKey="smartParkingApp.parkingSpot.accessableParking">Accessable Parking</Translate>
                 </Label>
               </AvGroup>
-              <AvGroup check>
-                <Label id="availableLabel">
-                  <AvInput id="parking-spot-available" data-cy="available" type="checkbox" className="form-check-input" name="available" />
-                  <Translate contentKey="smartParkingApp.parkingSpot.available">Available</Translate>
-                </Label>
-              </AvGroup>
+              {isNew ? (
+                <AvGroup check>
+                  <Label id="availableLabel">
+                    <AvInput
+                      id="parking-spot-available"
+                      data-cy="available"
+                      type="checkbox"
+                      className="form-check-input"
+                      name="available"
+                    />
+                    <Translate contentKey="smartParkingApp.parkingSpot.available">Available</Translate>
+                  </Label>
+                </AvGroup>
+              ) : null}
               <AvGroup>
                 <Label id="floorLabel" for="parking-spot-floor">
                   <Translate contentKey="smartParkingApp.parkingSpot.floor">Floor</Translate>
@@ -142,6 +157,7 @@ export const ParkingSpotUpdate = (props: IParkingSpotUpdateProps) => {
 
 const mapStateToProps = (storeState: IRootState) => ({
   carParks: storeState.carPark.entities,
+  carParksNextCursor: storeState.carPark.nextCursor,
   parkingSpotEntity: storeState.parkingSpot.entity,
   loading: storeState.parkingSpot.loading,
   updating: storeState.parkingSpot.updating,
@@ -150,6 +166,7 @@ const mapStateToProps = (storeState: IRootState) => ({
 
 const mapDispatchToProps = {
   getCarParks,
+  getNextCarParks,
   getEntity,
   updateEntity,
   createEntity,
@@ -2,6 +2,7 @@ import axios from 'axios';
 import { ICrudSearchAction, ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getNextCursor } from 'app/shared/util/cursor-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IParkingSpot, defaultValue } from 'app/shared/model/parking-spot.model';
@@ -9,6 +10,7 @@ import { IParkingSpot, defaultValue } from 'app/shared/model/parking-spot.model'
 export const ACTION_TYPES = {
   SEARCH_PARKINGSPOTS: 'parkingSpot/SEARCH_PARKINGSPOTS',
   FETCH_PARKINGSPOT_LIST: 'parkingSpot/FETCH_PARKINGSPOT_LIST',
+  FETCH_PARKINGSPOT_LIST_NEXT_PAGE: 'parkingSpot/FETCH_PARKINGSPOT_LIST_NEXT_PAGE',
   FETCH_PARKINGSPOT: 'parkingSpot/FETCH_PARKINGSPOT',
   CREATE_PARKINGSPOT: 'parkingSpot/CREATE_PARKINGSPOT',
   UPDATE_PARKINGSPOT: 'parkingSpot/UPDATE_PARKINGSPOT',
@@ -22,6 +24,7 @@ const initialState = {
   errorMessage: null,
   entities: [] as ReadonlyArray<IParkingSpot>,
   entity: defaultValue,
+  nextCursor: null as number,
   updating: false,
   updateSuccess: false,
 };
@@ -34,6 +37,7 @@ export default (state: ParkingSpotState = initialState, action): ParkingSpotStat
   switch (action.type) {
     case REQUEST(ACTION_TYPES.SEARCH_PARKINGSPOTS):
     case REQUEST(ACTION_TYPES.FETCH_PARKINGSPOT_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_PARKINGSPOT_LIST_NEXT_PAGE):
     case REQUEST(ACTION_TYPES.FETCH_PARKINGSPOT):
       return {
         ...state,
@@ -53,6 +57,7 @@ export default (state: ParkingSpotState = initialState, action): ParkingSpotStat
       };
     case FAILURE(ACTION_TYPES.SEARCH_PARKINGSPOTS):
     case FAILURE(ACTION_TYPES.FETCH_PARKINGSPOT_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_PARKINGSPOT_LIST_NEXT_PAGE):
     case FAILURE(ACTION_TYPES.FETCH_PARKINGSPOT):
     case FAILURE(ACTION_TYPES.CREATE_PARKINGSPOT):
     case FAILURE(ACTION_TYPES.UPDATE_PARKINGSPOT):
@@ -66,11 +71,29 @@ export default (state: ParkingSpotState = initialState, action): ParkingSpotStat
         errorMessage: action.payload,
       };
     case SUCCESS(ACTION_TYPES.SEARCH_PARKINGSPOTS):
+      return {
+        ...state,
+        loading: false,
+        entities: action.payload.data,
+        nextCursor: null,
+      };
     case SUCCESS(ACTION_TYPES.FETCH_PARKINGSPOT_LIST):
       return {
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: getNextCursor(action.payload.headers),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_PARKINGSPOT_LIST_NEXT_PAGE):
+      if (action.meta.cursor !== state.nextCursor) {
+        // The page followed a list fetched since
+        return { ...state, loading: false };
+      }
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: getNextCursor(action.payload.headers),
       };
     case SUCCESS(ACTION_TYPES.FETCH_PARKINGSPOT):
       return {
@@ -118,6 +141,12 @@ export const getEntities: ICrudGetAllAction<IParkingSpot> = (page, size, sort) =
   payload: axios.get<IParkingSpot>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextEntities = (cursor: number) => ({
+  type: ACTION_TYPES.FETCH_PARKINGSPOT_LIST_NEXT_PAGE,
+  payload: axios.get<IParkingSpot>(`${apiUrl}?cursor=${cursor}&cacheBuster=${new Date().getTime()}`),
+  meta: { cursor },
+});
+
 export const getEntity: ICrudGetAction<IParkingSpot> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
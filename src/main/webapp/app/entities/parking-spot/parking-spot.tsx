@@ -5,8 +5,9 @@ import { Button, InputGroup, Col, Row, Table } from 'reactstrap';
 import { AvForm, AvGroup, AvInput } from 'availity-reactstrap-validation';
 import { Translate, translate, ICrudSearchAction } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
+import InfiniteScroll from 'react-infinite-scroller';
 import { IRootState } from 'app/shared/reducers';
-import { getSearchEntities, getEntities } from './parking-spot.reducer';
+import { getSearchEntities, getEntities, getNextEntities } from './parking-spot.reducer';
 import { IParkingSpot } from 'app/shared/model/parking-spot.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -36,6 +37,12 @@ export const ParkingSpot = (props: IParkingSpotProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextEntities(props.nextCursor);
+    }
+  };
+
   const { parkingSpotList, match, loading } = props;
   return (
     <div>
@@ -78,65 +85,80 @@ export const ParkingSpot = (props: IParkingSpotProps) => {
       </Row>
       <div className="table-responsive">
         {parkingSpotList && parkingSpotList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="smartParkingApp.parkingSpot.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.parkingSpot.accessableParking">Accessable Parking</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.parkingSpot.available">Available</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.parkingSpot.floor">Floor</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.parkingSpot.carPark">Car Park</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {parkingSpotList.map((parkingSpot, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${parkingSpot.id}`} color="link" size="sm">
-                      {parkingSpot.id}
-                    </Button>
-                  </td>
-                  <td>{parkingSpot.accessableParking ? 'yes' : 'no'}</td>
-                  <td>{parkingSpot.available ? 'true' : 'false'}</td>
-                  <td>{parkingSpot.floor}</td>
-                  <td>{parkingSpot.carPark ? <Link to={`car-park/${parkingSpot.carPark.id}`}>{parkingSpot.carPark.id}</Link> : ''}</td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${parkingSpot.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${parkingSpot.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${parkingSpot.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="smartParkingApp.parkingSpot.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.parkingSpot.accessableParking">Accessable Parking</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.parkingSpot.available">Available</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.parkingSpot.floor">Floor</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.parkingSpot.carPark">Car Park</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {parkingSpotList.map((parkingSpot, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${parkingSpot.id}`} color="link" size="sm">
+                        {parkingSpot.id}
+                      </Button>
+                    </td>
+                    <td>{parkingSpot.accessableParking ? 'yes' : 'no'}</td>
+                    <td>{parkingSpot.available ? 'true' : 'false'}</td>
+                    <td>{parkingSpot.floor}</td>
+                    <td>{parkingSpot.carPark ? <Link to={`car-park/${parkingSpot.carPark.id}`}>{parkingSpot.carPark.id}</Link> : ''}</td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${parkingSpot.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${parkingSpot.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button
+                          tag={Link}
+                          to={`${match.url}/${parkingSpot.id}/delete`}
+                          color="danger"
+                          size="sm"
+                          data-cy="entityDeleteButton"
+                        >
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -152,11 +174,13 @@ export const ParkingSpot = (props: IParkingSpotProps) => {
 const mapStateToProps = ({ parkingSpot }: IRootState) => ({
   parkingSpotList: parkingSpot.entities,
   loading: parkingSpot.loading,
+  nextCursor: parkingSpot.nextCursor,
 });
 
 const mapDispatchToProps = {
   getSearchEntities,
   getEntities,
+  getNextEntities,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
@@ -10,6 +10,7 @@ import reducer, {
   createEntity,
   deleteEntity,
   getEntities,
+  getNextEntities,
   getSearchEntities,
   getEntity,
   updateEntity,
@@ -146,6 +147,42 @@ describe('Entities reducer tests', () => {
         entities: payload.data,
       });
     });
+    it('should append the next page of entities', () => {
+      const payload = { data: [{ 2: 'fake2' }], headers: { link: '<http://localhost/api/user-extras?cursor=2&size=1>; rel="next"' } };
+      expect(
+        reducer(
+          { ...initialState, entities: [{ 1: 'fake1' }], nextCursor: 1 },
+          {
+            type: SUCCESS(ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE),
+            payload,
+            meta: { cursor: 1 },
+          }
+        )
+      ).toEqual({
+        ...initialState,
+        loading: false,
+        entities: [{ 1: 'fake1' }, { 2: 'fake2' }],
+        nextCursor: 2,
+      });
+    });
+    it('should drop a next page of an outdated list', () => {
+      const payload = { data: [{ 3: 'fake3' }] };
+      expect(
+        reducer(
+          { ...initialState, entities: [{ 1: 'fake1' }], nextCursor: 1 },
+          {
+            type: SUCCESS(ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE),
+            payload,
+            meta: { cursor: 2 },
+          }
+        )
+      ).toEqual({
+        ...initialState,
+        loading: false,
+        entities: [{ 1: 'fake1' }],
+        nextCursor: 1,
+      });
+    });
     it('should search all entities', () => {
       const payload = { data: [{ 1: 'fake1' }, { 2: 'fake2' }] };
       expect(
@@ -228,6 +265,20 @@ describe('Entities reducer tests', () => {
       ];
       await store.dispatch(getEntities()).then(() => expect(store.getActions()).toEqual(expectedActions));
     });
+    it('dispatches ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE actions', async () => {
+      const expectedActions = [
+        {
+          type: REQUEST(ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE),
+          meta: { cursor: 42 },
+        },
+        {
+          type: SUCCESS(ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE),
+          payload: resolvedObject,
+          meta: { cursor: 42 },
+        },
+      ];
+      await store.dispatch(getNextEntities(42)).then(() => expect(store.getActions()).toEqual(expectedActions));
+    });
     it('dispatches ACTION_TYPES.SEARCH_USEREXTRAS actions', async () => {
       const expectedActions = [
         {
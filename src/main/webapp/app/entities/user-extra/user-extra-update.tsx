@@ -8,7 +8,7 @@ import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
 import { IRootState } from 'app/shared/reducers';
 
 import { IParkingSpot } from 'app/shared/model/parking-spot.model';
-import { getEntities as getParkingSpots } from 'app/entities/parking-spot/parking-spot.reducer';
+import { getEntities as getParkingSpots, getNextEntities as getNextParkingSpots } from 'app/entities/parking-spot/parking-spot.reducer';
 import { IUser } from 'app/shared/model/user.model';
 import { getUsers } from 'app/modules/administration/user-management/user-management.reducer';
 import { getEntity, updateEntity, createEntity, reset } from './user-extra.reducer';
@@ -38,6 +38,13 @@ export const UserExtraUpdate = (props: IUserExtraUpdateProps) => {
     props.getUsers();
   }, []);
 
+  useEffect(() => {
+    // The select lists every parking spot, page after page
+    if (props.parkingSpotsNextCursor) {
+      props.getNextParkingSpots(props.parkingSpotsNextCursor);
+    }
+  }, [props.parkingSpotsNextCursor]);
+
   useEffect(() => {
     if (props.updateSuccess) {
       handleClose();
@@ -159,6 +166,7 @@ export const UserExtraUpdate = (props: IUserExtraUpdateProps) => {
 
 const mapStateToProps = (storeState: IRootState) => ({
   parkingSpots: storeState.parkingSpot.entities,
+  parkingSpotsNextCursor: storeState.parkingSpot.nextCursor,
   users: storeState.userManagement.users,
   userExtraEntity: storeState.userExtra.entity,
   loading: storeState.userExtra.loading,
@@ -168,6 +176,7 @@ const mapStateToProps = (storeState: IRootState) => ({
 
 const mapDispatchToProps = {
   getParkingSpots,
+  getNextParkingSpots,
   getUsers,
   getEntity,
   updateEntity,
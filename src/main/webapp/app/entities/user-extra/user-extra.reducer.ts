@@ -2,6 +2,7 @@ import axios from 'axios';
 import { ICrudSearchAction, ICrudGetAction, ICrudGetAllAction, ICrudPutAction, ICrudDeleteAction } from 'react-jhipster';
 
 import { cleanEntity } from 'app/shared/util/entity-utils';
+import { getNextCursor } from 'app/shared/util/cursor-utils';
 import { REQUEST, SUCCESS, FAILURE } from 'app/shared/reducers/action-type.util';
 
 import { IUserExtra, defaultValue } from 'app/shared/model/user-extra.model';
@@ -9,6 +10,7 @@ import { IUserExtra, defaultValue } from 'app/shared/model/user-extra.model';
 export const ACTION_TYPES = {
   SEARCH_USEREXTRAS: 'userExtra/SEARCH_USEREXTRAS',
   FETCH_USEREXTRA_LIST: 'userExtra/FETCH_USEREXTRA_LIST',
+  FETCH_USEREXTRA_LIST_NEXT_PAGE: 'userExtra/FETCH_USEREXTRA_LIST_NEXT_PAGE',
   FETCH_USEREXTRA: 'userExtra/FETCH_USEREXTRA',
   CREATE_USEREXTRA: 'userExtra/CREATE_USEREXTRA',
   UPDATE_USEREXTRA: 'userExtra/UPDATE_USEREXTRA',
@@ -22,6 +24,7 @@ const initialState = {
   errorMessage: null,
   entities: [] as ReadonlyArray<IUserExtra>,
   entity: defaultValue,
+  nextCursor: null as number,
   updating: false,
   updateSuccess: false,
 };
@@ -34,6 +37,7 @@ export default (state: UserExtraState = initialState, action): UserExtraState =>
   switch (action.type) {
     case REQUEST(ACTION_TYPES.SEARCH_USEREXTRAS):
     case REQUEST(ACTION_TYPES.FETCH_USEREXTRA_LIST):
+    case REQUEST(ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE):
     case REQUEST(ACTION_TYPES.FETCH_USEREXTRA):
       return {
         ...state,
@@ -53,6 +57,7 @@ export default (state: UserExtraState = initialState, action): UserExtraState =>
       };
     case FAILURE(ACTION_TYPES.SEARCH_USEREXTRAS):
     case FAILURE(ACTION_TYPES.FETCH_USEREXTRA_LIST):
+    case FAILURE(ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE):
     case FAILURE(ACTION_TYPES.FETCH_USEREXTRA):
     case FAILURE(ACTION_TYPES.CREATE_USEREXTRA):
     case FAILURE(ACTION_TYPES.UPDATE_USEREXTRA):
@@ -66,11 +71,29 @@ export default (state: UserExtraState = initialState, action): UserExtraState =>
         errorMessage: action.payload,
       };
     case SUCCESS(ACTION_TYPES.SEARCH_USEREXTRAS):
+      return {
+        ...state,
+        loading: false,
+        entities: action.payload.data,
+        nextCursor: null,
+      };
     case SUCCESS(ACTION_TYPES.FETCH_USEREXTRA_LIST):
       return {
         ...state,
         loading: false,
         entities: action.payload.data,
+        nextCursor: getNextCursor(action.payload.headers),
+      };
+    case SUCCESS(ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE):
+      if (action.meta.cursor !== state.nextCursor) {
+        // The page followed a list fetched since
+        return { ...state, loading: false };
+      }
+      return {
+        ...state,
+        loading: false,
+        entities: [...state.entities, ...action.payload.data],
+        nextCursor: getNextCursor(action.payload.headers),
       };
     case SUCCESS(ACTION_TYPES.FETCH_USEREXTRA):
       return {
@@ -118,6 +141,12 @@ export const getEntities: ICrudGetAllAction<IUserExtra> = (page, size, sort) =>
   payload: axios.get<IUserExtra>(`${apiUrl}?cacheBuster=${new Date().getTime()}`),
 });
 
+export const getNextEntities = (cursor: number) => ({
+  type: ACTION_TYPES.FETCH_USEREXTRA_LIST_NEXT_PAGE,
+  payload: axios.get<IUserExtra>(`${apiUrl}?cursor=${cursor}&cacheBuster=${new Date().getTime()}`),
+  meta: { cursor },
+});
+
 export const getEntity: ICrudGetAction<IUserExtra> = id => {
   const requestUrl = `${apiUrl}/${id}`;
   return {
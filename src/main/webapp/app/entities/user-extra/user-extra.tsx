@@ -5,9 +5,10 @@ import { Button, InputGroup, Col, Row, Table } from 'reactstrap';
 import { AvForm, AvGroup, AvInput } from 'availity-reactstrap-validation';
 import { Translate, translate, ICrudSearchAction, TextFormat } from 'react-jhipster';
 import { FontAwesomeIcon } from '@fortawesome/react-fontawesome';
+import InfiniteScroll from 'react-infinite-scroller';
 
 import { IRootState } from 'app/shared/reducers';
-import { getSearchEntities, getEntities } from './user-extra.reducer';
+import { getSearchEntities, getEntities, getNextEntities } from './user-extra.reducer';
 import { IUserExtra } from 'app/shared/model/user-extra.model';
 import { APP_DATE_FORMAT, APP_LOCAL_DATE_FORMAT } from 'app/config/constants';
 
@@ -37,6 +38,12 @@ export const UserExtra = (props: IUserExtraProps) => {
     props.getEntities();
   };
 
+  const handleLoadMore = () => {
+    if (props.nextCursor && !props.loading) {
+      props.getNextEntities(props.nextCursor);
+    }
+  };
+
   const { userExtraList, match, loading } = props;
   return (
     <div>
@@ -79,69 +86,78 @@ export const UserExtra = (props: IUserExtraProps) => {
       </Row>
       <div className="table-responsive">
         {userExtraList && userExtraList.length > 0 ? (
-          <Table responsive>
-            <thead>
-              <tr>
-                <th>
-                  <Translate contentKey="smartParkingApp.userExtra.id">ID</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.userExtra.currentParkingSpot">Current Parking Spot</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.userExtra.timeOfParking">Time Of Parking</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.userExtra.parkingSpot">Parking Spot</Translate>
-                </th>
-                <th>
-                  <Translate contentKey="smartParkingApp.userExtra.user">User</Translate>
-                </th>
-                <th />
-              </tr>
-            </thead>
-            <tbody>
-              {userExtraList.map((userExtra, i) => (
-                <tr key={`entity-${i}`} data-cy="entityTable">
-                  <td>
-                    <Button tag={Link} to={`${match.url}/${userExtra.id}`} color="link" size="sm">
-                      {userExtra.id}
-                    </Button>
-                  </td>
-                  <td>{userExtra.currentParkingSpot}</td>
-                  <td>
-                    {userExtra.timeOfParking ? <TextFormat type="date" value={userExtra.timeOfParking} format={APP_DATE_FORMAT} /> : null}
-                  </td>
-                  <td>
-                    {userExtra.parkingSpot ? <Link to={`parking-spot/${userExtra.parkingSpot.id}`}>{userExtra.parkingSpot.id}</Link> : ''}
-                  </td>
-                  <td>{userExtra.user ? userExtra.user.id : ''}</td>
-                  <td className="text-right">
-                    <div className="btn-group flex-btn-group-container">
-                      <Button tag={Link} to={`${match.url}/${userExtra.id}`} color="info" size="sm" data-cy="entityDetailsButton">
-                        <FontAwesomeIcon icon="eye" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.view">View</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${userExtra.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
-                        <FontAwesomeIcon icon="pencil-alt" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.edit">Edit</Translate>
-                        </span>
-                      </Button>
-                      <Button tag={Link} to={`${match.url}/${userExtra.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
-                        <FontAwesomeIcon icon="trash" />{' '}
-                        <span className="d-none d-md-inline">
-                          <Translate contentKey="entity.action.delete">Delete</Translate>
-                        </span>
-                      </Button>
-                    </div>
-                  </td>
+          <InfiniteScroll
+            pageStart={0}
+            loadMore={handleLoadMore}
+            hasMore={!!props.nextCursor}
+            loader={<div className="loader">Loading ...</div>}
+            threshold={0}
+            initialLoad={false}
+          >
+            <Table responsive>
+              <thead>
+                <tr>
+                  <th>
+                    <Translate contentKey="smartParkingApp.userExtra.id">ID</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.userExtra.currentParkingSpot">Current Parking Spot</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.userExtra.timeOfParking">Time Of Parking</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.userExtra.parkingSpot">Parking Spot</Translate>
+                  </th>
+                  <th>
+                    <Translate contentKey="smartParkingApp.userExtra.user">User</Translate>
+                  </th>
+                  <th />
                 </tr>
-              ))}
-            </tbody>
-          </Table>
+              </thead>
+              <tbody>
+                {userExtraList.map((userExtra, i) => (
+                  <tr key={`entity-${i}`} data-cy="entityTable">
+                    <td>
+                      <Button tag={Link} to={`${match.url}/${userExtra.id}`} color="link" size="sm">
+                        {userExtra.id}
+                      </Button>
+                    </td>
+                    <td>{userExtra.currentParkingSpot}</td>
+                    <td>
+                      {userExtra.timeOfParking ? <TextFormat type="date" value={userExtra.timeOfParking} format={APP_DATE_FORMAT} /> : null}
+                    </td>
+                    <td>
+                      {userExtra.parkingSpot ? <Link to={`parking-spot/${userExtra.parkingSpot.id}`}>{userExtra.parkingSpot.id}</Link> : ''}
+                    </td>
+                    <td>{userExtra.user ? userExtra.user.id : ''}</td>
+                    <td className="text-right">
+                      <div className="btn-group flex-btn-group-container">
+                        <Button tag={Link} to={`${match.url}/${userExtra.id}`} color="info" size="sm" data-cy="entityDetailsButton">
+                          <FontAwesomeIcon icon="eye" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.view">View</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${userExtra.id}/edit`} color="primary" size="sm" data-cy="entityEditButton">
+                          <FontAwesomeIcon icon="pencil-alt" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.edit">Edit</Translate>
+                          </span>
+                        </Button>
+                        <Button tag={Link} to={`${match.url}/${userExtra.id}/delete`} color="danger" size="sm" data-cy="entityDeleteButton">
+                          <FontAwesomeIcon icon="trash" />{' '}
+                          <span className="d-none d-md-inline">
+                            <Translate contentKey="entity.action.delete">Delete</Translate>
+                          </span>
+                        </Button>
+                      </div>
+                    </td>
+                  </tr>
+                ))}
+              </tbody>
+            </Table>
+          </InfiniteScroll>
         ) : (
           !loading && (
             <div className="alert alert-warning">
@@ -157,11 +173,13 @@ export const UserExtra = (props: IUserExtraProps) => {
 const mapStateToProps = ({ userExtra }: IRootState) => ({
   userExtraList: userExtra.entities,
   loading: userExtra.loading,
+  nextCursor: userExtra.nextCursor,
 });
 
 const mapDispatchToProps = {
   getSearchEntities,
   getEntities,
+  getNextEntities,
 };
 
 type StateProps = ReturnType<typeof mapStateToProps>;
@@ -0,0 +1,16 @@
+import { getNextCursor } from './cursor-utils';
+
+describe('Cursor utils', () => {
+  describe('getNextCursor', () => {
+    it('should read the cursor of the next link', () => {
+      const headers = { link: '<http://localhost/api/car-parks?cursor=1042&size=100>; rel="next"' };
+
+      expect(getNextCursor(headers)).toEqual(1042);
+    });
+
+    it('should return null on the last page', () => {
+      expect(getNextCursor({})).toBeNull();
+      expect(getNextCursor(undefined)).toBeNull();
+    });
+  });
+});
@@ -0,0 +1,15 @@
+/**
+ * Gets the cursor of the next page of a cursor paginated list, from the rel="next" link of the response.
+ *
+ * @param headers The headers of the response.
+ * @returns The cursor of the next page, or null on the last page.
+ */
+export const getNextCursor = (headers): number => {
+  const link: string = headers && headers.link;
+  if (!link) {
+    return null;
+  }
+  const next = link.split(',').find(part => part.includes('rel="next"'));
+  const cursor = next && /[?&]cursor=(-?\d+)/.exec(next);
+  return cursor ? +cursor[1] : null;
+};
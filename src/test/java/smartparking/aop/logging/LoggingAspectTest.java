@@ -0,0 +1,96 @@
+package smartparking.aop.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import java.util.List;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.env.MockEnvironment;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Unit tests for {@link LoggingAspect}.
+ */
+class LoggingAspectTest {
+
+    private MeterRegistry meterRegistry;
+
+    private ApplicationProperties.Tracing properties;
+
+    @BeforeEach
+    public void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        properties = new ApplicationProperties.Tracing();
+        properties.setMaxValueLength(10);
+    }
+
+    @Test
+    void testUnsampledCallsAreTimedWithoutReadingArguments() throws Throwable {
+        properties.setSampleRate(0);
+        LoggingAspect aspect = new LoggingAspect(new MockEnvironment(), meterRegistry, properties);
+        ProceedingJoinPoint joinPoint = joinPoint();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(aspect.logAround(joinPoint)).isEqualTo(List.of(1, 2, 3));
+        }
+
+        verify(joinPoint, never()).getArgs();
+        assertThat(meterRegistry.get("method.duration").tags("class", "TestService", "method", "findAll").timer().count()).isEqualTo(3);
+    }
+
+    @Test
+    void testUnsampledIllegalArgumentsAreLoggedWithoutReadingArguments() throws Throwable {
+        properties.setSampleRate(0);
+        LoggingAspect aspect = new LoggingAspect(new MockEnvironment(), meterRegistry, properties);
+        ProceedingJoinPoint joinPoint = joinPoint();
+        when(joinPoint.proceed()).thenThrow(new IllegalArgumentException("Bad argument"));
+
+        assertThatThrownBy(() -> aspect.logAround(joinPoint)).isInstanceOf(IllegalArgumentException.class);
+
+        verify(joinPoint, never()).getArgs();
+        assertThat(meterRegistry.get("method.duration").tags("class", "TestService", "method", "findAll").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testValuesAreFormattedWithinBounds() {
+        LoggingAspect aspect = new LoggingAspect(new MockEnvironment(), meterRegistry, properties);
+
+        assertThat(aspect.formatValue(List.of(1, 2, 3))).endsWith("[size=3]");
+        assertThat(aspect.formatValue(Collections.singletonMap("a", 1))).isEqualTo("SingletonMap[size=1]");
+        assertThat(aspect.formatValue(new long[4])).isEqualTo("long[4]");
+        assertThat(aspect.formatValue(ResponseEntity.ok(List.of(1)))).startsWith("<200,").endsWith("[size=1]>");
+        assertThat(aspect.formatValue("0123456789abc")).isEqualTo("0123456789...");
+        assertThat(aspect.formatValue(null)).isEqualTo("null");
+        assertThat(aspect.formatArguments(new Object[] { 1L, "a" })).isEqualTo("[1, a]");
+    }
+
+    private ProceedingJoinPoint joinPoint() throws Throwable {
+        MethodSignature signature = mock(MethodSignature.class);
+        when(signature.getMethod()).thenReturn(TestService.class.getMethod("findAll"));
+        when(signature.getName()).thenReturn("findAll");
+        when(signature.getDeclaringType()).thenReturn(TestService.class);
+        when(signature.getDeclaringTypeName()).thenReturn(TestService.class.getName());
+        ProceedingJoinPoint joinPoint = mock(ProceedingJoinPoint.class);
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(joinPoint.proceed()).thenReturn(List.of(1, 2, 3));
+        return joinPoint;
+    }
+
+    static class TestService {
+
+        public List<Integer> findAll() {
+            return List.of(1, 2, 3);
+        }
+    }
+}
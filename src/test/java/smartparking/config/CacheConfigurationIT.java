@@ -0,0 +1,70 @@
+package smartparking.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import org.ehcache.config.ResourcePools;
+import org.ehcache.config.ResourceType;
+import org.ehcache.config.SizedResourcePool;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import smartparking.IntegrationTest;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+
+/**
+ * Integration tests for the per region settings of {@link CacheConfiguration}.
+ */
+@IntegrationTest
+class CacheConfigurationIT {
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    void testConfiguredRegionHasOffHeapTier() {
+        ResourcePools resourcePools = resourcePools(ParkingSpot.class.getName());
+
+        assertThat(resourcePools.<SizedResourcePool>getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(resourcePools.<SizedResourcePool>getPoolForResource(ResourceType.Core.OFFHEAP).getSize()).isEqualTo(8);
+    }
+
+    @Test
+    void testOtherRegionsUseDefaults() {
+        ResourcePools resourcePools = resourcePools(OpenHours.class.getName());
+
+        assertThat(resourcePools.<SizedResourcePool>getPoolForResource(ResourceType.Core.HEAP).getSize()).isEqualTo(100);
+        assertThat(resourcePools.getResourceTypeSet()).doesNotContain(ResourceType.Core.OFFHEAP);
+    }
+
+    @Test
+    void testRegionMetricsAreExported() {
+        String cacheName = ParkingSpot.class.getName();
+        Cache<Object, Object> cache = cacheManager.getCache(cacheName);
+        double hits = gets(cacheName, "hit");
+        double misses = gets(cacheName, "miss");
+
+        cache.put("key", "value");
+        cache.get("key");
+        cache.get("missing-key");
+
+        assertThat(gets(cacheName, "hit")).isEqualTo(hits + 1);
+        assertThat(gets(cacheName, "miss")).isEqualTo(misses + 1);
+    }
+
+    private ResourcePools resourcePools(String cacheName) {
+        return cacheManager.getCache(cacheName).unwrap(org.ehcache.Cache.class).getRuntimeConfiguration().getResourcePools();
+    }
+
+    private double gets(String cacheName, String result) {
+        FunctionCounter counter = meterRegistry.find("cache.gets").tag("cache", cacheName).tag("result", result).functionCounter();
+        assertThat(counter).isNotNull();
+        return counter.count();
+    }
+}
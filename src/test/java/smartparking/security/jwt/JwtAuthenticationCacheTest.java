@@ -0,0 +1,69 @@
+package smartparking.security.jwt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+import smartparking.security.AuthoritiesConstants;
+
+/**
+ * Unit tests for {@link JwtAuthenticationCache}.
+ */
+class JwtAuthenticationCacheTest {
+
+    private static final long NOW = 1_000_000L;
+
+    private static final List<GrantedAuthority> AUTHORITIES = Collections.singletonList(
+        new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+    );
+
+    private static final User PRINCIPAL = new User("user", "", AUTHORITIES);
+
+    @Test
+    void testEntryExpiresWithToken() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(10);
+        cache.put("token", PRINCIPAL, AUTHORITIES, NOW + 1000, NOW);
+
+        assertThat(cache.get("token", NOW + 999)).isPresent();
+        assertThat(cache.get("token", NOW + 1000)).isEmpty();
+        assertThat(cache.size()).isZero();
+    }
+
+    @Test
+    void testExpiredTokenIsNotCached() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(10);
+        cache.put("token", PRINCIPAL, AUTHORITIES, NOW, NOW);
+
+        assertThat(cache.get("token", NOW - 1)).isEmpty();
+    }
+
+    @Test
+    void testEachHitIsANewAuthentication() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(10);
+        cache.put("token", PRINCIPAL, AUTHORITIES, NOW + 1000, NOW);
+
+        Authentication first = cache.get("token", NOW).get();
+        Authentication second = cache.get("token", NOW).get();
+
+        assertThat(first).isNotSameAs(second);
+        assertThat(first.getPrincipal()).isSameAs(PRINCIPAL);
+        assertThat(first.getCredentials()).isEqualTo("token");
+        assertThat(cache.get("other-token", NOW)).isEmpty();
+    }
+
+    @Test
+    void testSizeIsBounded() {
+        JwtAuthenticationCache cache = new JwtAuthenticationCache(100);
+        for (int i = 0; i < 1000; i++) {
+            cache.put("token-" + i, PRINCIPAL, AUTHORITIES, NOW + 1000, NOW);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(100);
+        assertThat(cache.get("token-999", NOW)).isPresent();
+    }
+}
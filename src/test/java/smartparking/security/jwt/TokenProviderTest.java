@@ -83,6 +83,34 @@ class TokenProviderTest {
         assertThat(isTokenValid).isFalse();
     }
 
+    @Test
+    void testAuthenticateReturnsPrincipalAndAuthorities() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        Optional<Authentication> authentication = tokenProvider.authenticate(token);
+
+        assertThat(authentication).isPresent();
+        assertThat(authentication.get().getName()).isEqualTo("anonymous");
+        assertThat(authentication.get().getCredentials()).isEqualTo(token);
+        assertThat(authentication.get().getAuthorities())
+            .extracting(GrantedAuthority::getAuthority)
+            .containsExactly(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    @Test
+    void testVerifiedTokenIsNotParsedAgain() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+        assertThat(tokenProvider.validateToken(token)).isTrue();
+
+        // A parser which would reject every token
+        Key otherKey = Keys.secretKeyFor(SignatureAlgorithm.HS512);
+        ReflectionTestUtils.setField(tokenProvider, "jwtParser", Jwts.parserBuilder().setSigningKey(otherKey).build());
+
+        assertThat(tokenProvider.authenticate(token)).isPresent();
+        assertThat(tokenProvider.getAuthentication(token).getName()).isEqualTo("anonymous");
+        assertThat(tokenProvider.authenticate(tokenProvider.createToken(createAuthentication(), true))).isEmpty();
+    }
+
     @Test
     void testKeyIsSetFromSecretWhenSecretIsNotEmpty() {
         final String secret = "NwskoUmKHZtzGRKJKVjsJF7BtQMMxNWi";
@@ -0,0 +1,93 @@
+package smartparking.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Collections;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import smartparking.config.ApplicationProperties;
+import smartparking.security.AuthoritiesConstants;
+
+/**
+ * Unit tests for {@link RateLimitFilter}.
+ */
+class RateLimitFilterTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private RateLimitFilter rateLimitFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.RateLimit properties = new ApplicationProperties.RateLimit();
+        ApplicationProperties.RateLimit.Rule rule = new ApplicationProperties.RateLimit.Rule();
+        rule.setPattern("/api/_search/**");
+        rule.setCapacity(2);
+        rule.setRefillPerSecond(0.1);
+        properties.getRules().add(rule);
+        meterRegistry = new SimpleMeterRegistry();
+        rateLimitFilter = new RateLimitFilter(properties, meterRegistry);
+        SecurityContextHolder.getContext().setAuthentication(null);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testRejectsOverTheLimit() throws Exception {
+        assertThat(filter("/api/_search/car-parks", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter("/api/_search/car-parks", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse response = filter("/api/_search/car-parks", "10.0.0.1");
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("10");
+        assertThat(meterRegistry.counter("rate.limit.rejected", "route", "/api/_search/**").count()).isEqualTo(1);
+        assertThat(filter("/api/_search/car-parks", "10.0.0.2").getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testAuthenticatedRequestsAreLimitedPerPrincipal() throws Exception {
+        SecurityContextHolder
+            .getContext()
+            .setAuthentication(
+                new UsernamePasswordAuthenticationToken(
+                    "kiosk",
+                    "token",
+                    Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER))
+                )
+            );
+
+        filter("/api/_search/car-parks", "10.0.0.1");
+        filter("/api/_search/car-parks", "10.0.0.2");
+
+        assertThat(filter("/api/_search/car-parks", "10.0.0.3").getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+    }
+
+    @Test
+    void testOtherRoutesAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertThat(filter("/api/car-parks", "10.0.0.1").getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    private MockHttpServletResponse filter(String path, String remoteAddr) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setRemoteAddr(remoteAddr);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitFilter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
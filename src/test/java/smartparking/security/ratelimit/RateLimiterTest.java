@@ -0,0 +1,98 @@
+package smartparking.security.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Unit tests for {@link RateLimiter}.
+ */
+class RateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+
+    private ApplicationProperties.RateLimit properties;
+
+    @BeforeEach
+    public void setup() {
+        properties = new ApplicationProperties.RateLimit();
+        properties.getRules().add(rule("/api/authenticate", 3, 1));
+        properties.getRules().add(rule("/api/_search/**", 10, 10));
+    }
+
+    @Test
+    void testFirstMatchingRuleApplies() {
+        RateLimiter rateLimiter = new RateLimiter(properties);
+
+        assertThat(rateLimiter.match("/api/authenticate").getPattern()).isEqualTo("/api/authenticate");
+        assertThat(rateLimiter.match("/api/_search/car-parks").getPattern()).isEqualTo("/api/_search/**");
+        assertThat(rateLimiter.match("/api/car-parks")).isNull();
+    }
+
+    @Test
+    void testBurstThenRefill() {
+        RateLimiter rateLimiter = new RateLimiter(properties);
+        RateLimiter.Rule rule = rateLimiter.match("/api/authenticate");
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.1", now)).isZero();
+        }
+        assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.1", now)).isEqualTo(SECOND);
+        assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.2", now)).isZero();
+
+        assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.1", now + SECOND / 2)).isEqualTo(SECOND / 2);
+        assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.1", now + SECOND)).isZero();
+        assertThat(rateLimiter.tryAcquire(rule, "ip:10.0.0.1", now + SECOND)).isPositive();
+    }
+
+    @Test
+    void testRulesHaveSeparateBuckets() {
+        RateLimiter rateLimiter = new RateLimiter(properties);
+        RateLimiter.Rule authenticate = rateLimiter.match("/api/authenticate");
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 3; i++) {
+            rateLimiter.tryAcquire(authenticate, "user:admin", now);
+        }
+
+        assertThat(rateLimiter.tryAcquire(authenticate, "user:admin", now)).isPositive();
+        assertThat(rateLimiter.tryAcquire(rateLimiter.match("/api/_search/users"), "user:admin", now)).isZero();
+    }
+
+    @Test
+    void testClientsAreBounded() {
+        properties.setMaxKeys(100);
+        RateLimiter rateLimiter = new RateLimiter(properties);
+        RateLimiter.Rule rule = rateLimiter.match("/api/authenticate");
+        long now = System.nanoTime();
+
+        for (int i = 0; i < 1000; i++) {
+            rateLimiter.tryAcquire(rule, "ip:" + i, now);
+        }
+        assertThat(rateLimiter.size()).isLessThanOrEqualTo(101);
+
+        // Buckets are full again after a second, and can be dropped
+        rateLimiter.sweep(now + SECOND);
+        assertThat(rateLimiter.size()).isZero();
+    }
+
+    @Test
+    void testInvalidRule() {
+        properties.getRules().add(rule("/api/**", 10, 0));
+
+        assertThatThrownBy(() -> new RateLimiter(properties)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static ApplicationProperties.RateLimit.Rule rule(String pattern, int capacity, double refillPerSecond) {
+        ApplicationProperties.RateLimit.Rule rule = new ApplicationProperties.RateLimit.Rule();
+        rule.setPattern(pattern);
+        rule.setCapacity(capacity);
+        rule.setRefillPerSecond(refillPerSecond);
+        return rule;
+    }
+}
@@ -0,0 +1,138 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.assertj.core.api.Assertions.within;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import smartparking.config.ApplicationProperties;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.OpenHoursRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.NearbyCarParkDTO;
+
+/**
+ * Unit tests for {@link CarParkLocationIndex}.
+ */
+class CarParkLocationIndexTest {
+
+    private static final double LATITUDE = 59.3293;
+    private static final double LONGITUDE = 18.0686;
+
+    private static final ZonedDateTime NOW = ZonedDateTime.parse("2026-10-19T12:00:00Z");
+
+    private ParkingSpotOccupancyIndex occupancyIndex;
+
+    private OpenHoursScheduleService openHoursScheduleService;
+
+    private CarParkLocationIndex index;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties occupancyProperties = new ApplicationProperties();
+        occupancyIndex =
+            new ParkingSpotOccupancyIndex(
+                mock(ParkingSpotRepository.class),
+                mock(ApplicationEventPublisher.class),
+                new ParkingSpotEventLog(occupancyProperties),
+                occupancyProperties
+            );
+        openHoursScheduleService = mock(OpenHoursScheduleService.class);
+        when(openHoursScheduleService.isOpenOrUnscheduledAt(anyLong(), any())).thenReturn(true);
+        index =
+            new CarParkLocationIndex(mock(CarParkRepository.class), occupancyIndex, openHoursScheduleService, new ApplicationProperties());
+    }
+
+    @Test
+    void testNearestFirst() {
+        addCarPark(1L, LATITUDE + 0.02, LONGITUDE, 1);
+        addCarPark(2L, LATITUDE, LONGITUDE + 0.005, 1);
+        addCarPark(3L, LATITUDE - 0.001, LONGITUDE, 1);
+        addCarPark(4L, LATITUDE + 0.3, LONGITUDE, 1);
+
+        List<NearbyCarParkDTO> nearest = index.findNearest(LATITUDE, LONGITUDE, 3, 1, 50000, NOW);
+
+        assertThat(nearest).extracting(NearbyCarParkDTO::getCarParkId).containsExactly(3L, 2L, 1L);
+        assertThat(nearest.get(0).getDistance()).isCloseTo(111.2, within(0.5));
+    }
+
+    @Test
+    void testFiltersFullAndClosedCarParks() {
+        addCarPark(1L, LATITUDE, LONGITUDE + 0.001, 0);
+        addCarPark(2L, LATITUDE, LONGITUDE + 0.002, 1);
+        addCarPark(3L, LATITUDE, LONGITUDE + 0.003, 3);
+        when(openHoursScheduleService.isOpenOrUnscheduledAt(eq(2L), any())).thenReturn(false);
+
+        assertThat(index.findNearest(LATITUDE, LONGITUDE, 5, 1, 5000, NOW))
+            .extracting(NearbyCarParkDTO::getCarParkId, NearbyCarParkDTO::getFreeSpots)
+            .containsExactly(tuple(3L, 3));
+    }
+
+    @Test
+    void testMaxDistance() {
+        addCarPark(1L, LATITUDE + 0.1, LONGITUDE, 1);
+
+        assertThat(index.findNearest(LATITUDE, LONGITUDE, 5, 1, 5000, NOW)).isEmpty();
+        assertThat(index.findNearest(LATITUDE, LONGITUDE, 5, 1, 20000, NOW)).hasSize(1);
+    }
+
+    @Test
+    void testMovedAndRemovedCarParks() {
+        addCarPark(1L, LATITUDE + 1, LONGITUDE, 1);
+
+        index.apply(1L, LATITUDE, LONGITUDE);
+        assertThat(index.findNearest(LATITUDE, LONGITUDE, 5, 1, 1000, NOW)).hasSize(1);
+
+        index.apply(1L, null, null);
+        assertThat(index.findNearest(LATITUDE, LONGITUDE, 5, 1, 1000, NOW)).isEmpty();
+    }
+
+    @Test
+    void testCarParkWithoutOpenHoursIsOpen() {
+        index =
+            new CarParkLocationIndex(
+                mock(CarParkRepository.class),
+                occupancyIndex,
+                new OpenHoursScheduleService(mock(OpenHoursRepository.class), new ApplicationProperties()),
+                new ApplicationProperties()
+            );
+        addCarPark(1L, LATITUDE, LONGITUDE, 1);
+
+        assertThat(index.findNearest(LATITUDE, LONGITUDE, 10, 1, 5000, NOW))
+            .extracting(NearbyCarParkDTO::getCarParkId)
+            .containsExactly(1L);
+    }
+
+    @Test
+    void testNearestAcrossTheAntimeridian() {
+        addCarPark(1L, -17.8, 179.995, 1);
+        addCarPark(2L, -17.8, -179.995, 1);
+        addCarPark(3L, -17.8, 179.95, 1);
+
+        assertThat(index.findNearest(-17.8, -179.999, 2, 1, 5000, NOW))
+            .extracting(NearbyCarParkDTO::getCarParkId)
+            .containsExactly(2L, 1L);
+    }
+
+    @Test
+    void testDistance() {
+        // Stockholm to Gothenburg
+        assertThat(CarParkLocationIndex.distance(59.3293, 18.0686, 57.7089, 11.9746)).isCloseTo(397_600, within(1000.0));
+    }
+
+    private void addCarPark(Long carParkId, double latitude, double longitude, int freeSpots) {
+        index.apply(carParkId, latitude, longitude);
+        for (int i = 0; i < Math.max(freeSpots, 1); i++) {
+            occupancyIndex.apply(carParkId * 100 + i, carParkId, null, i < freeSpots, false);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.CarParkSummaryDTO;
+import smartparking.service.dto.FloorAvailabilityDTO;
+
+/**
+ * Unit tests for {@link CarParkSummaryIndex}.
+ */
+class CarParkSummaryIndexTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.parse("2026-10-19T12:00:00Z");
+
+    private ParkingSpotOccupancyIndex occupancyIndex;
+
+    private OpenHoursScheduleService openHoursScheduleService;
+
+    private CarParkSummaryIndex index;
+
+    private CarParkRepository carParkRepository;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties occupancyProperties = new ApplicationProperties();
+        occupancyIndex =
+            new ParkingSpotOccupancyIndex(
+                mock(ParkingSpotRepository.class),
+                mock(ApplicationEventPublisher.class),
+                new ParkingSpotEventLog(occupancyProperties),
+                occupancyProperties
+            );
+        openHoursScheduleService = mock(OpenHoursScheduleService.class);
+        when(openHoursScheduleService.isOpenAt(anyLong(), any())).thenReturn(true);
+        carParkRepository = mock(CarParkRepository.class);
+        index = new CarParkSummaryIndex(carParkRepository, occupancyIndex, openHoursScheduleService);
+    }
+
+    @Test
+    void testSummaryFollowsSpotsAndOpenHours() {
+        index.put(1L, "Kista Galleria");
+        occupancyIndex.apply(10L, 1L, 0L, true, true);
+        occupancyIndex.apply(11L, 1L, 1L, false, false);
+        when(openHoursScheduleService.isOpenAt(eq(1L), any())).thenReturn(false);
+
+        CarParkSummaryDTO summary = index.getSummary(1L, NOW).orElseThrow();
+
+        assertThat(summary.getName()).isEqualTo("Kista Galleria");
+        assertThat(summary.getTotalSpots()).isEqualTo(2);
+        assertThat(summary.getFreeSpots()).isEqualTo(1);
+        assertThat(summary.getAccessibleFreeSpots()).isEqualTo(1);
+        assertThat(summary.getFloors())
+            .extracting(FloorAvailabilityDTO::getFloor, FloorAvailabilityDTO::getFreeSpots)
+            .containsExactly(tuple(0L, 1), tuple(1L, 0));
+        assertThat(summary.isOpen()).isFalse();
+
+        occupancyIndex.apply(11L, 1L, 1L, true, false);
+
+        assertThat(index.getSummary(1L, NOW).orElseThrow().getFreeSpots()).isEqualTo(2);
+    }
+
+    @Test
+    void testSummariesArePagedById() {
+        index.put(3L, "C");
+        index.put(1L, null);
+        index.put(2L, "B");
+
+        assertThat(index.getSummaries(Long.MIN_VALUE, 2, NOW)).extracting(CarParkSummaryDTO::getId).containsExactly(1L, 2L);
+        assertThat(index.getSummaries(2L, 2, NOW)).extracting(CarParkSummaryDTO::getId).containsExactly(3L);
+        assertThat(index.getSummary(1L, NOW)).get().extracting(CarParkSummaryDTO::getName).isNull();
+    }
+
+    @Test
+    void testRemovedCarParkHasNoSummary() {
+        index.update(new CarPark().id(1L).name("A"));
+        index.remove(1L);
+
+        assertThat(index.getSummary(1L, NOW)).isEmpty();
+        assertThat(index.getSummaries(Long.MIN_VALUE, 10, NOW)).isEmpty();
+    }
+
+    @Test
+    void testLoadSwapsInTheLoadedCarParks() {
+        index.put(9L, "Deleted meanwhile");
+        String[] nameWhileLoading = new String[1];
+        Stream<CarParkRepository.NameView> views = Stream
+            .of(nameView(1L, "A"), nameView(2L, "Stale"))
+            .peek(
+                view -> {
+                    if (view.getId() == 1L) {
+                        // Committed by this node while loading, after the database read of car park 2
+                        index.put(2L, "B");
+                        nameWhileLoading[0] = index.getSummary(9L, NOW).orElseThrow().getName();
+                    }
+                }
+            );
+        when(carParkRepository.streamAllNames()).thenReturn(views);
+
+        index.load();
+
+        assertThat(nameWhileLoading[0]).isEqualTo("Deleted meanwhile");
+        assertThat(index.getSummaries(Long.MIN_VALUE, 10, NOW))
+            .extracting(CarParkSummaryDTO::getId, CarParkSummaryDTO::getName)
+            .containsExactly(tuple(1L, "A"), tuple(2L, "B"));
+    }
+
+    private static CarParkRepository.NameView nameView(Long id, String name) {
+        CarParkRepository.NameView view = mock(CarParkRepository.NameView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getName()).thenReturn(name);
+        return view;
+    }
+}
@@ -0,0 +1,218 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.transaction.PlatformTransactionManager;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.enumeration.UtilizationGranularity;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.OpenHoursRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.CarParkUtilizationAggregator.Rollup;
+
+/**
+ * Unit tests for {@link CarParkUtilizationAggregator}.
+ */
+class CarParkUtilizationAggregatorTest {
+
+    private static final long CAR_PARK_ID = 1L;
+
+    private static final long T0 = Instant.parse("2026-01-01T10:00:00Z").toEpochMilli();
+
+    private static final long MINUTE = 60_000;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private DataSource dataSource;
+
+    private CarParkUtilizationAggregator aggregator;
+
+    @BeforeEach
+    public void setup() {
+        parkingSpotOccupancyIndex = mock(ParkingSpotOccupancyIndex.class);
+        when(parkingSpotOccupancyIndex.getCarParkIds()).thenReturn(Collections.emptySet());
+        jdbcTemplate = mock(JdbcTemplate.class);
+        dataSource = mock(DataSource.class);
+        aggregator = newAggregator(new ApplicationProperties());
+    }
+
+    @Test
+    void testOccupancyIsIntegratedOverTime() {
+        aggregator.record(CAR_PARK_ID, 2, 10, false, T0);
+        aggregator.record(CAR_PARK_ID, 3, 10, true, T0 + MINUTE);
+
+        List<Rollup> rollups = aggregator.drain(T0 + 2 * MINUTE);
+
+        assertThat(rollups).hasSize(UtilizationGranularity.values().length);
+        for (Rollup rollup : rollups) {
+            assertThat(rollup.getKey().getBucketStart()).isEqualTo(rollup.getKey().getGranularity().bucketStart(T0));
+            assertThat(rollup.getOccupiedSeconds()).isEqualTo(2 * 60 + 3 * 60);
+            assertThat(rollup.getObservedSeconds()).isEqualTo(120);
+            assertThat(rollup.getPeakOccupied()).isEqualTo(3);
+            assertThat(rollup.getArrivals()).isEqualTo(1);
+            assertThat(rollup.getCapacity()).isEqualTo(10);
+        }
+    }
+
+    @Test
+    void testBucketsAreClosedWhenTheirTimeIsOver() {
+        aggregator.record(CAR_PARK_ID, 4, 10, false, T0);
+
+        List<Rollup> rollups = of(aggregator.drain(T0 + 6 * MINUTE), UtilizationGranularity.FIVE_MINUTES);
+
+        assertThat(rollups).hasSize(2);
+        assertThat(rollups.get(0).getKey().getBucketStart()).isEqualTo(T0);
+        assertThat(rollups.get(0).getObservedSeconds()).isEqualTo(300);
+        assertThat(rollups.get(0).getOccupiedSeconds()).isEqualTo(4 * 300);
+        assertThat(rollups.get(1).getKey().getBucketStart()).isEqualTo(T0 + 5 * MINUTE);
+        assertThat(rollups.get(1).getObservedSeconds()).isEqualTo(60);
+        assertThat(rollups.get(1).getPeakOccupied()).isEqualTo(4);
+    }
+
+    @Test
+    void testOnlyIncrementsAreDrained() {
+        aggregator.record(CAR_PARK_ID, 1, 10, false, T0);
+        aggregator.record(CAR_PARK_ID, 2, 10, true, T0 + MINUTE);
+        aggregator.drain(T0 + MINUTE);
+
+        Rollup rollup = of(aggregator.drain(T0 + 2 * MINUTE), UtilizationGranularity.HOUR).get(0);
+
+        assertThat(rollup.getObservedSeconds()).isEqualTo(60);
+        assertThat(rollup.getOccupiedSeconds()).isEqualTo(2 * 60);
+        assertThat(rollup.getArrivals()).isZero();
+    }
+
+    @Test
+    void testDepartureIsNotAnArrival() {
+        aggregator.record(CAR_PARK_ID, 5, 10, false, T0);
+        aggregator.record(CAR_PARK_ID, 4, 10, true, T0 + MINUTE);
+
+        Rollup rollup = of(aggregator.drain(T0 + 2 * MINUTE), UtilizationGranularity.HOUR).get(0);
+
+        assertThat(rollup.getArrivals()).isZero();
+        assertThat(rollup.getPeakOccupied()).isEqualTo(5);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testFailedWritesAreRetried() {
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenThrow(new DataAccessResourceFailureException("Connection refused"));
+        aggregator.record(CAR_PARK_ID, 1, 10, false, T0);
+        aggregator.flush(T0 + MINUTE);
+
+        Rollup rollup = of(aggregator.drain(T0 + 2 * MINUTE), UtilizationGranularity.DAY).get(0);
+
+        assertThat(rollup.getObservedSeconds()).isEqualTo(120);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testOnlyTheLockHolderWrites() throws SQLException {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUtilization().setSingleWriter(true);
+        aggregator = newAggregator(applicationProperties);
+        Connection connection = mock(Connection.class, RETURNS_DEEP_STUBS);
+        when(dataSource.getConnection()).thenReturn(connection);
+        when(connection.prepareStatement(anyString()).executeQuery().next()).thenReturn(true);
+        when(connection.prepareStatement(anyString()).executeQuery().getBoolean(1)).thenReturn(false, true);
+        when(connection.isValid(anyInt())).thenReturn(true);
+        when(jdbcTemplate.batchUpdate(anyString(), any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[0][]);
+
+        aggregator.record(CAR_PARK_ID, 1, 10, false, T0);
+        aggregator.flush(T0 + MINUTE);
+        verify(jdbcTemplate, never()).batchUpdate(anyString(), any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        verify(connection).close();
+
+        // The other node is gone: the dropped increments stay dropped, the next ones are written
+        aggregator.flush(T0 + 2 * MINUTE);
+        verify(jdbcTemplate).batchUpdate(anyString(), any(List.class), anyInt(), any(ParameterizedPreparedStatementSetter.class));
+        aggregator.flush(T0 + 3 * MINUTE);
+        verify(dataSource, times(2)).getConnection();
+
+        aggregator.releaseWriterLock();
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    void testChangesOfOtherNodesAreIntegrated() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        ParkingSpotRepository parkingSpotRepository = mock(ParkingSpotRepository.class);
+        CarParkUtilizationAggregator[] listener = new CarParkUtilizationAggregator[1];
+        parkingSpotOccupancyIndex =
+            new ParkingSpotOccupancyIndex(
+                parkingSpotRepository,
+                event -> {
+                    if (event instanceof ParkingSpotOccupancyChangedEvent) {
+                        listener[0].onOccupancyChanged((ParkingSpotOccupancyChangedEvent) event);
+                    }
+                },
+                new ParkingSpotEventLog(applicationProperties),
+                applicationProperties
+            );
+        aggregator = newAggregator(applicationProperties);
+        listener[0] = aggregator;
+        parkingSpotOccupancyIndex.apply(10L, CAR_PARK_ID, null, true, false);
+        ParkingSpotRepository.OccupancyView taken = mock(ParkingSpotRepository.OccupancyView.class);
+        when(taken.getId()).thenReturn(10L);
+        when(taken.getCarParkId()).thenReturn(CAR_PARK_ID);
+        when(taken.getAvailable()).thenReturn(false);
+        when(taken.getAccessableParking()).thenReturn(false);
+        when(parkingSpotRepository.findOccupancyByIdIn(any())).thenReturn(Collections.singletonList(taken));
+        ClusterIndexSynchronizer synchronizer = new ClusterIndexSynchronizer(
+            parkingSpotRepository,
+            mock(CarParkRepository.class),
+            mock(OpenHoursRepository.class),
+            parkingSpotOccupancyIndex,
+            mock(CarParkSummaryIndex.class),
+            mock(CarParkLocationIndex.class),
+            mock(OpenHoursScheduleService.class)
+        );
+
+        // Spot 10 was taken on another node
+        synchronizer.onRowsChanged(new ClusterRowsChangedEvent(ParkingSpot.class.getName(), Collections.singleton(10L)));
+
+        List<Rollup> rollups = of(aggregator.drain(System.currentTimeMillis() + MINUTE), UtilizationGranularity.DAY);
+        assertThat(rollups.stream().mapToInt(Rollup::getArrivals).sum()).isEqualTo(1);
+        assertThat(rollups.stream().mapToInt(Rollup::getPeakOccupied).max()).hasValue(1);
+    }
+
+    private CarParkUtilizationAggregator newAggregator(ApplicationProperties applicationProperties) {
+        return new CarParkUtilizationAggregator(
+            parkingSpotOccupancyIndex,
+            jdbcTemplate,
+            mock(PlatformTransactionManager.class),
+            dataSource,
+            applicationProperties
+        );
+    }
+
+    private static List<Rollup> of(List<Rollup> rollups, UtilizationGranularity granularity) {
+        return rollups.stream().filter(rollup -> rollup.getKey().getGranularity() == granularity).collect(Collectors.toList());
+    }
+}
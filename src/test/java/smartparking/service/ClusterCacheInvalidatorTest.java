@@ -0,0 +1,192 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.transaction.PlatformTransactionManager;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.repository.UserRepository;
+
+/**
+ * Unit tests for {@link ClusterCacheInvalidator}.
+ */
+class ClusterCacheInvalidatorTest {
+
+    private static final String NOTIFY_SQL = "select pg_notify(?, ?)";
+
+    private static final String CHANNEL = "cache_invalidation";
+
+    private ApplicationProperties applicationProperties;
+
+    private SessionFactoryImplementor sessionFactory;
+
+    private CacheManager cacheManager;
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ApplicationEventPublisher receiverEventPublisher;
+
+    private ClusterCacheInvalidator sender;
+
+    private ClusterCacheInvalidator receiver;
+
+    @BeforeEach
+    @SuppressWarnings({ "unchecked", "rawtypes" })
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getCacheInvalidation().setEnabled(true);
+        sessionFactory = mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS);
+        when(sessionFactory.getMetamodel().entityPersister(anyString()).getIdentifierType().getReturnedClass())
+            .thenReturn((Class) Long.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        cacheManager = mock(CacheManager.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        receiverEventPublisher = mock(ApplicationEventPublisher.class);
+        sender = invalidator(entityManagerFactory, mock(ApplicationEventPublisher.class));
+        receiver = invalidator(entityManagerFactory, receiverEventPublisher);
+    }
+
+    @Test
+    void testEvictionsAreBatched() {
+        for (long id = 1; id <= 100; id++) {
+            sender.evictEntity(ParkingSpot.class.getName(), id);
+            sender.evictEntity(ParkingSpot.class.getName(), id);
+        }
+        sender.evict(UserRepository.USERS_BY_LOGIN_CACHE, "user");
+
+        sender.flush();
+        sender.flush();
+
+        List<String> payloads = sentPayloads(1);
+        assertThat(payloads.get(0).split("\n")).hasSize(1 + 101);
+    }
+
+    @Test
+    void testEvictionsAreAppliedOnOtherNodes() {
+        Cache usersByLogin = mock(Cache.class);
+        when(cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE)).thenReturn(usersByLogin);
+        sender.evictEntity(ParkingSpot.class.getName(), 42L);
+        sender.evict(UserRepository.USERS_BY_LOGIN_CACHE, "user");
+        sender.flush();
+        String payload = sentPayloads(1).get(0);
+
+        sender.apply(payload);
+        verify(sessionFactory.getCache(), never()).evictEntityData(anyString(), any());
+        verify(usersByLogin, never()).evict(any());
+
+        receiver.apply(payload);
+        verify(sessionFactory.getCache()).evictEntityData(ParkingSpot.class.getName(), 42L);
+        verify(usersByLogin).evict("user");
+    }
+
+    @Test
+    void testRowChangesArePublishedOnOtherNodes() {
+        sender.rowChanged(ParkingSpot.class.getName(), 42L);
+        sender.rowChanged(ParkingSpot.class.getName(), 43L);
+        sender.rowChanged(CarPark.class.getName(), 7L);
+        sender.flush();
+        String payload = sentPayloads(1).get(0);
+
+        receiver.apply(payload);
+
+        verify(sessionFactory.getCache()).evictEntityData(ParkingSpot.class.getName(), 42L);
+        ArgumentCaptor<ClusterRowsChangedEvent> event = ArgumentCaptor.forClass(ClusterRowsChangedEvent.class);
+        verify(receiverEventPublisher, times(2)).publishEvent(event.capture());
+        assertThat(event.getAllValues())
+            .extracting(ClusterRowsChangedEvent::getEntityName, ClusterRowsChangedEvent::getIds)
+            .containsExactlyInAnyOrder(
+                tuple(ParkingSpot.class.getName(), new HashSet<>(Arrays.asList(42L, 43L))),
+                tuple(CarPark.class.getName(), Collections.singleton(7L))
+            );
+    }
+
+    @Test
+    void testClearingEverythingReloadsTheIndices() {
+        receiver.apply("node\n" + ClusterCacheInvalidator.ALL);
+
+        verify(sessionFactory.getCache()).evictAllRegions();
+        ArgumentCaptor<ClusterRowsChangedEvent> event = ArgumentCaptor.forClass(ClusterRowsChangedEvent.class);
+        verify(receiverEventPublisher).publishEvent(event.capture());
+        assertThat(event.getValue().isAll()).isTrue();
+    }
+
+    @Test
+    void testTooManyEvictionsClearEverything() {
+        applicationProperties.getCacheInvalidation().setMaxPendingInvalidations(10);
+        for (long id = 1; id <= 20; id++) {
+            sender.evictEntity(ParkingSpot.class.getName(), id);
+        }
+
+        sender.flush();
+
+        assertThat(sentPayloads(1).get(0)).endsWith("\n" + ClusterCacheInvalidator.ALL);
+    }
+
+    @Test
+    void testDisabled() {
+        applicationProperties.getCacheInvalidation().setEnabled(false);
+        sender.evictEntity(ParkingSpot.class.getName(), 1L);
+
+        sender.flush();
+
+        sentPayloads(0);
+    }
+
+    @Test
+    void testPayloadsFitTheLimit() {
+        List<String> evictions = Arrays.asList("E1234567890", "E1234567890", "E1234567890");
+
+        assertThat(ClusterCacheInvalidator.payloads("node", evictions, 30))
+            .containsExactly("node\nE1234567890\nE1234567890", "node\nE1234567890");
+        assertThat(ClusterCacheInvalidator.payloads("node", evictions, 10)).containsExactly("node\nA", "node\nA", "node\nA");
+    }
+
+    private ClusterCacheInvalidator invalidator(
+        EntityManagerFactory entityManagerFactory,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        return new ClusterCacheInvalidator(
+            applicationProperties,
+            entityManagerFactory,
+            cacheManager,
+            jdbcTemplate,
+            mock(PlatformTransactionManager.class),
+            applicationEventPublisher,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<String> sentPayloads(int notifications) {
+        ArgumentCaptor<Object> payload = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate, times(notifications)).query(eq(NOTIFY_SQL), any(ResultSetExtractor.class), eq(CHANNEL), payload.capture());
+        return (List<String>) (List<?>) payload.getAllValues();
+    }
+}
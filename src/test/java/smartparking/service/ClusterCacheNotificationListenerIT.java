@@ -0,0 +1,217 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.RETURNS_DEEP_STUBS;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Collections;
+import javax.persistence.EntityManagerFactory;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.postgresql.ds.PGSimpleDataSource;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.PostgreSQLContainer;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.ParkingSpot;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.OpenHoursRepository;
+import smartparking.repository.ParkingSpotRepository;
+
+/**
+ * Integration tests for {@link ClusterCacheNotificationListener}, against a real PostgreSQL, alone and relaying the
+ * changes between two nodes.
+ * <p>
+ * Skipped when Docker is not available.
+ */
+class ClusterCacheNotificationListenerIT {
+
+    private static final String CHANNEL = "cache_invalidation";
+
+    private static final long TIMEOUT_MS = 10000;
+
+    private static final Long CAR_PARK_ID = 1L;
+
+    private static PostgreSQLContainer<?> postgresql;
+
+    private static PGSimpleDataSource dataSource;
+
+    private ClusterCacheInvalidator clusterCacheInvalidator;
+
+    private ClusterCacheNotificationListener listener;
+
+    @BeforeAll
+    public static void startDatabase() {
+        assumeThat(DockerClientFactory.instance().isDockerAvailable()).as("Docker is available").isTrue();
+        postgresql = new PostgreSQLContainer<>("postgres:13.2");
+        postgresql.start();
+        dataSource = new PGSimpleDataSource();
+        dataSource.setUrl(postgresql.getJdbcUrl());
+        dataSource.setUser(postgresql.getUsername());
+        dataSource.setPassword(postgresql.getPassword());
+    }
+
+    @AfterAll
+    public static void stopDatabase() {
+        if (postgresql != null) {
+            postgresql.stop();
+        }
+    }
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCacheInvalidation().setEnabled(true);
+        applicationProperties.getCacheInvalidation().setChannel(CHANNEL);
+        applicationProperties.getCacheInvalidation().setPollTimeoutMs(100);
+        applicationProperties.getCacheInvalidation().setReconnectDelayMs(100);
+        clusterCacheInvalidator = mock(ClusterCacheInvalidator.class);
+        listener = new ClusterCacheNotificationListener(dataSource, clusterCacheInvalidator, applicationProperties);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        listener.stop();
+    }
+
+    @Test
+    void clearsEveryCacheOnConnect() {
+        listener.start();
+
+        verify(clusterCacheInvalidator, timeout(TIMEOUT_MS)).evictAll();
+    }
+
+    @Test
+    void appliesNotifications() throws SQLException {
+        listener.start();
+        verify(clusterCacheInvalidator, timeout(TIMEOUT_MS)).evictAll();
+
+        notify("first");
+        notify("second");
+
+        verify(clusterCacheInvalidator, timeout(TIMEOUT_MS)).apply("first");
+        verify(clusterCacheInvalidator, timeout(TIMEOUT_MS)).apply("second");
+    }
+
+    @Test
+    void reconnectsAndClearsEveryCacheAfterLosingTheConnection() throws SQLException {
+        listener.start();
+        verify(clusterCacheInvalidator, timeout(TIMEOUT_MS)).evictAll();
+
+        try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement(
+                "select pg_terminate_backend(pid) from pg_stat_activity where query = ?"
+            )
+        ) {
+            statement.setString(1, "LISTEN " + CHANNEL);
+            statement.execute();
+        }
+
+        // Notifications sent while disconnected are lost, hence the second evictAll
+        verify(clusterCacheInvalidator, timeout(TIMEOUT_MS).times(2)).evictAll();
+        notify("after reconnect");
+        verify(clusterCacheInvalidator, timeout(TIMEOUT_MS)).apply("after reconnect");
+    }
+
+    @Test
+    void appliesRowChangesOfOtherNodesToTheirIndices() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getCacheInvalidation().setEnabled(true);
+        applicationProperties.getCacheInvalidation().setChannel(CHANNEL);
+        applicationProperties.getCacheInvalidation().setPollTimeoutMs(100);
+        // Node A frees spot 10, which node B still holds as occupied
+        ApplicationEventPublisher nodeAEvents = mock(ApplicationEventPublisher.class);
+        ClusterCacheInvalidator nodeA = invalidator(applicationProperties, nodeAEvents);
+        ParkingSpotRepository nodeBRepository = mock(ParkingSpotRepository.class);
+        ParkingSpotRepository.OccupancyView freed = mock(ParkingSpotRepository.OccupancyView.class);
+        when(freed.getId()).thenReturn(10L);
+        when(freed.getCarParkId()).thenReturn(CAR_PARK_ID);
+        when(freed.getAvailable()).thenReturn(true);
+        when(freed.getAccessableParking()).thenReturn(false);
+        when(nodeBRepository.findOccupancyByIdIn(any())).thenReturn(Collections.singletonList(freed));
+        ApplicationEventPublisher nodeBOccupancyEvents = mock(ApplicationEventPublisher.class);
+        ParkingSpotOccupancyIndex nodeBIndex = new ParkingSpotOccupancyIndex(
+            nodeBRepository,
+            nodeBOccupancyEvents,
+            new ParkingSpotEventLog(applicationProperties),
+            applicationProperties
+        );
+        nodeBIndex.apply(10L, CAR_PARK_ID, null, false, false);
+        OpenHoursScheduleService openHoursScheduleService = mock(OpenHoursScheduleService.class);
+        ClusterIndexSynchronizer nodeBSynchronizer = new ClusterIndexSynchronizer(
+            nodeBRepository,
+            mock(CarParkRepository.class),
+            mock(OpenHoursRepository.class),
+            nodeBIndex,
+            new CarParkSummaryIndex(mock(CarParkRepository.class), nodeBIndex, openHoursScheduleService),
+            new CarParkLocationIndex(mock(CarParkRepository.class), nodeBIndex, openHoursScheduleService, applicationProperties),
+            openHoursScheduleService
+        );
+        ClusterCacheInvalidator nodeB = invalidator(
+            applicationProperties,
+            event -> nodeBSynchronizer.onRowsChanged((ClusterRowsChangedEvent) event)
+        );
+        ClusterCacheNotificationListener nodeAListener = new ClusterCacheNotificationListener(dataSource, nodeA, applicationProperties);
+        ClusterCacheNotificationListener nodeBListener = new ClusterCacheNotificationListener(dataSource, nodeB, applicationProperties);
+        nodeAListener.start();
+        nodeBListener.start();
+        try {
+            nodeA.rowChanged(ParkingSpot.class.getName(), 10L);
+            nodeA.flush();
+
+            verify(nodeBOccupancyEvents, timeout(TIMEOUT_MS)).publishEvent(any(ParkingSpotOccupancyChangedEvent.class));
+            assertThat(nodeBIndex.getAvailability(CAR_PARK_ID).getFreeSpots()).isEqualTo(1);
+            verify(nodeAEvents, never()).publishEvent(any());
+        } finally {
+            nodeAListener.stop();
+            nodeBListener.stop();
+        }
+    }
+
+    private static ClusterCacheInvalidator invalidator(
+        ApplicationProperties applicationProperties,
+        ApplicationEventPublisher applicationEventPublisher
+    ) {
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        SessionFactoryImplementor sessionFactory = mock(SessionFactoryImplementor.class, RETURNS_DEEP_STUBS);
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        return new ClusterCacheInvalidator(
+            applicationProperties,
+            entityManagerFactory,
+            new NoOpCacheManager(),
+            new JdbcTemplate(dataSource),
+            new DataSourceTransactionManager(dataSource),
+            applicationEventPublisher,
+            new SimpleMeterRegistry()
+        );
+    }
+
+    private static void notify(String payload) throws SQLException {
+        try (
+            Connection connection = dataSource.getConnection();
+            PreparedStatement statement = connection.prepareStatement("select pg_notify(?, ?)")
+        ) {
+            statement.setString(1, CHANNEL);
+            statement.setString(2, payload);
+            statement.execute();
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Optional;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.OpenHoursRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.CarParkSummaryDTO;
+import smartparking.service.dto.NearbyCarParkDTO;
+import smartparking.service.dto.ParkingSpotStateDTO;
+
+/**
+ * Unit tests for {@link ClusterIndexSynchronizer}.
+ */
+class ClusterIndexSynchronizerTest {
+
+    private static final ZonedDateTime NOW = ZonedDateTime.parse("2026-10-19T12:00:00Z");
+
+    private static final Long CAR_PARK_ID = 1L;
+
+    private ParkingSpotRepository parkingSpotRepository;
+
+    private CarParkRepository carParkRepository;
+
+    private OpenHoursRepository openHoursRepository;
+
+    private ParkingSpotOccupancyIndex occupancyIndex;
+
+    private CarParkSummaryIndex summaryIndex;
+
+    private CarParkLocationIndex locationIndex;
+
+    private OpenHoursScheduleService openHoursScheduleService;
+
+    private ClusterIndexSynchronizer synchronizer;
+
+    @BeforeEach
+    public void setup() {
+        parkingSpotRepository = mock(ParkingSpotRepository.class);
+        carParkRepository = mock(CarParkRepository.class);
+        openHoursRepository = mock(OpenHoursRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        occupancyIndex =
+            new ParkingSpotOccupancyIndex(
+                parkingSpotRepository,
+                mock(ApplicationEventPublisher.class),
+                new ParkingSpotEventLog(applicationProperties),
+                applicationProperties
+            );
+        openHoursScheduleService = new OpenHoursScheduleService(openHoursRepository, applicationProperties);
+        summaryIndex = new CarParkSummaryIndex(carParkRepository, occupancyIndex, openHoursScheduleService);
+        locationIndex = new CarParkLocationIndex(carParkRepository, occupancyIndex, openHoursScheduleService, applicationProperties);
+        synchronizer =
+            new ClusterIndexSynchronizer(
+                parkingSpotRepository,
+                carParkRepository,
+                openHoursRepository,
+                occupancyIndex,
+                summaryIndex,
+                locationIndex,
+                openHoursScheduleService
+            );
+    }
+
+    @Test
+    void testParkingSpotsAreReadAgain() {
+        occupancyIndex.apply(10L, CAR_PARK_ID, null, false, false);
+        occupancyIndex.apply(11L, CAR_PARK_ID, null, true, false);
+        ParkingSpotRepository.OccupancyView view = occupancyView(10L, CAR_PARK_ID, true);
+        when(parkingSpotRepository.findOccupancyByIdIn(any())).thenReturn(Collections.singletonList(view));
+
+        // Spot 10 was freed and spot 11 deleted on another node
+        synchronizer.onRowsChanged(new ClusterRowsChangedEvent(ParkingSpot.class.getName(), new HashSet<>(Arrays.asList(10L, 11L))));
+
+        assertThat(occupancyIndex.getSpotStates(CAR_PARK_ID))
+            .extracting(ParkingSpotStateDTO::getSpotId, ParkingSpotStateDTO::isAvailable)
+            .containsExactly(tuple(10L, true));
+        assertThat(occupancyIndex.getAvailability(CAR_PARK_ID).getFreeSpots()).isEqualTo(1);
+    }
+
+    @Test
+    void testCarParksAreReadAgain() {
+        summaryIndex.put(2L, "Deleted");
+        locationIndex.apply(2L, 59.4, 17.9);
+        occupancyIndex.apply(10L, CAR_PARK_ID, null, true, false);
+        CarParkRepository.NameView name = mock(CarParkRepository.NameView.class);
+        when(name.getId()).thenReturn(CAR_PARK_ID);
+        when(name.getName()).thenReturn("Kista Galleria");
+        when(carParkRepository.findNamesByIdIn(any())).thenReturn(Collections.singletonList(name));
+        CarParkRepository.LocationView location = mock(CarParkRepository.LocationView.class);
+        when(location.getId()).thenReturn(CAR_PARK_ID);
+        when(location.getLatitude()).thenReturn(59.4);
+        when(location.getLongitude()).thenReturn(17.95);
+        when(carParkRepository.findLocationsByIdIn(any())).thenReturn(Collections.singletonList(location));
+
+        synchronizer.onRowsChanged(new ClusterRowsChangedEvent(CarPark.class.getName(), new HashSet<>(Arrays.asList(CAR_PARK_ID, 2L))));
+
+        assertThat(summaryIndex.getSummaries(0, 10, NOW)).extracting(CarParkSummaryDTO::getName).containsExactly("Kista Galleria");
+        assertThat(locationIndex.findNearest(59.4, 17.95, 10, 0, 50000, NOW))
+            .extracting(NearbyCarParkDTO::getCarParkId)
+            .containsExactly(CAR_PARK_ID);
+    }
+
+    @Test
+    void testSchedulesOfChangedOpenHoursAreDropped() {
+        when(openHoursRepository.findAllByCarParkId(CAR_PARK_ID)).thenReturn(Collections.emptyList());
+        openHoursScheduleService.getSchedule(CAR_PARK_ID);
+        OpenHours openHours = new OpenHours();
+        openHours.setId(5L);
+        openHours.setCarPark(new CarPark().id(CAR_PARK_ID));
+        when(openHoursRepository.findById(5L)).thenReturn(Optional.of(openHours));
+
+        synchronizer.onRowsChanged(new ClusterRowsChangedEvent(OpenHours.class.getName(), Collections.singleton(5L)));
+        openHoursScheduleService.getSchedule(CAR_PARK_ID);
+
+        verify(openHoursRepository, times(2)).findAllByCarParkId(CAR_PARK_ID);
+    }
+
+    @Test
+    void testMissedChangesReloadEveryIndex() {
+        occupancyIndex.apply(10L, CAR_PARK_ID, null, false, false);
+        ParkingSpotRepository.OccupancyView view = occupancyView(10L, CAR_PARK_ID, true);
+        when(parkingSpotRepository.streamAllOccupancy()).thenReturn(Stream.of(view));
+        when(carParkRepository.streamAllNames()).thenReturn(Stream.empty());
+        when(carParkRepository.streamAllLocations()).thenReturn(Stream.empty());
+
+        synchronizer.onRowsChanged(new ClusterRowsChangedEvent(null, null));
+
+        assertThat(occupancyIndex.getAvailability(CAR_PARK_ID).getFreeSpots()).isEqualTo(1);
+    }
+
+    private static ParkingSpotRepository.OccupancyView occupancyView(Long id, Long carParkId, boolean available) {
+        ParkingSpotRepository.OccupancyView view = mock(ParkingSpotRepository.OccupancyView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getCarParkId()).thenReturn(carParkId);
+        when(view.getAvailable()).thenReturn(available);
+        when(view.getAccessableParking()).thenReturn(false);
+        return view;
+    }
+}
@@ -0,0 +1,120 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import org.elasticsearch.index.query.BoolQueryBuilder;
+import org.elasticsearch.index.query.QueryBuilder;
+import org.elasticsearch.index.query.RangeQueryBuilder;
+import org.elasticsearch.index.query.TermQueryBuilder;
+import org.elasticsearch.search.aggregations.AggregationBuilder;
+import org.elasticsearch.search.builder.SearchSourceBuilder;
+import org.elasticsearch.search.sort.FieldSortBuilder;
+import org.elasticsearch.search.sort.SortOrder;
+import org.junit.jupiter.api.Test;
+import smartparking.service.dto.CarParkSearchCriteria;
+import smartparking.service.dto.CarParkSearchHitDTO;
+import smartparking.service.dto.ParkingSpotSearchCriteria;
+import smartparking.service.dto.ParkingSpotSearchHitDTO;
+
+/**
+ * Unit tests for {@link FacetedSearchService}.
+ */
+class FacetedSearchServiceTest {
+
+    @Test
+    void testAccessibleFreeSpotsOnFloorInCity() {
+        ParkingSpotSearchCriteria criteria = new ParkingSpotSearchCriteria();
+        criteria.setCity("Kista");
+        criteria.setFloor(0L);
+        criteria.setAccessableParking(true);
+        criteria.setAvailable(true);
+
+        SearchSourceBuilder source = FacetedSearchService.parkingSpotSearchSource(criteria, null, 20);
+
+        BoolQueryBuilder query = (BoolQueryBuilder) source.query();
+        assertThat(query.must()).isEmpty();
+        assertThat(query.filter())
+            .extracting(filter -> ((TermQueryBuilder) filter).fieldName(), filter -> ((TermQueryBuilder) filter).value())
+            .containsExactly(
+                tuple(FacetedSearchService.CITY, "Kista"),
+                tuple(FacetedSearchService.FLOOR, 0L),
+                tuple(FacetedSearchService.ACCESSABLE_PARKING, true),
+                tuple(FacetedSearchService.AVAILABLE, true)
+            );
+        assertThat(aggregationNames(source))
+            .containsExactly(
+                FacetedSearchService.CITY,
+                FacetedSearchService.FLOOR,
+                FacetedSearchService.ACCESSABLE_PARKING,
+                FacetedSearchService.AVAILABLE
+            );
+        assertThat(source.size()).isEqualTo(20);
+        assertThat(source.searchAfter()).isNull();
+    }
+
+    @Test
+    void testCarParksWithFreeSpotsAfterCursor() {
+        CarParkSearchCriteria criteria = new CarParkSearchCriteria();
+        criteria.setMinFreeSpots(5);
+
+        SearchSourceBuilder source = FacetedSearchService.carParkSearchSource(criteria, 42L, 10);
+
+        List<QueryBuilder> filters = ((BoolQueryBuilder) source.query()).filter();
+        assertThat(filters).hasSize(1);
+        RangeQueryBuilder range = (RangeQueryBuilder) filters.get(0);
+        assertThat(range.fieldName()).isEqualTo(FacetedSearchService.FREE_SPOTS);
+        assertThat(range.from()).isEqualTo(5);
+        assertThat(range.includeLower()).isTrue();
+        assertThat(aggregationNames(source)).containsExactly(FacetedSearchService.CITY, FacetedSearchService.FREE_SPOTS);
+        // Paged on the id, after the last id of the previous page
+        assertThat(source.sorts()).hasSize(1);
+        FieldSortBuilder sort = (FieldSortBuilder) source.sorts().get(0);
+        assertThat(sort.getFieldName()).isEqualTo(FacetedSearchService.ID);
+        assertThat(sort.order()).isEqualTo(SortOrder.ASC);
+        assertThat(source.searchAfter()).containsExactly(42L);
+    }
+
+    @Test
+    void testEmptyCriteriaMatchEverything() {
+        SearchSourceBuilder source = FacetedSearchService.carParkSearchSource(new CarParkSearchCriteria(), null, 10);
+
+        assertThat(((BoolQueryBuilder) source.query()).filter()).isEmpty();
+    }
+
+    @Test
+    void testCarParkHitIsReadFromSource() {
+        CarParkSearchHitDTO hit = FacetedSearchService.toCarParkHit(
+            Map.of("id", 7, "name", "Kista Galleria", "city", "Kista", "totalSpots", 100, "freeSpots", 12, "accessibleFreeSpots", 2)
+        );
+
+        assertThat(hit.getId()).isEqualTo(7L);
+        assertThat(hit.getName()).isEqualTo("Kista Galleria");
+        assertThat(hit.getOwner()).isNull();
+        assertThat(hit.getCity()).isEqualTo("Kista");
+        assertThat(hit.getTotalSpots()).isEqualTo(100);
+        assertThat(hit.getFreeSpots()).isEqualTo(12);
+        assertThat(hit.getAccessibleFreeSpots()).isEqualTo(2);
+    }
+
+    @Test
+    void testParkingSpotHitIsReadFromSource() {
+        ParkingSpotSearchHitDTO hit = FacetedSearchService.toParkingSpotHit(
+            Map.of("id", 8, "carPark", Map.of("id", 7), "city", "Kista", "floor", 0, "accessableParking", true, "available", false)
+        );
+
+        assertThat(hit.getId()).isEqualTo(8L);
+        assertThat(hit.getCarParkId()).isEqualTo(7L);
+        assertThat(hit.getCity()).isEqualTo("Kista");
+        assertThat(hit.getFloor()).isZero();
+        assertThat(hit.getAccessableParking()).isTrue();
+        assertThat(hit.getAvailable()).isFalse();
+    }
+
+    private static List<String> aggregationNames(SearchSourceBuilder source) {
+        return source.aggregations().getAggregatorFactories().stream().map(AggregationBuilder::getName).collect(Collectors.toList());
+    }
+}
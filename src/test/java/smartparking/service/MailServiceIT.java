@@ -4,6 +4,9 @@ import static org.assertj.core.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 
+import com.icegreen.greenmail.junit5.GreenMailExtension;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
@@ -11,6 +14,9 @@ import java.io.InputStreamReader;
 import java.net.URI;
 import java.net.URL;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.Properties;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -18,24 +24,23 @@ import javax.mail.Multipart;
 import javax.mail.internet.MimeBodyPart;
 import javax.mail.internet.MimeMessage;
 import javax.mail.internet.MimeMultipart;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
-import org.mockito.ArgumentCaptor;
-import org.mockito.Captor;
-import org.mockito.MockitoAnnotations;
-import org.mockito.Spy;
+import org.junit.jupiter.api.extension.RegisterExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.MessageSource;
 import org.springframework.mail.MailSendException;
 import org.springframework.mail.javamail.JavaMailSenderImpl;
 import org.thymeleaf.spring5.SpringTemplateEngine;
 import smartparking.IntegrationTest;
+import smartparking.config.ApplicationProperties;
 import smartparking.config.Constants;
 import smartparking.domain.User;
 import tech.jhipster.config.JHipsterProperties;
 
 /**
- * Integration tests for {@link MailService}.
+ * Integration tests for {@link MailService}, sending to a GreenMail SMTP server.
  */
 @IntegrationTest
 class MailServiceIT {
@@ -48,6 +53,11 @@ class MailServiceIT {
     private static final Pattern PATTERN_LOCALE_3 = Pattern.compile("([a-z]{2})-([a-zA-Z]{4})-([a-z]{2})");
     private static final Pattern PATTERN_LOCALE_2 = Pattern.compile("([a-z]{2})-([a-z]{2})");
 
+    private static final long RECEIVE_TIMEOUT_MS = 5000;
+
+    @RegisterExtension
+    static GreenMailExtension greenMail = new GreenMailExtension(ServerSetupTest.SMTP);
+
     @Autowired
     private JHipsterProperties jHipsterProperties;
 
@@ -57,26 +67,48 @@ class MailServiceIT {
     @Autowired
     private SpringTemplateEngine templateEngine;
 
-    @Spy
     private JavaMailSenderImpl javaMailSender;
 
-    @Captor
-    private ArgumentCaptor<MimeMessage> messageCaptor;
+    private List<MimeMessage> sentMessages;
+
+    private ApplicationProperties applicationProperties;
+
+    private SimpleMeterRegistry meterRegistry;
 
     private MailService mailService;
 
     @BeforeEach
     public void setup() {
-        MockitoAnnotations.initMocks(this);
-        doNothing().when(javaMailSender).send(any(MimeMessage.class));
-        mailService = new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine);
+        javaMailSender = spy(new JavaMailSenderImpl());
+        javaMailSender.setHost(ServerSetupTest.SMTP.getBindAddress());
+        javaMailSender.setPort(ServerSetupTest.SMTP.getPort());
+        // Keeps the messages as handed to the SMTP server, which adds line breaks to their content
+        sentMessages = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(
+                invocation -> {
+                    for (Object message : invocation.getArguments()) {
+                        sentMessages.add((MimeMessage) message);
+                    }
+                    return invocation.callRealMethod();
+                }
+            )
+            .when(javaMailSender)
+            .send((MimeMessage[]) any());
+        applicationProperties = new ApplicationProperties();
+        meterRegistry = new SimpleMeterRegistry();
+        mailService = newMailService();
+        mailService.start();
+    }
+
+    @AfterEach
+    public void tearDown() throws InterruptedException {
+        mailService.stop();
     }
 
     @Test
     void testSendEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -88,8 +120,7 @@ class MailServiceIT {
     @Test
     void testSendHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         assertThat(message.getSubject()).isEqualTo("testSubject");
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -101,8 +132,7 @@ class MailServiceIT {
     @Test
     void testSendMultipartEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, false);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -111,15 +141,14 @@ class MailServiceIT {
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent()).isInstanceOf(Multipart.class);
-        assertThat(aos).hasToString("\r\ntestContent");
+        assertThat(aos.toString()).endsWith("\r\n\r\ntestContent");
         assertThat(part.getDataHandler().getContentType()).isEqualTo("text/plain; charset=UTF-8");
     }
 
     @Test
     void testSendMultipartHtmlEmail() throws Exception {
         mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", true, true);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         MimeMultipart mp = (MimeMultipart) message.getContent();
         MimeBodyPart part = (MimeBodyPart) ((MimeMultipart) mp.getBodyPart(0).getContent()).getBodyPart(0);
         ByteArrayOutputStream aos = new ByteArrayOutputStream();
@@ -128,7 +157,7 @@ class MailServiceIT {
         assertThat(message.getAllRecipients()[0]).hasToString("john.doe@example.com");
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent()).isInstanceOf(Multipart.class);
-        assertThat(aos).hasToString("\r\ntestContent");
+        assertThat(aos.toString()).endsWith("\r\n\r\ntestContent");
         assertThat(part.getDataHandler().getContentType()).isEqualTo("text/html;charset=UTF-8");
     }
 
@@ -139,8 +168,7 @@ class MailServiceIT {
         user.setEmail("john.doe@example.com");
         user.setLangKey("en");
         mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         assertThat(message.getSubject()).isEqualTo("test title");
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
@@ -155,8 +183,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendActivationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -170,8 +197,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendCreationEmail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -185,8 +211,7 @@ class MailServiceIT {
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
         mailService.sendPasswordResetMail(user);
-        verify(javaMailSender).send(messageCaptor.capture());
-        MimeMessage message = messageCaptor.getValue();
+        MimeMessage message = receive(1);
         assertThat(message.getAllRecipients()[0]).hasToString(user.getEmail());
         assertThat(message.getFrom()[0]).hasToString(jHipsterProperties.getMail().getFrom());
         assertThat(message.getContent().toString()).isNotEmpty();
@@ -194,13 +219,51 @@ class MailServiceIT {
     }
 
     @Test
-    void testSendEmailWithException() {
-        doThrow(MailSendException.class).when(javaMailSender).send(any(MimeMessage.class));
+    void testSendEmailWithException() throws Exception {
+        doThrow(new MailSendException("Connection refused")).when(javaMailSender).send((MimeMessage[]) any());
         try {
             mailService.sendEmail("john.doe@example.com", "testSubject", "testContent", false, false);
         } catch (Exception e) {
             fail("Exception shouldn't have been thrown");
         }
+        mailService.stop();
+        assertThat(meterRegistry.counter("mail.messages", "result", "failed").count()).isEqualTo(1);
+    }
+
+    @Test
+    void testQueuedEmailsAreSentInOneBatch() throws Exception {
+        mailService.stop();
+        meterRegistry = new SimpleMeterRegistry();
+        mailService = newMailService();
+        for (int i = 0; i < 10; i++) {
+            mailService.sendEmail("user" + i + "@example.com", "testSubject", "testContent", false, false);
+        }
+        assertThat(meterRegistry.get("mail.queue.size").gauge().value()).isEqualTo(10);
+
+        mailService.start();
+
+        assertThat(greenMail.waitForIncomingEmail(RECEIVE_TIMEOUT_MS, 10)).isTrue();
+        verify(javaMailSender, times(1)).send((MimeMessage[]) any());
+        mailService.stop();
+        assertThat(meterRegistry.counter("mail.messages", "result", "sent").count()).isEqualTo(10);
+        assertThat(meterRegistry.get("mail.send").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testFullQueueDropsEmails() throws Exception {
+        mailService.stop();
+        applicationProperties.getMail().setQueueCapacity(2);
+        applicationProperties.getMail().setEnqueueTimeoutMs(10);
+        meterRegistry = new SimpleMeterRegistry();
+        mailService = newMailService();
+
+        for (int i = 0; i < 3; i++) {
+            mailService.sendEmail("user" + i + "@example.com", "testSubject", "testContent", false, false);
+        }
+
+        assertThat(meterRegistry.counter("mail.messages", "result", "dropped").count()).isEqualTo(1);
+        mailService.start();
+        assertThat(greenMail.waitForIncomingEmail(RECEIVE_TIMEOUT_MS, 2)).isTrue();
     }
 
     @Test
@@ -208,11 +271,11 @@ class MailServiceIT {
         User user = new User();
         user.setLogin("john");
         user.setEmail("john.doe@example.com");
+        int received = 0;
         for (String langKey : languages) {
             user.setLangKey(langKey);
             mailService.sendEmailFromTemplate(user, "mail/testEmail", "email.test.title");
-            verify(javaMailSender, atLeastOnce()).send(messageCaptor.capture());
-            MimeMessage message = messageCaptor.getValue();
+            MimeMessage message = receive(++received);
 
             String propertyFilePath = "i18n/messages_" + getJavaLocale(langKey) + ".properties";
             URL resource = this.getClass().getClassLoader().getResource(propertyFilePath);
@@ -227,6 +290,15 @@ class MailServiceIT {
         }
     }
 
+    private MailService newMailService() {
+        return new MailService(jHipsterProperties, javaMailSender, messageSource, templateEngine, applicationProperties, meterRegistry);
+    }
+
+    private MimeMessage receive(int count) {
+        assertThat(greenMail.waitForIncomingEmail(RECEIVE_TIMEOUT_MS, count)).isTrue();
+        return sentMessages.get(count - 1);
+    }
+
     /**
      * Convert a lang key to the Java locale.
      */
@@ -0,0 +1,146 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+import org.junit.jupiter.api.Test;
+import smartparking.domain.OpenHours;
+
+/**
+ * Unit tests for {@link OpenHoursSchedule}.
+ */
+class OpenHoursScheduleTest {
+
+    private static final ZoneId ZONE = ZoneId.of("Europe/Stockholm");
+
+    // 2026-10-19 is a Monday
+    private static final LocalDate MONDAY = LocalDate.of(2026, 10, 19);
+
+    @Test
+    void testWeekdayRanges() {
+        OpenHoursSchedule schedule = compile(
+            weekly("Monday-Friday", "07:00", "22:00"),
+            weekly("Saturday-Sunday", "00:00", "23:59")
+        );
+
+        assertThat(schedule.isOpenAt(at(MONDAY, 6, 59))).isFalse();
+        assertThat(schedule.isOpenAt(at(MONDAY, 7, 0))).isTrue();
+        assertThat(schedule.isOpenAt(at(MONDAY, 21, 59))).isTrue();
+        assertThat(schedule.isOpenAt(at(MONDAY, 22, 0))).isFalse();
+        assertThat(schedule.isOpenAt(at(MONDAY.plusDays(5), 3, 0))).isTrue();
+        assertThat(schedule.isOpenAt(at(MONDAY.plusDays(6), 23, 59))).isTrue();
+        assertThat(schedule.isOpenAt(at(MONDAY.plusDays(7), 0, 30))).isFalse();
+    }
+
+    @Test
+    void testOvernightHoursWrapAroundTheWeek() {
+        OpenHoursSchedule schedule = compile(weekly("sön", "20:00", "02:00"));
+
+        assertThat(schedule.isOpenAt(at(MONDAY.minusDays(1), 21, 0))).isTrue();
+        assertThat(schedule.isOpenAt(at(MONDAY, 1, 59))).isTrue();
+        assertThat(schedule.isOpenAt(at(MONDAY, 2, 0))).isFalse();
+        assertThat(schedule.isOpenAt(at(MONDAY.plusDays(1), 1, 0))).isFalse();
+    }
+
+    @Test
+    void testDateExceptionReplacesWeeklyHours() {
+        LocalDate holiday = MONDAY.plusDays(2);
+        OpenHoursSchedule schedule = compile(
+            weekly("Mon-Fri", "07:00", "22:00"),
+            exception(holiday, "10:00", "14:00"),
+            exception(holiday.plusDays(1), null, null)
+        );
+
+        assertThat(schedule.isOpenAt(at(holiday, 8, 0))).isFalse();
+        assertThat(schedule.isOpenAt(at(holiday, 12, 0))).isTrue();
+        assertThat(schedule.isOpenAt(at(holiday.plusDays(1), 12, 0))).isFalse();
+        assertThat(schedule.nextOpeningAt(at(holiday, 15, 0))).contains(at(holiday.plusDays(2), 7, 0));
+    }
+
+    @Test
+    void testOvernightHoursRunIntoExceptionDates() {
+        LocalDate saturday = MONDAY.plusDays(5);
+        LocalDate eventNight = MONDAY.plusDays(2);
+        OpenHoursSchedule schedule = compile(
+            weekly("Friday", "22:00", "06:00"),
+            exception(saturday, "10:00", "14:00"),
+            exception(eventNight, "20:00", "03:00")
+        );
+
+        assertThat(schedule.isOpenAt(at(saturday, 5, 59))).isTrue();
+        assertThat(schedule.isOpenAt(at(saturday, 6, 0))).isFalse();
+        assertThat(schedule.isOpenAt(at(saturday, 12, 0))).isTrue();
+        assertThat(schedule.isOpenAt(at(eventNight.plusDays(1), 2, 0))).isTrue();
+        assertThat(schedule.isOpenAt(at(eventNight.plusDays(1), 3, 0))).isFalse();
+        assertThat(schedule.nextOpeningAt(at(eventNight.plusDays(1), 3, 0))).contains(at(MONDAY.plusDays(4), 22, 0));
+    }
+
+    @Test
+    void testNextOpeningOnDaylightSavingDays() {
+        // Clocks go forward from 02:00 to 03:00 on Sunday 29 March 2026, and back from 03:00 to 02:00 on 25 October
+        LocalDate springForward = LocalDate.of(2026, 3, 29);
+        LocalDate fallBack = LocalDate.of(2026, 10, 25);
+        OpenHoursSchedule schedule = compile(weekly("Sunday", "08:00", "18:00"));
+
+        assertThat(schedule.nextOpeningAt(at(springForward, 1, 0))).contains(at(springForward, 8, 0));
+        assertThat(schedule.nextOpeningAt(at(fallBack, 1, 0))).contains(at(fallBack, 8, 0));
+    }
+
+    @Test
+    void testNextOpening() {
+        OpenHoursSchedule schedule = compile(weekly("Monday, Wednesday", "08:00", "16:00"));
+
+        assertThat(schedule.nextOpeningAt(at(MONDAY, 9, 0))).contains(at(MONDAY, 9, 0));
+        assertThat(schedule.nextOpeningAt(at(MONDAY, 6, 0))).contains(at(MONDAY, 8, 0));
+        assertThat(schedule.nextOpeningAt(at(MONDAY, 17, 0))).contains(at(MONDAY.plusDays(2), 8, 0));
+        assertThat(schedule.nextOpeningAt(at(MONDAY.plusDays(2), 17, 0))).contains(at(MONDAY.plusDays(7), 8, 0));
+    }
+
+    @Test
+    void testOnlyExceptionsCanOpen() {
+        LocalDate openDay = MONDAY.plusYears(1);
+        OpenHoursSchedule schedule = compile(exception(openDay, "09:00", "17:00"));
+
+        assertThat(schedule.nextOpeningAt(at(MONDAY, 12, 0))).contains(at(openDay, 9, 0));
+        assertThat(schedule.nextOpeningAt(at(openDay, 18, 0))).isEmpty();
+        assertThat(compile().nextOpeningAt(at(MONDAY, 12, 0))).isEmpty();
+        assertThat(compile().isEmpty()).isTrue();
+    }
+
+    @Test
+    void testUnparseableRowsAreSkipped() {
+        OpenHoursSchedule schedule = compile(weekly("someday", "07:00", "22:00"), weekly("Monday", "late", "22:00"));
+
+        assertThat(schedule.isEmpty()).isTrue();
+    }
+
+    @Test
+    void testParseDays() {
+        assertThat(OpenHoursSchedule.parseDays("Friday-Monday"))
+            .containsExactlyInAnyOrder(DayOfWeek.FRIDAY, DayOfWeek.SATURDAY, DayOfWeek.SUNDAY, DayOfWeek.MONDAY);
+        assertThat(OpenHoursSchedule.parseDays("måndag och tisdag")).containsExactlyInAnyOrder(DayOfWeek.MONDAY, DayOfWeek.TUESDAY);
+        assertThat(OpenHoursSchedule.parseDays("Daily")).hasSize(7);
+        assertThat(OpenHoursSchedule.parseDays(" ")).isEmpty();
+    }
+
+    private static OpenHoursSchedule compile(OpenHours... rows) {
+        return OpenHoursSchedule.compile(rows.length == 0 ? Collections.emptyList() : Arrays.asList(rows), ZONE);
+    }
+
+    private static OpenHours weekly(String weekday, String openingHour, String closingHour) {
+        return new OpenHours().weekday(weekday).openingHour(openingHour).closingHour(closingHour);
+    }
+
+    private static OpenHours exception(LocalDate date, String openingHour, String closingHour) {
+        return new OpenHours().date(date).openingHour(openingHour).closingHour(closingHour);
+    }
+
+    private static ZonedDateTime at(LocalDate date, int hour, int minute) {
+        return date.atTime(hour, minute).atZone(ZONE);
+    }
+}
@@ -0,0 +1,21 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.YearMonth;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Unit tests for {@link ParkingSessionPartitionService}.
+ */
+class ParkingSessionPartitionServiceTest {
+
+    @Test
+    void testPartitionCoversOneMonth() {
+        assertThat(ParkingSessionPartitionService.partitionDdl(YearMonth.of(2026, 12)))
+            .isEqualTo(
+                "create table if not exists parking_session_y2026m12 partition of parking_session" +
+                " for values from ('2026-12-01') to ('2027-01-01')"
+            );
+    }
+}
@@ -0,0 +1,101 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+import static org.mockito.Mockito.when;
+
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.List;
+import javax.persistence.Cache;
+import javax.persistence.EntityManagerFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.AvailabilityIngestionResultDTO;
+import smartparking.service.dto.ParkingSpotAvailabilityEventDTO;
+
+/**
+ * Unit tests for {@link ParkingSpotAvailabilityService}.
+ */
+class ParkingSpotAvailabilityServiceTest {
+
+    private static final Instant NOW = Instant.parse("2026-10-18T12:00:00.123456789Z");
+
+    private JdbcTemplate jdbcTemplate;
+
+    private ParkingSpotRepository parkingSpotRepository;
+
+    private SearchOutboxService searchOutboxService;
+
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private ParkingSpotAvailabilityService service;
+
+    @BeforeEach
+    public void setup() {
+        jdbcTemplate = mock(JdbcTemplate.class);
+        parkingSpotRepository = mock(ParkingSpotRepository.class);
+        searchOutboxService = mock(SearchOutboxService.class);
+        parkingSpotOccupancyIndex = mock(ParkingSpotOccupancyIndex.class);
+        EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+        when(entityManagerFactory.getCache()).thenReturn(mock(Cache.class));
+        service =
+            new ParkingSpotAvailabilityService(
+                new ApplicationProperties(),
+                jdbcTemplate,
+                entityManagerFactory,
+                parkingSpotRepository,
+                searchOutboxService,
+                parkingSpotOccupancyIndex,
+                mock(ClusterCacheInvalidator.class)
+            );
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdatesWithoutCountAreReadBack() {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList(), anyInt(), any(ParameterizedPreparedStatementSetter.class)))
+            .thenReturn(new int[][] { { Statement.SUCCESS_NO_INFO, Statement.SUCCESS_NO_INFO, 0 } });
+        // Spot 1 took the event, stored with a coarser precision, and spot 2 kept a newer one
+        List<ParkingSpotRepository.AvailabilityChangeView> views = Arrays.asList(
+            view(1L, NOW.truncatedTo(ChronoUnit.MICROS)),
+            view(2L, NOW.plusSeconds(5))
+        );
+        when(parkingSpotRepository.findAvailabilityChangeByIdIn(any())).thenReturn(views);
+
+        AvailabilityIngestionResultDTO result = service.ingest(
+            Arrays.asList(
+                new ParkingSpotAvailabilityEventDTO(1L, true, NOW),
+                new ParkingSpotAvailabilityEventDTO(2L, true, NOW),
+                new ParkingSpotAvailabilityEventDTO(3L, true, NOW)
+            )
+        );
+
+        assertThat(result.getApplied()).isEqualTo(1);
+        assertThat(result.getIgnored()).isEqualTo(2);
+        verify(searchOutboxService).indexAll(eq(SearchDocumentType.PARKING_SPOT), eq(Arrays.asList(1L)));
+        verify(parkingSpotOccupancyIndex).updateAvailability(1L, true);
+        verifyNoMoreInteractions(parkingSpotOccupancyIndex);
+    }
+
+    private static ParkingSpotRepository.AvailabilityChangeView view(Long id, Instant availabilityChangedAt) {
+        ParkingSpotRepository.AvailabilityChangeView view = mock(ParkingSpotRepository.AvailabilityChangeView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getAvailabilityChangedAt()).thenReturn(availabilityChangedAt);
+        return view;
+    }
+}
@@ -0,0 +1,197 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import smartparking.config.ApplicationProperties;
+
+/**
+ * Unit tests for {@link ParkingSpotEventLog}.
+ */
+class ParkingSpotEventLogTest {
+
+    @TempDir
+    Path directory;
+
+    private ApplicationProperties applicationProperties;
+
+    private List<String> replayed;
+
+    @BeforeEach
+    public void setup() {
+        applicationProperties = new ApplicationProperties();
+        applicationProperties.getOccupancyLog().setEnabled(true);
+        applicationProperties.getOccupancyLog().setDirectory(directory.toString());
+        applicationProperties.getOccupancyLog().setSegmentRecords(2);
+        replayed = new ArrayList<>();
+    }
+
+    @Test
+    void testNothingToRecover() {
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+
+        assertThat(eventLog.recover(this::record)).isEqualTo(-1);
+        assertThat(eventLog.getSequence()).isZero();
+        assertThat(replayed).isEmpty();
+    }
+
+    @Test
+    void testDisabledLogIgnoresAppends() {
+        applicationProperties.getOccupancyLog().setEnabled(false);
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+
+        assertThat(eventLog.recover(this::record)).isEqualTo(-1);
+        eventLog.append(10L, 1L, null, true, false);
+
+        assertThat(eventLog.getSequence()).isEqualTo(-1);
+        assertThat(directory).isEmptyDirectory();
+    }
+
+    @Test
+    void testRecordsAreReplayedInOrder() {
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+        eventLog.recover(this::record);
+        eventLog.append(10L, 1L, 2L, true, false);
+        eventLog.append(11L, 1L, null, false, true);
+        eventLog.append(10L, null, null, false, false);
+        eventLog.close();
+
+        ParkingSpotEventLog recovered = new ParkingSpotEventLog(applicationProperties);
+
+        assertThat(recovered.recover(this::record)).isPositive();
+        assertThat(replayed).containsExactly("10:1:2:true:false", "11:1:null:false:true", "10:null:null:false:false");
+        assertThat(recovered.getSequence()).isEqualTo(3);
+    }
+
+    @Test
+    void testSnapshotCompactsTheLog() throws IOException {
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+        eventLog.recover(this::record);
+        for (long spotId = 10; spotId < 15; spotId++) {
+            eventLog.append(spotId, 1L, null, true, false);
+        }
+        assertThat(files())
+            .containsExactly("segment-00000000000000000000.log", "segment-00000000000000000002.log", "segment-00000000000000000004.log");
+
+        eventLog.writeSnapshot(
+            spots -> {
+                spots.accept(10L, 1L, null, true, false);
+                spots.accept(11L, 2L, 3L, false, true);
+            }
+        );
+        eventLog.append(12L, 1L, null, false, false);
+        eventLog.close();
+
+        assertThat(files()).containsExactly("segment-00000000000000000004.log", "snapshot-00000000000000000005.bin");
+        ParkingSpotEventLog recovered = new ParkingSpotEventLog(applicationProperties);
+        assertThat(recovered.recover(this::record)).isPositive();
+        assertThat(replayed).containsExactly("10:1:null:true:false", "11:2:3:false:true", "12:1:null:false:false");
+        assertThat(recovered.getSequence()).isEqualTo(6);
+    }
+
+    @Test
+    void testReplayStopsAtCorruptRecord() throws IOException {
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+        applicationProperties.getOccupancyLog().setSegmentRecords(10);
+        eventLog.recover(this::record);
+        eventLog.append(10L, 1L, null, true, false);
+        eventLog.append(11L, 1L, null, true, false);
+        eventLog.append(12L, 1L, null, true, false);
+        eventLog.close();
+        try (FileChannel channel = FileChannel.open(directory.resolve("segment-00000000000000000000.log"), StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.wrap(new byte[] { 1 }), 2L * ParkingSpotEventLog.RECORD_SIZE + 20);
+        }
+
+        ParkingSpotEventLog recovered = new ParkingSpotEventLog(applicationProperties);
+        recovered.recover(this::record);
+        recovered.append(13L, 1L, null, false, false);
+        recovered.close();
+
+        assertThat(replayed).containsExactly("10:1:null:true:false", "11:1:null:true:false");
+        replayed.clear();
+        new ParkingSpotEventLog(applicationProperties).recover(this::record);
+        assertThat(replayed).containsExactly("10:1:null:true:false", "11:1:null:true:false", "13:1:null:false:false");
+    }
+
+    @Test
+    void testGapInTheLogIsNotReplayed() throws IOException {
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+        eventLog.recover(this::record);
+        for (long spotId = 10; spotId < 15; spotId++) {
+            eventLog.append(spotId, 1L, null, true, false);
+        }
+        eventLog.close();
+        Files.delete(directory.resolve("segment-00000000000000000002.log"));
+
+        ParkingSpotEventLog recovered = new ParkingSpotEventLog(applicationProperties);
+
+        assertThat(recovered.recover(this::record)).isEqualTo(-1);
+        assertThat(recovered.getSequence()).isZero();
+        assertThat(files()).containsExactly("segment-00000000000000000000.log");
+    }
+
+    @Test
+    void testNextSegmentIsWrittenAheadOfTime() throws Exception {
+        applicationProperties.getOccupancyLog().setSegmentRecords(4);
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+        eventLog.recover(this::record);
+        eventLog.append(10L, 1L, null, true, false);
+        eventLog.append(11L, 1L, null, true, false);
+
+        Path next = directory.resolve("segment-00000000000000000004.next");
+        for (int i = 0; i < 100 && (!Files.exists(next) || Files.size(next) < 4L * ParkingSpotEventLog.RECORD_SIZE); i++) {
+            Thread.sleep(50);
+        }
+        assertThat(next).hasBinaryContent(new byte[4 * ParkingSpotEventLog.RECORD_SIZE]);
+
+        for (long spotId = 12; spotId < 15; spotId++) {
+            eventLog.append(spotId, 1L, null, true, false);
+        }
+        eventLog.close();
+
+        assertThat(allFiles()).containsExactly("segment-00000000000000000000.log", "segment-00000000000000000004.log");
+        new ParkingSpotEventLog(applicationProperties).recover(this::record);
+        assertThat(replayed).hasSize(5).last().isEqualTo("14:1:null:true:false");
+    }
+
+    @Test
+    void testAppendsTheStateReadByTheCaller() {
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+        eventLog.recover(this::record);
+
+        eventLog.append(spot -> spot.accept(10L, 1L, 2L, true, true));
+        eventLog.close();
+
+        new ParkingSpotEventLog(applicationProperties).recover(this::record);
+        assertThat(replayed).containsExactly("10:1:2:true:true");
+    }
+
+    private void record(long spotId, Long carParkId, Long floor, boolean available, boolean accessible) {
+        replayed.add(spotId + ":" + carParkId + ":" + floor + ":" + available + ":" + accessible);
+    }
+
+    /**
+     * @return the segments and snapshots, without the next segment which may be being written ahead of time.
+     */
+    private List<String> files() throws IOException {
+        return allFiles().stream().filter(file -> !file.endsWith(".next")).collect(Collectors.toList());
+    }
+
+    private List<String> allFiles() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(file -> file.getFileName().toString()).sorted().collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,310 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Path;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.context.ApplicationEventPublisher;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.CarParkAvailabilityDTO;
+import smartparking.service.dto.FloorAvailabilityDTO;
+import smartparking.service.dto.ParkingSpotStateDTO;
+
+/**
+ * Unit tests for {@link ParkingSpotOccupancyIndex}.
+ */
+class ParkingSpotOccupancyIndexTest {
+
+    private static final Long CAR_PARK_ID = 1L;
+    private static final Long OTHER_CAR_PARK_ID = 2L;
+
+    private ApplicationEventPublisher applicationEventPublisher;
+
+    private ParkingSpotOccupancyIndex index;
+
+    @BeforeEach
+    public void setup() {
+        applicationEventPublisher = mock(ApplicationEventPublisher.class);
+        ApplicationProperties occupancyProperties = new ApplicationProperties();
+        index =
+            new ParkingSpotOccupancyIndex(
+                mock(ParkingSpotRepository.class),
+                applicationEventPublisher,
+                new ParkingSpotEventLog(occupancyProperties),
+                occupancyProperties
+            );
+    }
+
+    @Test
+    void testUnknownCarParkIsEmpty() {
+        CarParkAvailabilityDTO availability = index.getAvailability(CAR_PARK_ID);
+
+        assertThat(availability.getCarParkId()).isEqualTo(CAR_PARK_ID);
+        assertThat(availability.getTotalSpots()).isZero();
+        assertThat(availability.getFreeSpots()).isZero();
+        assertThat(availability.getAccessibleFreeSpots()).isZero();
+    }
+
+    @Test
+    void testCountsFollowUpdates() {
+        index.apply(10L, CAR_PARK_ID, null, true, false);
+        index.apply(11L, CAR_PARK_ID, null, true, true);
+        index.apply(12L, CAR_PARK_ID, null, false, true);
+
+        assertAvailability(CAR_PARK_ID, 3, 2, 1);
+
+        index.apply(11L, CAR_PARK_ID, null, false, true);
+        index.apply(12L, CAR_PARK_ID, null, true, true);
+        index.apply(12L, CAR_PARK_ID, null, true, true);
+
+        assertAvailability(CAR_PARK_ID, 3, 2, 1);
+    }
+
+    @Test
+    void testSpotMovedToAnotherCarPark() {
+        index.apply(10L, CAR_PARK_ID, null, true, true);
+        index.apply(11L, CAR_PARK_ID, null, true, false);
+
+        index.apply(10L, OTHER_CAR_PARK_ID, null, true, true);
+
+        assertAvailability(CAR_PARK_ID, 1, 1, 0);
+        assertAvailability(OTHER_CAR_PARK_ID, 1, 1, 1);
+        assertThat(index.getSpotState(CAR_PARK_ID, 10L).isRemoved()).isTrue();
+        assertThat(index.getSpotState(OTHER_CAR_PARK_ID, 10L).isRemoved()).isFalse();
+    }
+
+    @Test
+    void testOnlyChangesArePublished() {
+        index.apply(10L, CAR_PARK_ID, null, true, false);
+        index.apply(10L, CAR_PARK_ID, null, true, false);
+        index.apply(10L, CAR_PARK_ID, null, false, false);
+        index.remove(10L);
+
+        verify(applicationEventPublisher, times(3)).publishEvent(any(ParkingSpotOccupancyChangedEvent.class));
+    }
+
+    @Test
+    void testSpotStates() {
+        index.apply(10L, CAR_PARK_ID, null, true, false);
+        index.apply(11L, CAR_PARK_ID, null, false, true);
+
+        assertThat(index.getSpotStates(CAR_PARK_ID))
+            .extracting(ParkingSpotStateDTO::getSpotId, ParkingSpotStateDTO::isAvailable, ParkingSpotStateDTO::isAccessible)
+            .containsExactlyInAnyOrder(tuple(10L, true, false), tuple(11L, false, true));
+        assertThat(index.getSpotStates(OTHER_CAR_PARK_ID)).isEmpty();
+    }
+
+    @Test
+    void testRemovedSpotSlotIsReused() {
+        index.apply(10L, CAR_PARK_ID, null, true, true);
+        index.apply(11L, CAR_PARK_ID, null, false, false);
+
+        index.remove(10L);
+        assertAvailability(CAR_PARK_ID, 1, 0, 0);
+
+        index.apply(12L, CAR_PARK_ID, null, false, true);
+        assertAvailability(CAR_PARK_ID, 2, 0, 0);
+    }
+
+    @Test
+    void testFloorCountsFollowUpdates() {
+        index.apply(10L, CAR_PARK_ID, 1L, true, false);
+        index.apply(11L, CAR_PARK_ID, 0L, false, false);
+        index.apply(12L, CAR_PARK_ID, null, true, false);
+        index.apply(13L, CAR_PARK_ID, 1L, false, false);
+
+        assertThat(index.getFloorAvailability(CAR_PARK_ID))
+            .extracting(FloorAvailabilityDTO::getFloor, FloorAvailabilityDTO::getTotalSpots, FloorAvailabilityDTO::getFreeSpots)
+            .containsExactly(tuple(0L, 1, 0), tuple(1L, 2, 1), tuple(null, 1, 1));
+
+        // Moved to another floor, then freed
+        index.apply(10L, CAR_PARK_ID, 0L, true, false);
+        index.apply(13L, CAR_PARK_ID, 1L, true, false);
+        index.remove(12L);
+
+        assertThat(index.getFloorAvailability(CAR_PARK_ID))
+            .extracting(FloorAvailabilityDTO::getFloor, FloorAvailabilityDTO::getTotalSpots, FloorAvailabilityDTO::getFreeSpots)
+            .containsExactly(tuple(0L, 2, 1), tuple(1L, 1, 1));
+        assertThat(index.getFloorAvailability(OTHER_CAR_PARK_ID)).isEmpty();
+    }
+
+    @Test
+    void testUpdateFromEntity() {
+        ParkingSpot parkingSpot = new ParkingSpot().id(10L).available(true).accessableParking(null).carPark(new CarPark().id(CAR_PARK_ID));
+
+        index.update(parkingSpot);
+
+        assertAvailability(CAR_PARK_ID, 1, 1, 0);
+    }
+
+    @Test
+    void testRecoversFromEventLog(@TempDir Path directory) {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getOccupancyLog().setEnabled(true);
+        applicationProperties.getOccupancyLog().setDirectory(directory.toString());
+        ParkingSpotRepository parkingSpotRepository = mock(ParkingSpotRepository.class);
+        ParkingSpotEventLog eventLog = new ParkingSpotEventLog(applicationProperties);
+        index = new ParkingSpotOccupancyIndex(parkingSpotRepository, applicationEventPublisher, eventLog, applicationProperties);
+        Stream<ParkingSpotRepository.OccupancyView> views = Stream.of(view(10L, CAR_PARK_ID, 1L, true, true));
+        when(parkingSpotRepository.streamAllOccupancy()).thenReturn(views);
+        index.load();
+        index.apply(11L, CAR_PARK_ID, 2L, false, false);
+        index.apply(12L, OTHER_CAR_PARK_ID, null, true, false);
+        index.apply(10L, CAR_PARK_ID, 1L, false, true);
+        eventLog.close();
+
+        ParkingSpotRepository otherRepository = mock(ParkingSpotRepository.class);
+        ApplicationEventPublisher otherPublisher = mock(ApplicationEventPublisher.class);
+        ParkingSpotOccupancyIndex recovered = new ParkingSpotOccupancyIndex(
+            otherRepository,
+            otherPublisher,
+            new ParkingSpotEventLog(applicationProperties),
+            applicationProperties
+        );
+        recovered.load();
+
+        verify(otherRepository, never()).streamAllOccupancy();
+        verify(otherPublisher).publishEvent(any(ParkingSpotOccupancyRecoveredEvent.class));
+        assertThat(recovered.getSpotStates(CAR_PARK_ID))
+            .extracting(ParkingSpotStateDTO::getSpotId, ParkingSpotStateDTO::isAvailable, ParkingSpotStateDTO::isAccessible)
+            .containsExactlyInAnyOrder(tuple(10L, false, true), tuple(11L, false, false));
+        assertThat(recovered.getFloorAvailability(CAR_PARK_ID))
+            .extracting(FloorAvailabilityDTO::getFloor, FloorAvailabilityDTO::getTotalSpots)
+            .containsExactly(tuple(1L, 1), tuple(2L, 1));
+        assertThat(recovered.getAvailability(OTHER_CAR_PARK_ID).getFreeSpots()).isEqualTo(1);
+    }
+
+    @Test
+    void testReconcileAppliesDatabaseState() {
+        ParkingSpotRepository parkingSpotRepository = mock(ParkingSpotRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        index =
+            new ParkingSpotOccupancyIndex(
+                parkingSpotRepository,
+                applicationEventPublisher,
+                new ParkingSpotEventLog(applicationProperties),
+                applicationProperties
+            );
+        index.apply(10L, CAR_PARK_ID, null, true, false);
+        index.apply(11L, CAR_PARK_ID, null, true, false);
+        index.apply(13L, CAR_PARK_ID, null, true, false);
+        Stream<ParkingSpotRepository.OccupancyView> changedViews = Stream.of(view(10L, CAR_PARK_ID, null, false, false));
+        when(parkingSpotRepository.streamOccupancyChangedSince(any())).thenReturn(changedViews);
+        // Spot 11 was deleted and spot 12 created by another node
+        Stream<ParkingSpotRepository.OccupancyView> allViews = Stream.of(
+            view(10L, CAR_PARK_ID, null, false, false),
+            view(12L, CAR_PARK_ID, null, true, true),
+            view(13L, CAR_PARK_ID, null, true, false)
+        );
+        when(parkingSpotRepository.streamAllOccupancy()).thenReturn(allViews);
+
+        index.reconcile(new ParkingSpotOccupancyRecoveredEvent(System.currentTimeMillis()));
+
+        assertThat(index.getSpotStates(CAR_PARK_ID))
+            .extracting(ParkingSpotStateDTO::getSpotId, ParkingSpotStateDTO::isAvailable, ParkingSpotStateDTO::isAccessible)
+            .containsExactlyInAnyOrder(tuple(10L, false, false), tuple(12L, true, true), tuple(13L, true, false));
+        verify(applicationEventPublisher, times(6)).publishEvent(any(ParkingSpotOccupancyChangedEvent.class));
+    }
+
+    @Test
+    void testLoadSwapsInTheLoadedState() {
+        ParkingSpotRepository parkingSpotRepository = mock(ParkingSpotRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        index =
+            new ParkingSpotOccupancyIndex(
+                parkingSpotRepository,
+                applicationEventPublisher,
+                new ParkingSpotEventLog(applicationProperties),
+                applicationProperties
+            );
+        index.apply(20L, CAR_PARK_ID, null, true, false);
+        int[] totalWhileLoading = new int[1];
+        Stream<ParkingSpotRepository.OccupancyView> views = Stream
+            .of(view(10L, CAR_PARK_ID, null, true, false), view(11L, CAR_PARK_ID, null, true, false))
+            .peek(
+                view -> {
+                    if (view.getId() == 10L) {
+                        // Committed by this node while loading, after the database read of spot 11
+                        index.apply(11L, CAR_PARK_ID, null, false, false);
+                        totalWhileLoading[0] = index.getAvailability(CAR_PARK_ID).getTotalSpots();
+                    }
+                }
+            );
+        when(parkingSpotRepository.streamAllOccupancy()).thenReturn(views);
+
+        index.load();
+
+        // Spot 20 was deleted by another node
+        assertThat(totalWhileLoading[0]).isEqualTo(2);
+        assertThat(index.getSpotStates(CAR_PARK_ID))
+            .extracting(ParkingSpotStateDTO::getSpotId, ParkingSpotStateDTO::isAvailable)
+            .containsExactlyInAnyOrder(tuple(10L, true), tuple(11L, false));
+        assertAvailability(CAR_PARK_ID, 2, 1, 0);
+    }
+
+    @Test
+    void testLoadKeepsTheAvailabilityCommittedWhileLoading() {
+        ParkingSpotRepository parkingSpotRepository = mock(ParkingSpotRepository.class);
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        index =
+            new ParkingSpotOccupancyIndex(
+                parkingSpotRepository,
+                applicationEventPublisher,
+                new ParkingSpotEventLog(applicationProperties),
+                applicationProperties
+            );
+        Stream<ParkingSpotRepository.OccupancyView> views = Stream
+            .of(view(10L, CAR_PARK_ID, 1L, true, false), view(11L, CAR_PARK_ID, 1L, true, true))
+            .peek(
+                view -> {
+                    if (view.getId() == 10L) {
+                        // Committed by this node on a cold start, before and after the database read of each spot
+                        index.updateAvailability(10L, false);
+                        index.updateAvailability(11L, false);
+                    }
+                }
+            );
+        when(parkingSpotRepository.streamAllOccupancy()).thenReturn(views);
+
+        index.load();
+
+        assertThat(index.getSpotStates(CAR_PARK_ID))
+            .extracting(ParkingSpotStateDTO::getSpotId, ParkingSpotStateDTO::isAvailable, ParkingSpotStateDTO::isAccessible)
+            .containsExactlyInAnyOrder(tuple(10L, false, false), tuple(11L, false, true));
+        assertAvailability(CAR_PARK_ID, 2, 0, 0);
+        assertThat(index.getFloorAvailability(CAR_PARK_ID))
+            .extracting(FloorAvailabilityDTO::getFloor, FloorAvailabilityDTO::getFreeSpots)
+            .containsExactly(tuple(1L, 0));
+    }
+
+    private static ParkingSpotRepository.OccupancyView view(Long id, Long carParkId, Long floor, boolean available, boolean accessible) {
+        ParkingSpotRepository.OccupancyView view = mock(ParkingSpotRepository.OccupancyView.class);
+        when(view.getId()).thenReturn(id);
+        when(view.getCarParkId()).thenReturn(carParkId);
+        when(view.getFloor()).thenReturn(floor);
+        when(view.getAvailable()).thenReturn(available);
+        when(view.getAccessableParking()).thenReturn(accessible);
+        return view;
+    }
+
+    private void assertAvailability(Long carParkId, int total, int free, int accessibleFree) {
+        CarParkAvailabilityDTO availability = index.getAvailability(carParkId);
+        assertThat(availability.getTotalSpots()).isEqualTo(total);
+        assertThat(availability.getFreeSpots()).isEqualTo(free);
+        assertThat(availability.getAccessibleFreeSpots()).isEqualTo(accessibleFree);
+    }
+}
@@ -0,0 +1,159 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assumptions.assumeThat;
+import static org.elasticsearch.index.query.QueryBuilders.termQuery;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.util.List;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.SearchHit;
+import org.springframework.data.elasticsearch.core.query.NativeSearchQueryBuilder;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.DockerClientFactory;
+import org.testcontainers.containers.GenericContainer;
+import org.testcontainers.containers.wait.strategy.Wait;
+import smartparking.IntegrationTest;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.web.rest.TestUtil;
+
+/**
+ * Integration tests for {@link SearchDocumentDenormalizer}, against a real Elasticsearch: the documents of the car
+ * parks and parking spots follow the city of their address.
+ * <p>
+ * Skipped when Docker is not available.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+@Transactional
+class SearchDocumentDenormalizerIT {
+
+    private static final String CITY = "AAAAAAAAAA";
+
+    private static final String UPDATED_CITY = "BBBBBBBBBB";
+
+    private static GenericContainer<?> elasticsearch;
+
+    @Autowired
+    private SearchOutboxService searchOutboxService;
+
+    @Autowired
+    private SearchOutboxDrainer searchOutboxDrainer;
+
+    @Autowired
+    private ElasticsearchRestTemplate elasticsearchTemplate;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restAddressMockMvc;
+
+    private Address address;
+
+    private CarPark carPark;
+
+    private ParkingSpot parkingSpot;
+
+    @BeforeAll
+    public static void startElasticsearch() {
+        assumeThat(DockerClientFactory.instance().isDockerAvailable()).as("Docker is available").isTrue();
+        elasticsearch =
+            new GenericContainer<>("docker.elastic.co/elasticsearch/elasticsearch:7.9.3")
+                .withEnv("discovery.type", "single-node")
+                .withExposedPorts(9200)
+                .waitingFor(Wait.forHttp("/_cluster/health?wait_for_status=yellow").forPort(9200));
+        elasticsearch.start();
+    }
+
+    @AfterAll
+    public static void stopElasticsearch() {
+        if (elasticsearch != null) {
+            elasticsearch.stop();
+        }
+    }
+
+    @DynamicPropertySource
+    static void elasticsearchProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.elasticsearch.rest.uris", () -> "http://" + elasticsearch.getHost() + ":" + elasticsearch.getMappedPort(9200));
+    }
+
+    @BeforeEach
+    public void initTest() {
+        createIndex(CarPark.class);
+        createIndex(ParkingSpot.class);
+        address = new Address().streetAddress("AAAAAAAAAA").postalCode("AAAAAAAAAA").city(CITY);
+        em.persist(address);
+        carPark = new CarPark().name("AAAAAAAAAA").address(address);
+        em.persist(carPark);
+        parkingSpot = new ParkingSpot().available(true).floor(1L).carPark(carPark);
+        em.persist(parkingSpot);
+        em.flush();
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, carPark.getId());
+        searchOutboxService.index(SearchDocumentType.PARKING_SPOT, parkingSpot.getId());
+        drainOutbox();
+    }
+
+    @Test
+    void documentsFollowTheCityOfTheirAddress() throws Exception {
+        assertThat(searchIds(CarPark.class, CITY)).contains(carPark.getId().toString());
+        assertThat(searchIds(ParkingSpot.class, CITY)).contains(parkingSpot.getId().toString());
+
+        restAddressMockMvc
+            .perform(
+                patch("/api/addresses/{id}", address.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(new Address().id(address.getId()).city(UPDATED_CITY)))
+            )
+            .andExpect(status().isOk());
+        drainOutbox();
+
+        assertThat(searchIds(CarPark.class, UPDATED_CITY)).contains(carPark.getId().toString());
+        assertThat(searchIds(ParkingSpot.class, UPDATED_CITY)).contains(parkingSpot.getId().toString());
+        assertThat(searchIds(CarPark.class, CITY)).doesNotContain(carPark.getId().toString());
+        assertThat(searchIds(ParkingSpot.class, CITY)).doesNotContain(parkingSpot.getId().toString());
+    }
+
+    private void createIndex(Class<?> documentClass) {
+        IndexOperations indexOperations = elasticsearchTemplate.indexOps(documentClass);
+        if (!indexOperations.exists()) {
+            indexOperations.create();
+            indexOperations.putMapping(indexOperations.createMapping());
+        }
+    }
+
+    private void drainOutbox() {
+        while (searchOutboxDrainer.drainBatch() > 0) {
+            // Until every queued document is sent
+        }
+        elasticsearchTemplate.indexOps(CarPark.class).refresh();
+        elasticsearchTemplate.indexOps(ParkingSpot.class).refresh();
+    }
+
+    private List<String> searchIds(Class<?> documentClass, String city) {
+        return elasticsearchTemplate
+            .search(new NativeSearchQueryBuilder().withQuery(termQuery("city", city)).build(), documentClass)
+            .getSearchHits()
+            .stream()
+            .map(SearchHit::getId)
+            .collect(Collectors.toList());
+    }
+}
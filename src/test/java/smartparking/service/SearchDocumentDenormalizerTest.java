@@ -0,0 +1,91 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.service.dto.CarParkAvailabilityDTO;
+
+/**
+ * Unit tests for {@link SearchDocumentDenormalizer}.
+ */
+class SearchDocumentDenormalizerTest {
+
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    private SearchOutboxService searchOutboxService;
+
+    private SearchDocumentDenormalizer denormalizer;
+
+    @BeforeEach
+    public void setup() {
+        parkingSpotOccupancyIndex = mock(ParkingSpotOccupancyIndex.class);
+        searchOutboxService = mock(SearchOutboxService.class);
+        denormalizer =
+            new SearchDocumentDenormalizer(
+                parkingSpotOccupancyIndex,
+                searchOutboxService,
+                mock(CarParkRepository.class),
+                mock(ParkingSpotRepository.class),
+                mock(PlatformTransactionManager.class)
+            );
+    }
+
+    @Test
+    void testDocumentsCarryCityAndOccupancy() {
+        CarPark carPark = new CarPark().id(1L).address(new Address().city("Kista"));
+        ParkingSpot parkingSpot = new ParkingSpot().id(2L).carPark(carPark);
+        ParkingSpot orphanParkingSpot = new ParkingSpot().id(3L);
+        when(parkingSpotOccupancyIndex.getAvailability(1L)).thenReturn(new CarParkAvailabilityDTO(1L, 10, 4, 1));
+
+        denormalizer.denormalize(List.of(carPark, parkingSpot, orphanParkingSpot, new OpenHours()));
+
+        assertThat(carPark.getCity()).isEqualTo("Kista");
+        assertThat(carPark.getTotalSpots()).isEqualTo(10);
+        assertThat(carPark.getFreeSpots()).isEqualTo(4);
+        assertThat(carPark.getAccessibleFreeSpots()).isEqualTo(1);
+        assertThat(parkingSpot.getCity()).isEqualTo("Kista");
+        assertThat(orphanParkingSpot.getCity()).isNull();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void testCarParksWithChangedOccupancyAreQueuedOnce() {
+        denormalizer.onOccupancyChanged(new ParkingSpotOccupancyChangedEvent(10L, 1L, 2L, true, false));
+        denormalizer.onOccupancyChanged(new ParkingSpotOccupancyChangedEvent(11L, 2L, 2L, false, false));
+
+        denormalizer.queueStaleCarParks();
+
+        ArgumentCaptor<List<Long>> carParkIds = ArgumentCaptor.forClass(List.class);
+        verify(searchOutboxService).indexAll(eq(SearchDocumentType.CAR_PARK), carParkIds.capture());
+        assertThat(carParkIds.getValue()).containsExactlyInAnyOrder(1L, 2L);
+
+        // Nothing changed since
+        denormalizer.queueStaleCarParks();
+        verify(searchOutboxService).indexAll(any(), anyCollection());
+    }
+
+    @Test
+    void testNothingIsQueuedWithoutChanges() {
+        denormalizer.queueStaleCarParks();
+
+        verify(searchOutboxService, never()).indexAll(any(), anyCollection());
+    }
+}
@@ -0,0 +1,148 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+import org.apache.http.StatusLine;
+import org.apache.http.entity.ContentType;
+import org.apache.http.nio.entity.NStringEntity;
+import org.apache.http.util.EntityUtils;
+import org.elasticsearch.client.Request;
+import org.elasticsearch.client.Response;
+import org.elasticsearch.client.RestClient;
+import org.elasticsearch.client.RestHighLevelClient;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.IntegrationTest;
+import smartparking.domain.CarPark;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.SearchOutboxRepository;
+
+/**
+ * Integration tests for {@link SearchOutboxDrainer}.
+ */
+@IntegrationTest
+@Transactional
+class SearchOutboxDrainerIT {
+
+    @Autowired
+    private CarParkRepository carParkRepository;
+
+    @Autowired
+    private SearchOutboxRepository searchOutboxRepository;
+
+    @Autowired
+    private SearchOutboxService searchOutboxService;
+
+    @Autowired
+    private SearchOutboxDrainer searchOutboxDrainer;
+
+    @MockBean
+    private ElasticsearchRestTemplate mockElasticsearchTemplate;
+
+    private RestClient mockRestClient;
+
+    @BeforeEach
+    public void setup() throws IOException {
+        mockRestClient = mock(RestClient.class);
+        StatusLine statusLine = mock(StatusLine.class);
+        when(statusLine.getStatusCode()).thenReturn(200);
+        Response response = mock(Response.class);
+        when(response.getStatusLine()).thenReturn(statusLine);
+        when(response.getEntity())
+            .thenReturn(new NStringEntity("{\"took\":1,\"errors\":false,\"items\":[]}", ContentType.APPLICATION_JSON));
+        when(mockRestClient.performRequest(any(Request.class))).thenReturn(response);
+        RestHighLevelClient client = new RestHighLevelClient(mockRestClient, restClient -> {}, Collections.emptyList()) {};
+        when(mockElasticsearchTemplate.execute(any()))
+            .thenAnswer(invocation -> ((ElasticsearchRestTemplate.ClientCallback<?>) invocation.getArgument(0)).doWithClient(client));
+    }
+
+    @Test
+    void drainBatchIndexesOnceAndEmptiesOutbox() throws IOException {
+        CarPark carPark = carParkRepository.saveAndFlush(new CarPark().name("AAAAAAAAAA"));
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, carPark.getId());
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, carPark.getId());
+
+        assertThat(searchOutboxDrainer.drainBatch()).isEqualTo(2);
+
+        assertThat(sentOperations()).containsExactly("index carpark " + carPark.getId());
+        assertThat(searchOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void drainBatchDeletesRemovedDocuments() throws IOException {
+        CarPark carPark = carParkRepository.saveAndFlush(new CarPark().name("AAAAAAAAAA"));
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, carPark.getId());
+        carParkRepository.delete(carPark);
+        searchOutboxService.delete(SearchDocumentType.CAR_PARK, carPark.getId());
+
+        assertThat(searchOutboxDrainer.drainBatch()).isEqualTo(2);
+
+        assertThat(sentOperations()).containsExactly("delete carpark " + carPark.getId());
+        assertThat(searchOutboxRepository.count()).isZero();
+    }
+
+    @Test
+    void drainBatchSendsIndexAndDeleteOperationsInOneRequest() throws IOException {
+        CarPark kept = carParkRepository.saveAndFlush(new CarPark().name("AAAAAAAAAA"));
+        CarPark removed = carParkRepository.saveAndFlush(new CarPark().name("BBBBBBBBBB"));
+        searchOutboxService.index(SearchDocumentType.CAR_PARK, kept.getId());
+        carParkRepository.delete(removed);
+        searchOutboxService.delete(SearchDocumentType.CAR_PARK, removed.getId());
+
+        assertThat(searchOutboxDrainer.drainBatch()).isEqualTo(2);
+
+        assertThat(sentOperations()).containsExactly("index carpark " + kept.getId(), "delete carpark " + removed.getId());
+    }
+
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void drainBatchKeepsEntriesWhenElasticsearchFails() throws IOException {
+        // Committed for real, so that the rollback of the failed batch is the one of the drainer transaction
+        CarPark carPark = carParkRepository.saveAndFlush(new CarPark().name("AAAAAAAAAA"));
+        try {
+            searchOutboxService.delete(SearchDocumentType.CAR_PARK, carPark.getId());
+            when(mockRestClient.performRequest(any(Request.class))).thenThrow(new IOException("Elasticsearch is down"));
+
+            assertThatThrownBy(() -> searchOutboxDrainer.drainBatch()).isInstanceOf(UncheckedIOException.class);
+
+            assertThat(searchOutboxRepository.count()).isEqualTo(1);
+        } finally {
+            searchOutboxRepository.deleteAll();
+            carParkRepository.delete(carPark);
+        }
+    }
+
+    /**
+     * Gets the operations of the single bulk request sent, as "operation index id".
+     */
+    private List<String> sentOperations() throws IOException {
+        ArgumentCaptor<Request> request = ArgumentCaptor.forClass(Request.class);
+        verify(mockRestClient, times(1)).performRequest(request.capture());
+        assertThat(request.getValue().getEndpoint()).isEqualTo("/_bulk");
+        return Arrays
+            .stream(EntityUtils.toString(request.getValue().getEntity(), StandardCharsets.UTF_8).split("\n"))
+            .filter(line -> line.startsWith("{\"index\"") || line.startsWith("{\"delete\""))
+            .map(line -> line.replaceAll("^\\{\"(\\w+)\":\\{\"_index\":\"(\\w+)\",\"_id\":\"(\\d+)\".*$", "$1 $2 $3"))
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,152 @@
+package smartparking.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.StreamSupport;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.elasticsearch.core.ElasticsearchRestTemplate;
+import org.springframework.data.elasticsearch.core.IndexOperations;
+import org.springframework.data.elasticsearch.core.mapping.IndexCoordinates;
+import smartparking.IntegrationTest;
+import smartparking.config.ApplicationProperties;
+import smartparking.domain.CarPark;
+import smartparking.repository.CarParkRepository;
+import smartparking.repository.SearchOutboxPauseRepository;
+import smartparking.service.dto.SearchReindexIndexDTO;
+import smartparking.service.dto.SearchReindexStatusDTO;
+
+/**
+ * Integration tests for {@link SearchReindexService}.
+ */
+@IntegrationTest
+class SearchReindexServiceIT {
+
+    private static final int CHUNK_SIZE = 2;
+
+    @Autowired
+    private SearchReindexService searchReindexService;
+
+    @Autowired
+    private CarParkRepository carParkRepository;
+
+    @Autowired
+    private ApplicationProperties applicationProperties;
+
+    @Autowired
+    private SearchOutboxPauseRepository searchOutboxPauseRepository;
+
+    @MockBean
+    private ElasticsearchRestTemplate mockElasticsearchTemplate;
+
+    private List<CarPark> carParks;
+
+    private int defaultChunkSize;
+
+    @BeforeEach
+    public void setup() {
+        defaultChunkSize = applicationProperties.getSearchReindex().getChunkSize();
+        applicationProperties.getSearchReindex().setChunkSize(CHUNK_SIZE);
+        when(mockElasticsearchTemplate.getIndexCoordinatesFor(any()))
+            .thenAnswer(invocation -> IndexCoordinates.of(((Class<?>) invocation.getArgument(0)).getSimpleName().toLowerCase()));
+        when(mockElasticsearchTemplate.indexOps(any(IndexCoordinates.class))).thenReturn(mock(IndexOperations.class));
+        carParks =
+            carParkRepository.saveAll(IntStream.range(0, 5).mapToObj(i -> new CarPark().name("car park " + i)).collect(Collectors.toList()));
+    }
+
+    @AfterEach
+    public void cleanup() {
+        carParkRepository.deleteAll(carParks);
+        applicationProperties.getSearchReindex().setChunkSize(defaultChunkSize);
+    }
+
+    @Test
+    void reindexLoadsEveryDocumentInChunks() throws Exception {
+        SearchReindexStatusDTO started = searchReindexService.start().get();
+        assertThat(started.isRunning()).isTrue();
+        assertThat(started.getIndices()).extracting(SearchReindexIndexDTO::getAlias).contains("carpark", "parkingspot", "user");
+
+        SearchReindexStatusDTO status = awaitFinished();
+
+        assertThat(status.getError()).isNull();
+        SearchReindexIndexDTO carParkIndex = status
+            .getIndices()
+            .stream()
+            .filter(index -> index.getAlias().equals("carpark"))
+            .findFirst()
+            .get();
+        assertThat(carParkIndex.getIndexName()).startsWith("carpark-");
+        assertThat(carParkIndex.getIndexed()).isEqualTo(carParkIndex.getTotal()).isEqualTo(carParkRepository.count());
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<Iterable<Object>> chunks = ArgumentCaptor.forClass(Iterable.class);
+        verify(mockElasticsearchTemplate, atLeast(3))
+            .save(chunks.capture(), argThat((IndexCoordinates index) -> index.getIndexName().equals(carParkIndex.getIndexName())));
+        List<Object> indexed = new ArrayList<>();
+        chunks
+            .getAllValues()
+            .forEach(
+                chunk -> {
+                    List<Object> documents = StreamSupport.stream(chunk.spliterator(), false).collect(Collectors.toList());
+                    assertThat(documents).hasSizeLessThanOrEqualTo(CHUNK_SIZE);
+                    indexed.addAll(documents);
+                }
+            );
+        assertThat(indexed).containsAll(carParks);
+        verify(mockElasticsearchTemplate, atLeast(1)).execute(any());
+    }
+
+    @Test
+    void reindexHoldsBackTheSearchOutboxOfEveryInstance() throws Exception {
+        AtomicBoolean heldBack = new AtomicBoolean();
+        when(mockElasticsearchTemplate.save(any(Iterable.class), any(IndexCoordinates.class)))
+            .thenAnswer(
+                invocation -> {
+                    heldBack.set(searchOutboxPauseRepository.existsByPausedUntilAfter(Instant.now()));
+                    return invocation.getArgument(0);
+                }
+            );
+
+        searchReindexService.start();
+        awaitFinished();
+
+        assertThat(heldBack).isTrue();
+        assertThat(searchOutboxPauseRepository.count()).isZero();
+    }
+
+    @Test
+    void reindexCannotRunTwice() throws Exception {
+        searchReindexService.start();
+
+        assertThat(searchReindexService.start()).isEmpty();
+
+        awaitFinished();
+    }
+
+    private SearchReindexStatusDTO awaitFinished() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 10000;
+        SearchReindexStatusDTO status = searchReindexService.getStatus().get();
+        while (status.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            status = searchReindexService.getStatus().get();
+        }
+        assertThat(status.isRunning()).isFalse();
+        return status;
+    }
+}
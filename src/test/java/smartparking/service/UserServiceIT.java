@@ -1,9 +1,6 @@
 package smartparking.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
-import static org.mockito.Mockito.never;
-import static org.mockito.Mockito.times;
-import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 import java.time.Instant;
@@ -24,8 +21,10 @@ import org.springframework.transaction.annotation.Transactional;
 import smartparking.IntegrationTest;
 import smartparking.config.Constants;
 import smartparking.domain.User;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
+import smartparking.repository.SearchOutboxRepository;
 import smartparking.repository.UserRepository;
-import smartparking.repository.search.UserSearchRepository;
 import smartparking.service.dto.AdminUserDTO;
 import tech.jhipster.security.RandomUtil;
 
@@ -54,13 +53,8 @@ class UserServiceIT {
     @Autowired
     private UserService userService;
 
-    /**
-     * This repository is mocked in the smartparking.repository.search test package.
-     *
-     * @see smartparking.repository.search.UserSearchRepositoryMockConfiguration
-     */
     @Autowired
-    private UserSearchRepository mockUserSearchRepository;
+    private SearchOutboxRepository searchOutboxRepository;
 
     @Autowired
     private AuditingHandler auditingHandler;
@@ -177,8 +171,14 @@ class UserServiceIT {
         users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo);
         assertThat(users).isEmpty();
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, times(1)).delete(user);
+        // Verify the Elasticsearch removal is queued
+        assertThat(searchOutboxRepository.findAll())
+            .anyMatch(
+                entry ->
+                    entry.getDocumentType() == SearchDocumentType.USER &&
+                    entry.getDocumentId().equals(user.getId()) &&
+                    entry.getOperation() == SearchOutboxOperation.DELETE
+            );
     }
 
     @Test
@@ -197,7 +197,7 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
 
-        // Verify Elasticsearch mock
-        verify(mockUserSearchRepository, never()).delete(user);
+        // Verify no Elasticsearch removal is queued
+        assertThat(searchOutboxRepository.findAll()).noneMatch(entry -> entry.getOperation() == SearchOutboxOperation.DELETE);
     }
 }
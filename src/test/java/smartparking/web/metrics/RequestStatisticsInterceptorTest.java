@@ -0,0 +1,105 @@
+package smartparking.web.metrics;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+/**
+ * Unit tests for {@link RequestStatisticsInterceptor} and {@link RequestStatisticsListener}.
+ */
+class RequestStatisticsInterceptorTest {
+
+    private static final String HANDLER = "TestResource.getThing";
+
+    private MeterRegistry meterRegistry;
+
+    private RequestStatisticsInterceptor interceptor;
+
+    private RequestStatisticsListener listener;
+
+    private HandlerMethod handler;
+
+    private MockHttpServletRequest request;
+
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    public void setup() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        interceptor = new RequestStatisticsInterceptor(meterRegistry);
+        listener = new RequestStatisticsListener();
+        handler = new HandlerMethod(new TestResource(), TestResource.class.getMethod("getThing"));
+        request = new MockHttpServletRequest();
+        response = new MockHttpServletResponse();
+    }
+
+    @AfterEach
+    public void tearDown() {
+        RequestStatistics.stop();
+    }
+
+    @Test
+    void testRequestIsRecordedByHandler() {
+        interceptor.preHandle(request, response, handler);
+        executeStatement();
+        executeStatement();
+        listener.onPostLoad(null);
+        listener.cacheGetEnd(true);
+        listener.cacheGetEnd(false);
+        listener.cacheGetEnd(true);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(meterRegistry.get("hibernate.request.statements").tag("handler", HANDLER).summary().totalAmount()).isEqualTo(2);
+        assertThat(meterRegistry.get("hibernate.request.entity.loads").tag("handler", HANDLER).summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.request.cache").tags("handler", HANDLER, "result", "hit").counter().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("hibernate.request.cache").tags("handler", HANDLER, "result", "miss").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.request.jdbc").tag("handler", HANDLER).timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("hibernate.request.jdbc").tag("handler", HANDLER).timer().totalTime(TimeUnit.NANOSECONDS))
+            .isPositive();
+        assertThat(RequestStatistics.current()).isNull();
+    }
+
+    @Test
+    void testRequestsAreRecordedSeparately() {
+        interceptor.preHandle(request, response, handler);
+        executeStatement();
+        interceptor.afterCompletion(request, response, handler, null);
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+
+        assertThat(meterRegistry.get("hibernate.request.statements").tag("handler", HANDLER).summary().count()).isEqualTo(2);
+        assertThat(meterRegistry.get("hibernate.request.statements").tag("handler", HANDLER).summary().max()).isEqualTo(1);
+    }
+
+    @Test
+    void testWorkOutsideOfRequestsIsIgnored() {
+        executeStatement();
+        listener.onPostLoad(null);
+
+        interceptor.preHandle(request, response, "a static resource");
+        interceptor.afterCompletion(request, response, "a static resource", null);
+
+        assertThat(RequestStatistics.current()).isNull();
+        assertThat(meterRegistry.getMeters()).isEmpty();
+    }
+
+    private void executeStatement() {
+        listener.jdbcPrepareStatementStart();
+        listener.jdbcPrepareStatementEnd();
+        listener.jdbcExecuteStatementStart();
+        listener.jdbcExecuteStatementEnd();
+    }
+
+    static class TestResource {
+
+        public void getThing() {}
+    }
+}
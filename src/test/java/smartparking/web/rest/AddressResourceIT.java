@@ -1,7 +1,10 @@
 package smartparking.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -19,14 +22,22 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import smartparking.IntegrationTest;
 import smartparking.domain.Address;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.SearchOutboxEntry;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
 import smartparking.repository.AddressRepository;
+import smartparking.repository.SearchOutboxRepository;
 import smartparking.repository.search.AddressSearchRepository;
+import smartparking.web.rest.util.CursorPaginationUtil;
 
 /**
  * Integration tests for the {@link AddressResource} REST controller.
@@ -46,6 +57,12 @@ class AddressResourceIT {
     private static final String DEFAULT_CITY = "AAAAAAAAAA";
     private static final String UPDATED_CITY = "BBBBBBBBBB";
 
+    private static final Double DEFAULT_LATITUDE = 59.0D;
+    private static final Double UPDATED_LATITUDE = 60.0D;
+
+    private static final Double DEFAULT_LONGITUDE = 18.0D;
+    private static final Double UPDATED_LONGITUDE = 17.0D;
+
     private static final String ENTITY_API_URL = "/api/addresses";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
     private static final String ENTITY_SEARCH_API_URL = "/api/_search/addresses";
@@ -64,6 +81,9 @@ class AddressResourceIT {
     @Autowired
     private AddressSearchRepository mockAddressSearchRepository;
 
+    @Autowired
+    private SearchOutboxRepository searchOutboxRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -79,7 +99,12 @@ class AddressResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Address createEntity(EntityManager em) {
-        Address address = new Address().streetAddress(DEFAULT_STREET_ADDRESS).postalCode(DEFAULT_POSTAL_CODE).city(DEFAULT_CITY);
+        Address address = new Address()
+            .streetAddress(DEFAULT_STREET_ADDRESS)
+            .postalCode(DEFAULT_POSTAL_CODE)
+            .city(DEFAULT_CITY)
+            .latitude(DEFAULT_LATITUDE)
+            .longitude(DEFAULT_LONGITUDE);
         return address;
     }
 
@@ -90,7 +115,12 @@ class AddressResourceIT {
      * if they test an entity which requires the current entity.
      */
     public static Address createUpdatedEntity(EntityManager em) {
-        Address address = new Address().streetAddress(UPDATED_STREET_ADDRESS).postalCode(UPDATED_POSTAL_CODE).city(UPDATED_CITY);
+        Address address = new Address()
+            .streetAddress(UPDATED_STREET_ADDRESS)
+            .postalCode(UPDATED_POSTAL_CODE)
+            .city(UPDATED_CITY)
+            .latitude(UPDATED_LATITUDE)
+            .longitude(UPDATED_LONGITUDE);
         return address;
     }
 
@@ -115,9 +145,14 @@ class AddressResourceIT {
         assertThat(testAddress.getStreetAddress()).isEqualTo(DEFAULT_STREET_ADDRESS);
         assertThat(testAddress.getPostalCode()).isEqualTo(DEFAULT_POSTAL_CODE);
         assertThat(testAddress.getCity()).isEqualTo(DEFAULT_CITY);
-
-        // Validate the Address in Elasticsearch
-        verify(mockAddressSearchRepository, times(1)).save(testAddress);
+        assertThat(testAddress.getLatitude()).isEqualTo(DEFAULT_LATITUDE);
+        assertThat(testAddress.getLongitude()).isEqualTo(DEFAULT_LONGITUDE);
+
+        // Validate the Address is queued for Elasticsearch
+        verify(mockAddressSearchRepository, times(0)).save(testAddress);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.ADDRESS, testAddress.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -175,6 +210,28 @@ class AddressResourceIT {
             .andExpect(jsonPath("$.[*].city").value(hasItem(DEFAULT_CITY)));
     }
 
+    @Test
+    @Transactional
+    void getAllAddressesWithCursor() throws Exception {
+        // Initialize the database
+        addressRepository.saveAndFlush(address);
+        Address nextAddress = addressRepository.saveAndFlush(createEntity(em));
+
+        // Get the page starting with address
+        restAddressMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", address.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(address.getId().intValue())))
+            .andExpect(header().string(CursorPaginationUtil.HEADER_X_NEXT_CURSOR, address.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + address.getId())));
+
+        // Get the next page
+        restAddressMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", address.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(nextAddress.getId().intValue())));
+    }
+
     @Test
     @Transactional
     void getAddress() throws Exception {
@@ -189,7 +246,9 @@ class AddressResourceIT {
             .andExpect(jsonPath("$.id").value(address.getId().intValue()))
             .andExpect(jsonPath("$.streetAddress").value(DEFAULT_STREET_ADDRESS))
             .andExpect(jsonPath("$.postalCode").value(DEFAULT_POSTAL_CODE))
-            .andExpect(jsonPath("$.city").value(DEFAULT_CITY));
+            .andExpect(jsonPath("$.city").value(DEFAULT_CITY))
+            .andExpect(jsonPath("$.latitude").value(DEFAULT_LATITUDE.doubleValue()))
+            .andExpect(jsonPath("$.longitude").value(DEFAULT_LONGITUDE.doubleValue()));
     }
 
     @Test
@@ -211,7 +270,12 @@ class AddressResourceIT {
         Address updatedAddress = addressRepository.findById(address.getId()).get();
         // Disconnect from session so that the updates on updatedAddress are not directly saved in db
         em.detach(updatedAddress);
-        updatedAddress.streetAddress(UPDATED_STREET_ADDRESS).postalCode(UPDATED_POSTAL_CODE).city(UPDATED_CITY);
+        updatedAddress
+            .streetAddress(UPDATED_STREET_ADDRESS)
+            .postalCode(UPDATED_POSTAL_CODE)
+            .city(UPDATED_CITY)
+            .latitude(UPDATED_LATITUDE)
+            .longitude(UPDATED_LONGITUDE);
 
         restAddressMockMvc
             .perform(
@@ -228,9 +292,14 @@ class AddressResourceIT {
         assertThat(testAddress.getStreetAddress()).isEqualTo(UPDATED_STREET_ADDRESS);
         assertThat(testAddress.getPostalCode()).isEqualTo(UPDATED_POSTAL_CODE);
         assertThat(testAddress.getCity()).isEqualTo(UPDATED_CITY);
-
-        // Validate the Address in Elasticsearch
-        verify(mockAddressSearchRepository).save(testAddress);
+        assertThat(testAddress.getLatitude()).isEqualTo(UPDATED_LATITUDE);
+        assertThat(testAddress.getLongitude()).isEqualTo(UPDATED_LONGITUDE);
+
+        // Validate the Address is queued for Elasticsearch
+        verify(mockAddressSearchRepository, times(0)).save(testAddress);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.ADDRESS, testAddress.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -329,6 +398,38 @@ class AddressResourceIT {
         assertThat(testAddress.getCity()).isEqualTo(UPDATED_CITY);
     }
 
+    @Test
+    @Transactional
+    void partialUpdateAddressCityQueuesItsCarParksAndParkingSpots() throws Exception {
+        // Initialize the database
+        addressRepository.saveAndFlush(address);
+        CarPark carPark = CarParkResourceIT.createEntity(em).address(address);
+        em.persist(carPark);
+        ParkingSpot parkingSpot = ParkingSpotResourceIT.createEntity(em).carPark(carPark);
+        em.persist(parkingSpot);
+        em.flush();
+
+        // Their documents carry the city of the address
+        Address partialUpdatedAddress = new Address();
+        partialUpdatedAddress.setId(address.getId());
+        partialUpdatedAddress.city(UPDATED_CITY);
+
+        restAddressMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedAddress.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedAddress))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(
+                tuple(SearchDocumentType.CAR_PARK, carPark.getId(), SearchOutboxOperation.INDEX),
+                tuple(SearchDocumentType.PARKING_SPOT, parkingSpot.getId(), SearchOutboxOperation.INDEX)
+            );
+    }
+
     @Test
     @Transactional
     void fullUpdateAddressWithPatch() throws Exception {
@@ -442,8 +543,11 @@ class AddressResourceIT {
         List<Address> addressList = addressRepository.findAll();
         assertThat(addressList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the Address in Elasticsearch
-        verify(mockAddressSearchRepository, times(1)).deleteById(address.getId());
+        // Validate the Address is queued for Elasticsearch
+        verify(mockAddressSearchRepository, times(0)).deleteById(address.getId());
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.ADDRESS, address.getId(), SearchOutboxOperation.DELETE));
     }
 
     @Test
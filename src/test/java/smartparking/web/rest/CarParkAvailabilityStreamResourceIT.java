@@ -0,0 +1,69 @@
+package smartparking.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import smartparking.IntegrationTest;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.service.ParkingSpotOccupancyIndex;
+
+/**
+ * Integration tests for the {@link CarParkAvailabilityStreamResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CarParkAvailabilityStreamResourceIT {
+
+    private static final String STREAM_API_URL = "/api/car-parks/{id}/availability/stream";
+
+    private static Random random = new Random();
+    private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
+
+    @Autowired
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    @Autowired
+    private CarParkAvailabilityStreamResource carParkAvailabilityStreamResource;
+
+    @Autowired
+    private MockMvc restStreamMockMvc;
+
+    @Test
+    void streamSnapshotThenDelta() throws Exception {
+        // Outside of a transaction, the index is updated immediately
+        CarPark carPark = new CarPark().id(count.incrementAndGet());
+        ParkingSpot parkingSpot = new ParkingSpot().id(count.incrementAndGet()).available(true).accessableParking(false).carPark(carPark);
+        parkingSpotOccupancyIndex.update(parkingSpot);
+
+        MvcResult result = restStreamMockMvc.perform(get(STREAM_API_URL, carPark.getId())).andExpect(request().asyncStarted()).andReturn();
+
+        assertThat(result.getResponse().getContentAsString())
+            .contains("event:snapshot")
+            .contains("\"spotId\":" + parkingSpot.getId())
+            .contains("\"freeSpots\":1")
+            .doesNotContain("event:delta");
+
+        parkingSpotOccupancyIndex.update(parkingSpot.available(false));
+        carParkAvailabilityStreamResource.flush();
+
+        long deadline = System.currentTimeMillis() + 5000;
+        while (!result.getResponse().getContentAsString().contains("event:delta") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        String delta = result.getResponse().getContentAsString().split("event:delta")[1];
+        assertThat(delta).contains("\"spotId\":" + parkingSpot.getId()).contains("\"available\":false").contains("\"freeSpots\":0");
+
+        parkingSpotOccupancyIndex.remove(parkingSpot.getId());
+    }
+}
@@ -1,17 +1,27 @@
 package smartparking.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.everyItem;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.notNullValue;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
 import java.util.concurrent.atomic.AtomicLong;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,14 +29,26 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import smartparking.IntegrationTest;
+import smartparking.domain.Address;
 import smartparking.domain.CarPark;
+import smartparking.domain.OpenHours;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.SearchOutboxEntry;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
 import smartparking.repository.CarParkRepository;
+import smartparking.repository.SearchOutboxRepository;
 import smartparking.repository.search.CarParkSearchRepository;
+import smartparking.service.CarParkLocationIndex;
+import smartparking.service.CarParkSummaryIndex;
+import smartparking.service.ParkingSpotOccupancyIndex;
+import smartparking.web.rest.util.CursorPaginationUtil;
 
 /**
  * Integration tests for the {@link CarParkResource} REST controller.
@@ -61,9 +83,24 @@ class CarParkResourceIT {
     @Autowired
     private CarParkSearchRepository mockCarParkSearchRepository;
 
+    @Autowired
+    private SearchOutboxRepository searchOutboxRepository;
+
+    @Autowired
+    private CarParkLocationIndex carParkLocationIndex;
+
+    @Autowired
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    @Autowired
+    private CarParkSummaryIndex carParkSummaryIndex;
+
     @Autowired
     private EntityManager em;
 
+    @Autowired
+    private MeterRegistry meterRegistry;
+
     @Autowired
     private MockMvc restCarParkMockMvc;
 
@@ -112,8 +149,11 @@ class CarParkResourceIT {
         assertThat(testCarPark.getName()).isEqualTo(DEFAULT_NAME);
         assertThat(testCarPark.getOwner()).isEqualTo(DEFAULT_OWNER);
 
-        // Validate the CarPark in Elasticsearch
-        verify(mockCarParkSearchRepository, times(1)).save(testCarPark);
+        // Validate the CarPark is queued for Elasticsearch
+        verify(mockCarParkSearchRepository, times(0)).save(testCarPark);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.CAR_PARK, testCarPark.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -153,6 +193,98 @@ class CarParkResourceIT {
             .andExpect(jsonPath("$.[*].owner").value(hasItem(DEFAULT_OWNER)));
     }
 
+    @Test
+    @Transactional
+    void getAllCarParksWithCursor() throws Exception {
+        // Initialize the database
+        carParkRepository.saveAndFlush(carPark);
+        CarPark nextCarPark = carParkRepository.saveAndFlush(createEntity(em));
+
+        // Get the page starting with carPark
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", carPark.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(carPark.getId().intValue())))
+            .andExpect(header().string(CursorPaginationUtil.HEADER_X_NEXT_CURSOR, carPark.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + carPark.getId())));
+
+        // Get the next page
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", carPark.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(nextCarPark.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void getAllCarParkDetails() throws Exception {
+        // Initialize the database
+        Address address = AddressResourceIT.createEntity(em);
+        em.persist(address);
+        em.persist(carPark.address(address));
+        OpenHours openHours = OpenHoursResourceIT.createEntity(em).carPark(carPark);
+        em.persist(openHours);
+        em.flush();
+        em.clear();
+
+        // Get the page starting with carPark
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "/details?cursor={cursor}&size=1", carPark.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[0].id").value(carPark.getId().intValue()))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].owner").value(DEFAULT_OWNER))
+            .andExpect(jsonPath("$.[0].address.id").value(address.getId().intValue()))
+            .andExpect(jsonPath("$.[0].openHours.[*].id").value(contains(openHours.getId().intValue())))
+            .andExpect(jsonPath("$.[0].availability.carParkId").value(carPark.getId().intValue()))
+            .andExpect(header().string(CursorPaginationUtil.HEADER_X_NEXT_CURSOR, carPark.getId().toString()));
+    }
+
+    @Test
+    @Transactional
+    void getAllCarParksWithoutQueryPerCarPark() throws Exception {
+        // Initialize the database with carParks having their own address and open hours
+        int pageSize = 5;
+        for (int i = 0; i < pageSize; i++) {
+            Address address = AddressResourceIT.createEntity(em);
+            em.persist(address);
+            CarPark pageCarPark = i == 0 ? carPark : createEntity(em);
+            em.persist(pageCarPark.address(address));
+            em.persist(OpenHoursResourceIT.createEntity(em).carPark(pageCarPark));
+            em.persist(OpenHoursResourceIT.createEntity(em).carPark(pageCarPark));
+        }
+        em.flush();
+        em.clear();
+
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        try {
+            // A single query for the carParks and their address
+            restCarParkMockMvc
+                .perform(get(ENTITY_API_URL + "?cursor={cursor}&size={size}", carPark.getId() - 1, pageSize))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(pageSize)))
+                .andExpect(jsonPath("$.[*].address.id", everyItem(notNullValue())));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+
+            em.clear();
+            statistics.clear();
+
+            // One more query for their open hours
+            restCarParkMockMvc
+                .perform(get(ENTITY_API_URL + "/details?cursor={cursor}&size={size}", carPark.getId() - 1, pageSize))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(pageSize)))
+                .andExpect(jsonPath("$.[*].address.id", everyItem(notNullValue())))
+                .andExpect(jsonPath("$.[*].openHours", everyItem(hasSize(2))));
+            assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+    }
+
     @Test
     @Transactional
     void getCarPark() throws Exception {
@@ -169,6 +301,159 @@ class CarParkResourceIT {
             .andExpect(jsonPath("$.owner").value(DEFAULT_OWNER));
     }
 
+    @Test
+    @Transactional
+    void getCarParkRecordsRequestStatistics() throws Exception {
+        // Initialize the database
+        carParkRepository.saveAndFlush(carPark);
+        em.detach(carPark);
+        DistributionSummary statements = meterRegistry.summary("hibernate.request.statements", "handler", "CarParkResource.getCarPark");
+        long requests = statements.count();
+        double loads = meterRegistry.summary("hibernate.request.entity.loads", "handler", "CarParkResource.getCarPark").totalAmount();
+
+        restCarParkMockMvc.perform(get(ENTITY_API_URL_ID, carPark.getId())).andExpect(status().isOk());
+
+        assertThat(statements.count()).isEqualTo(requests + 1);
+        assertThat(statements.max()).isGreaterThanOrEqualTo(1);
+        assertThat(meterRegistry.summary("hibernate.request.entity.loads", "handler", "CarParkResource.getCarPark").totalAmount())
+            .isEqualTo(loads + 1);
+    }
+
+    @Test
+    @Transactional
+    void getCarParkOpenStatus() throws Exception {
+        // Initialize the database
+        carParkRepository.saveAndFlush(carPark);
+        em.persist(new OpenHours().weekday("Monday-Friday").openingHour("07:00").closingHour("22:00").carPark(carPark));
+        em.flush();
+
+        // Monday morning
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/open", carPark.getId()).param("at", "2026-10-19T08:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.carParkId").value(carPark.getId().intValue()))
+            .andExpect(jsonPath("$.open").value(true));
+
+        // Saturday morning
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/open", carPark.getId()).param("at", "2026-10-24T08:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.open").value(false))
+            .andExpect(jsonPath("$.nextOpening").value(containsString("2026-10-26T07:00")));
+    }
+
+    @Test
+    @Transactional
+    void getNearestCarParks() throws Exception {
+        // A full car park next to the point, and one with a free spot 1.1 km away
+        CarPark fullCarPark = createLocatedCarPark(-45.0, 120.0, false);
+        CarPark freeCarPark = createLocatedCarPark(-45.01, 120.0, true);
+        em.flush();
+        parkingSpotOccupancyIndex.load();
+        carParkLocationIndex.load();
+
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "/nearest").param("latitude", "-45.0").param("longitude", "120.0"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.[*].carParkId").value(contains(freeCarPark.getId().intValue())))
+            .andExpect(jsonPath("$.[0].freeSpots").value(1));
+
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "/nearest").param("latitude", "-45.0").param("longitude", "120.0").param("minFreeSpots", "0"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].carParkId").value(contains(fullCarPark.getId().intValue(), freeCarPark.getId().intValue())));
+
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "/nearest").param("latitude", "-45.0").param("longitude", "120.0").param("maxDistance", "500"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$").isEmpty());
+    }
+
+    @Test
+    @Transactional
+    void getNearestCarParksWithInvalidCoordinates() throws Exception {
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "/nearest").param("latitude", "91").param("longitude", "0"))
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getCarParkSummary() throws Exception {
+        // Initialize the database
+        carParkRepository.saveAndFlush(carPark);
+        em.persist(new OpenHours().weekday("Monday-Friday").openingHour("07:00").closingHour("22:00").carPark(carPark));
+        em.persist(new ParkingSpot().floor(0L).available(true).accessableParking(true).carPark(carPark));
+        em.persist(new ParkingSpot().floor(0L).available(false).accessableParking(false).carPark(carPark));
+        em.persist(new ParkingSpot().floor(1L).available(true).accessableParking(false).carPark(carPark));
+        em.flush();
+        parkingSpotOccupancyIndex.load();
+        carParkSummaryIndex.load();
+
+        // Monday morning
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/summary", carPark.getId()).param("at", "2026-10-19T08:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.id").value(carPark.getId().intValue()))
+            .andExpect(jsonPath("$.name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.totalSpots").value(3))
+            .andExpect(jsonPath("$.freeSpots").value(2))
+            .andExpect(jsonPath("$.accessibleFreeSpots").value(1))
+            .andExpect(jsonPath("$.floors.[*].floor").value(contains(0, 1)))
+            .andExpect(jsonPath("$.floors.[*].totalSpots").value(contains(2, 1)))
+            .andExpect(jsonPath("$.floors.[*].freeSpots").value(contains(1, 1)))
+            .andExpect(jsonPath("$.open").value(true));
+
+        // Saturday morning
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL_ID + "/summary", carPark.getId()).param("at", "2026-10-24T08:00:00Z"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.open").value(false));
+    }
+
+    @Test
+    @Transactional
+    void getAllCarParkSummaries() throws Exception {
+        // Initialize the database
+        carParkRepository.saveAndFlush(carPark);
+        CarPark otherCarPark = carParkRepository.saveAndFlush(createUpdatedEntity(em));
+        carParkSummaryIndex.load();
+
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "/summaries").param("cursor", String.valueOf(carPark.getId() - 1)).param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().string(CursorPaginationUtil.HEADER_X_NEXT_CURSOR, carPark.getId().toString()))
+            .andExpect(jsonPath("$.[*].id").value(contains(carPark.getId().intValue())))
+            .andExpect(jsonPath("$.[0].name").value(DEFAULT_NAME))
+            .andExpect(jsonPath("$.[0].totalSpots").value(0))
+            .andExpect(jsonPath("$.[0].floors").isEmpty());
+
+        restCarParkMockMvc
+            .perform(get(ENTITY_API_URL + "/summaries").param("cursor", carPark.getId().toString()).param("size", "1"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(otherCarPark.getId().intValue())))
+            .andExpect(jsonPath("$.[0].name").value(UPDATED_NAME));
+    }
+
+    @Test
+    @Transactional
+    void getNonExistingCarParkSummary() throws Exception {
+        restCarParkMockMvc.perform(get(ENTITY_API_URL_ID + "/summary", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    private CarPark createLocatedCarPark(double latitude, double longitude, boolean available) {
+        Address address = new Address().streetAddress(DEFAULT_NAME).latitude(latitude).longitude(longitude);
+        em.persist(address);
+        CarPark locatedCarPark = createEntity(em).address(address);
+        em.persist(locatedCarPark);
+        em.persist(new OpenHours().weekday("Daily").openingHour("00:00").closingHour("24:00").carPark(locatedCarPark));
+        em.persist(new ParkingSpot().available(available).accessableParking(false).carPark(locatedCarPark));
+        return locatedCarPark;
+    }
+
     @Test
     @Transactional
     void getNonExistingCarPark() throws Exception {
@@ -205,8 +490,40 @@ class CarParkResourceIT {
         assertThat(testCarPark.getName()).isEqualTo(UPDATED_NAME);
         assertThat(testCarPark.getOwner()).isEqualTo(UPDATED_OWNER);
 
-        // Validate the CarPark in Elasticsearch
-        verify(mockCarParkSearchRepository).save(testCarPark);
+        // Validate the CarPark is queued for Elasticsearch
+        verify(mockCarParkSearchRepository, times(0)).save(testCarPark);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.CAR_PARK, testCarPark.getId(), SearchOutboxOperation.INDEX));
+    }
+
+    @Test
+    @Transactional
+    void putCarParkAddressQueuesItsParkingSpots() throws Exception {
+        // Initialize the database
+        carParkRepository.saveAndFlush(carPark);
+        ParkingSpot parkingSpot = ParkingSpotResourceIT.createEntity(em).carPark(carPark);
+        em.persist(parkingSpot);
+        Address address = AddressResourceIT.createEntity(em);
+        em.persist(address);
+        em.flush();
+
+        // The documents of its parking spots carry the city of its address
+        CarPark updatedCarPark = carParkRepository.findById(carPark.getId()).get();
+        em.detach(updatedCarPark);
+        updatedCarPark.address(address);
+
+        restCarParkMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedCarPark.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedCarPark))
+            )
+            .andExpect(status().isOk());
+
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.PARKING_SPOT, parkingSpot.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -416,8 +733,11 @@ class CarParkResourceIT {
         List<CarPark> carParkList = carParkRepository.findAll();
         assertThat(carParkList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the CarPark in Elasticsearch
-        verify(mockCarParkSearchRepository, times(1)).deleteById(carPark.getId());
+        // Validate the CarPark is queued for Elasticsearch
+        verify(mockCarParkSearchRepository, times(0)).deleteById(carPark.getId());
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.CAR_PARK, carPark.getId(), SearchOutboxOperation.DELETE));
     }
 
     @Test
@@ -0,0 +1,104 @@
+package smartparking.web.rest;
+
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import smartparking.IntegrationTest;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSpot;
+import smartparking.service.CarParkUtilizationAggregator;
+import smartparking.service.ParkingSpotOccupancyIndex;
+
+/**
+ * Integration tests for the {@link CarParkUtilizationResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser
+class CarParkUtilizationResourceIT {
+
+    private static final String ENTITY_API_URL = "/api/car-parks/{id}/utilization";
+
+    private static final long CAR_PARK_ID = Long.MAX_VALUE - 1;
+
+    private static final long SPOT_ID = Long.MAX_VALUE - 2;
+
+    @Autowired
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
+    @Autowired
+    private CarParkUtilizationAggregator carParkUtilizationAggregator;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc restCarParkUtilizationMockMvc;
+
+    @AfterEach
+    public void cleanup() {
+        parkingSpotOccupancyIndex.remove(SPOT_ID);
+        carParkUtilizationAggregator.flush();
+        jdbcTemplate.update("delete from car_park_utilization where car_park_id = ?", CAR_PARK_ID);
+    }
+
+    @Test
+    void getUtilizationOfOccupancyChanges() throws Exception {
+        Instant from = Instant.now().truncatedTo(ChronoUnit.DAYS);
+        CarPark carPark = new CarPark().id(CAR_PARK_ID);
+        // Outside of a transaction, the index applies the changes and publishes them right away
+        parkingSpotOccupancyIndex.update(new ParkingSpot().id(SPOT_ID).available(true).carPark(carPark));
+        parkingSpotOccupancyIndex.update(new ParkingSpot().id(SPOT_ID).available(false).carPark(carPark));
+        carParkUtilizationAggregator.flush();
+        // Written again, as increments
+        carParkUtilizationAggregator.flush();
+
+        restCarParkUtilizationMockMvc
+            .perform(
+                get(ENTITY_API_URL, CAR_PARK_ID)
+                    .param("granularity", "DAY")
+                    .param("from", from.toString())
+                    .param("to", from.plus(1, ChronoUnit.DAYS).toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[0].bucketStart").value(from.toString()))
+            .andExpect(jsonPath("$.[0].peakOccupied").value(1))
+            .andExpect(jsonPath("$.[0].arrivals").value(1))
+            .andExpect(jsonPath("$.[0].capacity").value(1))
+            .andExpect(jsonPath("$.[0].turnover").value(1.0));
+    }
+
+    @Test
+    void getUtilizationWithTooManyBuckets() throws Exception {
+        Instant from = Instant.parse("2020-01-01T00:00:00Z");
+        restCarParkUtilizationMockMvc
+            .perform(
+                get(ENTITY_API_URL, CAR_PARK_ID)
+                    .param("granularity", "FIVE_MINUTES")
+                    .param("from", from.toString())
+                    .param("to", from.plus(365, ChronoUnit.DAYS).toString())
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getUtilizationWithEmptyRange() throws Exception {
+        Instant now = Instant.now();
+        restCarParkUtilizationMockMvc
+            .perform(
+                get(ENTITY_API_URL, CAR_PARK_ID).param("granularity", "HOUR").param("from", now.toString()).param("to", now.toString())
+            )
+            .andExpect(status().isBadRequest());
+    }
+}
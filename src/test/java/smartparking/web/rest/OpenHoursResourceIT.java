@@ -1,7 +1,10 @@
 package smartparking.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -21,14 +24,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import smartparking.IntegrationTest;
 import smartparking.domain.OpenHours;
+import smartparking.domain.SearchOutboxEntry;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
 import smartparking.repository.OpenHoursRepository;
+import smartparking.repository.SearchOutboxRepository;
 import smartparking.repository.search.OpenHoursSearchRepository;
+import smartparking.web.rest.util.CursorPaginationUtil;
 
 /**
  * Integration tests for the {@link OpenHoursResource} REST controller.
@@ -69,6 +78,9 @@ class OpenHoursResourceIT {
     @Autowired
     private OpenHoursSearchRepository mockOpenHoursSearchRepository;
 
+    @Autowired
+    private SearchOutboxRepository searchOutboxRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -130,8 +142,11 @@ class OpenHoursResourceIT {
         assertThat(testOpenHours.getClosingHour()).isEqualTo(DEFAULT_CLOSING_HOUR);
         assertThat(testOpenHours.getDate()).isEqualTo(DEFAULT_DATE);
 
-        // Validate the OpenHours in Elasticsearch
-        verify(mockOpenHoursSearchRepository, times(1)).save(testOpenHours);
+        // Validate the OpenHours is queued for Elasticsearch
+        verify(mockOpenHoursSearchRepository, times(0)).save(testOpenHours);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.OPEN_HOURS, testOpenHours.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -173,6 +188,28 @@ class OpenHoursResourceIT {
             .andExpect(jsonPath("$.[*].date").value(hasItem(DEFAULT_DATE.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllOpenHoursWithCursor() throws Exception {
+        // Initialize the database
+        openHoursRepository.saveAndFlush(openHours);
+        OpenHours nextOpenHours = openHoursRepository.saveAndFlush(createEntity(em));
+
+        // Get the page starting with openHours
+        restOpenHoursMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", openHours.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(openHours.getId().intValue())))
+            .andExpect(header().string(CursorPaginationUtil.HEADER_X_NEXT_CURSOR, openHours.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + openHours.getId())));
+
+        // Get the next page
+        restOpenHoursMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", openHours.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(nextOpenHours.getId().intValue())));
+    }
+
     @Test
     @Transactional
     void getOpenHours() throws Exception {
@@ -229,8 +266,11 @@ class OpenHoursResourceIT {
         assertThat(testOpenHours.getClosingHour()).isEqualTo(UPDATED_CLOSING_HOUR);
         assertThat(testOpenHours.getDate()).isEqualTo(UPDATED_DATE);
 
-        // Validate the OpenHours in Elasticsearch
-        verify(mockOpenHoursSearchRepository).save(testOpenHours);
+        // Validate the OpenHours is queued for Elasticsearch
+        verify(mockOpenHoursSearchRepository, times(0)).save(testOpenHours);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.OPEN_HOURS, testOpenHours.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -450,8 +490,11 @@ class OpenHoursResourceIT {
         List<OpenHours> openHoursList = openHoursRepository.findAll();
         assertThat(openHoursList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the OpenHours in Elasticsearch
-        verify(mockOpenHoursSearchRepository, times(1)).deleteById(openHours.getId());
+        // Validate the OpenHours is queued for Elasticsearch
+        verify(mockOpenHoursSearchRepository, times(0)).deleteById(openHours.getId());
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.OPEN_HOURS, openHours.getId(), SearchOutboxOperation.DELETE));
     }
 
     @Test
@@ -0,0 +1,248 @@
+package smartparking.web.rest;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import javax.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.annotation.Transactional;
+import smartparking.IntegrationTest;
+import smartparking.domain.CarPark;
+import smartparking.domain.ParkingSession;
+import smartparking.domain.ParkingSpot;
+import smartparking.domain.User;
+import smartparking.domain.UserExtra;
+import smartparking.repository.ParkingSessionRepository;
+import smartparking.repository.ParkingSpotRepository;
+import smartparking.repository.UserExtraRepository;
+import smartparking.repository.UserRepository;
+import smartparking.security.AuthoritiesConstants;
+import smartparking.service.ParkingSpotAvailabilityService;
+import smartparking.web.rest.errors.ErrorConstants;
+
+/**
+ * Integration tests for the {@link ParkingSessionResource} REST controller.
+ */
+@IntegrationTest
+@AutoConfigureMockMvc
+@WithMockUser(value = ParkingSessionResourceIT.LOGIN, authorities = AuthoritiesConstants.ADMIN)
+class ParkingSessionResourceIT {
+
+    static final String LOGIN = "parking-session-user";
+
+    private static final String RESERVE_API_URL = "/api/parking-spots/{id}/reserve";
+    private static final String PARK_API_URL = "/api/parking-spots/{id}/park";
+    private static final String LEAVE_API_URL = "/api/parking-spots/{id}/leave";
+    private static final String ENTITY_API_URL = "/api/parking-sessions";
+
+    @Autowired
+    private ParkingSessionRepository parkingSessionRepository;
+
+    @Autowired
+    private ParkingSpotRepository parkingSpotRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private UserExtraRepository userExtraRepository;
+
+    @Autowired
+    private ParkingSpotAvailabilityService parkingSpotAvailabilityService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManager em;
+
+    @Autowired
+    private MockMvc restParkingSessionMockMvc;
+
+    private User user;
+
+    private CarPark carPark;
+
+    private ParkingSpot parkingSpot;
+
+    private UserExtra userExtra;
+
+    @BeforeEach
+    public void initTest() {
+        cacheManager.getCache(UserRepository.USERS_BY_LOGIN_CACHE).clear();
+        user = UserResourceIT.createEntity(em);
+        user.setLogin(LOGIN);
+        em.persist(user);
+        userExtra = new UserExtra().user(user);
+        em.persist(userExtra);
+        carPark = CarParkResourceIT.createEntity(em);
+        em.persist(carPark);
+        parkingSpot = ParkingSpotResourceIT.createEntity(em).available(true).carPark(carPark);
+        em.persist(parkingSpot);
+        em.flush();
+        em.detach(parkingSpot);
+    }
+
+    @Test
+    @Transactional
+    void startParkingSession() throws Exception {
+        long databaseSizeBeforeStart = parkingSessionRepository.count();
+
+        restParkingSessionMockMvc
+            .perform(post(PARK_API_URL, parkingSpot.getId()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.id").isNumber())
+            .andExpect(jsonPath("$.parkingSpotId").value(parkingSpot.getId().intValue()))
+            .andExpect(jsonPath("$.carParkId").value(carPark.getId().intValue()))
+            .andExpect(jsonPath("$.userId").value(user.getId().intValue()))
+            .andExpect(jsonPath("$.startTime").isNotEmpty())
+            .andExpect(jsonPath("$.endTime").isEmpty());
+
+        em.flush();
+        em.clear();
+        assertThat(parkingSessionRepository.count()).isEqualTo(databaseSizeBeforeStart + 1);
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getAvailable()).isFalse();
+        UserExtra parkedUserExtra = userExtraRepository.findById(userExtra.getId()).get();
+        assertThat(parkedUserExtra.getParkingSpot().getId()).isEqualTo(parkingSpot.getId());
+        assertThat(parkedUserExtra.getCurrentParkingSpot()).isEqualTo(parkingSpot.getId().toString());
+        assertThat(parkedUserExtra.getTimeOfParking()).isNotNull();
+    }
+
+    @Test
+    @Transactional
+    void startParkingSessionOnUnavailableParkingSpot() throws Exception {
+        restParkingSessionMockMvc.perform(post(PARK_API_URL, parkingSpot.getId())).andExpect(status().isCreated());
+        long databaseSizeBeforeStart = parkingSessionRepository.count();
+
+        restParkingSessionMockMvc
+            .perform(post(PARK_API_URL, parkingSpot.getId()))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_PARKING_SPOT_UNAVAILABLE));
+
+        assertThat(parkingSessionRepository.count()).isEqualTo(databaseSizeBeforeStart);
+    }
+
+    @Test
+    @Transactional
+    void startParkingSessionOnParkingSpotReservedByUser() throws Exception {
+        restParkingSessionMockMvc.perform(post(RESERVE_API_URL, parkingSpot.getId())).andExpect(status().isOk());
+        long databaseSizeBeforeStart = parkingSessionRepository.count();
+
+        restParkingSessionMockMvc
+            .perform(post(PARK_API_URL, parkingSpot.getId()))
+            .andExpect(status().isCreated())
+            .andExpect(jsonPath("$.parkingSpotId").value(parkingSpot.getId().intValue()))
+            .andExpect(jsonPath("$.userId").value(user.getId().intValue()));
+
+        em.flush();
+        em.clear();
+        assertThat(parkingSessionRepository.count()).isEqualTo(databaseSizeBeforeStart + 1);
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getAvailable()).isFalse();
+    }
+
+    @Test
+    @Transactional
+    void startParkingSessionOnParkingSpotReservedByAnotherUser() throws Exception {
+        parkingSpotAvailabilityService.reserve(parkingSpot.getId(), "another-user");
+        long databaseSizeBeforeStart = parkingSessionRepository.count();
+
+        restParkingSessionMockMvc
+            .perform(post(PARK_API_URL, parkingSpot.getId()))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_PARKING_SPOT_UNAVAILABLE));
+
+        assertThat(parkingSessionRepository.count()).isEqualTo(databaseSizeBeforeStart);
+    }
+
+    @Test
+    @Transactional
+    void startParkingSessionOnNonExistingParkingSpot() throws Exception {
+        restParkingSessionMockMvc.perform(post(PARK_API_URL, Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void endParkingSession() throws Exception {
+        restParkingSessionMockMvc.perform(post(PARK_API_URL, parkingSpot.getId())).andExpect(status().isCreated());
+
+        restParkingSessionMockMvc
+            .perform(post(LEAVE_API_URL, parkingSpot.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.parkingSpotId").value(parkingSpot.getId().intValue()))
+            .andExpect(jsonPath("$.endTime").isNotEmpty());
+
+        em.flush();
+        em.clear();
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getAvailable()).isTrue();
+        ParkingSession session = parkingSessionRepository
+            .findAll()
+            .stream()
+            .filter(s -> parkingSpot.getId().equals(s.getParkingSpotId()))
+            .findFirst()
+            .get();
+        assertThat(session.getEndTime()).isAfterOrEqualTo(session.getStartTime());
+        UserExtra leftUserExtra = userExtraRepository.findById(userExtra.getId()).get();
+        assertThat(leftUserExtra.getParkingSpot()).isNull();
+        assertThat(leftUserExtra.getCurrentParkingSpot()).isNull();
+        assertThat(leftUserExtra.getTimeOfParking()).isNull();
+
+        // The spot is free again
+        restParkingSessionMockMvc.perform(post(PARK_API_URL, parkingSpot.getId())).andExpect(status().isCreated());
+    }
+
+    @Test
+    @Transactional
+    void endParkingSessionWithoutOpenSession() throws Exception {
+        restParkingSessionMockMvc.perform(post(LEAVE_API_URL, parkingSpot.getId())).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void getParkingSessionsOfCarPark() throws Exception {
+        Instant from = Instant.now().truncatedTo(ChronoUnit.SECONDS).minusSeconds(60);
+        restParkingSessionMockMvc.perform(post(PARK_API_URL, parkingSpot.getId())).andExpect(status().isCreated());
+
+        restParkingSessionMockMvc
+            .perform(
+                get(ENTITY_API_URL)
+                    .param("carParkId", carPark.getId().toString())
+                    .param("from", from.toString())
+                    .param("to", from.plusSeconds(3600).toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(1)))
+            .andExpect(jsonPath("$.[*].parkingSpotId").value(hasItem(parkingSpot.getId().intValue())));
+
+        restParkingSessionMockMvc
+            .perform(
+                get(ENTITY_API_URL)
+                    .param("carParkId", carPark.getId().toString())
+                    .param("from", from.minusSeconds(3600).toString())
+                    .param("to", from.toString())
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    @Transactional
+    void getParkingSessionsWithEmptyRange() throws Exception {
+        Instant now = Instant.now();
+        restParkingSessionMockMvc
+            .perform(
+                get(ENTITY_API_URL).param("carParkId", carPark.getId().toString()).param("from", now.toString()).param("to", now.toString())
+            )
+            .andExpect(status().isBadRequest());
+    }
+}
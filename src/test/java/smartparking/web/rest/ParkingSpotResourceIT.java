@@ -1,17 +1,32 @@
 package smartparking.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
 import javax.persistence.EntityManager;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -19,14 +34,26 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import smartparking.IntegrationTest;
+import smartparking.domain.ParkingSession;
 import smartparking.domain.ParkingSpot;
+import smartparking.domain.SearchOutboxEntry;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
 import smartparking.repository.ParkingSpotRepository;
+import smartparking.repository.SearchOutboxRepository;
 import smartparking.repository.search.ParkingSpotSearchRepository;
+import smartparking.service.ParkingSpotAvailabilityService;
+import smartparking.service.ParkingSpotOccupancyIndex;
+import smartparking.service.ParkingSpotUnavailableException;
+import smartparking.service.dto.ParkingSpotAvailabilityEventDTO;
+import smartparking.web.rest.errors.ErrorConstants;
+import smartparking.web.rest.util.CursorPaginationUtil;
 
 /**
  * Integration tests for the {@link ParkingSpotResource} REST controller.
@@ -49,6 +76,7 @@ class ParkingSpotResourceIT {
     private static final String ENTITY_API_URL = "/api/parking-spots";
     private static final String ENTITY_API_URL_ID = ENTITY_API_URL + "/{id}";
     private static final String ENTITY_SEARCH_API_URL = "/api/_search/parking-spots";
+    private static final String AVAILABILITY_EVENTS_API_URL = ENTITY_API_URL + "/availability-events";
 
     private static Random random = new Random();
     private static AtomicLong count = new AtomicLong(random.nextInt() + (2 * Integer.MAX_VALUE));
@@ -64,6 +92,15 @@ class ParkingSpotResourceIT {
     @Autowired
     private ParkingSpotSearchRepository mockParkingSpotSearchRepository;
 
+    @Autowired
+    private SearchOutboxRepository searchOutboxRepository;
+
+    @Autowired
+    private ParkingSpotAvailabilityService parkingSpotAvailabilityService;
+
+    @Autowired
+    private ParkingSpotOccupancyIndex parkingSpotOccupancyIndex;
+
     @Autowired
     private EntityManager em;
 
@@ -122,8 +159,11 @@ class ParkingSpotResourceIT {
         assertThat(testParkingSpot.getAvailable()).isEqualTo(DEFAULT_AVAILABLE);
         assertThat(testParkingSpot.getFloor()).isEqualTo(DEFAULT_FLOOR);
 
-        // Validate the ParkingSpot in Elasticsearch
-        verify(mockParkingSpotSearchRepository, times(1)).save(testParkingSpot);
+        // Validate the ParkingSpot is queued for Elasticsearch
+        verify(mockParkingSpotSearchRepository, times(0)).save(testParkingSpot);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.PARKING_SPOT, testParkingSpot.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -181,6 +221,66 @@ class ParkingSpotResourceIT {
             .andExpect(jsonPath("$.[*].floor").value(hasItem(DEFAULT_FLOOR.intValue())));
     }
 
+    @Test
+    @Transactional
+    void getAllParkingSpotsWithCursor() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot);
+        ParkingSpot nextParkingSpot = parkingSpotRepository.saveAndFlush(createEntity(em));
+
+        // Get the page starting with parkingSpot
+        restParkingSpotMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", parkingSpot.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(parkingSpot.getId().intValue())))
+            .andExpect(header().string(CursorPaginationUtil.HEADER_X_NEXT_CURSOR, parkingSpot.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + parkingSpot.getId())));
+
+        // Get the next page
+        restParkingSpotMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", parkingSpot.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(nextParkingSpot.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void exportParkingSpotsAsNdjson() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot);
+
+        // Export the parkingSpotList, one JSON object per line
+        String expectedObject =
+            "{\"id\":" + parkingSpot.getId() + ",\"carParkId\":null,\"floor\":" + DEFAULT_FLOOR + ",\"available\":" + DEFAULT_AVAILABLE;
+        restParkingSpotMockMvc
+            .perform(get(ENTITY_API_URL + "/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+            .andExpect(content().string(containsString(expectedObject)));
+    }
+
+    @Test
+    @Transactional
+    void exportParkingSpotsAsCsv() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot);
+
+        // Export the parkingSpotList, with a header line
+        String expectedLine = parkingSpot.getId() + ",," + DEFAULT_FLOOR + "," + DEFAULT_AVAILABLE + "," + DEFAULT_ACCESSABLE_PARKING + ",";
+        restParkingSpotMockMvc
+            .perform(get(ENTITY_API_URL + "/export?format=csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(content().string(startsWith("id,carParkId,floor,available,accessableParking,availabilityChangedAt\r\n")))
+            .andExpect(content().string(containsString("\r\n" + expectedLine + "\r\n")));
+    }
+
+    @Test
+    @Transactional
+    void exportParkingSpotsWithUnknownFormat() throws Exception {
+        restParkingSpotMockMvc.perform(get(ENTITY_API_URL + "/export?format=xml")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getParkingSpot() throws Exception {
@@ -217,7 +317,7 @@ class ParkingSpotResourceIT {
         ParkingSpot updatedParkingSpot = parkingSpotRepository.findById(parkingSpot.getId()).get();
         // Disconnect from session so that the updates on updatedParkingSpot are not directly saved in db
         em.detach(updatedParkingSpot);
-        updatedParkingSpot.accessableParking(UPDATED_ACCESSABLE_PARKING).available(UPDATED_AVAILABLE).floor(UPDATED_FLOOR);
+        updatedParkingSpot.accessableParking(UPDATED_ACCESSABLE_PARKING).floor(UPDATED_FLOOR);
 
         restParkingSpotMockMvc
             .perform(
@@ -232,11 +332,14 @@ class ParkingSpotResourceIT {
         assertThat(parkingSpotList).hasSize(databaseSizeBeforeUpdate);
         ParkingSpot testParkingSpot = parkingSpotList.get(parkingSpotList.size() - 1);
         assertThat(testParkingSpot.getAccessableParking()).isEqualTo(UPDATED_ACCESSABLE_PARKING);
-        assertThat(testParkingSpot.getAvailable()).isEqualTo(UPDATED_AVAILABLE);
+        assertThat(testParkingSpot.getAvailable()).isEqualTo(DEFAULT_AVAILABLE);
         assertThat(testParkingSpot.getFloor()).isEqualTo(UPDATED_FLOOR);
 
-        // Validate the ParkingSpot in Elasticsearch
-        verify(mockParkingSpotSearchRepository).save(testParkingSpot);
+        // Validate the ParkingSpot is queued for Elasticsearch
+        verify(mockParkingSpotSearchRepository, times(0)).save(testParkingSpot);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.PARKING_SPOT, testParkingSpot.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -345,7 +448,7 @@ class ParkingSpotResourceIT {
         ParkingSpot partialUpdatedParkingSpot = new ParkingSpot();
         partialUpdatedParkingSpot.setId(parkingSpot.getId());
 
-        partialUpdatedParkingSpot.accessableParking(UPDATED_ACCESSABLE_PARKING).available(UPDATED_AVAILABLE).floor(UPDATED_FLOOR);
+        partialUpdatedParkingSpot.accessableParking(UPDATED_ACCESSABLE_PARKING).available(DEFAULT_AVAILABLE).floor(UPDATED_FLOOR);
 
         restParkingSpotMockMvc
             .perform(
@@ -360,10 +463,119 @@ class ParkingSpotResourceIT {
         assertThat(parkingSpotList).hasSize(databaseSizeBeforeUpdate);
         ParkingSpot testParkingSpot = parkingSpotList.get(parkingSpotList.size() - 1);
         assertThat(testParkingSpot.getAccessableParking()).isEqualTo(UPDATED_ACCESSABLE_PARKING);
-        assertThat(testParkingSpot.getAvailable()).isEqualTo(UPDATED_AVAILABLE);
+        assertThat(testParkingSpot.getAvailable()).isEqualTo(DEFAULT_AVAILABLE);
         assertThat(testParkingSpot.getFloor()).isEqualTo(UPDATED_FLOOR);
     }
 
+    @Test
+    @Transactional
+    void updateParkingSpotAvailabilityIsRejected() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot);
+        em.detach(parkingSpot);
+
+        ParkingSpot updatedParkingSpot = createUpdatedEntity(em);
+        updatedParkingSpot.setId(parkingSpot.getId());
+        ParkingSpot partialUpdatedParkingSpot = new ParkingSpot().available(UPDATED_AVAILABLE);
+        partialUpdatedParkingSpot.setId(parkingSpot.getId());
+
+        restParkingSpotMockMvc
+            .perform(
+                put(ENTITY_API_URL_ID, updatedParkingSpot.getId())
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(updatedParkingSpot))
+            )
+            .andExpect(status().isBadRequest());
+        restParkingSpotMockMvc
+            .perform(
+                patch(ENTITY_API_URL_ID, partialUpdatedParkingSpot.getId())
+                    .contentType("application/merge-patch+json")
+                    .content(TestUtil.convertObjectToJsonBytes(partialUpdatedParkingSpot))
+            )
+            .andExpect(status().isBadRequest());
+
+        ParkingSpot testParkingSpot = parkingSpotRepository.findById(parkingSpot.getId()).get();
+        assertThat(testParkingSpot.getAvailable()).isEqualTo(DEFAULT_AVAILABLE);
+        assertThat(testParkingSpot.getFloor()).isEqualTo(DEFAULT_FLOOR);
+    }
+
+    @Test
+    @Transactional
+    void partialUpdateParkingSpotStatementCount() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot);
+        em.detach(parkingSpot);
+
+        ParkingSpot partialUpdatedParkingSpot = new ParkingSpot();
+        partialUpdatedParkingSpot.setId(parkingSpot.getId());
+        partialUpdatedParkingSpot.floor(UPDATED_FLOOR);
+
+        Statistics statistics = startStatistics();
+        try {
+            restParkingSpotMockMvc
+                .perform(
+                    patch(ENTITY_API_URL_ID, partialUpdatedParkingSpot.getId())
+                        .contentType("application/merge-patch+json")
+                        .content(TestUtil.convertObjectToJsonBytes(partialUpdatedParkingSpot))
+                )
+                .andExpect(status().isOk());
+            // Write the changes as the commit of the request would
+            em.flush();
+
+            assertSingleLoadAndUpdate(statistics);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getFloor()).isEqualTo(UPDATED_FLOOR);
+    }
+
+    @Test
+    @Transactional
+    void updateParkingSpotStatementCount() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot);
+        em.detach(parkingSpot);
+
+        ParkingSpot updatedParkingSpot = createUpdatedEntity(em).available(DEFAULT_AVAILABLE);
+        updatedParkingSpot.setId(parkingSpot.getId());
+
+        Statistics statistics = startStatistics();
+        try {
+            restParkingSpotMockMvc
+                .perform(
+                    put(ENTITY_API_URL_ID, updatedParkingSpot.getId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(updatedParkingSpot))
+                )
+                .andExpect(status().isOk());
+            // Write the changes as the commit of the request would
+            em.flush();
+
+            assertSingleLoadAndUpdate(statistics);
+        } finally {
+            statistics.setStatisticsEnabled(false);
+        }
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getFloor()).isEqualTo(UPDATED_FLOOR);
+    }
+
+    private Statistics startStatistics() {
+        Statistics statistics = em.getEntityManagerFactory().unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        statistics.setStatisticsEnabled(true);
+        return statistics;
+    }
+
+    private static void assertSingleLoadAndUpdate(Statistics statistics) {
+        // No existence query, a single load and a single update of the parkingSpot
+        assertThat(statistics.getQueryExecutionCount()).isZero();
+        assertThat(statistics.getEntityStatistics(ParkingSpot.class.getName()).getLoadCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(ParkingSpot.class.getName()).getUpdateCount()).isEqualTo(1);
+        assertThat(statistics.getEntityStatistics(SearchOutboxEntry.class.getName()).getInsertCount()).isEqualTo(1);
+        // SELECT and UPDATE of the parkingSpot, INSERT of the search outbox entry, and a sequence call when the
+        // preallocated ids of the outbox run out
+        assertThat(statistics.getPrepareStatementCount()).isBetween(3L, 4L);
+    }
+
     @Test
     @Transactional
     void patchNonExistingParkingSpot() throws Exception {
@@ -431,6 +643,231 @@ class ParkingSpotResourceIT {
         verify(mockParkingSpotSearchRepository, times(0)).save(parkingSpot);
     }
 
+    @Test
+    @Transactional
+    void ingestAvailabilityEvents() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot);
+        em.detach(parkingSpot);
+
+        Instant sensorTime = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+        List<ParkingSpotAvailabilityEventDTO> events = List.of(
+            new ParkingSpotAvailabilityEventDTO(parkingSpot.getId(), UPDATED_AVAILABLE, sensorTime),
+            new ParkingSpotAvailabilityEventDTO(parkingSpot.getId(), DEFAULT_AVAILABLE, sensorTime.minusSeconds(10))
+        );
+
+        restParkingSpotMockMvc
+            .perform(
+                post(AVAILABILITY_EVENTS_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(events))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.received").value(2))
+            .andExpect(jsonPath("$.applied").value(1))
+            .andExpect(jsonPath("$.ignored").value(1));
+
+        // A late event must not revert the newer state
+        List<ParkingSpotAvailabilityEventDTO> lateEvents = List.of(
+            new ParkingSpotAvailabilityEventDTO(parkingSpot.getId(), DEFAULT_AVAILABLE, sensorTime.minusSeconds(5))
+        );
+        restParkingSpotMockMvc
+            .perform(
+                post(AVAILABILITY_EVENTS_API_URL)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(lateEvents))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.applied").value(0))
+            .andExpect(jsonPath("$.ignored").value(1));
+
+        ParkingSpot testParkingSpot = parkingSpotRepository.findById(parkingSpot.getId()).get();
+        assertThat(testParkingSpot.getAvailable()).isEqualTo(UPDATED_AVAILABLE);
+        assertThat(testParkingSpot.getAvailabilityChangedAt()).isEqualTo(sensorTime);
+
+        // Validate the ParkingSpot is queued for Elasticsearch
+        verify(mockParkingSpotSearchRepository, times(0)).saveAll(anyIterable());
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.PARKING_SPOT, parkingSpot.getId(), SearchOutboxOperation.INDEX));
+    }
+
+    @Test
+    @Transactional
+    void ingestIncompleteAvailabilityEvent() throws Exception {
+        List<ParkingSpotAvailabilityEventDTO> events = List.of(
+            new ParkingSpotAvailabilityEventDTO(count.incrementAndGet(), null, Instant.now())
+        );
+
+        restParkingSpotMockMvc
+            .perform(
+                post(AVAILABILITY_EVENTS_API_URL).contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(events))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void reserveParkingSpot() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot.available(true));
+        em.detach(parkingSpot);
+
+        restParkingSpotMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/reserve", parkingSpot.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id").value(parkingSpot.getId().intValue()))
+            .andExpect(jsonPath("$.available").value(false));
+
+        ParkingSpot testParkingSpot = parkingSpotRepository.findById(parkingSpot.getId()).get();
+        assertThat(testParkingSpot.getAvailable()).isFalse();
+        assertThat(testParkingSpot.getAvailabilityChangedAt()).isNotNull();
+
+        // Validate the ParkingSpot is queued for Elasticsearch
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.PARKING_SPOT, parkingSpot.getId(), SearchOutboxOperation.INDEX));
+    }
+
+    @Test
+    @Transactional
+    void reserveUnavailableParkingSpot() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot.available(false));
+
+        restParkingSpotMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/reserve", parkingSpot.getId()))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_PARKING_SPOT_UNAVAILABLE));
+    }
+
+    @Test
+    @Transactional
+    void reserveNonExistingParkingSpot() throws Exception {
+        restParkingSpotMockMvc.perform(post(ENTITY_API_URL_ID + "/reserve", Long.MAX_VALUE)).andExpect(status().isNotFound());
+    }
+
+    @Test
+    @Transactional
+    void releaseParkingSpot() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot.available(true));
+        em.detach(parkingSpot);
+        restParkingSpotMockMvc.perform(post(ENTITY_API_URL_ID + "/reserve", parkingSpot.getId())).andExpect(status().isOk());
+        em.clear();
+
+        restParkingSpotMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/release", parkingSpot.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.available").value(true));
+
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getAvailable()).isTrue();
+    }
+
+    @Test
+    @Transactional
+    void releaseParkingSpotReservedByAnotherUser() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot.available(true));
+        em.detach(parkingSpot);
+        parkingSpotAvailabilityService.reserve(parkingSpot.getId(), "another-user");
+
+        restParkingSpotMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/release", parkingSpot.getId()))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
+
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getAvailable()).isFalse();
+    }
+
+    @Test
+    @Transactional
+    void releaseUnavailableParkingSpotWithoutReservation() throws Exception {
+        // Initialize the database, as left by a sensor or a parking session
+        parkingSpotRepository.saveAndFlush(parkingSpot.available(false));
+
+        restParkingSpotMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/release", parkingSpot.getId()))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
+    }
+
+    @Test
+    @Transactional
+    void releaseParkingSpotWithOpenSession() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot.available(true));
+        em.detach(parkingSpot);
+        restParkingSpotMockMvc.perform(post(ENTITY_API_URL_ID + "/reserve", parkingSpot.getId())).andExpect(status().isOk());
+        em.persist(new ParkingSession().startTime(Instant.now()).parkingSpotId(parkingSpot.getId()));
+        em.flush();
+
+        restParkingSpotMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/release", parkingSpot.getId()))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
+
+        assertThat(parkingSpotRepository.findById(parkingSpot.getId()).get().getAvailable()).isFalse();
+    }
+
+    @Test
+    @Transactional
+    void releaseAvailableParkingSpot() throws Exception {
+        // Initialize the database
+        parkingSpotRepository.saveAndFlush(parkingSpot.available(true));
+
+        restParkingSpotMockMvc
+            .perform(post(ENTITY_API_URL_ID + "/release", parkingSpot.getId()))
+            .andExpect(status().isConflict())
+            .andExpect(jsonPath("$.message").value(ErrorConstants.ERR_CONCURRENCY_FAILURE));
+    }
+
+    @Test
+    void reserveParkingSpotConcurrently() throws Exception {
+        // Initialize the database, outside of a test transaction so that every reservation runs in its own
+        ParkingSpot savedParkingSpot = parkingSpotRepository.saveAndFlush(parkingSpot.available(true));
+        Long id = savedParkingSpot.getId();
+        int threads = 8;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(
+                    executor.submit(
+                        () -> {
+                            start.await();
+                            try {
+                                return parkingSpotAvailabilityService.reserve(id, "user").isPresent();
+                            } catch (ParkingSpotUnavailableException e) {
+                                return false;
+                            }
+                        }
+                    )
+                );
+            }
+            start.countDown();
+
+            int reserved = 0;
+            for (Future<Boolean> result : results) {
+                if (result.get(30, TimeUnit.SECONDS)) {
+                    reserved++;
+                }
+            }
+            assertThat(reserved).isEqualTo(1);
+            assertThat(parkingSpotRepository.findById(id).get().getAvailable()).isFalse();
+        } finally {
+            executor.shutdownNow();
+            parkingSpotRepository.deleteById(id);
+            searchOutboxRepository.deleteAll(
+                searchOutboxRepository
+                    .findAll()
+                    .stream()
+                    .filter(entry -> entry.getDocumentType() == SearchDocumentType.PARKING_SPOT && id.equals(entry.getDocumentId()))
+                    .collect(Collectors.toList())
+            );
+            parkingSpotOccupancyIndex.remove(id);
+        }
+    }
+
     @Test
     @Transactional
     void deleteParkingSpot() throws Exception {
@@ -448,8 +885,11 @@ class ParkingSpotResourceIT {
         List<ParkingSpot> parkingSpotList = parkingSpotRepository.findAll();
         assertThat(parkingSpotList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the ParkingSpot in Elasticsearch
-        verify(mockParkingSpotSearchRepository, times(1)).deleteById(parkingSpot.getId());
+        // Validate the ParkingSpot is queued for Elasticsearch
+        verify(mockParkingSpotSearchRepository, times(0)).deleteById(parkingSpot.getId());
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.PARKING_SPOT, parkingSpot.getId(), SearchOutboxOperation.DELETE));
     }
 
     @Test
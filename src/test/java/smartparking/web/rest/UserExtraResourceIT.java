@@ -1,8 +1,12 @@
 package smartparking.web.rest;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
 import static org.elasticsearch.index.query.QueryBuilders.queryStringQuery;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.containsString;
 import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -21,14 +25,20 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.transaction.annotation.Transactional;
 import smartparking.IntegrationTest;
+import smartparking.domain.SearchOutboxEntry;
 import smartparking.domain.UserExtra;
+import smartparking.domain.enumeration.SearchDocumentType;
+import smartparking.domain.enumeration.SearchOutboxOperation;
+import smartparking.repository.SearchOutboxRepository;
 import smartparking.repository.UserExtraRepository;
 import smartparking.repository.search.UserExtraSearchRepository;
+import smartparking.web.rest.util.CursorPaginationUtil;
 
 /**
  * Integration tests for the {@link UserExtraResource} REST controller.
@@ -63,6 +73,9 @@ class UserExtraResourceIT {
     @Autowired
     private UserExtraSearchRepository mockUserExtraSearchRepository;
 
+    @Autowired
+    private SearchOutboxRepository searchOutboxRepository;
+
     @Autowired
     private EntityManager em;
 
@@ -114,8 +127,11 @@ class UserExtraResourceIT {
         assertThat(testUserExtra.getCurrentParkingSpot()).isEqualTo(DEFAULT_CURRENT_PARKING_SPOT);
         assertThat(testUserExtra.getTimeOfParking()).isEqualTo(DEFAULT_TIME_OF_PARKING);
 
-        // Validate the UserExtra in Elasticsearch
-        verify(mockUserExtraSearchRepository, times(1)).save(testUserExtra);
+        // Validate the UserExtra is queued for Elasticsearch
+        verify(mockUserExtraSearchRepository, times(0)).save(testUserExtra);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.USER_EXTRA, testUserExtra.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -155,6 +171,70 @@ class UserExtraResourceIT {
             .andExpect(jsonPath("$.[*].timeOfParking").value(hasItem(DEFAULT_TIME_OF_PARKING.toString())));
     }
 
+    @Test
+    @Transactional
+    void getAllUserExtrasWithCursor() throws Exception {
+        // Initialize the database
+        userExtraRepository.saveAndFlush(userExtra);
+        UserExtra nextUserExtra = userExtraRepository.saveAndFlush(createEntity(em));
+
+        // Get the page starting with userExtra
+        restUserExtraMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", userExtra.getId() - 1))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(userExtra.getId().intValue())))
+            .andExpect(header().string(CursorPaginationUtil.HEADER_X_NEXT_CURSOR, userExtra.getId().toString()))
+            .andExpect(header().string(HttpHeaders.LINK, containsString("cursor=" + userExtra.getId())));
+
+        // Get the next page
+        restUserExtraMockMvc
+            .perform(get(ENTITY_API_URL + "?cursor={cursor}&size=1", userExtra.getId()))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.[*].id").value(contains(nextUserExtra.getId().intValue())));
+    }
+
+    @Test
+    @Transactional
+    void exportUserExtrasAsNdjson() throws Exception {
+        // Initialize the database
+        userExtraRepository.saveAndFlush(userExtra);
+
+        // Export the userExtraList, one JSON object per line
+        String expectedObject =
+            "{\"id\":" +
+            userExtra.getId() +
+            ",\"userId\":null,\"parkingSpotId\":null,\"currentParkingSpot\":\"" +
+            DEFAULT_CURRENT_PARKING_SPOT +
+            "\"";
+        restUserExtraMockMvc
+            .perform(get(ENTITY_API_URL + "/export"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("application/x-ndjson;charset=UTF-8"))
+            .andExpect(content().string(containsString(expectedObject)));
+    }
+
+    @Test
+    @Transactional
+    void exportUserExtrasAsCsv() throws Exception {
+        // Initialize the database
+        userExtraRepository.saveAndFlush(userExtra);
+
+        // Export the userExtraList, with a header line
+        String expectedLine = userExtra.getId() + ",,," + DEFAULT_CURRENT_PARKING_SPOT + "," + DEFAULT_TIME_OF_PARKING;
+        restUserExtraMockMvc
+            .perform(get(ENTITY_API_URL + "/export?format=csv"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType("text/csv;charset=UTF-8"))
+            .andExpect(content().string(startsWith("id,userId,parkingSpotId,currentParkingSpot,timeOfParking\r\n")))
+            .andExpect(content().string(containsString("\r\n" + expectedLine + "\r\n")));
+    }
+
+    @Test
+    @Transactional
+    void exportUserExtrasWithUnknownFormat() throws Exception {
+        restUserExtraMockMvc.perform(get(ENTITY_API_URL + "/export?format=xml")).andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getUserExtra() throws Exception {
@@ -207,8 +287,11 @@ class UserExtraResourceIT {
         assertThat(testUserExtra.getCurrentParkingSpot()).isEqualTo(UPDATED_CURRENT_PARKING_SPOT);
         assertThat(testUserExtra.getTimeOfParking()).isEqualTo(UPDATED_TIME_OF_PARKING);
 
-        // Validate the UserExtra in Elasticsearch
-        verify(mockUserExtraSearchRepository).save(testUserExtra);
+        // Validate the UserExtra is queued for Elasticsearch
+        verify(mockUserExtraSearchRepository, times(0)).save(testUserExtra);
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.USER_EXTRA, testUserExtra.getId(), SearchOutboxOperation.INDEX));
     }
 
     @Test
@@ -420,8 +503,11 @@ class UserExtraResourceIT {
         List<UserExtra> userExtraList = userExtraRepository.findAll();
         assertThat(userExtraList).hasSize(databaseSizeBeforeDelete - 1);
 
-        // Validate the UserExtra in Elasticsearch
-        verify(mockUserExtraSearchRepository, times(1)).deleteById(userExtra.getId());
+        // Validate the UserExtra is queued for Elasticsearch
+        verify(mockUserExtraSearchRepository, times(0)).deleteById(userExtra.getId());
+        assertThat(searchOutboxRepository.findAll())
+            .extracting(SearchOutboxEntry::getDocumentType, SearchOutboxEntry::getDocumentId, SearchOutboxEntry::getOperation)
+            .contains(tuple(SearchDocumentType.USER_EXTRA, userExtra.getId(), SearchOutboxOperation.DELETE));
     }
 
     @Test